@@ -0,0 +1,87 @@
+package com.weather.benchmarks;
+
+import com.weather.cache.CacheWrapper;
+import com.weather.cache.ClockCacheWrapper;
+import com.weather.cache.GuavaCacheWrapper;
+import com.weather.model.WeatherResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link ClockCacheWrapper} against {@link GuavaCacheWrapper} at 10k to 1M entries.
+ * <p>
+ * The {@code get} and {@code put} benchmarks run with the thread count given to JMH, for example
+ * {@code -t 1}, {@code -t 8} or {@code -t 64}. The {@code mixed} group runs 12 readers against 4 writers
+ * that keep replacing entries, a quarter of them with keys not yet in the cache, so the writers also evict.
+ * </p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class CacheWrapperComparisonBenchmark {
+
+    @Param({"guava", "clock"})
+    public String implementation;
+
+    @Param({"10000", "100000", "1000000"})
+    public int entries;
+
+    private String[] keys;
+    private final WeatherResponse value = new WeatherResponse();
+    private CacheWrapper<String, WeatherResponse> cache;
+
+    @Setup
+    public void setUp() {
+        cache = "clock".equals(implementation)
+                ? new ClockCacheWrapper<>(10, TimeUnit.MINUTES, entries)
+                : new GuavaCacheWrapper<>(10, TimeUnit.MINUTES, entries);
+        keys = new String[entries + entries / 4];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = "city-" + i;
+            if (i < entries) {
+                cache.put(keys[i], value);
+            }
+        }
+    }
+
+    @Benchmark
+    public WeatherResponse get() {
+        return cache.get(keys[ThreadLocalRandom.current().nextInt(entries)]);
+    }
+
+    @Benchmark
+    public void put() {
+        cache.put(keys[ThreadLocalRandom.current().nextInt(entries)], value);
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(12)
+    public WeatherResponse mixedGet() {
+        return cache.get(keys[ThreadLocalRandom.current().nextInt(keys.length)]);
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(4)
+    public void mixedPut() {
+        cache.put(keys[ThreadLocalRandom.current().nextInt(keys.length)], value);
+    }
+}
@@ -0,0 +1,76 @@
+package com.weather.benchmarks;
+
+import com.weather.cache.GuavaCacheWrapper;
+import com.weather.model.WeatherResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link GuavaCacheWrapper} get and put under contention.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GuavaCacheWrapperBenchmark {
+    private static final int KEYS = 16_384;
+
+    private final String[] keys = new String[KEYS];
+    private final WeatherResponse value = new WeatherResponse();
+    private GuavaCacheWrapper<String, WeatherResponse> cache;
+
+    @Setup
+    public void setUp() {
+        cache = new GuavaCacheWrapper<>(10, TimeUnit.MINUTES, KEYS);
+        for (int i = 0; i < KEYS; i++) {
+            keys[i] = "city-" + i;
+            cache.put(keys[i], value);
+        }
+    }
+
+    @Benchmark
+    @Threads(16)
+    public WeatherResponse get() {
+        return cache.get(randomKey());
+    }
+
+    @Benchmark
+    @Threads(16)
+    public void put() {
+        cache.put(randomKey(), value);
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(12)
+    public WeatherResponse mixedGet() {
+        return cache.get(randomKey());
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(4)
+    public void mixedPut() {
+        cache.put(randomKey(), value);
+    }
+
+    private String randomKey() {
+        return keys[ThreadLocalRandom.current().nextInt(KEYS)];
+    }
+}
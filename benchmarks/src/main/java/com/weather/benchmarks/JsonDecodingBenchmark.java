@@ -0,0 +1,77 @@
+package com.weather.benchmarks;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.weather.model.CityGeoResponse;
+import com.weather.model.WeatherApiResponse;
+import com.weather.model.WeatherResponse;
+import com.weather.model.WeatherResponseConverter;
+import com.weather.model.WeatherResponseDecoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of decoding realistic OpenWeather payloads, comparing Jackson data binding into
+ * {@link WeatherApiResponse} / {@link CityGeoResponse}[] with the streaming {@link WeatherResponseDecoder},
+ * as well as the cost of {@link WeatherResponseConverter#convert}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonDecodingBenchmark {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private WeatherApiResponse weatherApiResponse;
+
+    @Setup
+    public void setUp() throws IOException {
+        weatherApiResponse = objectMapper.readValue(Payloads.WEATHER, WeatherApiResponse.class);
+    }
+
+    @Benchmark
+    public WeatherApiResponse weather_DataBinding() throws IOException {
+        return objectMapper.readValue(Payloads.WEATHER, WeatherApiResponse.class);
+    }
+
+    @Benchmark
+    public WeatherResponse weather_DataBindingAndConvert() throws IOException {
+        return WeatherResponseConverter.convert(objectMapper.readValue(Payloads.WEATHER, WeatherApiResponse.class));
+    }
+
+    @Benchmark
+    public WeatherResponse weather_Streaming() throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(Payloads.WEATHER)) {
+            return WeatherResponseDecoder.decodeWeather(parser);
+        }
+    }
+
+    @Benchmark
+    public WeatherResponse convert() {
+        return WeatherResponseConverter.convert(weatherApiResponse);
+    }
+
+    @Benchmark
+    public CityGeoResponse[] geo_DataBinding() throws IOException {
+        return objectMapper.readValue(Payloads.GEO, CityGeoResponse[].class);
+    }
+
+    @Benchmark
+    public CityGeoResponse geo_Streaming() throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(Payloads.GEO)) {
+            return WeatherResponseDecoder.decodeFirstCityGeo(parser);
+        }
+    }
+}
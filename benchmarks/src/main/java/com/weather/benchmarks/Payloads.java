@@ -0,0 +1,34 @@
+package com.weather.benchmarks;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Realistic OpenWeather API payloads used by the benchmarks.
+ */
+final class Payloads {
+    static final byte[] WEATHER = ("{\"coord\":{\"lon\":-0.1276,\"lat\":51.5073},"
+            + "\"weather\":[{\"id\":803,\"main\":\"Clouds\",\"description\":\"broken clouds\",\"icon\":\"04d\"}],"
+            + "\"base\":\"stations\",\"main\":{\"temp\":288.51,\"feels_like\":287.98,\"temp_min\":287.04,"
+            + "\"temp_max\":289.82,\"pressure\":1012,\"humidity\":72,\"sea_level\":1012,\"grnd_level\":1008},"
+            + "\"visibility\":10000,\"wind\":{\"speed\":5.14,\"deg\":240,\"gust\":9.26},\"rain\":{\"1h\":0.21},"
+            + "\"clouds\":{\"all\":75},\"dt\":1726660758,\"sys\":{\"type\":2,\"id\":2075535,\"country\":\"GB\","
+            + "\"sunrise\":1726638002,\"sunset\":1726683086},\"timezone\":3600,\"id\":2643743,"
+            + "\"name\":\"London\",\"cod\":200}").getBytes(StandardCharsets.UTF_8);
+
+    static final byte[] GEO = ("[{\"name\":\"London\",\"local_names\":{\"af\":\"Londen\",\"ar\":\"لندن\","
+            + "\"be\":\"Лондан\",\"bg\":\"Лондон\",\"ca\":\"Londres\",\"cs\":\"Londýn\",\"de\":\"London\","
+            + "\"el\":\"Λονδίνο\",\"en\":\"London\",\"eo\":\"Londono\",\"es\":\"Londres\",\"fa\":\"لندن\","
+            + "\"fi\":\"Lontoo\",\"fr\":\"Londres\",\"he\":\"לונדון\",\"hi\":\"लंदन\",\"hu\":\"London\","
+            + "\"it\":\"Londra\",\"ja\":\"ロンドン\",\"ko\":\"런던\",\"lt\":\"Londonas\",\"nl\":\"Londen\","
+            + "\"pl\":\"Londyn\",\"pt\":\"Londres\",\"ru\":\"Лондон\",\"sv\":\"London\",\"tr\":\"Londra\","
+            + "\"uk\":\"Лондон\",\"zh\":\"伦敦\"},\"lat\":51.5073219,\"lon\":-0.1276474,"
+            + "\"country\":\"GB\",\"state\":\"England\"}]").getBytes(StandardCharsets.UTF_8);
+
+    static final String[] CITIES = {
+            "London", "Paris", "Berlin", "Madrid", "Rome", "Vienna", "Prague", "Warsaw", "Lisbon", "Dublin",
+            "Oslo", "Stockholm", "Helsinki", "Copenhagen", "Amsterdam", "Brussels"
+    };
+
+    private Payloads() {
+    }
+}
@@ -0,0 +1,42 @@
+package com.weather.benchmarks;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.weather.http.HttpClientWrapper;
+import com.weather.http.JsonResponseDecoder;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * An in-process {@link HttpClientWrapper} answering every request with a canned payload,
+ * so that benchmarks measure the SDK itself rather than the network.
+ */
+final class StubHttpClientWrapper implements HttpClientWrapper {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Override
+    public <T> T get(String url, Class<T> responseType) throws IOException {
+        return objectMapper.readValue(payload(url), responseType);
+    }
+
+    @Override
+    public <T> T get(String url, JsonResponseDecoder<T> decoder) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(payload(url))) {
+            return decoder.decode(parser);
+        }
+    }
+
+    @Override
+    public <T> CompletableFuture<T> getAsync(String url, JsonResponseDecoder<T> decoder) {
+        try {
+            return CompletableFuture.completedFuture(get(url, decoder));
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private static byte[] payload(String url) {
+        return url.contains("/geo/") ? Payloads.GEO : Payloads.WEATHER;
+    }
+}
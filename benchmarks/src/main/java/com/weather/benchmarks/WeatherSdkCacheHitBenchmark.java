@@ -0,0 +1,83 @@
+package com.weather.benchmarks;
+
+import com.weather.WeatherSdk;
+import com.weather.model.WeatherResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency and throughput of {@link WeatherSdk#getWeather(String)} when every lookup is a cache hit,
+ * from 1 to 64 concurrent threads.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WeatherSdkCacheHitBenchmark {
+    private WeatherSdk weatherSdk;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+
+        String nextCity() {
+            next = (next + 1) & (Payloads.CITIES.length - 1);
+            return Payloads.CITIES[next];
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        weatherSdk = WeatherSdk.builder()
+                .setApiKey("benchmark-cache-hit")
+                .setHttpClientWrapper(new StubHttpClientWrapper())
+                .setMaxCacheSize(Payloads.CITIES.length)
+                .build();
+        for (String city : Payloads.CITIES) {
+            weatherSdk.getWeather(city);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        weatherSdk.remove();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public WeatherResponse hit_1Thread(Cursor cursor) {
+        return weatherSdk.getWeather(cursor.nextCity());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public WeatherResponse hit_4Threads(Cursor cursor) {
+        return weatherSdk.getWeather(cursor.nextCity());
+    }
+
+    @Benchmark
+    @Threads(16)
+    public WeatherResponse hit_16Threads(Cursor cursor) {
+        return weatherSdk.getWeather(cursor.nextCity());
+    }
+
+    @Benchmark
+    @Threads(64)
+    public WeatherResponse hit_64Threads(Cursor cursor) {
+        return weatherSdk.getWeather(cursor.nextCity());
+    }
+}
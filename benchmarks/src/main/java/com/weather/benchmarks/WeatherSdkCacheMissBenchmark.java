@@ -0,0 +1,67 @@
+package com.weather.benchmarks;
+
+import com.weather.WeatherSdk;
+import com.weather.cache.GuavaCacheWrapper;
+import com.weather.cache.PersistentGeoCacheWrapper;
+import com.weather.model.WeatherResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end latency of a {@link WeatherSdk#getWeather(String)} cache miss against an in-process
+ * stub {@link com.weather.http.HttpClientWrapper}, with and without a geocode cache hit.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class WeatherSdkCacheMissBenchmark {
+    private static final String CITY = "London";
+
+    private WeatherSdk weatherSdk;
+    private GuavaCacheWrapper<String, WeatherResponse> cache;
+    private PersistentGeoCacheWrapper geoCache;
+
+    @Setup
+    public void setUp() {
+        cache = new GuavaCacheWrapper<>(10, TimeUnit.MINUTES, 10);
+        geoCache = new PersistentGeoCacheWrapper(10);
+        weatherSdk = WeatherSdk.builder()
+                .setApiKey("benchmark-cache-miss-" + Thread.currentThread().getId())
+                .setHttpClientWrapper(new StubHttpClientWrapper())
+                .setCache(cache)
+                .setGeoCache(geoCache)
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        weatherSdk.remove();
+    }
+
+    @Benchmark
+    public WeatherResponse miss_GeocodeCached() {
+        cache.invalidate(CITY.toLowerCase());
+        return weatherSdk.getWeather(CITY);
+    }
+
+    @Benchmark
+    public WeatherResponse miss_GeocodeUncached() {
+        cache.invalidate(CITY.toLowerCase());
+        geoCache.invalidate(CITY.toLowerCase());
+        return weatherSdk.getWeather(CITY);
+    }
+}
@@ -0,0 +1,61 @@
+package com.weather;
+
+import com.weather.apiClient.WeatherApiClient;
+import com.weather.geo.CoordinateGrid;
+import com.weather.model.CityGeoResponse;
+import com.weather.model.WeatherResponse;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Fetches the weather for a cache key, which is either a city name or a {@link CoordinateGrid} cell key.
+ * <p>
+ * Components that only know the cache key of an entry, such as the polling service and the refresh-ahead
+ * cache, refresh entries through this client, so cell-keyed entries are refreshed at the cell center.
+ * </p>
+ */
+class CacheKeyWeatherApiClient implements WeatherApiClient {
+    private final WeatherApiClient delegate;
+    private final CoordinateGrid grid;
+
+    CacheKeyWeatherApiClient(WeatherApiClient delegate, CoordinateGrid grid) {
+        this.delegate = delegate;
+        this.grid = grid;
+    }
+
+    @Override
+    public WeatherResponse getWeatherByCity(String key) throws Exception {
+        if (CoordinateGrid.isCellKey(key)) {
+            return delegate.getWeatherByCoordinates(grid.centerLatitude(key), grid.centerLongitude(key));
+        }
+        return delegate.getWeatherByCity(key);
+    }
+
+    @Override
+    public CompletableFuture<WeatherResponse> getWeatherByCityAsync(String key) {
+        if (CoordinateGrid.isCellKey(key)) {
+            return delegate.getWeatherByCoordinatesAsync(grid.centerLatitude(key), grid.centerLongitude(key));
+        }
+        return delegate.getWeatherByCityAsync(key);
+    }
+
+    @Override
+    public WeatherResponse getWeatherByCoordinates(double lat, double lon) throws Exception {
+        return delegate.getWeatherByCoordinates(lat, lon);
+    }
+
+    @Override
+    public CompletableFuture<WeatherResponse> getWeatherByCoordinatesAsync(double lat, double lon) {
+        return delegate.getWeatherByCoordinatesAsync(lat, lon);
+    }
+
+    @Override
+    public CityGeoResponse getCityGeo(String cityName) throws Exception {
+        return delegate.getCityGeo(cityName);
+    }
+
+    @Override
+    public CompletableFuture<CityGeoResponse> getCityGeoAsync(String cityName) {
+        return delegate.getCityGeoAsync(cityName);
+    }
+}
@@ -2,29 +2,214 @@ package com.weather;
 
 import com.weather.apiClient.WeatherApiClient;
 import com.weather.cache.CacheWrapper;
+import com.weather.concurrent.FrequencySketch;
+import com.weather.concurrent.TokenBucket;
+import com.weather.metrics.WeatherMetrics;
 import com.weather.model.WeatherResponse;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
 
+/**
+ * Periodically refreshes the cities in the cache.
+ * <p>
+ * Each polling cycle spreads the refreshes of all cached cities evenly across the polling interval
+ * instead of sending them in one burst. Refreshes run concurrently on a pool of worker threads,
+ * optionally limited by a global token bucket so that the number of API requests per second stays
+ * within the plan limits. A city whose refresh from the previous cycle has not finished yet is skipped.
+ * </p>
+ * <p>
+ * In adaptive mode, the access frequency of every city is tracked in a decaying {@link FrequencySketch}
+ * instead, and each city is refreshed at its own interval: cities accessed about
+ * {@value #REFERENCE_FREQUENCY} times per polling interval are refreshed once per polling interval, more
+ * frequently accessed cities up to four times as often, and rarely accessed cities down to four times less
+ * often. The count of a city is halved once per polling interval, so a city that is no longer accessed
+ * stops being refreshed after about log2 of its count polling intervals, for example after five polling
+ * intervals for a city accessed 16 times per interval, and is fetched again on demand once its cache entry
+ * expires.
+ * </p>
+ */
 public class PollingService {
+    private static final int DEFAULT_WORKER_THREADS = 1;
+    private static final int TICKS_PER_INTERVAL = 4;
+    // Accesses per polling interval of a city refreshed once per polling interval
+    private static final int REFERENCE_FREQUENCY = 4;
+    private static final int SKETCH_SIZE = 4096;
+
     private final CacheWrapper<String, WeatherResponse> cache;
     private final WeatherApiClient weatherApiClient;
     private final ScheduledExecutorService executorService;
+    private final ExecutorService workerService;
+    private final boolean ownsExecutors;
+    private final TokenBucket rateLimiter;
+    private final WeatherMetrics metrics;
+    private final Set<String> pendingRefreshes = ConcurrentHashMap.newKeySet();
+    private final FrequencySketch accessFrequencies;
+    private final Map<String, Long> lastRefreshes = new ConcurrentHashMap<>();
     private volatile boolean running = true;
-    private final int pollingInterval;
+    private final long pollingIntervalNanos;
+    private final LongSupplier nanoClock;
+    private int ticks;
+    private volatile ScheduledFuture<?> pollingTask;
 
 
     public PollingService(CacheWrapper<String, WeatherResponse> cache, WeatherApiClient weatherApiClient, int pollingInterval) {
+        this(cache, weatherApiClient, pollingInterval, DEFAULT_WORKER_THREADS, 0, WeatherMetrics.noop());
+    }
+
+    /**
+     * Creates a polling service that refreshes cities concurrently and at a limited rate.
+     *
+     * @param cache             the cache whose cities are refreshed
+     * @param weatherApiClient  the client used to fetch weather data
+     * @param pollingInterval   the polling interval in minutes
+     * @param workerThreads     the number of threads refreshing cities concurrently
+     * @param requestsPerSecond the maximum number of refreshes per second, or {@code 0} for no limit
+     * @param metrics           the metrics receiving the outcome of every refresh
+     */
+    public PollingService(CacheWrapper<String, WeatherResponse> cache, WeatherApiClient weatherApiClient,
+                          int pollingInterval, int workerThreads, double requestsPerSecond, WeatherMetrics metrics) {
+        this(cache, weatherApiClient, pollingInterval, TimeUnit.MINUTES, workerThreads, requestsPerSecond, metrics,
+                false);
+    }
+
+    /**
+     * Creates a polling service that refreshes cities concurrently, at a limited rate and optionally at
+     * intervals adapted to how often each city is accessed.
+     *
+     * @param cache             the cache whose cities are refreshed
+     * @param weatherApiClient  the client used to fetch weather data
+     * @param pollingInterval   the polling interval
+     * @param unit              the time unit of the polling interval
+     * @param workerThreads     the number of threads refreshing cities concurrently
+     * @param requestsPerSecond the maximum number of refreshes per second, or {@code 0} for no limit
+     * @param metrics           the metrics receiving the outcome of every refresh
+     * @param adaptive          {@code true} to adapt the refresh interval of each city to its access
+     *                          frequency, as reported through {@link #recordAccess(String)}
+     */
+    public PollingService(CacheWrapper<String, WeatherResponse> cache, WeatherApiClient weatherApiClient,
+                          long pollingInterval, TimeUnit unit, int workerThreads, double requestsPerSecond,
+                          WeatherMetrics metrics, boolean adaptive) {
+        this(cache, weatherApiClient, pollingInterval, unit, Executors.newFixedThreadPool(workerThreads),
+                requestsPerSecond, metrics, adaptive);
+    }
+
+    /**
+     * Creates a polling service that refreshes cities on the given executor, for example one starting a
+     * virtual thread per refresh. The executor is shut down when polling stops.
+     *
+     * @param cache             the cache whose cities are refreshed
+     * @param weatherApiClient  the client used to fetch weather data
+     * @param pollingInterval   the polling interval
+     * @param unit              the time unit of the polling interval
+     * @param workerService     the executor running the refreshes
+     * @param requestsPerSecond the maximum number of refreshes per second, or {@code 0} for no limit
+     * @param metrics           the metrics receiving the outcome of every refresh
+     * @param adaptive          {@code true} to adapt the refresh interval of each city to its access
+     *                          frequency, as reported through {@link #recordAccess(String)}
+     */
+    public PollingService(CacheWrapper<String, WeatherResponse> cache, WeatherApiClient weatherApiClient,
+                          long pollingInterval, TimeUnit unit, ExecutorService workerService,
+                          double requestsPerSecond, WeatherMetrics metrics, boolean adaptive) {
+        this(cache, weatherApiClient, pollingInterval, unit, Executors.newSingleThreadScheduledExecutor(),
+                workerService, requestsPerSecond, metrics, adaptive, true);
+    }
+
+    /**
+     * Creates a polling service that schedules and runs its refreshes on executors shared with other polling
+     * services. The executors are not shut down when polling stops. The rate limit applies to this polling
+     * service only.
+     *
+     * @param cache             the cache whose cities are refreshed
+     * @param weatherApiClient  the client used to fetch weather data
+     * @param pollingInterval   the polling interval
+     * @param unit              the time unit of the polling interval
+     * @param scheduler         the shared executor scheduling the polling cycles and refreshes
+     * @param workerService     the shared executor running the refreshes
+     * @param requestsPerSecond the maximum number of refreshes per second, or {@code 0} for no limit
+     * @param metrics           the metrics receiving the outcome of every refresh
+     * @param adaptive          {@code true} to adapt the refresh interval of each city to its access
+     *                          frequency, as reported through {@link #recordAccess(String)}
+     */
+    public PollingService(CacheWrapper<String, WeatherResponse> cache, WeatherApiClient weatherApiClient,
+                          long pollingInterval, TimeUnit unit, ScheduledExecutorService scheduler,
+                          ExecutorService workerService, double requestsPerSecond, WeatherMetrics metrics,
+                          boolean adaptive) {
+        this(cache, weatherApiClient, pollingInterval, unit, scheduler, workerService, requestsPerSecond, metrics,
+                adaptive, false);
+    }
+
+    /**
+     * Creates a polling service on shared executors that reads the time from the given clock, so that tests
+     * can drive it with a manual scheduler.
+     */
+    PollingService(CacheWrapper<String, WeatherResponse> cache, WeatherApiClient weatherApiClient,
+                   long pollingInterval, TimeUnit unit, ScheduledExecutorService scheduler,
+                   ExecutorService workerService, WeatherMetrics metrics, boolean adaptive, LongSupplier nanoClock) {
+        this(cache, weatherApiClient, pollingInterval, unit, scheduler, workerService, 0, metrics, adaptive, false,
+                nanoClock);
+    }
+
+    private PollingService(CacheWrapper<String, WeatherResponse> cache, WeatherApiClient weatherApiClient,
+                           long pollingInterval, TimeUnit unit, ScheduledExecutorService scheduler,
+                           ExecutorService workerService, double requestsPerSecond, WeatherMetrics metrics,
+                           boolean adaptive, boolean ownsExecutors) {
+        this(cache, weatherApiClient, pollingInterval, unit, scheduler, workerService, requestsPerSecond, metrics,
+                adaptive, ownsExecutors, System::nanoTime);
+    }
+
+    private PollingService(CacheWrapper<String, WeatherResponse> cache, WeatherApiClient weatherApiClient,
+                           long pollingInterval, TimeUnit unit, ScheduledExecutorService scheduler,
+                           ExecutorService workerService, double requestsPerSecond, WeatherMetrics metrics,
+                           boolean adaptive, boolean ownsExecutors, LongSupplier nanoClock) {
         this.cache = cache;
         this.weatherApiClient = weatherApiClient;
-        this.executorService = Executors.newSingleThreadScheduledExecutor();
-        this.pollingInterval = pollingInterval;
+        this.executorService = scheduler;
+        this.workerService = workerService;
+        this.ownsExecutors = ownsExecutors;
+        this.rateLimiter = requestsPerSecond > 0 ? TokenBucket.perSecond(requestsPerSecond) : null;
+        this.pollingIntervalNanos = unit.toNanos(pollingInterval);
+        this.metrics = metrics;
+        this.accessFrequencies = adaptive ? new FrequencySketch(SKETCH_SIZE) : null;
+        this.nanoClock = nanoClock;
     }
 
     public void startPolling() {
-        executorService.scheduleAtFixedRate(this::pollWeatherData, pollingInterval, pollingInterval, TimeUnit.MINUTES);
+        if (accessFrequencies != null) {
+            long tickNanos = pollingIntervalNanos / TICKS_PER_INTERVAL;
+            pollingTask = executorService.scheduleAtFixedRate(this::pollAdaptively, tickNanos, tickNanos,
+                    TimeUnit.NANOSECONDS);
+        } else {
+            pollingTask = executorService.scheduleAtFixedRate(this::pollWeatherData, pollingIntervalNanos,
+                    pollingIntervalNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Records an access to a cached city, which makes it refreshed more often in adaptive mode.
+     * Does nothing otherwise.
+     *
+     * @param city the cache key of the city
+     */
+    public void recordAccess(String city) {
+        if (accessFrequencies != null) {
+            accessFrequencies.increment(city);
+        }
+    }
+
+    public boolean isAdaptive() {
+        return accessFrequencies != null;
     }
 
     private void pollWeatherData() {
@@ -32,24 +217,134 @@ public class PollingService {
             return;
         }
         try {
-            Iterable<String> cities = cache.getAllKeys();
-            for (String city : cities) {
-                try {
-                    WeatherResponse weather = weatherApiClient.getWeatherByCity(city);
-                    cache.put(city.toLowerCase(), weather);
-                } catch (Exception ignored) {
+            List<String> cities = new ArrayList<>();
+            cache.getAllKeys().forEach(cities::add);
+            if (cities.isEmpty()) {
+                return;
+            }
+            scheduleRefreshes(cities, pollingIntervalNanos);
+        } catch (Exception ignored) {
+        }
+    }
+
+    private void pollAdaptively() {
+        if (!running) {
+            return;
+        }
+        try {
+            int ticksSinceHalving = ++ticks % TICKS_PER_INTERVAL;
+            if (ticksSinceHalving == 0) {
+                accessFrequencies.halve();
+            }
+            long now = nanoClock.getAsLong();
+            Set<String> cached = new HashSet<>();
+            List<String> due = new ArrayList<>();
+            for (String city : cache.getAllKeys()) {
+                cached.add(city);
+                long lastRefresh = lastRefreshes.computeIfAbsent(city, key -> now);
+                int frequency = accessFrequencies.frequency(city);
+                if (frequency > 0 && now - lastRefresh >= refreshIntervalNanos(frequency, ticksSinceHalving)) {
+                    // Measured from the tick scheduling the refresh, so that its spread within the tick does
+                    // not delay the next one by a whole tick
+                    lastRefreshes.put(city, now);
+                    due.add(city);
                 }
             }
+            lastRefreshes.keySet().retainAll(cached);
+            if (!due.isEmpty()) {
+                scheduleRefreshes(due, pollingIntervalNanos / TICKS_PER_INTERVAL);
+            }
         } catch (Exception ignored) {
         }
     }
 
+    /**
+     * Returns the refresh interval of a city in adaptive mode from its decayed count in the sketch.
+     * <p>
+     * The sketch is halved once per polling interval, rounding down, so the count of a city accessed a steady
+     * {@code r} times per polling interval drops to {@code r - 1} at every halving and grows back to
+     * {@code 2r - 1} until the next one. The count is therefore scaled down by the part of the polling
+     * interval elapsed since the last halving, so that it estimates {@code r} throughout, rather than making
+     * the city look up to twice as frequently accessed as it is.
+     * </p>
+     *
+     * @param frequency         the decayed count of the city, greater than zero
+     * @param ticksSinceHalving the number of ticks since the sketch was last halved
+     * @return the refresh interval in nanoseconds
+     */
+    private long refreshIntervalNanos(int frequency, int ticksSinceHalving) {
+        long scaledFrequency = ((long) frequency + 1) * TICKS_PER_INTERVAL;
+        long interval = pollingIntervalNanos / scaledFrequency * REFERENCE_FREQUENCY
+                * (TICKS_PER_INTERVAL + ticksSinceHalving);
+        long shortest = pollingIntervalNanos / TICKS_PER_INTERVAL;
+        long longest = pollingIntervalNanos * TICKS_PER_INTERVAL;
+        return Math.max(shortest, Math.min(longest, interval));
+    }
+
+    private void scheduleRefreshes(List<String> cities, long windowNanos) {
+        long spacingNanos = windowNanos / cities.size();
+        for (int i = 0; i < cities.size(); i++) {
+            String city = cities.get(i);
+            if (pendingRefreshes.add(city)) {
+                try {
+                    executorService.schedule(() -> submitRefresh(city), i * spacingNanos, TimeUnit.NANOSECONDS);
+                } catch (RejectedExecutionException e) {
+                    pendingRefreshes.remove(city);
+                }
+            }
+        }
+    }
+
+    private void submitRefresh(String city) {
+        if (!running) {
+            pendingRefreshes.remove(city);
+            return;
+        }
+        try {
+            workerService.execute(() -> refresh(city));
+        } catch (RejectedExecutionException e) {
+            pendingRefreshes.remove(city);
+        }
+    }
+
+    private void refresh(String city) {
+        try {
+            if (!running) {
+                return;
+            }
+            if (rateLimiter != null) {
+                rateLimiter.acquire();
+            }
+            WeatherResponse weather = weatherApiClient.getWeatherByCity(city);
+            cache.put(city, weather);
+            metrics.recordPollRefresh(true);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            metrics.recordPollRefresh(false);
+        } finally {
+            pendingRefreshes.remove(city);
+        }
+    }
+
+    /**
+     * Stops polling. Executors owned by this polling service are shut down, waiting for running refreshes
+     * to finish; shared executors are left running, and refreshes of this service still queued on them
+     * are skipped.
+     */
     public void stopPolling() {
         running = false;
-        executorService.shutdown();
+        if (pollingTask != null) {
+            pollingTask.cancel(false);
+        }
+        if (!ownsExecutors) {
+            return;
+        }
+        executorService.shutdownNow();
+        workerService.shutdown();
         try {
-            if (!executorService.awaitTermination(60, TimeUnit.SECONDS)) {
-                executorService.shutdownNow();
+            if (!workerService.awaitTermination(60, TimeUnit.SECONDS)) {
+                workerService.shutdownNow();
             }
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
@@ -0,0 +1,198 @@
+package com.weather;
+
+import com.weather.cache.CacheWrapper;
+import com.weather.concurrent.VirtualThreads;
+import com.weather.http.DefaultHttpClientWrapper;
+import com.weather.http.HttpClientConfig;
+import com.weather.http.HttpClientWrapper;
+import com.weather.model.CityGeoResponse;
+import com.weather.model.WeatherResponse;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Infrastructure shared by several {@link WeatherSdk} instances running in one JVM, typically one per
+ * customer API key.
+ * <p>
+ * All instances built with the same shared resources, see {@link WeatherSdk.Builder#setSharedResources},
+ * send their requests through one HTTP client and its connection pool, and run their polling on one scheduler
+ * thread and one pool of worker threads. They can also share one weather cache and one geocode cache, since
+ * weather data and city coordinates do not depend on the API key. Rate limits, single-flight coalescing and
+ * metrics stay per instance, so every API key keeps its own limits and quota accounting.
+ * </p>
+ * <p>
+ * The shared resources outlive the instances using them, and are released by {@link #close()} once all of
+ * them have been removed.
+ * </p>
+ */
+public class SharedResources implements AutoCloseable {
+    private final HttpClientWrapper httpClientWrapper;
+    private final String baseUrl;
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService workerService;
+    private final CacheWrapper<String, WeatherResponse> weatherCache;
+    private final CacheWrapper<String, CityGeoResponse> geoCache;
+
+    private SharedResources(Builder builder) {
+        this.httpClientWrapper = (builder.httpClientWrapper != null)
+                ? builder.httpClientWrapper
+                : new DefaultHttpClientWrapper(builder.httpClientConfig);
+        this.baseUrl = builder.httpClientConfig.getBaseUrl();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(daemonThreads("weather-sdk-shared-scheduler"));
+        this.workerService = builder.virtualThreads
+                ? VirtualThreads.newThreadPerTaskExecutor("weather-sdk-shared-worker")
+                : Executors.newFixedThreadPool(builder.pollingThreads, daemonThreads("weather-sdk-shared-worker"));
+        this.weatherCache = builder.weatherCache;
+        this.geoCache = builder.geoCache;
+    }
+
+    /**
+     * Creates a new builder instance for constructing a {@link SharedResources} object.
+     *
+     * @return a new instance of {@link Builder}
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    HttpClientWrapper getHttpClientWrapper() {
+        return httpClientWrapper;
+    }
+
+    String getBaseUrl() {
+        return baseUrl;
+    }
+
+    ScheduledExecutorService getScheduler() {
+        return scheduler;
+    }
+
+    ExecutorService getWorkerService() {
+        return workerService;
+    }
+
+    CacheWrapper<String, WeatherResponse> getWeatherCache() {
+        return weatherCache;
+    }
+
+    CacheWrapper<String, CityGeoResponse> getGeoCache() {
+        return geoCache;
+    }
+
+    /**
+     * Stops the shared scheduler and polling workers. Must only be called once all {@link WeatherSdk} instances
+     * using these resources have been removed.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        workerService.shutdownNow();
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Builder class for constructing instances of {@link SharedResources}.
+     */
+    public static class Builder {
+        private static final int DEFAULT_POLLING_THREADS = 16;
+        private HttpClientConfig httpClientConfig = HttpClientConfig.defaults();
+        private HttpClientWrapper httpClientWrapper = null;
+        private int pollingThreads = DEFAULT_POLLING_THREADS;
+        private boolean virtualThreads = false;
+        private CacheWrapper<String, WeatherResponse> weatherCache = null;
+        private CacheWrapper<String, CityGeoResponse> geoCache = null;
+
+        /**
+         * Sets the configuration of the shared HTTP client, including the base URL of the OpenWeather API.
+         *
+         * @param httpClientConfig the HTTP client configuration
+         * @return the builder instance for method chaining
+         */
+        public Builder setHttpClientConfig(HttpClientConfig httpClientConfig) {
+            this.httpClientConfig = httpClientConfig;
+            return this;
+        }
+
+        /**
+         * Sets a custom HTTP client implementation shared by all instances.
+         * When set, the HTTP client configuration is only used for its base URL.
+         *
+         * @param httpClientWrapper a custom implementation of {@link HttpClientWrapper}
+         * @return the builder instance for method chaining
+         */
+        public Builder setHttpClientWrapper(HttpClientWrapper httpClientWrapper) {
+            this.httpClientWrapper = httpClientWrapper;
+            return this;
+        }
+
+        /**
+         * Sets the number of worker threads refreshing cities for all instances in polling mode.
+         * Defaults to 16. Ignored in virtual-thread mode.
+         *
+         * @param pollingThreads the number of shared polling threads
+         * @return the builder instance for method chaining
+         */
+        public Builder setPollingThreads(int pollingThreads) {
+            this.pollingThreads = pollingThreads;
+            return this;
+        }
+
+        /**
+         * Runs the polling refreshes of all instances on virtual threads, see {@link VirtualThreads}.
+         *
+         * @param virtualThreads {@code true} to start a virtual thread per refresh
+         * @return the builder instance for method chaining
+         */
+        public Builder setVirtualThreads(boolean virtualThreads) {
+            this.virtualThreads = virtualThreads;
+            return this;
+        }
+
+        /**
+         * Sets a weather cache shared by all instances, keyed like the cache of a single instance.
+         * A city fetched with one API key is then served from the cache to all of them. In polling mode,
+         * every instance refreshes only the cities it requested itself, as in adaptive polling.
+         * If not set, every instance has its own weather cache.
+         *
+         * @param weatherCache the shared weather cache
+         * @return the builder instance for method chaining
+         */
+        public Builder setWeatherCache(CacheWrapper<String, WeatherResponse> weatherCache) {
+            this.weatherCache = weatherCache;
+            return this;
+        }
+
+        /**
+         * Sets a geocode cache shared by all instances, keyed by lowercase city name.
+         * If not set, every instance has its own geocode cache.
+         *
+         * @param geoCache the shared geocode cache
+         * @return the builder instance for method chaining
+         */
+        public Builder setGeoCache(CacheWrapper<String, CityGeoResponse> geoCache) {
+            this.geoCache = geoCache;
+            return this;
+        }
+
+        /**
+         * Builds and returns an instance of {@link SharedResources}.
+         *
+         * @return a new instance of {@link SharedResources}
+         */
+        public SharedResources build() {
+            return new SharedResources(this);
+        }
+    }
+}
@@ -1,17 +1,64 @@
 package com.weather;
 
+import com.weather.apiClient.BatchingWeatherApiClient;
 import com.weather.apiClient.DefaultWeatherApiClient;
 import com.weather.apiClient.WeatherApiClient;
 import com.weather.cache.CacheWrapper;
+import com.weather.cache.CityKey;
+import com.weather.cache.CompactingCacheWrapper;
 import com.weather.cache.GuavaCacheWrapper;
+import com.weather.cache.NegativeCache;
+import com.weather.cache.OffHeapCacheWrapper;
+import com.weather.cache.PersistentGeoCacheWrapper;
+import com.weather.cache.PublishingCacheWrapper;
+import com.weather.cache.RefreshAheadCacheWrapper;
+import com.weather.cache.SharedCacheStore;
+import com.weather.cache.SnapshotCacheWrapper;
+import com.weather.cache.StaleCacheWrapper;
+import com.weather.cache.TieredCacheWrapper;
+import com.weather.cache.UpdateThresholds;
+import com.weather.concurrent.SingleFlight;
+import com.weather.concurrent.VirtualThreads;
+import com.weather.exception.CircuitOpenException;
+import com.weather.exception.CityNotFoundException;
+import com.weather.exception.RateLimitExceededException;
 import com.weather.exception.WeatherApiException;
+import com.weather.geo.CoordinateGrid;
 import com.weather.http.DefaultHttpClientWrapper;
+import com.weather.http.HttpClientConfig;
 import com.weather.http.HttpClientWrapper;
+import com.weather.http.RateLimitConfig;
+import com.weather.http.RateLimitedHttpClientWrapper;
+import com.weather.http.ResilienceConfig;
+import com.weather.http.ResilientHttpClientWrapper;
+import com.weather.metrics.DefaultWeatherMetrics;
+import com.weather.metrics.WeatherMetrics;
+import com.weather.model.CityGeoResponse;
 import com.weather.model.WeatherResponse;
+import com.weather.model.WeatherUpdate;
 
-import java.util.HashMap;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 /**
  * The {@code WeatherSdk} provides an interface for retrieving weather data from the OpenWeather API.
@@ -19,7 +66,8 @@ import java.util.concurrent.TimeUnit;
  * or automatically refresh it at specified intervals.
  * <p>
  * The SDK ensures that only one instance per API key can exist at a time, preventing duplicate
- * configurations and ensuring efficient resource management.
+ * configurations and ensuring efficient resource management. Instances for many API keys can run in
+ * one JVM concurrently, and share their HTTP client, polling threads and caches through {@link SharedResources}.
  * <p>
  * Additionally, users can customize caching settings by providing their own cache implementation
  * via {@link CacheWrapper} or configuring cache expiration and size limits.
@@ -28,31 +76,187 @@ import java.util.concurrent.TimeUnit;
  * full control over network requests.
  */
 public class WeatherSdk {
-    private static final Map<String, WeatherSdk> sdkMap = new HashMap<>();
+    private static final Map<String, WeatherSdk> sdkMap = new ConcurrentHashMap<>();
+    private static final Set<String> apiKeysBeingBuilt = ConcurrentHashMap.newKeySet();
+    private static final int UNKNOWN_CITY_ADMISSION_THRESHOLD = 2;
+    private static final Duration DEFAULT_STALE_RETENTION = Duration.ofHours(24);
     private final String apiKey;
     private final boolean pollingMode;
     private final int pollingIntervalMinutes;
     private final int cacheValidityMinutes;
+    private final int cacheRefreshAfterMinutes;
     private final int maxCacheSize;
+    private final int coalescingTimeoutSeconds;
+    private final int maxConcurrentRequests;
     private final CacheWrapper<String, WeatherResponse> cache;
+    private final CacheWrapper<String, CityGeoResponse> geoCache;
     private final HttpClientWrapper httpClientWrapper;
     private final WeatherApiClient weatherApiClient;
+    private final WeatherApiClient cacheKeyApiClient;
+    private final CoordinateGrid grid;
+    private final boolean gridKeyedCityLookups;
+    private final WeatherMetrics metrics;
+    private final SingleFlight<String, WeatherResponse> singleFlight = new SingleFlight<>();
+    private final SnapshotCacheWrapper snapshotCache;
+    private final ScheduledExecutorService snapshotService;
+    private final ExecutorService blockingExecutor;
+    private final boolean sharedCache;
+    private final CacheWrapper<String, WeatherResponse> storageCache;
+    private final StaleCacheWrapper<String, WeatherResponse> staleCache;
+    private final PublishingCacheWrapper updates;
+    private final ExecutorService updateExecutor;
+    private final RateLimitedHttpClientWrapper rateLimiter;
+    private final ResilientHttpClientWrapper resilience;
+    private final boolean staleOnRateLimit;
+    private final boolean staleOnOpenCircuit;
     private PollingService pollingService;
 
-    private WeatherSdk(Builder builder) {
+    /**
+     * Constructs an instance, adding every resource it creates to {@code created}, so that the builder can
+     * release them if the constructor fails halfway.
+     */
+    private WeatherSdk(Builder builder, List<AutoCloseable> created) {
         this.apiKey = builder.apiKey;
         this.pollingMode = builder.pollingMode;
         this.pollingIntervalMinutes = builder.pollingIntervalMinutes;
-        this.httpClientWrapper = builder.httpClientWrapper;
+        SharedResources shared = builder.sharedResources;
+        HttpClientWrapper http;
+        if (builder.httpClientWrapper != null) {
+            http = builder.httpClientWrapper;
+        } else if (shared != null) {
+            http = shared.getHttpClientWrapper();
+        } else {
+            DefaultHttpClientWrapper defaultHttp = new DefaultHttpClientWrapper(builder.httpClientConfig);
+            created.add(defaultHttp);
+            http = defaultHttp;
+        }
+        this.rateLimiter = (builder.rateLimitConfig != null)
+                ? new RateLimitedHttpClientWrapper(http, builder.rateLimitConfig)
+                : null;
+        if (rateLimiter != null) {
+            http = rateLimiter;
+        }
+        this.resilience = (builder.resilienceConfig != null)
+                ? new ResilientHttpClientWrapper(http, builder.resilienceConfig)
+                : null;
+        this.httpClientWrapper = (resilience != null) ? resilience : http;
         this.cacheValidityMinutes = builder.cacheValidityMinutes;
         this.maxCacheSize = builder.maxCacheSize;
-        this.cache = (builder.cache != null)
-                ? builder.cache
-                : new GuavaCacheWrapper<>(cacheValidityMinutes, TimeUnit.MINUTES, maxCacheSize);
+        this.coalescingTimeoutSeconds = builder.coalescingTimeoutSeconds;
+        this.maxConcurrentRequests = builder.maxConcurrentRequests;
+        this.cacheRefreshAfterMinutes = builder.cacheRefreshAfterMinutes;
+        if (builder.geoCache != null) {
+            this.geoCache = builder.geoCache;
+        } else if (shared != null && shared.getGeoCache() != null) {
+            this.geoCache = shared.getGeoCache();
+        } else {
+            this.geoCache = new PersistentGeoCacheWrapper(builder.geoCacheSize, builder.geoCacheFile);
+        }
 
-        this.weatherApiClient = new DefaultWeatherApiClient(apiKey, httpClientWrapper);
-        this.pollingService = pollingMode ? new PollingService(cache, weatherApiClient, pollingIntervalMinutes) : null;
+        this.metrics = (builder.metrics != null) ? builder.metrics : new DefaultWeatherMetrics();
+        NegativeCache unknownCities = (builder.unknownCityCacheSeconds > 0)
+                ? new NegativeCache(builder.unknownCityCacheSeconds, TimeUnit.SECONDS, builder.unknownCityCacheSize,
+                UNKNOWN_CITY_ADMISSION_THRESHOLD)
+                : null;
+        DefaultWeatherApiClient defaultApiClient = new DefaultWeatherApiClient(apiKey, httpClientWrapper, geoCache,
+                metrics, (shared != null) ? shared.getBaseUrl() : builder.httpClientConfig.getBaseUrl(), unknownCities);
+        this.weatherApiClient = (builder.requestBatchSize > 0)
+                ? new BatchingWeatherApiClient(defaultApiClient, builder.requestBatchSize,
+                builder.requestBatchWindowMillis, TimeUnit.MILLISECONDS)
+                : defaultApiClient;
+        this.grid = new CoordinateGrid(builder.coordinateGridDegrees);
+        this.gridKeyedCityLookups = builder.gridKeyedCityLookups;
+        this.cacheKeyApiClient = new CacheKeyWeatherApiClient(weatherApiClient, grid);
+        CacheWrapper<String, WeatherResponse> weatherCache;
+        this.sharedCache = builder.cache == null && shared != null && shared.getWeatherCache() != null;
+        if (builder.cache != null) {
+            weatherCache = builder.cache;
+        } else if (sharedCache) {
+            weatherCache = shared.getWeatherCache();
+        } else if (builder.sharedCacheStore != null) {
+            weatherCache = new TieredCacheWrapper(
+                    new GuavaCacheWrapper<>(builder.localCacheValiditySeconds, TimeUnit.SECONDS, maxCacheSize),
+                    builder.sharedCacheStore, cacheValidityMinutes, TimeUnit.MINUTES);
+        } else if (cacheRefreshAfterMinutes > 0) {
+            weatherCache = new RefreshAheadCacheWrapper(cacheKeyApiClient, cacheRefreshAfterMinutes,
+                    cacheValidityMinutes, TimeUnit.MINUTES, maxCacheSize);
+        } else if (builder.compactCacheEntries) {
+            weatherCache = new CompactingCacheWrapper(
+                    new GuavaCacheWrapper<>(cacheValidityMinutes, TimeUnit.MINUTES, maxCacheSize));
+        } else {
+            weatherCache = new GuavaCacheWrapper<>(cacheValidityMinutes, TimeUnit.MINUTES, maxCacheSize);
+        }
+        this.storageCache = weatherCache;
+        this.staleOnRateLimit = builder.rateLimitConfig != null
+                && builder.rateLimitConfig.getExhaustedPolicy() == RateLimitConfig.ExhaustedPolicy.SERVE_STALE;
+        this.staleOnOpenCircuit = builder.resilienceConfig != null
+                && builder.resilienceConfig.isServeStaleWhenOpen();
+        if (staleOnRateLimit || staleOnOpenCircuit) {
+            Duration staleRetention = (builder.rateLimitConfig != null)
+                    ? builder.rateLimitConfig.getStaleRetention()
+                    : DEFAULT_STALE_RETENTION;
+            CacheWrapper<String, WeatherResponse> retained;
+            if (weatherCache instanceof CompactingCacheWrapper) {
+                // Retains stale values as compactly as fresh ones
+                retained = new CompactingCacheWrapper(new GuavaCacheWrapper<>(staleRetention.toMillis(),
+                        TimeUnit.MILLISECONDS, maxCacheSize));
+            } else {
+                retained = new GuavaCacheWrapper<>(staleRetention.toMillis(), TimeUnit.MILLISECONDS, maxCacheSize);
+            }
+            this.staleCache = new StaleCacheWrapper<>(weatherCache, retained);
+            weatherCache = staleCache;
+        } else {
+            this.staleCache = null;
+        }
+        if (builder.cacheSnapshotFile != null) {
+            this.snapshotCache = new SnapshotCacheWrapper(weatherCache, cacheValidityMinutes, TimeUnit.MINUTES,
+                    builder.cacheSnapshotFile);
+            this.snapshotCache.load();
+            weatherCache = snapshotCache;
+            this.snapshotService = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "weather-sdk-snapshot");
+                thread.setDaemon(true);
+                return thread;
+            });
+            created.add(snapshotService::shutdownNow);
+            snapshotService.scheduleWithFixedDelay(this::saveSnapshot, builder.cacheSnapshotIntervalMinutes,
+                    builder.cacheSnapshotIntervalMinutes, TimeUnit.MINUTES);
+        } else {
+            this.snapshotCache = null;
+            this.snapshotService = null;
+        }
+        this.updateExecutor = (builder.updateExecutor == null)
+                ? VirtualThreads.newThreadPerTaskExecutor("weather-sdk-updates")
+                : null;
+        if (updateExecutor != null) {
+            created.add(updateExecutor::shutdownNow);
+        }
+        this.updates = new PublishingCacheWrapper(weatherCache, builder.updateThresholds,
+                (updateExecutor != null) ? updateExecutor : builder.updateExecutor, builder.updateBufferSize);
+        this.cache = updates;
+        this.blockingExecutor = builder.virtualThreads
+                ? VirtualThreads.newThreadPerTaskExecutor("weather-sdk-fetch")
+                : null;
+        if (blockingExecutor != null) {
+            created.add(blockingExecutor::shutdownNow);
+        }
+        if (!pollingMode) {
+            this.pollingService = null;
+        } else if (shared != null) {
+            this.pollingService = new PollingService(cache, cacheKeyApiClient, pollingIntervalMinutes,
+                    TimeUnit.MINUTES, shared.getScheduler(), shared.getWorkerService(),
+                    builder.pollingRequestsPerSecond, metrics, builder.adaptivePolling || sharedCache);
+        } else if (builder.virtualThreads) {
+            this.pollingService = new PollingService(cache, cacheKeyApiClient, pollingIntervalMinutes,
+                    TimeUnit.MINUTES, VirtualThreads.newThreadPerTaskExecutor("weather-sdk-poll"),
+                    builder.pollingRequestsPerSecond, metrics, builder.adaptivePolling);
+        } else {
+            this.pollingService = new PollingService(cache, cacheKeyApiClient, pollingIntervalMinutes,
+                    TimeUnit.MINUTES, builder.pollingThreads, builder.pollingRequestsPerSecond, metrics,
+                    builder.adaptivePolling);
+        }
         if (pollingService != null) {
+            created.add(pollingService::stopPolling);
             pollingService.startPolling();
         }
     }
@@ -70,38 +274,430 @@ public class WeatherSdk {
      * Retrieves weather data for a specified city.
      * If the data is available in the cache, it is returned immediately.
      * Otherwise, a request is made to the OpenWeather API.
+     * <p>
+     * Concurrent cache misses for the same city are coalesced: only one request per city is sent
+     * to the API, and the other callers wait for its result.
+     * </p>
+     * <p>
+     * When grid-keyed city lookups are enabled, the city is first resolved to its coordinates through the
+     * geocode cache, and shares the cache entry of their grid cell with coordinate lookups.
+     * </p>
      *
      * @param cityName the name of the city
      * @return a {@link WeatherResponse} containing the weather data
-     * @throws WeatherApiException if the API request fails
+     * @throws IllegalArgumentException if the city name starts with {@code @}, which is reserved for grid cell keys
+     * @throws WeatherApiException      if the API request fails
      */
     public WeatherResponse getWeather(String cityName) throws WeatherApiException {
+        checkCityName(cityName);
+        try {
+            return getWeather(cacheKey(cityName), cityName);
+        } catch (WeatherApiException e) {
+            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new WeatherApiException("Interrupted while fetching weather data");
+        } catch (Exception ex) {
+            throw new WeatherApiException(ex.getMessage());
+        }
+    }
+
+    /**
+     * Retrieves weather data for the given coordinates.
+     * <p>
+     * The coordinates are snapped to a grid cell, see {@link Builder#setCoordinateGridDegrees(double)}, and all
+     * coordinates within a cell share one cache entry, holding the weather at the cell center. Concurrent cache
+     * misses for the same cell are coalesced into one API request.
+     * </p>
+     *
+     * @param lat the latitude in degrees, between -90 and 90
+     * @param lon the longitude in degrees, between -180 and 180
+     * @return a {@link WeatherResponse} containing the weather data
+     * @throws IllegalArgumentException if the coordinates are out of range
+     * @throws WeatherApiException      if the API request fails
+     */
+    public WeatherResponse getWeather(double lat, double lon) throws WeatherApiException {
+        String key = grid.cellKey(lat, lon);
+        try {
+            return getWeather(key, key);
+        } catch (WeatherApiException e) {
+            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new WeatherApiException("Interrupted while fetching weather data");
+        } catch (Exception ex) {
+            throw new WeatherApiException(ex.getMessage());
+        }
+    }
+
+    private WeatherResponse getWeather(String key, String cityName) throws Exception {
+        recordAccess(key);
+        WeatherResponse cachedData = cache.get(key);
+        if (cachedData != null) {
+            metrics.recordCacheHit();
+            return cachedData;
+        }
+        metrics.recordCacheMiss();
+        try {
+            return singleFlight.execute(key, () -> fetchAndCache(key, cityName),
+                    coalescingTimeoutSeconds, TimeUnit.SECONDS);
+        } catch (WeatherApiException e) {
+            WeatherResponse staleData = getStale(key, e);
+            if (staleData != null) {
+                return staleData;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Retrieves weather data for a specified city without blocking the calling thread.
+     * If the data is available in the cache, an already completed future is returned.
+     * Otherwise, the OpenWeather API is queried asynchronously, and concurrent requests
+     * for the same city share a single API call.
+     * <p>
+     * When grid-keyed city lookups are enabled and the city is not in the geocode cache yet, the city is
+     * geocoded asynchronously as well before its cache entry is looked up.
+     * </p>
+     *
+     * @param cityName the name of the city
+     * @return a future completed with the {@link WeatherResponse}, or completed exceptionally
+     * with a {@link WeatherApiException} if the API request fails
+     * @throws IllegalArgumentException if the city name starts with {@code @}, which is reserved for grid cell keys
+     */
+    public CompletableFuture<WeatherResponse> getWeatherAsync(String cityName) {
+        checkCityName(cityName);
+        if (!gridKeyedCityLookups) {
+            return getWeatherAsync(CityKey.of(cityName).getKey(), cityName);
+        }
+        return cellKeyAsync(cityName).thenCompose(key -> getWeatherAsync(key, cityName));
+    }
+
+    /**
+     * Retrieves weather data for the given coordinates without blocking the calling thread.
+     *
+     * @param lat the latitude in degrees, between -90 and 90
+     * @param lon the longitude in degrees, between -180 and 180
+     * @return a future completed with the {@link WeatherResponse}, or completed exceptionally
+     * with a {@link WeatherApiException} if the API request fails
+     * @throws IllegalArgumentException if the coordinates are out of range
+     * @see #getWeather(double, double)
+     */
+    public CompletableFuture<WeatherResponse> getWeatherAsync(double lat, double lon) {
+        String key = grid.cellKey(lat, lon);
+        return getWeatherAsync(key, key);
+    }
+
+    private CompletableFuture<WeatherResponse> getWeatherAsync(String key, String cityName) {
+        recordAccess(key);
+        WeatherResponse cachedData = cache.get(key);
+        if (cachedData != null) {
+            metrics.recordCacheHit();
+            return CompletableFuture.completedFuture(cachedData);
+        }
+        metrics.recordCacheMiss();
+        CompletableFuture<WeatherResponse> result = new CompletableFuture<>();
+        singleFlight.executeAsync(key, () -> fetchAndCacheAsync(key, cityName),
+                        coalescingTimeoutSeconds, TimeUnit.SECONDS)
+                .whenComplete((response, failure) -> {
+                    if (failure == null) {
+                        result.complete(response);
+                        return;
+                    }
+                    WeatherApiException exception = toWeatherApiException(failure);
+                    WeatherResponse staleData = getStale(key, exception);
+                    if (staleData != null) {
+                        result.complete(staleData);
+                    } else {
+                        result.completeExceptionally(exception);
+                    }
+                });
+        return result;
+    }
+
+    /**
+     * Retrieves weather data for several cities at once.
+     * <p>
+     * Cities found in the cache are served immediately. The remaining cities are fetched in parallel,
+     * with at most {@link #getMaxConcurrentRequests()} API requests in flight at a time, so the call takes
+     * about as long as the slowest single fetch. Cities that fail are left out of the result.
+     * </p>
+     * <p>
+     * In virtual-thread mode, see {@link Builder#setVirtualThreads(boolean)}, each fetch is a blocking lookup
+     * running on its own virtual thread.
+     * </p>
+     *
+     * @param cityNames the names of the cities
+     * @return the weather data of every city that was retrieved successfully, keyed by city name
+     * as given, in iteration order of {@code cityNames}
+     * @throws IllegalArgumentException if a city name starts with {@code @}, which is reserved for grid cell keys;
+     *                                  no city is fetched then
+     * @throws WeatherApiException      if the calling thread is interrupted while waiting for the results
+     */
+    public Map<String, WeatherResponse> getWeather(Collection<String> cityNames) throws WeatherApiException {
+        return getWeather(cityNames, (cityName, failure) -> {
+        });
+    }
+
+    /**
+     * Retrieves weather data for several cities at once, reporting the failure of each city
+     * that could not be retrieved without discarding the successful results.
+     *
+     * @param cityNames the names of the cities
+     * @param onFailure called with the city name and the failure for every city that could not be retrieved
+     * @return the weather data of every city that was retrieved successfully, keyed by city name
+     * as given, in iteration order of {@code cityNames}
+     * @throws IllegalArgumentException if a city name starts with {@code @}, which is reserved for grid cell keys;
+     *                                  no city is fetched then
+     * @throws WeatherApiException      if the calling thread is interrupted while waiting for the results
+     * @see #getWeather(Collection)
+     */
+    public Map<String, WeatherResponse> getWeather(Collection<String> cityNames,
+                                                   BiConsumer<String, WeatherApiException> onFailure)
+            throws WeatherApiException {
+        cityNames.forEach(WeatherSdk::checkCityName);
+        Map<String, CompletableFuture<WeatherResponse>> pending = new LinkedHashMap<>();
+        Semaphore permits = new Semaphore(maxConcurrentRequests);
         try {
-            String key = cityName.toLowerCase();
-            WeatherResponse cachedData = cache.get(key);
-            if (cachedData != null) {
-                return cachedData;
+            for (String cityName : cityNames) {
+                if (pending.containsKey(cityName)) {
+                    continue;
+                }
+                String key = gridKeyedCityLookups ? null : CityKey.of(cityName).getKey();
+                WeatherResponse cachedData = (key != null) ? cache.get(key) : null;
+                if (cachedData != null) {
+                    recordAccess(key);
+                    metrics.recordCacheHit();
+                    pending.put(cityName, CompletableFuture.completedFuture(cachedData));
+                    continue;
+                }
+                permits.acquire();
+                CompletableFuture<WeatherResponse> future = (blockingExecutor != null)
+                        ? getWeatherBlocking(cityName)
+                        : getWeatherAsync(cityName);
+                future.whenComplete((response, failure) -> permits.release());
+                pending.put(cityName, future);
             }
-            WeatherResponse response = weatherApiClient.getWeatherByCity(cityName);
-            cache.put(key, response);
-            return response;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new WeatherApiException("Interrupted while fetching weather data");
+        }
+        Map<String, WeatherResponse> results = new LinkedHashMap<>();
+        for (Map.Entry<String, CompletableFuture<WeatherResponse>> entry : pending.entrySet()) {
+            try {
+                results.put(entry.getKey(), entry.getValue().join());
+            } catch (CompletionException e) {
+                onFailure.accept(entry.getKey(), toWeatherApiException(e));
+            }
+        }
+        return results;
+    }
+
+    private CompletableFuture<WeatherResponse> getWeatherBlocking(String cityName) {
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    return getWeather(cityName);
+                } catch (WeatherApiException e) {
+                    throw new CompletionException(e);
+                }
+            }, blockingExecutor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(new WeatherApiException("SDK instance has been removed"));
+        }
+    }
+
+    private CompletableFuture<WeatherResponse> fetchAndCacheAsync(String key, String cityName) {
+        WeatherResponse cachedData = cache.get(key);
+        if (cachedData != null) {
+            return CompletableFuture.completedFuture(cachedData);
+        }
+        return cacheKeyApiClient.getWeatherByCityAsync(CoordinateGrid.isCellKey(key) ? key : cityName)
+                .thenApply(response -> {
+                    cache.put(key, response);
+                    return response;
+                });
+    }
+
+    private static WeatherApiException toWeatherApiException(Throwable failure) {
+        Throwable cause = (failure instanceof CompletionException && failure.getCause() != null)
+                ? failure.getCause()
+                : failure;
+        if (cause instanceof WeatherApiException) {
+            return (WeatherApiException) cause;
+        }
+        if (cause instanceof TimeoutException) {
+            return new WeatherApiException("Timed out waiting for in-flight request");
+        }
+        return new WeatherApiException(cause.getMessage());
+    }
+
+    private WeatherResponse fetchAndCache(String key, String cityName) throws Exception {
+        WeatherResponse cachedData = cache.get(key);
+        if (cachedData != null) {
+            return cachedData;
+        }
+        WeatherResponse response = cacheKeyApiClient.getWeatherByCity(CoordinateGrid.isCellKey(key) ? key : cityName);
+        cache.put(key, response);
+        return response;
+    }
+
+    /**
+     * Returns the last known weather data for a key if the failure is one that stale data may answer.
+     */
+    private WeatherResponse getStale(String key, WeatherApiException failure) {
+        boolean servable = (staleOnRateLimit && failure instanceof RateLimitExceededException)
+                || (staleOnOpenCircuit && failure instanceof CircuitOpenException);
+        return servable ? staleCache.getStale(key) : null;
+    }
+
+    private void recordAccess(String key) {
+        if (pollingService != null) {
+            pollingService.recordAccess(key);
+        }
+    }
+
+    private String cacheKey(String cityName) throws Exception {
+        if (!gridKeyedCityLookups) {
+            return CityKey.of(cityName).getKey();
+        }
+        CityGeoResponse cityGeo = weatherApiClient.getCityGeo(cityName);
+        return grid.cellKey(cityGeo.getLat(), cityGeo.getLon());
+    }
+
+    /**
+     * Rejects city names that would be taken for grid cell keys, which share the key space of the cache.
+     */
+    private static void checkCityName(String cityName) {
+        if (CoordinateGrid.isCellKey(cityName)) {
+            throw new IllegalArgumentException("City name must not start with '@': " + cityName);
+        }
+    }
+
+    private CompletableFuture<String> cellKeyAsync(String cityName) {
+        return weatherApiClient.getCityGeoAsync(cityName).handle((cityGeo, failure) -> {
+            if (failure != null) {
+                throw new CompletionException(toWeatherApiException(failure));
+            }
+            return grid.cellKey(cityGeo.getLat(), cityGeo.getLon());
+        });
+    }
+
+    /**
+     * Returns the publisher of the weather updates of a city.
+     * <p>
+     * An update is published whenever the weather of the city is refreshed, by the polling service or by a
+     * lookup after its cache entry expired, and differs from the weather last published by one of the
+     * {@link Builder#setUpdateThresholds(UpdateThresholds) update thresholds}. Subscribers request updates
+     * at their own pace; see {@link PublishingCacheWrapper} for the buffering. Subscriptions complete when
+     * this instance is removed. If the city is not cached yet when a subscriber subscribes, it is fetched,
+     * and its weather is published as the first update.
+     * </p>
+     *
+     * @param cityName the name of the city
+     * @return the publisher of the updates of the city
+     * @throws IllegalArgumentException if the city name starts with {@code @}, which is reserved for grid cell keys
+     * @throws WeatherApiException      if grid-keyed city lookups are enabled and the city cannot be geocoded
+     * @throws IllegalStateException    if this instance has been removed
+     */
+    public Flow.Publisher<WeatherUpdate> getUpdates(String cityName) throws WeatherApiException {
+        String key = updateKey(cityName);
+        Flow.Publisher<WeatherUpdate> publisher = updates.getPublisher(key);
+        return subscriber -> {
+            publisher.subscribe(subscriber);
+            fetchForUpdates(key, cityName);
+        };
+    }
+
+    /**
+     * Subscribes a listener to the weather updates of a city, which receives the updates one at a time.
+     * A listener that throws an exception is unsubscribed.
+     *
+     * @param cityName the name of the city
+     * @param listener the listener receiving the updates
+     * @return the subscription, which stops the updates when cancelled
+     * @throws IllegalArgumentException if the city name starts with {@code @}, which is reserved for grid cell keys
+     * @throws WeatherApiException      if grid-keyed city lookups are enabled and the city cannot be geocoded
+     * @throws IllegalStateException    if this instance has been removed
+     * @see #getUpdates(String)
+     */
+    public Flow.Subscription subscribe(String cityName, Consumer<WeatherUpdate> listener)
+            throws WeatherApiException {
+        String key = updateKey(cityName);
+        Flow.Subscription subscription = updates.subscribe(key, listener);
+        fetchForUpdates(key, cityName);
+        return subscription;
+    }
+
+    private String updateKey(String cityName) throws WeatherApiException {
+        checkCityName(cityName);
+        try {
+            return cacheKey(cityName);
         } catch (WeatherApiException e) {
             throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new WeatherApiException("Interrupted while fetching weather data");
         } catch (Exception ex) {
             throw new WeatherApiException(ex.getMessage());
         }
     }
 
+    /**
+     * Caches the city if it is not cached yet, so that it is refreshed, and published, from then on.
+     * A failure is not reported: the city is fetched again on its next lookup.
+     */
+    private void fetchForUpdates(String key, String cityName) {
+        getWeatherAsync(key, cityName);
+    }
+
     /**
      * Removes the current instance of {@link WeatherSdk} from the global SDK map.
-     * Stops the polling service (if active) and invalidates the cache.
+     * Stops the polling service (if active), saves the cache snapshot (if configured) and invalidates the cache,
+     * unless it is a file-backed {@link OffHeapCacheWrapper}, which is flushed to its file instead, or a cache
+     * shared through {@link SharedResources}, which is kept for the other instances.
+     * The geocode cache is kept, and compacted to its file if it is persistent.
      */
     public void remove() {
         if (pollingService != null) {
             pollingService.stopPolling();
         }
-        cache.invalidateCache();
-        sdkMap.remove(apiKey);
+        if (blockingExecutor != null) {
+            blockingExecutor.shutdown();
+        }
+        if (snapshotService != null) {
+            snapshotService.shutdown();
+            saveSnapshot();
+        }
+        updates.close();
+        if (updateExecutor != null) {
+            updateExecutor.shutdown();
+        }
+        if (storageCache instanceof OffHeapCacheWrapper && ((OffHeapCacheWrapper) storageCache).isPersistent()) {
+            ((OffHeapCacheWrapper) storageCache).flush();
+        } else if (!sharedCache) {
+            cache.invalidateCache();
+        }
+        if (geoCache instanceof PersistentGeoCacheWrapper) {
+            saveGeoCache((PersistentGeoCacheWrapper) geoCache);
+        }
+        sdkMap.remove(apiKey, this);
+    }
+
+    private static void saveGeoCache(PersistentGeoCacheWrapper geoCache) {
+        try {
+            geoCache.save();
+        } catch (RuntimeException ignored) {
+            // Geocoding results are also appended as they are cached, so at worst the file is not compacted
+        }
+    }
+
+    private void saveSnapshot() {
+        try {
+            snapshotCache.save();
+        } catch (RuntimeException ignored) {
+            // Snapshots are best effort; the next one is attempted at the next interval
+        }
     }
 
     public String getApiKey() {
@@ -124,6 +720,80 @@ public class WeatherSdk {
         return maxCacheSize;
     }
 
+    public int getCacheRefreshAfterMinutes() {
+        return cacheRefreshAfterMinutes;
+    }
+
+    public int getCoalescingTimeoutSeconds() {
+        return coalescingTimeoutSeconds;
+    }
+
+    public int getMaxConcurrentRequests() {
+        return maxConcurrentRequests;
+    }
+
+    public double getCoordinateGridDegrees() {
+        return grid.getCellDegrees();
+    }
+
+    public boolean isGridKeyedCityLookups() {
+        return gridKeyedCityLookups;
+    }
+
+    public boolean isVirtualThreads() {
+        return blockingExecutor != null;
+    }
+
+    /**
+     * Returns the client-side rate limiter, which reports the remaining request budget and the number of
+     * requests sent per call type.
+     *
+     * @return the rate limiter, or {@code null} if no rate limit is configured
+     */
+    public RateLimitedHttpClientWrapper getRateLimiter() {
+        return rateLimiter;
+    }
+
+    /**
+     * Returns the resilience layer, which reports the circuit breaker state and the number of retries and
+     * hedged requests.
+     *
+     * @return the resilience layer, or {@code null} if none is configured
+     */
+    public ResilientHttpClientWrapper getResilience() {
+        return resilience;
+    }
+
+    /**
+     * Returns the metrics collecting cache hits and misses, upstream call latencies per call type and
+     * status code, and polling refresh outcomes. Unless a custom implementation was set, this is a
+     * {@link DefaultWeatherMetrics} instance that can be read at any time.
+     *
+     * @return the SDK metrics
+     */
+    public WeatherMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Returns the number of {@link #getWeather(String)} calls that were served by waiting on a request
+     * already in flight for the same city, instead of sending their own request.
+     *
+     * @return the number of coalesced calls
+     */
+    public long getCoalescedRequestCount() {
+        return singleFlight.getCoalescedCount();
+    }
+
+    /**
+     * Returns the number of upstream fetches started by {@link #getWeather(String)} on cache misses.
+     *
+     * @return the number of fetches
+     */
+    public long getUpstreamFetchCount() {
+        return singleFlight.getExecutionCount();
+    }
+
     /**
      * Builder class for constructing instances of {@link WeatherSdk}.
      */
@@ -132,13 +802,50 @@ public class WeatherSdk {
         private static final int DEFAULT_POLLING_INTERVAL_MINUTES = 10;
         private static final int DEFAULT_CACHE_VALIDITY_MINUTES = 10;
         private static final int DEFAULT_MAX_CACHE_SIZE = 10;
+        private static final int DEFAULT_COALESCING_TIMEOUT_SECONDS = 30;
+        private static final int DEFAULT_GEO_CACHE_SIZE = 1000;
+        private static final int DEFAULT_UNKNOWN_CITY_CACHE_SECONDS = 300;
+        private static final int DEFAULT_UNKNOWN_CITY_CACHE_SIZE = 1000;
+        private static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 16;
+        private static final int DEFAULT_POLLING_THREADS = 4;
+        private static final int DEFAULT_CACHE_SNAPSHOT_INTERVAL_MINUTES = 5;
+        private static final double DEFAULT_COORDINATE_GRID_DEGREES = 0.01;
         private String apiKey;
         private boolean pollingMode = DEFAULT_POLLING_MODE;
         private int pollingIntervalMinutes = DEFAULT_POLLING_INTERVAL_MINUTES;
         private int cacheValidityMinutes = DEFAULT_CACHE_VALIDITY_MINUTES;
+        private int cacheRefreshAfterMinutes = 0;
+        private boolean compactCacheEntries = false;
+        private SharedCacheStore sharedCacheStore = null;
+        private int localCacheValiditySeconds = 0;
+        private Path cacheSnapshotFile = null;
+        private int cacheSnapshotIntervalMinutes = DEFAULT_CACHE_SNAPSHOT_INTERVAL_MINUTES;
+        private double coordinateGridDegrees = DEFAULT_COORDINATE_GRID_DEGREES;
+        private boolean gridKeyedCityLookups = false;
         private int maxCacheSize = DEFAULT_MAX_CACHE_SIZE;
-        private HttpClientWrapper httpClientWrapper = new DefaultHttpClientWrapper();
+        private int coalescingTimeoutSeconds = DEFAULT_COALESCING_TIMEOUT_SECONDS;
+        private int maxConcurrentRequests = DEFAULT_MAX_CONCURRENT_REQUESTS;
+        private int requestBatchSize = 0;
+        private int requestBatchWindowMillis = 0;
+        private int pollingThreads = DEFAULT_POLLING_THREADS;
+        private double pollingRequestsPerSecond = 0;
+        private boolean adaptivePolling = false;
+        private boolean virtualThreads = false;
+        private SharedResources sharedResources = null;
+        private RateLimitConfig rateLimitConfig = null;
+        private ResilienceConfig resilienceConfig = null;
+        private HttpClientWrapper httpClientWrapper = null;
+        private HttpClientConfig httpClientConfig = HttpClientConfig.defaults();
         private CacheWrapper<String, WeatherResponse> cache = null;
+        private UpdateThresholds updateThresholds = UpdateThresholds.defaults();
+        private int updateBufferSize = Flow.defaultBufferSize();
+        private Executor updateExecutor = null;
+        private int geoCacheSize = DEFAULT_GEO_CACHE_SIZE;
+        private Path geoCacheFile = null;
+        private CacheWrapper<String, CityGeoResponse> geoCache = null;
+        private int unknownCityCacheSeconds = DEFAULT_UNKNOWN_CITY_CACHE_SECONDS;
+        private int unknownCityCacheSize = DEFAULT_UNKNOWN_CITY_CACHE_SIZE;
+        private WeatherMetrics metrics = null;
 
         /**
          * Sets the API key for accessing the OpenWeather API.
@@ -176,6 +883,104 @@ public class WeatherSdk {
             return this;
         }
 
+        /**
+         * Sets the number of threads refreshing cities concurrently in polling mode.
+         *
+         * @param threads the number of polling worker threads
+         * @return the builder instance for method chaining
+         */
+        public Builder setPollingThreads(int threads) {
+            this.pollingThreads = threads;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of city refreshes per second in polling mode.
+         * Refreshes beyond this rate wait for their turn, which keeps polling within the API plan limits.
+         * By default the refresh rate is not limited.
+         *
+         * @param requestsPerSecond the maximum number of refreshes per second, or {@code 0} for no limit
+         * @return the builder instance for method chaining
+         */
+        public Builder setPollingRequestsPerSecond(double requestsPerSecond) {
+            this.pollingRequestsPerSecond = requestsPerSecond;
+            return this;
+        }
+
+        /**
+         * Enables adaptive polling.
+         * Instead of refreshing every cached city once per polling interval, the polling service tracks how often
+         * each city is requested and refreshes frequently requested cities up to four times per interval,
+         * rarely requested cities less often, and stops refreshing cities that are no longer requested.
+         *
+         * @param adaptivePolling {@code true} to adapt refresh intervals to access frequencies
+         * @return the builder instance for method chaining
+         */
+        public Builder setAdaptivePolling(boolean adaptivePolling) {
+            this.adaptivePolling = adaptivePolling;
+            return this;
+        }
+
+        /**
+         * Enables virtual-thread mode.
+         * Polling refreshes and the fetches of bulk requests run as blocking calls, each on its own virtual
+         * thread, so tens of thousands of them can wait for the API at once without sizing a thread pool.
+         * The polling thread count is then ignored. Virtual threads require Java 21; on older runtimes,
+         * a new platform thread is started per task instead, see {@link VirtualThreads}.
+         *
+         * @param virtualThreads {@code true} to run blocking API calls on virtual threads
+         * @return the builder instance for method chaining
+         */
+        public Builder setVirtualThreads(boolean virtualThreads) {
+            this.virtualThreads = virtualThreads;
+            return this;
+        }
+
+        /**
+         * Sets infrastructure shared with other instances, typically using other API keys.
+         * The instance then uses the shared HTTP client, polling scheduler and workers, and the shared weather and
+         * geocode caches if configured, instead of creating its own. The HTTP client configuration and polling
+         * thread count of this builder are ignored; a custom HTTP client, cache or geocode cache set on this
+         * builder still takes precedence. The polling rate limit and metrics remain specific to this instance.
+         *
+         * @param sharedResources the shared infrastructure
+         * @return the builder instance for method chaining
+         */
+        public Builder setSharedResources(SharedResources sharedResources) {
+            this.sharedResources = sharedResources;
+            return this;
+        }
+
+        /**
+         * Sets a client-side limit on the API calls of this instance, per minute and per calendar month.
+         * Geocoding and weather calls both count against it. Calls beyond the limit are queued, shed, or
+         * answered with stale cached data, as configured. When the API answers with HTTP 429, calls are held
+         * back for the delay given in its {@code Retry-After} header.
+         * If not set, calls are not limited.
+         *
+         * @param rateLimitConfig the request budget and the policy for calls beyond it
+         * @return the builder instance for method chaining
+         */
+        public Builder setRateLimitConfig(RateLimitConfig rateLimitConfig) {
+            this.rateLimitConfig = rateLimitConfig;
+            return this;
+        }
+
+        /**
+         * Sets a resilience layer around the API calls of this instance: a circuit breaker that fails fast,
+         * or serves stale cached data, while the API keeps failing or is slow; jittered retries of failed calls;
+         * and optionally hedged requests against slow responses. Retries and hedged requests count against
+         * the rate limit, if one is set.
+         * If not set, every call is sent once and waits for its response or timeout.
+         *
+         * @param resilienceConfig the circuit breaker, hedging and retry settings
+         * @return the builder instance for method chaining
+         */
+        public Builder setResilienceConfig(ResilienceConfig resilienceConfig) {
+            this.resilienceConfig = resilienceConfig;
+            return this;
+        }
+
         /**
          * Sets the cache validity duration in minutes.
          * Cached weather data will be considered valid for this duration before being refreshed.
@@ -188,6 +993,85 @@ public class WeatherSdk {
             return this;
         }
 
+        /**
+         * Enables stale-while-revalidate caching.
+         * Cached weather data older than this duration is still returned immediately, and a background
+         * refresh is started for it. Data is only dropped once it is older than the cache validity duration,
+         * which must therefore be longer. Ignored when a custom cache is set.
+         *
+         * @param minutes the age in minutes after which cached data is refreshed in the background,
+         *                or {@code 0} to disable background refreshes
+         * @return the builder instance for method chaining
+         */
+        public Builder setCacheRefreshAfterMinutes(int minutes) {
+            this.cacheRefreshAfterMinutes = minutes;
+            return this;
+        }
+
+        /**
+         * Enables compact storage of cached weather data.
+         * Each city is then cached as a single immutable {@link com.weather.model.CompactWeatherResponse}
+         * with interned condition strings instead of a graph of mutable objects, which cuts the retained heap
+         * per city when many cities are cached; stale data kept for serving during rate limiting or an open
+         * circuit is stored the same way. Cache hits return a read-only {@link WeatherResponse}, whose setters
+         * throw {@link UnsupportedOperationException}; it is built by the first hit on an entry and shared by
+         * all later ones. Ignored when a custom cache, or shared resources with a weather cache, are set.
+         * Cannot be combined with stale-while-revalidate caching or a shared cache store, which
+         * {@link #build()} rejects.
+         *
+         * @param compactCacheEntries {@code true} to store cached weather data in compact form
+         * @return the builder instance for method chaining
+         */
+        public Builder setCompactCacheEntries(boolean compactCacheEntries) {
+            this.compactCacheEntries = compactCacheEntries;
+            return this;
+        }
+
+        /**
+         * Sets a store shared with other processes as a second cache tier, for example a Redis adapter or a
+         * {@link com.weather.cache.FileSharedCacheStore} on a shared directory.
+         * Weather data is then cached in a small in-process cache for the given number of seconds, and in the
+         * shared store for the cache validity duration, so that a fleet of processes fetches every city about
+         * once per cache validity duration. Ignored when a custom cache or shared resources with a weather cache
+         * are set; stale-while-revalidate caching does not apply, and compact storage cannot be combined with it.
+         *
+         * @param store                     the shared cache store
+         * @param localCacheValiditySeconds the duration in seconds for which weather data is kept in process,
+         *                                  which should be much shorter than the cache validity duration
+         * @return the builder instance for method chaining
+         * @see com.weather.cache.TieredCacheWrapper
+         */
+        public Builder setSharedCacheStore(SharedCacheStore store, int localCacheValiditySeconds) {
+            this.sharedCacheStore = store;
+            this.localCacheValiditySeconds = localCacheValiditySeconds;
+            return this;
+        }
+
+        /**
+         * Sets a file to snapshot the weather cache to.
+         * The cache is saved to this file periodically and when the SDK is removed, and restored from it
+         * when the SDK is built, so a restarted process serves cache hits at once and resumes polling the same
+         * cities. Restored entries expire when their original cache validity ends.
+         *
+         * @param file the cache snapshot file
+         * @return the builder instance for method chaining
+         */
+        public Builder setCacheSnapshotFile(Path file) {
+            this.cacheSnapshotFile = file;
+            return this;
+        }
+
+        /**
+         * Sets how often the weather cache is saved to the snapshot file. Defaults to 5 minutes.
+         *
+         * @param minutes the snapshot interval in minutes
+         * @return the builder instance for method chaining
+         */
+        public Builder setCacheSnapshotIntervalMinutes(int minutes) {
+            this.cacheSnapshotIntervalMinutes = minutes;
+            return this;
+        }
+
         /**
          * Sets the maximum cache size.
          * Determines the maximum number of cities that can be stored in the cache at a time.
@@ -200,6 +1084,78 @@ public class WeatherSdk {
             return this;
         }
 
+        /**
+         * Sets how long a call waits for a request already in flight for the same city.
+         * When several threads miss the cache for the same city at once, only one of them fetches the data
+         * and the others wait up to this timeout for its result.
+         *
+         * @param seconds the maximum wait time in seconds
+         * @return the builder instance for method chaining
+         */
+        public Builder setCoalescingTimeoutSeconds(int seconds) {
+            this.coalescingTimeoutSeconds = seconds;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of cities fetched in parallel by a multi-city request.
+         * Cache misses beyond this limit wait until one of the in-flight fetches completes.
+         *
+         * @param maxConcurrentRequests the maximum number of in-flight fetches per multi-city request
+         * @return the builder instance for method chaining
+         */
+        public Builder setMaxConcurrentRequests(int maxConcurrentRequests) {
+            this.maxConcurrentRequests = maxConcurrentRequests;
+            return this;
+        }
+
+        /**
+         * Enables request batching: weather lookups of cities fetched before are collected for a short window,
+         * or until the batch is full, and sent as one request to the OpenWeather group endpoint.
+         * This cuts the number of API calls when many cities miss the cache at once, for example when their
+         * entries expire together or are refreshed by the polling service, at the cost of up to one window
+         * of added latency. The first lookup of every city is still sent on its own.
+         *
+         * @param maxBatchSize the number of cities per request, at most
+         *                     {@value com.weather.apiClient.BatchingWeatherApiClient#MAX_BATCH_SIZE},
+         *                     or {@code 0} to disable batching
+         * @param windowMillis how long a batch collects lookups, in milliseconds
+         * @return the builder instance for method chaining
+         * @see BatchingWeatherApiClient
+         */
+        public Builder setRequestBatching(int maxBatchSize, int windowMillis) {
+            this.requestBatchSize = maxBatchSize;
+            this.requestBatchWindowMillis = windowMillis;
+            return this;
+        }
+
+        /**
+         * Sets the size of the grid cells that coordinates are snapped to.
+         * All coordinate lookups within a cell share one cache entry. Defaults to 0.01 degrees,
+         * about 1.1 km of latitude.
+         *
+         * @param degrees the size of a grid cell in degrees
+         * @return the builder instance for method chaining
+         */
+        public Builder setCoordinateGridDegrees(double degrees) {
+            this.coordinateGridDegrees = degrees;
+            return this;
+        }
+
+        /**
+         * Makes city lookups share the grid-cell cache entries of coordinate lookups.
+         * A city name is then resolved to its coordinates through the geocode cache on every lookup,
+         * so that a city and a nearby coordinate lookup are served by a single API request.
+         * By default, city lookups are cached by city name.
+         *
+         * @param gridKeyedCityLookups {@code true} to cache city lookups by grid cell
+         * @return the builder instance for method chaining
+         */
+        public Builder setGridKeyedCityLookups(boolean gridKeyedCityLookups) {
+            this.gridKeyedCityLookups = gridKeyedCityLookups;
+            return this;
+        }
+
         /**
          * Sets a custom {@link HttpClientWrapper} implementation.
          * This allows the user to provide a custom HTTP client for making API requests.
@@ -213,6 +1169,19 @@ public class WeatherSdk {
             return this;
         }
 
+        /**
+         * Sets the HTTP configuration: timeouts, executor, HTTP version, gzip compression and
+         * the base URL of the API. The base URL is also used with a custom {@link HttpClientWrapper};
+         * the other settings only apply to the default implementation.
+         *
+         * @param httpClientConfig the HTTP configuration
+         * @return the builder instance for method chaining
+         */
+        public Builder setHttpClientConfig(HttpClientConfig httpClientConfig) {
+            this.httpClientConfig = httpClientConfig;
+            return this;
+        }
+
         /**
          * Sets a custom cache implementation.
          * This allows the user to provide their own caching mechanism instead of the default Guava cache.
@@ -225,25 +1194,176 @@ public class WeatherSdk {
             return this;
         }
 
+        /**
+         * Sets how much refreshed weather data must differ from the data last published to be published to the
+         * subscribers of a city, see {@link WeatherSdk#subscribe(String, Consumer)}.
+         *
+         * @param updateThresholds the update thresholds
+         * @return the builder instance for method chaining
+         */
+        public Builder setUpdateThresholds(UpdateThresholds updateThresholds) {
+            this.updateThresholds = updateThresholds;
+            return this;
+        }
+
+        /**
+         * Sets the number of updates buffered for every subscriber that has not requested them yet.
+         * Updates are dropped for a subscriber whose buffer is full. Defaults to {@link Flow#defaultBufferSize()}.
+         *
+         * @param size the number of buffered updates per subscriber
+         * @return the builder instance for method chaining
+         */
+        public Builder setUpdateBufferSize(int size) {
+            this.updateBufferSize = size;
+            return this;
+        }
+
+        /**
+         * Sets the executor delivering updates to subscribers, which runs their listeners.
+         * By default, updates are delivered on virtual threads, or on daemon threads of the SDK if virtual
+         * threads are not available, see {@link VirtualThreads}, so that slow or blocking listeners hold up
+         * neither the SDK nor the common fork-join pool. A custom executor is not shut down by
+         * {@link WeatherSdk#remove()}.
+         *
+         * @param executor the executor delivering updates
+         * @return the builder instance for method chaining
+         */
+        public Builder setUpdateExecutor(Executor executor) {
+            this.updateExecutor = executor;
+            return this;
+        }
+
+        /**
+         * Sets the maximum size of the geocode cache.
+         * City coordinates are cached separately from weather data and never expire,
+         * so a city is only geocoded once until it is evicted.
+         *
+         * @param size the maximum number of cities whose coordinates are cached
+         * @return the builder instance for method chaining
+         */
+        public Builder setGeoCacheSize(int size) {
+            this.geoCacheSize = size;
+            return this;
+        }
+
+        /**
+         * Sets a file to persist the geocode cache to.
+         * Known city coordinates are loaded from this file on startup, so a restarted process
+         * does not have to geocode them again.
+         *
+         * @param file the geocode cache file
+         * @return the builder instance for method chaining
+         */
+        public Builder setGeoCacheFile(Path file) {
+            this.geoCacheFile = file;
+            return this;
+        }
+
+        /**
+         * Sets a custom geocode cache implementation, keyed by lowercase city name.
+         * When set, the geocode cache size and file settings are ignored.
+         *
+         * @param geoCache a custom implementation of {@link CacheWrapper} for city coordinates
+         * @return the builder instance for method chaining
+         */
+        public Builder setGeoCache(CacheWrapper<String, CityGeoResponse> geoCache) {
+            this.geoCache = geoCache;
+            return this;
+        }
+
+        /**
+         * Sets how long city names unknown to the geocoding API are remembered.
+         * A city name reported unknown twice is then rejected with {@link CityNotFoundException}
+         * without an API call until it expires, so misspelled names typed over and over do not
+         * cost a geocoding request each. Defaults to 5 minutes.
+         *
+         * @param seconds the time an unknown city is remembered, or {@code 0} to geocode unknown cities every time
+         * @return the builder instance for method chaining
+         */
+        public Builder setUnknownCityCacheSeconds(int seconds) {
+            this.unknownCityCacheSeconds = seconds;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of unknown city names remembered. Defaults to 1000.
+         *
+         * @param size the maximum number of unknown cities cached
+         * @return the builder instance for method chaining
+         */
+        public Builder setUnknownCityCacheSize(int size) {
+            this.unknownCityCacheSize = size;
+            return this;
+        }
+
+        /**
+         * Sets a custom metrics implementation.
+         * This allows the user to forward SDK measurements to their own metrics library.
+         * If not set, a {@link DefaultWeatherMetrics} instance is used.
+         *
+         * @param metrics a custom implementation of {@link WeatherMetrics}
+         * @return the builder instance for method chaining
+         */
+        public Builder setMetrics(WeatherMetrics metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
         /**
          * Builds and returns an instance of {@link WeatherSdk}.
-         * Ensures that an SDK with the same API key does not already exist.
+         * Ensures that an SDK with the same API key does not already exist, and is not being built concurrently.
+         * If building fails, the HTTP client, threads and executors created so far are released.
          *
          * @return a new instance of {@link WeatherSdk}
-         * @throws IllegalArgumentException if the API key is null or empty
+         * @throws IllegalArgumentException if the API key is null or empty, a shared cache store is set with a
+         *                                  local cache validity that is not positive, or compact storage is
+         *                                  combined with stale-while-revalidate caching or a shared cache store
          * @throws IllegalStateException    if an SDK instance with the same API key already exists
          */
         public WeatherSdk build() {
             if (apiKey == null || apiKey.trim().isEmpty()) {
                 throw new IllegalArgumentException("API key is required and cannot be null or empty.");
             }
-            if (sdkMap.containsKey(apiKey)) {
-                throw new IllegalStateException(
-                        String.format("An instance of WeatherSdk with API key '%s' already exists. ", apiKey));
+            if (sharedCacheStore != null && localCacheValiditySeconds <= 0) {
+                throw new IllegalArgumentException("Local cache validity must be positive with a shared cache store.");
+            }
+            if (compactCacheEntries && (cacheRefreshAfterMinutes > 0 || sharedCacheStore != null)) {
+                throw new IllegalArgumentException(
+                        "Compact cache entries cannot be combined with cache refresh-ahead or a shared cache store.");
+            }
+            // Reserves the API key, so that the instance is built outside of any map lock
+            if (!apiKeysBeingBuilt.add(apiKey)) {
+                throw alreadyExists();
+            }
+            List<AutoCloseable> created = new ArrayList<>();
+            try {
+                if (sdkMap.containsKey(apiKey)) {
+                    throw alreadyExists();
+                }
+                WeatherSdk sdk = new WeatherSdk(this, created);
+                sdkMap.put(apiKey, sdk);
+                return sdk;
+            } catch (RuntimeException | Error e) {
+                release(created, e);
+                throw e;
+            } finally {
+                apiKeysBeingBuilt.remove(apiKey);
+            }
+        }
+
+        private IllegalStateException alreadyExists() {
+            return new IllegalStateException(
+                    String.format("An instance of WeatherSdk with API key '%s' already exists. ", apiKey));
+        }
+
+        private static void release(List<AutoCloseable> created, Throwable failure) {
+            for (AutoCloseable resource : created) {
+                try {
+                    resource.close();
+                } catch (Exception e) {
+                    failure.addSuppressed(e);
+                }
             }
-            WeatherSdk weatherSdk = new WeatherSdk(this);
-            sdkMap.put(apiKey, weatherSdk);
-            return weatherSdk;
         }
     }
 }
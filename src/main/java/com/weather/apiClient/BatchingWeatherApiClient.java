@@ -0,0 +1,223 @@
+package com.weather.apiClient;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.weather.cache.CityKey;
+import com.weather.exception.WeatherApiException;
+import com.weather.model.CityGeoResponse;
+import com.weather.model.CityWeather;
+import com.weather.model.WeatherResponse;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A {@link WeatherApiClient} that sends the weather lookups of several cities as one request to the
+ * OpenWeather group endpoint.
+ * <p>
+ * The group endpoint takes OpenWeather city ids, which the geocoding API does not return. The first lookup
+ * of a city is therefore sent on its own, by coordinates, and the id of the city is remembered from its
+ * response. Later lookups of known cities, such as refreshes of expired cache entries and polling refreshes,
+ * are collected for a short window, or until a batch is full, and then sent together; the response is split
+ * back to every waiting caller. Lookups of the same city within one batch share one entry of the batch.
+ * </p>
+ * <p>
+ * Geocoding and coordinate lookups are passed on to the underlying client unchanged.
+ * </p>
+ */
+public class BatchingWeatherApiClient implements WeatherApiClient {
+    /**
+     * The maximum number of city ids the group endpoint takes per request.
+     */
+    public static final int MAX_BATCH_SIZE = 20;
+
+    private static final int MAX_CITY_IDS = 10_000;
+
+    private final DefaultWeatherApiClient delegate;
+    private final int maxBatchSize;
+    private final long batchWindowNanos;
+    private final Cache<String, Long> cityIds = CacheBuilder.newBuilder().maximumSize(MAX_CITY_IDS).build();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder batchedLookups = new LongAdder();
+    private Map<Long, CompletableFuture<WeatherResponse>> batch = new LinkedHashMap<>();
+    private long batchNumber;
+
+    /**
+     * Creates a batching client on top of the given client.
+     *
+     * @param delegate     the client sending the requests
+     * @param maxBatchSize the number of cities after which a batch is sent at once, at most {@value #MAX_BATCH_SIZE}
+     * @param batchWindow  how long a batch collects lookups after its first one
+     * @param unit         the time unit of the batch window
+     * @throws IllegalArgumentException if the batch size is not between 1 and {@value #MAX_BATCH_SIZE}
+     */
+    public BatchingWeatherApiClient(DefaultWeatherApiClient delegate, int maxBatchSize, long batchWindow,
+                                    TimeUnit unit) {
+        if (maxBatchSize <= 0 || maxBatchSize > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Batch size must be between 1 and " + MAX_BATCH_SIZE + ".");
+        }
+        this.delegate = delegate;
+        this.maxBatchSize = maxBatchSize;
+        this.batchWindowNanos = unit.toNanos(batchWindow);
+    }
+
+    @Override
+    public WeatherResponse getWeatherByCity(String cityName) throws Exception {
+        try {
+            return getWeatherByCityAsync(cityName).get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public CompletableFuture<WeatherResponse> getWeatherByCityAsync(String cityName) {
+        Long cityId = cityIds.getIfPresent(CityKey.of(cityName).getKey());
+        if (cityId != null) {
+            return enqueue(cityId);
+        }
+        return delegate.getCityGeoAsync(cityName)
+                .thenCompose(cityGeo -> delegate.getCityWeatherByCoordinatesAsync(cityGeo.getLat(), cityGeo.getLon()))
+                .thenApply(cityWeather -> {
+                    if (cityWeather.cityId() != 0) {
+                        cityIds.put(CityKey.of(cityName).getKey(), cityWeather.cityId());
+                    }
+                    return cityWeather.weather();
+                });
+    }
+
+    @Override
+    public WeatherResponse getWeatherByCoordinates(double lat, double lon) throws Exception {
+        return delegate.getWeatherByCoordinates(lat, lon);
+    }
+
+    @Override
+    public CompletableFuture<WeatherResponse> getWeatherByCoordinatesAsync(double lat, double lon) {
+        return delegate.getWeatherByCoordinatesAsync(lat, lon);
+    }
+
+    @Override
+    public CityGeoResponse getCityGeo(String cityName) throws Exception {
+        return delegate.getCityGeo(cityName);
+    }
+
+    @Override
+    public CompletableFuture<CityGeoResponse> getCityGeoAsync(String cityName) {
+        return delegate.getCityGeoAsync(cityName);
+    }
+
+    /**
+     * Returns the number of group requests sent since this client was created.
+     *
+     * @return the number of group requests
+     */
+    public long getBatchCount() {
+        return batches.sum();
+    }
+
+    /**
+     * Returns the number of city lookups answered by group requests since this client was created.
+     *
+     * @return the number of batched lookups
+     */
+    public long getBatchedLookupCount() {
+        return batchedLookups.sum();
+    }
+
+    private CompletableFuture<WeatherResponse> enqueue(long cityId) {
+        CompletableFuture<WeatherResponse> future;
+        Map<Long, CompletableFuture<WeatherResponse>> full = null;
+        long scheduled = -1;
+        lock.lock();
+        try {
+            future = batch.get(cityId);
+            if (future != null) {
+                return future;
+            }
+            future = new CompletableFuture<>();
+            batch.put(cityId, future);
+            if (batch.size() >= maxBatchSize) {
+                full = takeBatch();
+            } else if (batch.size() == 1) {
+                scheduled = batchNumber;
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (full != null) {
+            send(full);
+        } else if (scheduled >= 0) {
+            long number = scheduled;
+            CompletableFuture.delayedExecutor(batchWindowNanos, TimeUnit.NANOSECONDS).execute(() -> flush(number));
+        }
+        return future;
+    }
+
+    private void flush(long number) {
+        Map<Long, CompletableFuture<WeatherResponse>> due;
+        lock.lock();
+        try {
+            if (number != batchNumber || batch.isEmpty()) {
+                return;
+            }
+            due = takeBatch();
+        } finally {
+            lock.unlock();
+        }
+        send(due);
+    }
+
+    private Map<Long, CompletableFuture<WeatherResponse>> takeBatch() {
+        Map<Long, CompletableFuture<WeatherResponse>> taken = batch;
+        batch = new LinkedHashMap<>();
+        batchNumber++;
+        return taken;
+    }
+
+    private void send(Map<Long, CompletableFuture<WeatherResponse>> due) {
+        batches.increment();
+        batchedLookups.add(due.size());
+        CompletableFuture<List<CityWeather>> response;
+        try {
+            response = delegate.getWeatherByCityIdsAsync(due.keySet());
+        } catch (RuntimeException e) {
+            response = CompletableFuture.failedFuture(e);
+        }
+        response.whenComplete((cities, failure) -> {
+            if (failure != null) {
+                Throwable cause = (failure instanceof CompletionException && failure.getCause() != null)
+                        ? failure.getCause()
+                        : failure;
+                due.values().forEach(future -> future.completeExceptionally(cause));
+                return;
+            }
+            Map<Long, WeatherResponse> byId = new HashMap<>();
+            for (CityWeather city : cities) {
+                byId.put(city.cityId(), city.weather());
+            }
+            due.forEach((cityId, future) -> {
+                WeatherResponse weather = byId.get(cityId);
+                if (weather != null) {
+                    future.complete(weather);
+                } else {
+                    // Looks the city up on its own next time, which may find a new id
+                    cityIds.asMap().values().remove(cityId);
+                    future.completeExceptionally(new WeatherApiException("No weather returned for city id " + cityId));
+                }
+            });
+        });
+    }
+}
@@ -1,29 +1,142 @@
 package com.weather.apiClient;
 
+import com.weather.cache.CacheWrapper;
+import com.weather.cache.CityKey;
+import com.weather.cache.NegativeCache;
+import com.weather.cache.PersistentGeoCacheWrapper;
+import com.weather.exception.CircuitOpenException;
 import com.weather.exception.CityNotFoundException;
+import com.weather.exception.RateLimitExceededException;
+import com.weather.exception.WeatherApiException;
+import com.weather.http.HttpClientConfig;
 import com.weather.http.HttpClientWrapper;
+import com.weather.http.JsonResponseDecoder;
+import com.weather.metrics.WeatherMetrics;
+import com.weather.metrics.WeatherMetrics.CallType;
 import com.weather.model.CityGeoResponse;
+import com.weather.model.CityWeather;
 import com.weather.model.WeatherApiResponse;
 import com.weather.model.WeatherResponse;
 import com.weather.model.WeatherResponseConverter;
+import com.weather.model.WeatherResponseDecoder;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 public class DefaultWeatherApiClient implements WeatherApiClient {
-    private static final String GEO_URL = "http://api.openweathermap.org/geo/1.0/direct?q=%s&limit=1&appid=%s";
-    private static final String WEATHER_URL = "http://api.openweathermap.org/data/2.5/weather?lat=%f&lon=%f&appid=%s";
+    private static final String GEO_PATH = "/geo/1.0/direct?q=";
+    private static final String GEO_QUERY = "&limit=1&appid=";
+    private static final String WEATHER_PATH = "/data/2.5/weather?lat=";
+    private static final String WEATHER_LON_QUERY = "&lon=";
+    private static final String WEATHER_QUERY = "&appid=";
+    private static final String GROUP_PATH = "/data/2.5/group?id=";
+    private static final int MAX_CITY_ID_LENGTH = 20;
+    private static final int MAX_COORDINATES_LENGTH = 2 * 11;
+    private static final long MICRODEGREES_PER_DEGREE = 1_000_000;
+    private static final int DEFAULT_GEO_CACHE_SIZE = 1000;
+    // Wrappers without streaming support deserialize these payloads as they did before streaming decoders
+    private static final JsonResponseDecoder<WeatherResponse> WEATHER_DECODER = JsonResponseDecoder.withResponseType(
+            WeatherApiResponse.class, WeatherResponseConverter::convert, WeatherResponseDecoder::decodeWeather);
+    private static final JsonResponseDecoder<CityWeather> CITY_WEATHER_DECODER = JsonResponseDecoder.withResponseType(
+            WeatherApiResponse.class,
+            response -> new CityWeather(response.getId(), WeatherResponseConverter.convert(response)),
+            WeatherResponseDecoder::decodeCityWeather);
+    private static final JsonResponseDecoder<CityGeoResponse> CITY_GEO_DECODER = JsonResponseDecoder.withResponseType(
+            CityGeoResponse[].class, cities -> cities.length > 0 ? cities[0] : null,
+            WeatherResponseDecoder::decodeFirstCityGeo);
 
     private final HttpClientWrapper httpClientWrapper;
     private final String apiKey;
+    private final CacheWrapper<String, CityGeoResponse> geoCache;
+    private final WeatherMetrics metrics;
+    private final NegativeCache unknownCities;
+    private final String geoUrlPrefix;
+    private final String geoUrlSuffix;
+    private final String weatherUrlPrefix;
+    private final String weatherUrlSuffix;
+    private final String groupUrlPrefix;
 
     public DefaultWeatherApiClient(String apiKey, HttpClientWrapper httpClientWrapper) {
+        this(apiKey, httpClientWrapper, new PersistentGeoCacheWrapper(DEFAULT_GEO_CACHE_SIZE));
+    }
+
+    /**
+     * Creates a client that resolves city coordinates through the given geocode cache,
+     * so that the geocoding request is only sent once per city.
+     *
+     * @param apiKey            the OpenWeather API key
+     * @param httpClientWrapper the HTTP client used for API requests
+     * @param geoCache          the cache of city coordinates, keyed by lowercase city name
+     */
+    public DefaultWeatherApiClient(String apiKey, HttpClientWrapper httpClientWrapper,
+                                   CacheWrapper<String, CityGeoResponse> geoCache) {
+        this(apiKey, httpClientWrapper, geoCache, WeatherMetrics.noop());
+    }
+
+    /**
+     * Creates a client that resolves city coordinates through the given geocode cache and reports
+     * the latency and status code of every API call to the given metrics.
+     *
+     * @param apiKey            the OpenWeather API key
+     * @param httpClientWrapper the HTTP client used for API requests
+     * @param geoCache          the cache of city coordinates, keyed by lowercase city name
+     * @param metrics           the metrics receiving upstream call measurements
+     */
+    public DefaultWeatherApiClient(String apiKey, HttpClientWrapper httpClientWrapper,
+                                   CacheWrapper<String, CityGeoResponse> geoCache, WeatherMetrics metrics) {
+        this(apiKey, httpClientWrapper, geoCache, metrics, HttpClientConfig.DEFAULT_BASE_URL);
+    }
+
+    /**
+     * Creates a client that sends its API calls to the given base URL instead of the public OpenWeather endpoint.
+     *
+     * @param apiKey            the OpenWeather API key
+     * @param httpClientWrapper the HTTP client used for API requests
+     * @param geoCache          the cache of city coordinates, keyed by lowercase city name
+     * @param metrics           the metrics receiving upstream call measurements
+     * @param baseUrl           the base URL of the OpenWeather API, without the API path
+     */
+    public DefaultWeatherApiClient(String apiKey, HttpClientWrapper httpClientWrapper,
+                                   CacheWrapper<String, CityGeoResponse> geoCache, WeatherMetrics metrics,
+                                   String baseUrl) {
+        this(apiKey, httpClientWrapper, geoCache, metrics, baseUrl, null);
+    }
+
+    /**
+     * Creates a client that also remembers city names the geocoding API does not know, so that repeated
+     * lookups of the same unknown city fail without an API call.
+     *
+     * @param apiKey            the OpenWeather API key
+     * @param httpClientWrapper the HTTP client used for API requests
+     * @param geoCache          the cache of city coordinates, keyed by lowercase city name
+     * @param metrics           the metrics receiving upstream call measurements
+     * @param baseUrl           the base URL of the OpenWeather API, without the API path
+     * @param unknownCities     the cache of unknown cities, keyed by lowercase city name, or {@code null} to
+     *                          geocode unknown cities every time
+     */
+    public DefaultWeatherApiClient(String apiKey, HttpClientWrapper httpClientWrapper,
+                                   CacheWrapper<String, CityGeoResponse> geoCache, WeatherMetrics metrics,
+                                   String baseUrl, NegativeCache unknownCities) {
         this.apiKey = apiKey;
         this.httpClientWrapper = httpClientWrapper;
+        this.geoCache = geoCache;
+        this.metrics = metrics;
+        this.unknownCities = unknownCities;
+        String root = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.geoUrlPrefix = root + GEO_PATH;
+        this.geoUrlSuffix = GEO_QUERY + apiKey;
+        this.weatherUrlPrefix = root + WEATHER_PATH;
+        this.weatherUrlSuffix = WEATHER_QUERY + apiKey;
+        this.groupUrlPrefix = root + GROUP_PATH;
     }
 
     /**
      * Retrieves the current weather data for a given city.
      * <p>
-     * This method first fetches the geographic coordinates of the city and then
-     * retrieves weather information based on those coordinates.
+     * This method first resolves the geographic coordinates of the city, from the geocode cache
+     * when the city is already known, and then retrieves weather information based on those coordinates.
      * </p>
      *
      * @param cityName the name of the city
@@ -33,24 +146,223 @@ public class DefaultWeatherApiClient implements WeatherApiClient {
     @Override
     public WeatherResponse getWeatherByCity(String cityName) throws Exception {
         CityGeoResponse cityGeo = getCityGeo(cityName);
-        String weatherUrl = String.format(WEATHER_URL, cityGeo.getLat(), cityGeo.getLon(), apiKey);
-        WeatherApiResponse weatherApiResponse = httpClientWrapper.get(weatherUrl, WeatherApiResponse.class);
-        return WeatherResponseConverter.convert(weatherApiResponse);
+        return getWeatherByCoordinates(cityGeo.getLat(), cityGeo.getLon());
+    }
+
+    /**
+     * Retrieves the current weather data for a given city without blocking the calling thread.
+     * <p>
+     * The geocoding and weather requests are chained asynchronously through
+     * {@link HttpClientWrapper#getAsync(String, JsonResponseDecoder)}; the geocoding request is skipped
+     * when the city is already in the geocode cache.
+     * </p>
+     *
+     * @param cityName the name of the city
+     * @return a future completed with the weather details, or completed exceptionally if the request
+     * fails or the city is not found
+     */
+    @Override
+    public CompletableFuture<WeatherResponse> getWeatherByCityAsync(String cityName) {
+        return getCityGeoAsync(cityName)
+                .thenCompose(cityGeo -> getWeatherByCoordinatesAsync(cityGeo.getLat(), cityGeo.getLon()));
+    }
+
+    /**
+     * Retrieves the current weather data at the given coordinates.
+     *
+     * @param lat the latitude in degrees
+     * @param lon the longitude in degrees
+     * @return a {@link WeatherResponse} object containing weather details
+     * @throws Exception if the request fails
+     */
+    @Override
+    public WeatherResponse getWeatherByCoordinates(double lat, double lon) throws Exception {
+        String url = weatherUrl(lat, lon);
+        return get(CallType.WEATHER, url, WEATHER_DECODER);
+    }
+
+    /**
+     * Retrieves the current weather data at the given coordinates without blocking the calling thread.
+     *
+     * @param lat the latitude in degrees
+     * @param lon the longitude in degrees
+     * @return a future completed with the weather details, or completed exceptionally if the request fails
+     */
+    @Override
+    public CompletableFuture<WeatherResponse> getWeatherByCoordinatesAsync(double lat, double lon) {
+        String url = weatherUrl(lat, lon);
+        return getAsync(CallType.WEATHER, url, WEATHER_DECODER);
+    }
+
+    /**
+     * Retrieves the current weather data at the given coordinates together with the OpenWeather id of the
+     * city they belong to, without blocking the calling thread.
+     *
+     * @param lat the latitude in degrees
+     * @param lon the longitude in degrees
+     * @return a future completed with the weather details and city id, or completed exceptionally if the
+     * request fails
+     */
+    public CompletableFuture<CityWeather> getCityWeatherByCoordinatesAsync(double lat, double lon) {
+        return getAsync(CallType.WEATHER, weatherUrl(lat, lon), CITY_WEATHER_DECODER);
+    }
+
+    /**
+     * Retrieves the current weather data of several cities by their OpenWeather ids in one request to the
+     * group endpoint, without blocking the calling thread. The endpoint takes at most 20 ids.
+     *
+     * @param cityIds the OpenWeather city ids
+     * @return a future completed with the weather details of the cities the API returned, or completed
+     * exceptionally if the request fails
+     */
+    public CompletableFuture<List<CityWeather>> getWeatherByCityIdsAsync(Collection<Long> cityIds) {
+        StringBuilder url = new StringBuilder(groupUrlPrefix.length() + cityIds.size() * MAX_CITY_ID_LENGTH
+                + weatherUrlSuffix.length());
+        url.append(groupUrlPrefix);
+        for (Long cityId : cityIds) {
+            if (url.length() > groupUrlPrefix.length()) {
+                url.append(',');
+            }
+            url.append(cityId.longValue());
+        }
+        url.append(weatherUrlSuffix);
+        return getAsync(CallType.WEATHER, url.toString(), WeatherResponseDecoder::decodeGroup);
     }
 
     /**
      * Retrieves the geographic coordinates of a given city.
+     * The geocoding request is only sent if the city is not in the geocode cache yet.
      *
      * @param cityName the name of the city
      * @return a {@link CityGeoResponse} object containing latitude and longitude
      * @throws Exception if the city is not found or the request fails
      */
-    private CityGeoResponse getCityGeo(String cityName) throws Exception {
-        String geoUrl = String.format(GEO_URL, cityName, apiKey);
-        CityGeoResponse[] cityGeoArray = httpClientWrapper.get(geoUrl, CityGeoResponse[].class);
-        if (cityGeoArray.length == 0) {
+    @Override
+    public CityGeoResponse getCityGeo(String cityName) throws Exception {
+        CityKey cityKey = CityKey.of(cityName);
+        String key = cityKey.getKey();
+        CityGeoResponse cachedGeo = geoCache.get(key);
+        if (cachedGeo != null) {
+            return cachedGeo;
+        }
+        if (unknownCities != null && unknownCities.contains(key)) {
             throw new CityNotFoundException("City not found: " + cityName);
         }
-        return cityGeoArray[0];
+        String url = geoUrl(cityKey);
+        CityGeoResponse cityGeo = get(CallType.GEO, url, CITY_GEO_DECODER);
+        if (cityGeo == null) {
+            throw cityNotFound(key, cityName);
+        }
+        geoCache.put(key, cityGeo);
+        return cityGeo;
+    }
+
+    /**
+     * Retrieves the geographic coordinates of a given city without blocking the calling thread.
+     * The geocoding request is only sent if the city is not in the geocode cache yet.
+     *
+     * @param cityName the name of the city
+     * @return a future completed with the latitude and longitude, or completed exceptionally if the city is
+     * not found or the request fails
+     */
+    @Override
+    public CompletableFuture<CityGeoResponse> getCityGeoAsync(String cityName) {
+        CityKey cityKey = CityKey.of(cityName);
+        String key = cityKey.getKey();
+        CityGeoResponse cachedGeo = geoCache.get(key);
+        if (cachedGeo != null) {
+            return CompletableFuture.completedFuture(cachedGeo);
+        }
+        if (unknownCities != null && unknownCities.contains(key)) {
+            return CompletableFuture.failedFuture(new CityNotFoundException("City not found: " + cityName));
+        }
+        String url = geoUrl(cityKey);
+        return getAsync(CallType.GEO, url, CITY_GEO_DECODER)
+                .thenApply(cityGeo -> {
+                    if (cityGeo == null) {
+                        throw cityNotFound(key, cityName);
+                    }
+                    geoCache.put(key, cityGeo);
+                    return cityGeo;
+                });
+    }
+
+    private String geoUrl(CityKey cityKey) {
+        String encodedName = cityKey.getEncodedName();
+        return new StringBuilder(geoUrlPrefix.length() + encodedName.length() + geoUrlSuffix.length())
+                .append(geoUrlPrefix)
+                .append(encodedName)
+                .append(geoUrlSuffix)
+                .toString();
+    }
+
+    private String weatherUrl(double lat, double lon) {
+        StringBuilder url = new StringBuilder(weatherUrlPrefix.length() + WEATHER_LON_QUERY.length()
+                + MAX_COORDINATES_LENGTH + weatherUrlSuffix.length());
+        url.append(weatherUrlPrefix);
+        appendDegrees(url, lat);
+        url.append(WEATHER_LON_QUERY);
+        appendDegrees(url, lon);
+        return url.append(weatherUrlSuffix).toString();
+    }
+
+    /**
+     * Appends degrees with six decimal places, as {@code %f} would, but with a decimal point
+     * regardless of the default locale and without going through a formatter.
+     */
+    static void appendDegrees(StringBuilder url, double degrees) {
+        long microdegrees = Math.round(Math.abs(degrees) * MICRODEGREES_PER_DEGREE);
+        if (degrees < 0 && microdegrees != 0) {
+            url.append('-');
+        }
+        url.append(microdegrees / MICRODEGREES_PER_DEGREE).append('.');
+        long fraction = microdegrees % MICRODEGREES_PER_DEGREE;
+        for (long digit = MICRODEGREES_PER_DEGREE / 10; digit > 1 && fraction < digit; digit /= 10) {
+            url.append('0');
+        }
+        url.append(fraction);
+    }
+
+    private CityNotFoundException cityNotFound(String key, String cityName) {
+        if (unknownCities != null) {
+            unknownCities.recordMissing(key);
+        }
+        return new CityNotFoundException("City not found: " + cityName);
+    }
+
+    private <T> T get(CallType callType, String url, JsonResponseDecoder<T> decoder) throws Exception {
+        long start = System.nanoTime();
+        try {
+            T response = httpClientWrapper.get(url, decoder);
+            metrics.recordUpstreamCall(callType, 200, System.nanoTime() - start);
+            return response;
+        } catch (Exception e) {
+            recordFailedCall(callType, e, start);
+            throw e;
+        }
+    }
+
+    private <T> CompletableFuture<T> getAsync(CallType callType, String url, JsonResponseDecoder<T> decoder) {
+        long start = System.nanoTime();
+        return httpClientWrapper.getAsync(url, decoder).whenComplete((response, failure) -> {
+            if (failure == null) {
+                metrics.recordUpstreamCall(callType, 200, System.nanoTime() - start);
+            } else {
+                recordFailedCall(callType, failure, start);
+            }
+        });
+    }
+
+    private void recordFailedCall(CallType callType, Throwable failure, long start) {
+        Throwable cause = (failure instanceof CompletionException && failure.getCause() != null)
+                ? failure.getCause()
+                : failure;
+        if (cause instanceof CircuitOpenException
+                || (cause instanceof RateLimitExceededException && ((RateLimitExceededException) cause).isShed())) {
+            // Rejected before leaving the process, so there is no upstream call to record
+            return;
+        }
+        int statusCode = cause instanceof WeatherApiException ? ((WeatherApiException) cause).getStatusCode() : 0;
+        metrics.recordUpstreamCall(callType, statusCode, System.nanoTime() - start);
     }
 }
@@ -1,8 +1,76 @@
 package com.weather.apiClient;
 
 
+import com.weather.concurrent.BlockingCalls;
+import com.weather.model.CityGeoResponse;
 import com.weather.model.WeatherResponse;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface WeatherApiClient {
     WeatherResponse getWeatherByCity(String cityName) throws Exception;
+
+    /**
+     * Retrieves the current weather data for a given city without blocking the calling thread.
+     * <p>
+     * The default implementation runs {@link #getWeatherByCity(String)} on the bounded pool of
+     * {@link BlockingCalls}, not on the common fork-join pool.
+     * </p>
+     *
+     * @param cityName the name of the city
+     * @return a future completed with the weather details, or completed exceptionally if the request
+     * fails or the city is not found
+     */
+    default CompletableFuture<WeatherResponse> getWeatherByCityAsync(String cityName) {
+        return BlockingCalls.supplyAsync(() -> getWeatherByCity(cityName));
+    }
+
+    /**
+     * Retrieves the current weather data at the given coordinates.
+     *
+     * @param lat the latitude in degrees
+     * @param lon the longitude in degrees
+     * @return a {@link WeatherResponse} object containing weather details
+     * @throws Exception if the request fails
+     */
+    WeatherResponse getWeatherByCoordinates(double lat, double lon) throws Exception;
+
+    /**
+     * Retrieves the current weather data at the given coordinates without blocking the calling thread.
+     * <p>
+     * The default implementation runs {@link #getWeatherByCoordinates(double, double)} on the bounded pool of
+     * {@link BlockingCalls}, not on the common fork-join pool.
+     * </p>
+     *
+     * @param lat the latitude in degrees
+     * @param lon the longitude in degrees
+     * @return a future completed with the weather details, or completed exceptionally if the request fails
+     */
+    default CompletableFuture<WeatherResponse> getWeatherByCoordinatesAsync(double lat, double lon) {
+        return BlockingCalls.supplyAsync(() -> getWeatherByCoordinates(lat, lon));
+    }
+
+    /**
+     * Retrieves the geographic coordinates of a given city.
+     *
+     * @param cityName the name of the city
+     * @return a {@link CityGeoResponse} object containing latitude and longitude
+     * @throws Exception if the city is not found or the request fails
+     */
+    CityGeoResponse getCityGeo(String cityName) throws Exception;
+
+    /**
+     * Retrieves the geographic coordinates of a given city without blocking the calling thread.
+     * <p>
+     * The default implementation runs {@link #getCityGeo(String)} on the bounded pool of
+     * {@link BlockingCalls}, not on the common fork-join pool.
+     * </p>
+     *
+     * @param cityName the name of the city
+     * @return a future completed with the latitude and longitude, or completed exceptionally if the city is
+     * not found or the request fails
+     */
+    default CompletableFuture<CityGeoResponse> getCityGeoAsync(String cityName) {
+        return BlockingCalls.supplyAsync(() -> getCityGeo(cityName));
+    }
 }
@@ -0,0 +1,108 @@
+package com.weather.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * The canonical form of a city name: its cache key and its URL-encoded name.
+ * <p>
+ * City keys are interned by the city name as given, so that looking up a city that was seen recently neither
+ * lowercases its name again nor builds a new key string, and returns a key string whose hash code is already
+ * computed. The lookup itself is not allocation-free: the interning cache records every read for its
+ * least-recently-used eviction, which takes a small queue node per read.
+ * Names that only differ in case share one key string. The cache key is lowercased independently of the
+ * default locale. The URL-encoded name is only computed when a request is built, so cache hits never encode.
+ * At most {@value #MAX_INTERNED} names are interned, and the least recently used ones are evicted, so that
+ * arbitrary input, such as a flood of misspelled names, neither grows the table without bound nor keeps
+ * names that are actually repeated from being interned.
+ * </p>
+ */
+public final class CityKey {
+    private static final int MAX_INTERNED = 10_000;
+    private static final Cache<String, CityKey> INTERNED = CacheBuilder.newBuilder()
+            .maximumSize(MAX_INTERNED)
+            .build();
+
+    private final String name;
+    private final String key;
+    // Racy single check: computing the immutable encoded name twice is harmless
+    private String encodedName;
+
+    private CityKey(String name, String key) {
+        this.name = name;
+        this.key = key;
+        // Computes the hash code of the key string once, rather than on its first cache lookup
+        key.hashCode();
+    }
+
+    /**
+     * Returns the city key of a city name.
+     *
+     * @param cityName the name of the city
+     * @return the city key
+     */
+    public static CityKey of(String cityName) {
+        CityKey cityKey = INTERNED.getIfPresent(cityName);
+        if (cityKey != null) {
+            return cityKey;
+        }
+        String key = cityName.toLowerCase(Locale.ROOT);
+        cityKey = new CityKey(cityName, key.equals(cityName) ? cityName : of(key).key);
+        CityKey interned = INTERNED.asMap().putIfAbsent(cityName, cityKey);
+        return interned != null ? interned : cityKey;
+    }
+
+    /**
+     * Returns the city name as given.
+     *
+     * @return the city name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the cache key of the city, its lowercase name.
+     *
+     * @return the cache key
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Returns the city name as given, encoded for use as a URL query parameter.
+     *
+     * @return the URL-encoded city name
+     */
+    public String getEncodedName() {
+        String encoded = encodedName;
+        if (encoded == null) {
+            encoded = URLEncoder.encode(name, StandardCharsets.UTF_8);
+            encodedName = encoded;
+        }
+        return encoded;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        return o instanceof CityKey && key.equals(((CityKey) o).key);
+    }
+
+    @Override
+    public int hashCode() {
+        return key.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return key;
+    }
+}
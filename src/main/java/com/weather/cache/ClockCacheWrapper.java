@@ -0,0 +1,283 @@
+package com.weather.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A cache for read-heavy workloads with lock-free reads, built on an open-addressed hash table.
+ * <p>
+ * Keys, values and expiry timestamps are kept in parallel arrays indexed by slot and probed linearly,
+ * so no entry objects are allocated per {@code put}. Each slot carries a sequence number that writers
+ * make odd while they change the slot; readers never lock, and retry a slot whose sequence number
+ * changed while they read it. Writers are serialized by a lock.
+ * </p>
+ * <p>
+ * Entries expire a fixed time after they were written. When the cache is full, an entry is evicted with
+ * the CLOCK algorithm: a hand sweeps the table, evicting the first expired entry or the first entry that
+ * was not read since the hand last passed it. The table has twice as many slots as the maximum size,
+ * and is rebuilt without its removed slots when they accumulate.
+ * </p>
+ *
+ * @param <K> the type of cache keys
+ * @param <V> the type of cache values
+ */
+public class ClockCacheWrapper<K, V> implements CacheWrapper<K, V> {
+    private static final Object REMOVED = new Object();
+
+    private final long expireAfterNanos;
+    private final int maximumSize;
+    private final int capacity;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile Table table;
+    private int size;
+    private int removed;
+    private int hand;
+
+    /**
+     * Constructs a CLOCK cache with the specified expiration time and size limit.
+     *
+     * @param expirationTime the time after which cache entries expire
+     * @param timeUnit       the time unit for the expiration time
+     * @param maximumSize    the maximum number of items allowed in the cache
+     */
+    public ClockCacheWrapper(long expirationTime, TimeUnit timeUnit, int maximumSize) {
+        if (maximumSize <= 0 || maximumSize > 1 << 29) {
+            throw new IllegalArgumentException("Maximum size must be between 1 and 2^29.");
+        }
+        this.expireAfterNanos = timeUnit.toNanos(expirationTime);
+        this.maximumSize = maximumSize;
+        this.capacity = Integer.highestOneBit(maximumSize * 2 - 1) << 1;
+        this.table = new Table(capacity);
+    }
+
+    @Override
+    public V get(K key) {
+        Table t = table;
+        int mask = capacity - 1;
+        int index = hash(key) & mask;
+        for (int probes = 0; probes < capacity; ) {
+            long version = t.versions.get(index);
+            if ((version & 1) != 0) {
+                Thread.onSpinWait();
+                continue;
+            }
+            Object slotKey = t.keys.get(index);
+            if (slotKey == null) {
+                return null;
+            }
+            if (slotKey != REMOVED && slotKey.equals(key)) {
+                V value = t.values.get(index);
+                long expiresAt = t.expiries.get(index);
+                if (t.versions.get(index) != version) {
+                    continue;
+                }
+                if (System.nanoTime() - expiresAt >= 0) {
+                    return null;
+                }
+                if (t.referenced.get(index) == 0) {
+                    t.referenced.set(index, 1);
+                }
+                return value;
+            }
+            index = (index + 1) & mask;
+            probes++;
+        }
+        return null;
+    }
+
+    @Override
+    public void put(K key, V value) {
+        writeLock.lock();
+        try {
+            Table t = table;
+            int index = indexOf(t, key);
+            if (index < 0) {
+                if (size >= maximumSize) {
+                    evict(t);
+                }
+                if (size + removed >= capacity * 3 / 4) {
+                    t = rebuild(t);
+                }
+                index = freeSlot(t, key);
+                size++;
+            }
+            write(t, index, key, value, System.nanoTime() + expireAfterNanos);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void invalidate(K key) {
+        writeLock.lock();
+        try {
+            Table t = table;
+            int index = indexOf(t, key);
+            if (index >= 0) {
+                remove(t, index);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void invalidateCache() {
+        writeLock.lock();
+        try {
+            table = new Table(capacity);
+            size = 0;
+            removed = 0;
+            hand = 0;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Returns a snapshot of the keys of all unexpired entries.
+     *
+     * @return the keys currently stored in the cache
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public Iterable<K> getAllKeys() {
+        Table t = table;
+        long now = System.nanoTime();
+        List<K> keys = new ArrayList<>();
+        for (int i = 0; i < capacity; i++) {
+            Object key = t.keys.get(i);
+            if (key != null && key != REMOVED && now - t.expiries.get(i) < 0) {
+                keys.add((K) key);
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Returns the number of entries in the cache, including expired entries that were not evicted yet.
+     *
+     * @return the number of entries
+     */
+    public int size() {
+        writeLock.lock();
+        try {
+            return size;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private int indexOf(Table t, Object key) {
+        int mask = capacity - 1;
+        int index = hash(key) & mask;
+        for (int probes = 0; probes < capacity; probes++) {
+            Object slotKey = t.keys.get(index);
+            if (slotKey == null) {
+                return -1;
+            }
+            if (slotKey != REMOVED && slotKey.equals(key)) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    private int freeSlot(Table t, Object key) {
+        int mask = capacity - 1;
+        int index = hash(key) & mask;
+        while (true) {
+            Object slotKey = t.keys.get(index);
+            if (slotKey == null) {
+                return index;
+            }
+            if (slotKey == REMOVED) {
+                removed--;
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    private void evict(Table t) {
+        long now = System.nanoTime();
+        int mask = capacity - 1;
+        for (int sweeps = 0; sweeps < 2 * capacity; sweeps++) {
+            int index = hand;
+            hand = (hand + 1) & mask;
+            Object slotKey = t.keys.get(index);
+            if (slotKey == null || slotKey == REMOVED) {
+                continue;
+            }
+            if (now - t.expiries.get(index) >= 0 || t.referenced.get(index) == 0) {
+                remove(t, index);
+                return;
+            }
+            t.referenced.set(index, 0);
+        }
+    }
+
+    private void remove(Table t, int index) {
+        t.versions.incrementAndGet(index);
+        t.keys.set(index, REMOVED);
+        t.values.set(index, null);
+        t.referenced.set(index, 0);
+        t.versions.incrementAndGet(index);
+        size--;
+        removed++;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Table rebuild(Table old) {
+        Table t = new Table(capacity);
+        long now = System.nanoTime();
+        size = 0;
+        removed = 0;
+        for (int i = 0; i < capacity; i++) {
+            Object key = old.keys.get(i);
+            if (key != null && key != REMOVED && now - old.expiries.get(i) < 0) {
+                int index = freeSlot(t, key);
+                write(t, index, (K) key, old.values.get(i), old.expiries.get(i));
+                t.referenced.set(index, old.referenced.get(i));
+                size++;
+            }
+        }
+        table = t;
+        return t;
+    }
+
+    private void write(Table t, int index, K key, V value, long expiresAt) {
+        t.versions.incrementAndGet(index);
+        t.keys.set(index, key);
+        t.values.set(index, value);
+        t.expiries.set(index, expiresAt);
+        t.versions.incrementAndGet(index);
+    }
+
+    private static int hash(Object key) {
+        int h = key.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private final class Table {
+        final AtomicLongArray versions;
+        final AtomicReferenceArray<Object> keys;
+        final AtomicReferenceArray<V> values;
+        final AtomicLongArray expiries;
+        final AtomicIntegerArray referenced;
+
+        Table(int capacity) {
+            this.versions = new AtomicLongArray(capacity);
+            this.keys = new AtomicReferenceArray<>(capacity);
+            this.values = new AtomicReferenceArray<>(capacity);
+            this.expiries = new AtomicLongArray(capacity);
+            this.referenced = new AtomicIntegerArray(capacity);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.weather.cache;
+
+import com.weather.model.CompactWeatherResponse;
+import com.weather.model.WeatherResponse;
+
+/**
+ * A weather cache that stores entries as {@link CompactWeatherResponse} in an underlying cache.
+ * <p>
+ * Values are compacted on {@code put}. A {@code get} returns the read-only view of the compact value, which
+ * is built by the first hit after a write and shared by all later ones, so hits neither copy the response nor
+ * hand out data that a caller could change. Entries not read since they were written keep only their compact form.
+ * </p>
+ */
+public class CompactingCacheWrapper implements CacheWrapper<String, WeatherResponse> {
+    private final CacheWrapper<String, CompactWeatherResponse> delegate;
+
+    /**
+     * Constructs a compacting cache on top of the given cache.
+     *
+     * @param delegate the cache holding the compact entries
+     */
+    public CompactingCacheWrapper(CacheWrapper<String, CompactWeatherResponse> delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public WeatherResponse get(String key) {
+        CompactWeatherResponse compact = delegate.get(key);
+        return compact == null ? null : compact.asWeatherResponse();
+    }
+
+    /**
+     * Retrieves the compact form of a cached value, without expanding it.
+     *
+     * @param key the cache key
+     * @return the cached compact value, or {@code null} if not found
+     */
+    public CompactWeatherResponse getCompact(String key) {
+        return delegate.get(key);
+    }
+
+    @Override
+    public void put(String key, WeatherResponse value) {
+        delegate.put(key, CompactWeatherResponse.from(value));
+    }
+
+    @Override
+    public void invalidate(String key) {
+        delegate.invalidate(key);
+    }
+
+    @Override
+    public void invalidateCache() {
+        delegate.invalidateCache();
+    }
+
+    @Override
+    public Iterable<String> getAllKeys() {
+        return delegate.getAllKeys();
+    }
+}
@@ -0,0 +1,278 @@
+package com.weather.cache;
+
+import com.google.common.hash.Hashing;
+import com.weather.concurrent.VirtualThreads;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link SharedCacheStore} keeping one file per entry in a directory, which processes on one host, or on
+ * several hosts mounting a shared file system, can use as a common cache tier without running a cache server.
+ * <p>
+ * File names are the SHA-256 hash of the key, and every file holds its key, its expiry time and its value.
+ * Entries are written to a temporary file first and then moved into place atomically, so readers never see
+ * a partially written entry. Expiry is based on wall-clock time, since it is compared across processes.
+ * </p>
+ * <p>
+ * Expired entries are deleted when they are read. So that entries of keys that are no longer requested and
+ * temporary files left behind by a crashed writer do not pile up, a write also starts a sweep of the directory
+ * once the sweep interval has passed since the last sweep of this store: it deletes all expired entries, and
+ * all temporary files older than the sweep interval. The sweep reads every entry, so it runs on the sweep
+ * executor rather than on the writing thread. Each process sweeps on its own, which is harmless since
+ * deleting an expired entry twice does nothing.
+ * </p>
+ * <p>
+ * Another process may move a fresh entry into place between the expiry check of an entry and its deletion.
+ * An expired entry is therefore first moved aside and checked again; if it turns out to be fresh, it is moved
+ * back, unless an even newer entry has taken its place meanwhile.
+ * </p>
+ */
+public class FileSharedCacheStore implements SharedCacheStore {
+    private static final int MAGIC = 0x57534331;
+    private static final String ENTRY_SUFFIX = ".entry";
+    private static final String TEMP_PREFIX = "entry";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final long DEFAULT_SWEEP_INTERVAL_MINUTES = 10;
+    private static final Executor DEFAULT_SWEEP_EXECUTOR =
+            VirtualThreads.newThreadPerTaskExecutor("weather-cache-sweep");
+
+    private final Path directory;
+    private final long sweepIntervalMillis;
+    private final Executor sweepExecutor;
+    private final AtomicLong lastSweep;
+
+    /**
+     * Constructs a store in the given directory, creating it if it does not exist, which sweeps the directory
+     * every {@value #DEFAULT_SWEEP_INTERVAL_MINUTES} minutes.
+     *
+     * @param directory the directory holding the entries
+     * @throws UncheckedIOException if the directory cannot be created
+     */
+    public FileSharedCacheStore(Path directory) {
+        this(directory, DEFAULT_SWEEP_INTERVAL_MINUTES, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Constructs a store in the given directory, creating it if it does not exist, which sweeps the directory
+     * on a virtual thread, or on a platform daemon thread before Java 21.
+     *
+     * @param directory     the directory holding the entries
+     * @param sweepInterval the time after which a write sweeps expired entries and stale temporary files
+     * @param timeUnit      the time unit of the sweep interval
+     * @throws UncheckedIOException     if the directory cannot be created
+     * @throws IllegalArgumentException if the sweep interval is negative
+     */
+    public FileSharedCacheStore(Path directory, long sweepInterval, TimeUnit timeUnit) {
+        this(directory, sweepInterval, timeUnit, DEFAULT_SWEEP_EXECUTOR);
+    }
+
+    /**
+     * Constructs a store in the given directory, creating it if it does not exist.
+     *
+     * @param directory     the directory holding the entries
+     * @param sweepInterval the time after which a write sweeps expired entries and stale temporary files
+     * @param timeUnit      the time unit of the sweep interval
+     * @param sweepExecutor the executor running the sweeps started by writes
+     * @throws UncheckedIOException     if the directory cannot be created
+     * @throws IllegalArgumentException if the sweep interval is negative
+     */
+    public FileSharedCacheStore(Path directory, long sweepInterval, TimeUnit timeUnit, Executor sweepExecutor) {
+        if (sweepInterval < 0) {
+            throw new IllegalArgumentException("Sweep interval must not be negative.");
+        }
+        try {
+            this.directory = Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create cache directory: " + directory, e);
+        }
+        this.sweepIntervalMillis = timeUnit.toMillis(sweepInterval);
+        this.sweepExecutor = sweepExecutor;
+        this.lastSweep = new AtomicLong(System.currentTimeMillis());
+    }
+
+    @Override
+    public byte[] get(String key) {
+        Path file = entryFile(key);
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Files.readAllBytes(file)))) {
+            if (in.readInt() != MAGIC || !key.equals(in.readUTF())) {
+                return null;
+            }
+            if (in.readLong() <= System.currentTimeMillis()) {
+                deleteIfExpired(file);
+                return null;
+            }
+            byte[] value = new byte[in.readInt()];
+            in.readFully(value);
+            return value;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read cache entry: " + file, e);
+        }
+    }
+
+    @Override
+    public void put(String key, byte[] value, long expirationTime, TimeUnit timeUnit) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(value.length + 64);
+        Path tmp = null;
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeUTF(key);
+            out.writeLong(System.currentTimeMillis() + timeUnit.toMillis(expirationTime));
+            out.writeInt(value.length);
+            out.write(value);
+            out.flush();
+            tmp = Files.createTempFile(directory, TEMP_PREFIX, TEMP_SUFFIX);
+            Files.write(tmp, bytes.toByteArray());
+            Files.move(tmp, entryFile(key), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            deleteQuietly(tmp);
+            throw new UncheckedIOException("Failed to write cache entry for key: " + key, e);
+        }
+        sweepIfDue();
+    }
+
+    @Override
+    public void invalidate(String key) {
+        try {
+            Files.deleteIfExists(entryFile(key));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to delete cache entry for key: " + key, e);
+        }
+    }
+
+    /**
+     * Deletes all expired entries, and all temporary files older than the sweep interval, which a crashed
+     * writer left behind. Files that cannot be read or deleted are skipped.
+     *
+     * @return the number of deleted files
+     * @throws UncheckedIOException if the directory cannot be listed
+     */
+    public int sweep() {
+        long now = System.currentTimeMillis();
+        lastSweep.set(now);
+        int deleted = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                if (isStale(file, now) && deleteStale(file)) {
+                    deleted++;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to sweep cache directory: " + directory, e);
+        } catch (DirectoryIteratorException e) {
+            throw new UncheckedIOException("Failed to sweep cache directory: " + directory, e.getCause());
+        }
+        return deleted;
+    }
+
+    private void sweepIfDue() {
+        long last = lastSweep.get();
+        long now = System.currentTimeMillis();
+        if (now - last < sweepIntervalMillis || !lastSweep.compareAndSet(last, now)) {
+            return;
+        }
+        try {
+            sweepExecutor.execute(() -> {
+                try {
+                    sweep();
+                } catch (UncheckedIOException ignored) {
+                    // The next due write sweeps again
+                }
+            });
+        } catch (RejectedExecutionException ignored) {
+            // The next due write sweeps again
+        }
+    }
+
+    private boolean deleteStale(Path file) {
+        return file.getFileName().toString().endsWith(ENTRY_SUFFIX) ? deleteIfExpired(file) : deleteQuietly(file);
+    }
+
+    /**
+     * Deletes an entry whose expiry has been checked already, unless another process has moved a fresh entry
+     * into place since. The entry is moved aside, which detaches it from later writes, and checked again.
+     */
+    private boolean deleteIfExpired(Path file) {
+        Path claimed = null;
+        try {
+            claimed = Files.createTempFile(directory, TEMP_PREFIX, TEMP_SUFFIX);
+            Files.move(file, claimed, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // Deleted or replaced in the meantime
+            deleteQuietly(claimed);
+            return false;
+        }
+        try {
+            if (expiresAt(claimed) > System.currentTimeMillis()) {
+                // Fails if an even newer entry has been moved into place meanwhile
+                Files.move(claimed, file);
+                return false;
+            }
+        } catch (FileAlreadyExistsException ignored) {
+            // The newer entry wins
+        } catch (IOException ignored) {
+            // Unreadable, so not worth keeping
+        }
+        return deleteQuietly(claimed);
+    }
+
+    private static long expiresAt(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                return Long.MIN_VALUE;
+            }
+            in.readUTF();
+            return in.readLong();
+        }
+    }
+
+    private boolean isStale(Path file, long now) {
+        String name = file.getFileName().toString();
+        try {
+            if (name.endsWith(ENTRY_SUFFIX)) {
+                long expiresAt = expiresAt(file);
+                return expiresAt != Long.MIN_VALUE && expiresAt <= now;
+            }
+            return name.startsWith(TEMP_PREFIX) && name.endsWith(TEMP_SUFFIX)
+                    && Files.getLastModifiedTime(file).toMillis() <= now - sweepIntervalMillis;
+        } catch (IOException e) {
+            // Deleted, or replaced by a partially visible file, in the meantime
+            return false;
+        }
+    }
+
+    private Path entryFile(String key) {
+        return directory.resolve(Hashing.sha256().hashString(key, StandardCharsets.UTF_8) + ENTRY_SUFFIX);
+    }
+
+    private static boolean deleteQuietly(Path file) {
+        if (file == null) {
+            return false;
+        }
+        try {
+            return Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // The file is left behind for the next sweep
+            return false;
+        }
+    }
+}
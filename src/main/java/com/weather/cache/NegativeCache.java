@@ -0,0 +1,87 @@
+package com.weather.cache;
+
+import com.weather.concurrent.FrequencySketch;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded cache of keys known to have no value, such as city names the geocoding API does not know.
+ * <p>
+ * Entries expire after a short time, so that a key starts being looked up again eventually. To keep one-off
+ * garbage input from evicting the keys that are actually repeated, a key is only admitted once it has been
+ * reported missing a few times, as estimated by a {@link FrequencySketch}. The sketch is sized for, and
+ * halved after, ten reports per cache entry, so that keys which stopped being reported lose their history.
+ * </p>
+ */
+public class NegativeCache {
+    private final CacheWrapper<String, Boolean> entries;
+    private final FrequencySketch misses;
+    private final int admissionThreshold;
+    private final int sampleSize;
+    private final AtomicInteger reports = new AtomicInteger();
+    private final LongAdder hits = new LongAdder();
+
+    /**
+     * Constructs a negative cache.
+     *
+     * @param expirationTime     the time after which a key is looked up again
+     * @param timeUnit           the time unit of the expiration time
+     * @param maximumSize        the maximum number of keys cached
+     * @param admissionThreshold the number of times a key must be reported missing before it is cached
+     */
+    public NegativeCache(long expirationTime, TimeUnit timeUnit, int maximumSize, int admissionThreshold) {
+        this.entries = new GuavaCacheWrapper<>(expirationTime, timeUnit, maximumSize);
+        this.admissionThreshold = admissionThreshold;
+        this.sampleSize = Math.max(1, maximumSize) * 10;
+        this.misses = new FrequencySketch(sampleSize);
+    }
+
+    /**
+     * Tells whether a key is known to have no value.
+     *
+     * @param key the key
+     * @return {@code true} if the key was admitted and has not expired yet
+     */
+    public boolean contains(String key) {
+        if (entries.get(key) == null) {
+            return false;
+        }
+        hits.increment();
+        return true;
+    }
+
+    /**
+     * Reports that a key has no value, and caches it if it was reported often enough.
+     *
+     * @param key the key
+     */
+    public void recordMissing(String key) {
+        misses.increment(key);
+        if (reports.incrementAndGet() % sampleSize == 0) {
+            misses.halve();
+        }
+        if (misses.frequency(key) >= admissionThreshold) {
+            entries.put(key, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Removes a key, for example once it is known to have a value.
+     *
+     * @param key the key
+     */
+    public void invalidate(String key) {
+        entries.invalidate(key);
+    }
+
+    /**
+     * Returns the number of lookups answered by this cache.
+     *
+     * @return the number of hits
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+}
@@ -0,0 +1,500 @@
+package com.weather.cache;
+
+import com.weather.model.CompactWeatherResponse;
+import com.weather.model.WeatherResponse;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * A weather cache that keeps its entries outside the garbage-collected heap.
+ * <p>
+ * Every entry is serialized into a fixed-size binary record in a direct {@link ByteBuffer}, or in a
+ * memory-mapped file. Only a primitive hash index from key to record number stays on the heap, so the
+ * cache can hold hundreds of thousands of cities without growing the heap. Records are decoded into a new
+ * {@link WeatherResponse} on every {@code get}.
+ * </p>
+ * <p>
+ * When backed by a file, the cache survives process restarts: on startup the unexpired records of the
+ * file are indexed, and served at once. Expiry is therefore based on wall-clock time.
+ * </p>
+ * <p>
+ * Keys and the name of a city are limited to {@value #MAX_KEY_BYTES} bytes in UTF-8, and weather condition
+ * strings to {@value #MAX_MAIN_BYTES} and {@value #MAX_DESCRIPTION_BYTES} bytes. Entries exceeding these limits
+ * are not cached. When the cache is full, an entry is evicted with the CLOCK algorithm, preferring expired
+ * entries and entries that were not read recently.
+ * </p>
+ */
+public class OffHeapCacheWrapper implements CacheWrapper<String, WeatherResponse> {
+    static final int MAX_KEY_BYTES = 96;
+    static final int MAX_MAIN_BYTES = 32;
+    static final int MAX_DESCRIPTION_BYTES = 96;
+
+    private static final int MAGIC = 0x57544831;
+    private static final int HEADER_SIZE = 16;
+
+    private static final byte EMPTY = 0;
+    private static final byte LIVE = 1;
+
+    private static final int STATE = 0;
+    private static final int PARTS = 1;
+    private static final int KEY_LENGTH = 2;
+    private static final int HASH = 4;
+    private static final int EXPIRES_AT = 8;
+    private static final int TEMP = 16;
+    private static final int FEELS_LIKE = 24;
+    private static final int WIND_SPEED = 32;
+    private static final int DATETIME = 40;
+    private static final int SUNRISE = 48;
+    private static final int SUNSET = 56;
+    private static final int VISIBILITY = 64;
+    private static final int TIMEZONE = 68;
+    private static final int NAME_LENGTH = 72;
+    private static final int MAIN_LENGTH = 74;
+    private static final int DESCRIPTION_LENGTH = 76;
+    private static final int KEY = 80;
+    private static final int NAME = KEY + MAX_KEY_BYTES;
+    private static final int MAIN = NAME + MAX_KEY_BYTES;
+    private static final int DESCRIPTION = MAIN + MAX_MAIN_BYTES;
+    static final int RECORD_SIZE = DESCRIPTION + MAX_DESCRIPTION_BYTES;
+
+    private static final int FREE_INDEX_SLOT = 0;
+    private static final int REMOVED_INDEX_SLOT = -1;
+
+    private final long expireAfterMillis;
+    private final int maximumSize;
+    private final ByteBuffer buffer;
+    private final boolean persistent;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final int indexMask;
+    private final int[] indexRecords;
+    private final int[] indexHashes;
+    private final byte[] referenced;
+    private final int[] freeRecords;
+    private int freeCount;
+    private int size;
+    private int removedIndexSlots;
+    private int hand;
+
+    /**
+     * Constructs an off-heap cache in a direct buffer, whose content is lost when the process ends.
+     *
+     * @param expirationTime the time after which cache entries expire
+     * @param timeUnit       the time unit for the expiration time
+     * @param maximumSize    the maximum number of items allowed in the cache
+     */
+    public OffHeapCacheWrapper(long expirationTime, TimeUnit timeUnit, int maximumSize) {
+        this(expirationTime, timeUnit, maximumSize, ByteBuffer.allocateDirect(bufferSize(maximumSize)), false);
+        initialize();
+    }
+
+    /**
+     * Constructs an off-heap cache in a memory-mapped file.
+     * If the file was written by a cache of the same maximum size, its unexpired entries are loaded.
+     * Otherwise the file is cleared.
+     *
+     * @param expirationTime the time after which cache entries expire
+     * @param timeUnit       the time unit for the expiration time
+     * @param maximumSize    the maximum number of items allowed in the cache
+     * @param file           the file backing the cache
+     * @throws UncheckedIOException if the file cannot be opened or mapped
+     */
+    public OffHeapCacheWrapper(long expirationTime, TimeUnit timeUnit, int maximumSize, Path file) {
+        this(expirationTime, timeUnit, maximumSize, map(file, bufferSize(maximumSize)), true);
+        if (buffer.getInt(0) == MAGIC && buffer.getInt(4) == RECORD_SIZE && buffer.getInt(8) == maximumSize) {
+            load();
+        } else {
+            initialize();
+        }
+    }
+
+    private OffHeapCacheWrapper(long expirationTime, TimeUnit timeUnit, int maximumSize, ByteBuffer buffer,
+                                boolean persistent) {
+        this.expireAfterMillis = timeUnit.toMillis(expirationTime);
+        this.maximumSize = maximumSize;
+        this.buffer = buffer;
+        this.persistent = persistent;
+        int indexCapacity = Integer.highestOneBit(maximumSize * 2 - 1) << 1;
+        this.indexMask = indexCapacity - 1;
+        this.indexRecords = new int[indexCapacity];
+        this.indexHashes = new int[indexCapacity];
+        this.referenced = new byte[maximumSize];
+        this.freeRecords = new int[maximumSize];
+    }
+
+    private static int bufferSize(int maximumSize) {
+        if (maximumSize <= 0 || (long) maximumSize * RECORD_SIZE + HEADER_SIZE > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Maximum size must be between 1 and "
+                    + (Integer.MAX_VALUE - HEADER_SIZE) / RECORD_SIZE + ".");
+        }
+        return HEADER_SIZE + maximumSize * RECORD_SIZE;
+    }
+
+    private static ByteBuffer map(Path file, int size) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to map cache file: " + file, e);
+        }
+    }
+
+    @Override
+    public WeatherResponse get(String key) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        lock.readLock().lock();
+        try {
+            int slot = findIndexSlot(keyBytes, hash(keyBytes));
+            if (slot < 0) {
+                return null;
+            }
+            int record = indexRecords[slot] - 1;
+            int offset = offset(record);
+            if (System.currentTimeMillis() >= buffer.getLong(offset + EXPIRES_AT)) {
+                return null;
+            }
+            referenced[record] = 1;
+            return decode(offset);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void put(String key, WeatherResponse value) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        CompactWeatherResponse compact = CompactWeatherResponse.from(value);
+        byte[] name = bytes(compact.getName());
+        byte[] main = bytes(compact.getMain());
+        byte[] description = bytes(compact.getDescription());
+        if (keyBytes.length > MAX_KEY_BYTES || length(name) > MAX_KEY_BYTES
+                || length(main) > MAX_MAIN_BYTES || length(description) > MAX_DESCRIPTION_BYTES) {
+            invalidate(key);
+            return;
+        }
+        int hash = hash(keyBytes);
+        lock.writeLock().lock();
+        try {
+            int slot = findIndexSlot(keyBytes, hash);
+            int record;
+            if (slot >= 0) {
+                record = indexRecords[slot] - 1;
+            } else {
+                if (freeCount == 0) {
+                    evict();
+                }
+                record = freeRecords[--freeCount];
+                addToIndex(record, hash);
+                size++;
+            }
+            write(offset(record), keyBytes, hash, compact, name, main, description);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void invalidate(String key) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        lock.writeLock().lock();
+        try {
+            int slot = findIndexSlot(keyBytes, hash(keyBytes));
+            if (slot >= 0) {
+                removeRecord(slot);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void invalidateCache() {
+        lock.writeLock().lock();
+        try {
+            initialize();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns a snapshot of the keys of all unexpired entries.
+     *
+     * @return the keys currently stored in the cache
+     */
+    @Override
+    public Iterable<String> getAllKeys() {
+        lock.readLock().lock();
+        try {
+            long now = System.currentTimeMillis();
+            List<String> keys = new ArrayList<>(size);
+            for (int record : indexRecords) {
+                if (record > 0) {
+                    int offset = offset(record - 1);
+                    if (now < buffer.getLong(offset + EXPIRES_AT)) {
+                        keys.add(readString(offset + KEY, buffer.getShort(offset + KEY_LENGTH)));
+                    }
+                }
+            }
+            return keys;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of entries in the cache, including expired entries that were not evicted yet.
+     *
+     * @return the number of entries
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean isPersistent() {
+        return persistent;
+    }
+
+    /**
+     * Writes pending changes of a file-backed cache to the file. Does nothing for a cache in a direct buffer.
+     */
+    public void flush() {
+        if (persistent) {
+            lock.readLock().lock();
+            try {
+                ((MappedByteBuffer) buffer).force();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+    }
+
+    private void initialize() {
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, RECORD_SIZE);
+        buffer.putInt(8, maximumSize);
+        for (int record = 0; record < maximumSize; record++) {
+            buffer.put(offset(record) + STATE, EMPTY);
+        }
+        Arrays.fill(indexRecords, FREE_INDEX_SLOT);
+        Arrays.fill(referenced, (byte) 0);
+        freeCount = 0;
+        for (int record = maximumSize - 1; record >= 0; record--) {
+            freeRecords[freeCount++] = record;
+        }
+        size = 0;
+        removedIndexSlots = 0;
+        hand = 0;
+    }
+
+    private void load() {
+        long now = System.currentTimeMillis();
+        for (int record = maximumSize - 1; record >= 0; record--) {
+            int offset = offset(record);
+            if (buffer.get(offset + STATE) == LIVE && now < buffer.getLong(offset + EXPIRES_AT)) {
+                addToIndex(record, buffer.getInt(offset + HASH));
+                size++;
+            } else {
+                buffer.put(offset + STATE, EMPTY);
+                freeRecords[freeCount++] = record;
+            }
+        }
+    }
+
+    private int findIndexSlot(byte[] keyBytes, int hash) {
+        int slot = hash & indexMask;
+        while (true) {
+            int record = indexRecords[slot];
+            if (record == FREE_INDEX_SLOT) {
+                return -1;
+            }
+            if (record != REMOVED_INDEX_SLOT && indexHashes[slot] == hash && keyEquals(offset(record - 1), keyBytes)) {
+                return slot;
+            }
+            slot = (slot + 1) & indexMask;
+        }
+    }
+
+    private void addToIndex(int record, int hash) {
+        if (size + removedIndexSlots >= (indexMask + 1) * 3 / 4) {
+            rebuildIndex();
+        }
+        int slot = hash & indexMask;
+        while (indexRecords[slot] > 0) {
+            slot = (slot + 1) & indexMask;
+        }
+        if (indexRecords[slot] == REMOVED_INDEX_SLOT) {
+            removedIndexSlots--;
+        }
+        indexRecords[slot] = record + 1;
+        indexHashes[slot] = hash;
+    }
+
+    private void rebuildIndex() {
+        int[] records = indexRecords.clone();
+        int[] hashes = indexHashes.clone();
+        Arrays.fill(indexRecords, FREE_INDEX_SLOT);
+        removedIndexSlots = 0;
+        for (int i = 0; i < records.length; i++) {
+            if (records[i] > 0) {
+                int slot = hashes[i] & indexMask;
+                while (indexRecords[slot] != FREE_INDEX_SLOT) {
+                    slot = (slot + 1) & indexMask;
+                }
+                indexRecords[slot] = records[i];
+                indexHashes[slot] = hashes[i];
+            }
+        }
+    }
+
+    private void evict() {
+        long now = System.currentTimeMillis();
+        while (true) {
+            int record = hand;
+            hand = (hand + 1) % maximumSize;
+            int offset = offset(record);
+            if (buffer.get(offset + STATE) != LIVE) {
+                continue;
+            }
+            if (referenced[record] == 0 || now >= buffer.getLong(offset + EXPIRES_AT)) {
+                byte[] keyBytes = new byte[buffer.getShort(offset + KEY_LENGTH)];
+                buffer.get(offset + KEY, keyBytes);
+                removeRecord(findIndexSlot(keyBytes, buffer.getInt(offset + HASH)));
+                return;
+            }
+            referenced[record] = 0;
+        }
+    }
+
+    private void removeRecord(int slot) {
+        int record = indexRecords[slot] - 1;
+        buffer.put(offset(record) + STATE, EMPTY);
+        referenced[record] = 0;
+        indexRecords[slot] = REMOVED_INDEX_SLOT;
+        removedIndexSlots++;
+        freeRecords[freeCount++] = record;
+        size--;
+    }
+
+    private void write(int offset, byte[] keyBytes, int hash, CompactWeatherResponse compact,
+                       byte[] name, byte[] main, byte[] description) {
+        buffer.put(offset + STATE, EMPTY);
+        buffer.put(offset + PARTS, parts(compact));
+        buffer.putShort(offset + KEY_LENGTH, (short) keyBytes.length);
+        buffer.putInt(offset + HASH, hash);
+        buffer.putLong(offset + EXPIRES_AT, System.currentTimeMillis() + expireAfterMillis);
+        buffer.putDouble(offset + TEMP, compact.getTemp());
+        buffer.putDouble(offset + FEELS_LIKE, compact.getFeelsLike());
+        buffer.putDouble(offset + WIND_SPEED, compact.getWindSpeed());
+        buffer.putLong(offset + DATETIME, compact.getDatetime());
+        buffer.putLong(offset + SUNRISE, compact.getSunrise());
+        buffer.putLong(offset + SUNSET, compact.getSunset());
+        buffer.putInt(offset + VISIBILITY, compact.getVisibility());
+        buffer.putInt(offset + TIMEZONE, compact.getTimezone());
+        buffer.put(offset + KEY, keyBytes);
+        putString(offset + NAME_LENGTH, offset + NAME, name);
+        putString(offset + MAIN_LENGTH, offset + MAIN, main);
+        putString(offset + DESCRIPTION_LENGTH, offset + DESCRIPTION, description);
+        buffer.put(offset + STATE, LIVE);
+    }
+
+    private WeatherResponse decode(int offset) {
+        byte parts = buffer.get(offset + PARTS);
+        WeatherResponse response = new WeatherResponse();
+        if ((parts & 1) != 0) {
+            WeatherResponse.WeatherInfo weatherInfo = new WeatherResponse.WeatherInfo();
+            weatherInfo.setMain(readString(offset + MAIN, buffer.getShort(offset + MAIN_LENGTH)));
+            weatherInfo.setDescription(readString(offset + DESCRIPTION, buffer.getShort(offset + DESCRIPTION_LENGTH)));
+            response.setWeather(List.of(weatherInfo));
+        }
+        if ((parts & 2) != 0) {
+            WeatherResponse.TemperatureInfo temperatureInfo = new WeatherResponse.TemperatureInfo();
+            temperatureInfo.setTemp(buffer.getDouble(offset + TEMP));
+            temperatureInfo.setFeelsLike(buffer.getDouble(offset + FEELS_LIKE));
+            response.setTemperature(temperatureInfo);
+        }
+        if ((parts & 4) != 0) {
+            WeatherResponse.WindInfo windInfo = new WeatherResponse.WindInfo();
+            windInfo.setSpeed(buffer.getDouble(offset + WIND_SPEED));
+            response.setWind(windInfo);
+        }
+        if ((parts & 8) != 0) {
+            WeatherResponse.SysInfo sysInfo = new WeatherResponse.SysInfo();
+            sysInfo.setSunrise(buffer.getLong(offset + SUNRISE));
+            sysInfo.setSunset(buffer.getLong(offset + SUNSET));
+            response.setSys(sysInfo);
+        }
+        response.setVisibility(buffer.getInt(offset + VISIBILITY));
+        response.setDatetime(buffer.getLong(offset + DATETIME));
+        response.setTimezone(buffer.getInt(offset + TIMEZONE));
+        response.setName(readString(offset + NAME, buffer.getShort(offset + NAME_LENGTH)));
+        return response;
+    }
+
+    private static byte parts(CompactWeatherResponse compact) {
+        return (byte) ((compact.hasWeather() ? 1 : 0) | (compact.hasTemperature() ? 2 : 0)
+                | (compact.hasWind() ? 4 : 0) | (compact.hasSys() ? 8 : 0));
+    }
+
+    private boolean keyEquals(int offset, byte[] keyBytes) {
+        if (buffer.getShort(offset + KEY_LENGTH) != keyBytes.length) {
+            return false;
+        }
+        for (int i = 0; i < keyBytes.length; i++) {
+            if (buffer.get(offset + KEY + i) != keyBytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void putString(int lengthOffset, int offset, byte[] value) {
+        buffer.putShort(lengthOffset, (short) length(value));
+        if (value != null) {
+            buffer.put(offset, value);
+        }
+    }
+
+    private String readString(int offset, int length) {
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(offset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] bytes(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int length(byte[] value) {
+        return value == null ? -1 : value.length;
+    }
+
+    private static int offset(int record) {
+        return HEADER_SIZE + record * RECORD_SIZE;
+    }
+
+    private static int hash(byte[] keyBytes) {
+        int h = Arrays.hashCode(keyBytes) * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,212 @@
+package com.weather.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.weather.model.CityGeoResponse;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A long-lived cache of city geocoding results, mapping city names to their coordinates.
+ * <p>
+ * A city's coordinates never change, so entries do not expire and are only evicted when the
+ * maximum size is reached. When a file is given, every new entry is appended to it in a compact
+ * binary format and the file is loaded on construction, so a restarted process does not have to
+ * geocode the cities it already knows.
+ * </p>
+ * <p>
+ * Persistence is best effort: a file that cannot be read, because it is corrupt or written in an older
+ * format, is deleted and the cache starts empty, and entries that cannot be appended stay cached in memory.
+ * </p>
+ */
+public class PersistentGeoCacheWrapper implements CacheWrapper<String, CityGeoResponse> {
+    private static final int MAGIC = 0x47454F32;
+    private static final byte RECORD_PUT = 1;
+    private static final byte RECORD_REMOVE = 0;
+
+    private final Cache<String, CityGeoResponse> cache;
+    private final Path file;
+    private final ReentrantLock fileLock = new ReentrantLock();
+
+    /**
+     * Constructs an in-memory geocode cache.
+     *
+     * @param maximumSize the maximum number of cities kept in the cache
+     */
+    public PersistentGeoCacheWrapper(long maximumSize) {
+        this(maximumSize, null);
+    }
+
+    /**
+     * Constructs a geocode cache backed by the given file.
+     * Existing entries are loaded from the file if it exists, and the file is then compacted. A file that
+     * cannot be read is deleted instead, and the cache starts empty.
+     *
+     * @param maximumSize the maximum number of cities kept in the cache
+     * @param file        the file to persist entries to, or {@code null} to keep them in memory only
+     */
+    public PersistentGeoCacheWrapper(long maximumSize, Path file) {
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .build();
+        this.file = file;
+        if (file != null && Files.exists(file) && load()) {
+            try {
+                save();
+            } catch (UncheckedIOException ignored) {
+                // The file keeps its removed and evicted entries until the next save
+            }
+        }
+    }
+
+    @Override
+    public CityGeoResponse get(String key) {
+        return cache.getIfPresent(key);
+    }
+
+    @Override
+    public void put(String key, CityGeoResponse value) {
+        CityGeoResponse previous = cache.asMap().put(key, value);
+        if (previous == null || previous.getLat() != value.getLat() || previous.getLon() != value.getLon()) {
+            append(RECORD_PUT, key, value);
+        }
+    }
+
+    @Override
+    public void invalidate(String key) {
+        if (cache.asMap().remove(key) != null) {
+            append(RECORD_REMOVE, key, null);
+        }
+    }
+
+    @Override
+    public void invalidateCache() {
+        cache.invalidateAll();
+        cache.cleanUp();
+        save();
+    }
+
+    @Override
+    public Iterable<String> getAllKeys() {
+        return cache.asMap().keySet();
+    }
+
+    /**
+     * Rewrites the backing file with the current cache contents, dropping removed and evicted entries.
+     * Does nothing if the cache is not backed by a file.
+     *
+     * @throws UncheckedIOException if the file cannot be written
+     */
+    public void save() {
+        if (file == null) {
+            return;
+        }
+        fileLock.lock();
+        try {
+            Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeInt(MAGIC);
+                for (Map.Entry<String, CityGeoResponse> entry : cache.asMap().entrySet()) {
+                    writeRecord(out, RECORD_PUT, entry.getKey(), entry.getValue());
+                }
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            fileLock.unlock();
+        }
+    }
+
+    private boolean load() {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a geocode cache file: " + file);
+            }
+            while (true) {
+                byte type = in.readByte();
+                String key = in.readUTF();
+                if (type == RECORD_REMOVE) {
+                    cache.invalidate(key);
+                    continue;
+                }
+                CityGeoResponse geo = new CityGeoResponse();
+                geo.setLat(in.readDouble());
+                geo.setLon(in.readDouble());
+                geo.setName(readNullableUTF(in));
+                geo.setCountry(readNullableUTF(in));
+                cache.put(key, geo);
+            }
+        } catch (EOFException e) {
+            // End of file; a truncated last record left by a crash is ignored
+            return true;
+        } catch (IOException | RuntimeException e) {
+            cache.invalidateAll();
+            discardFile();
+            return false;
+        }
+    }
+
+    private void discardFile() {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+            // The next save replaces the file
+        }
+    }
+
+    private void append(byte type, String key, CityGeoResponse value) {
+        if (file == null) {
+            return;
+        }
+        fileLock.lock();
+        try {
+            boolean newFile = !Files.exists(file);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND)))) {
+                if (newFile) {
+                    out.writeInt(MAGIC);
+                }
+                writeRecord(out, type, key, value);
+            }
+        } catch (IOException ignored) {
+            // Persistence is best effort; the entry stays cached in memory
+        } finally {
+            fileLock.unlock();
+        }
+    }
+
+    private static void writeRecord(DataOutputStream out, byte type, String key, CityGeoResponse value) throws IOException {
+        out.writeByte(type);
+        out.writeUTF(key);
+        if (type == RECORD_PUT) {
+            out.writeDouble(value.getLat());
+            out.writeDouble(value.getLon());
+            writeNullableUTF(out, value.getName());
+            writeNullableUTF(out, value.getCountry());
+        }
+    }
+
+    private static void writeNullableUTF(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullableUTF(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
@@ -0,0 +1,371 @@
+package com.weather.cache;
+
+import com.weather.model.WeatherResponse;
+import com.weather.model.WeatherUpdate;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * A weather cache that publishes significant changes of the weather of a key to its subscribers.
+ * <p>
+ * Every key with subscribers has a {@link SubmissionPublisher}, which delivers {@link WeatherUpdate updates}
+ * on the given executor and buffers up to the given number of updates per subscriber, so that every subscriber
+ * consumes updates at its own pace through {@link Flow.Subscription#request(long)}. A subscriber whose buffer
+ * is full misses updates rather than holding up the writer of the cache, such as the polling service.
+ * The publisher of a key is created by its first subscriber, and closed and dropped once its last subscriber
+ * cancelled its subscription.
+ * </p>
+ * <p>
+ * A value written to the cache is published when it differs from the value last published for its key by
+ * one of the {@link UpdateThresholds}. Values that changed underneath this cache, for example through a
+ * refresh-ahead cache or a cache shared with other processes, are published when they are first read.
+ * Keys without subscribers cost a single emptiness check per operation.
+ * </p>
+ */
+public class PublishingCacheWrapper implements CacheWrapper<String, WeatherResponse>, AutoCloseable {
+    private final CacheWrapper<String, WeatherResponse> delegate;
+    private final UpdateThresholds thresholds;
+    private final Executor executor;
+    private final int bufferCapacity;
+    private final Map<String, Channel> channels = new ConcurrentHashMap<>();
+    private final LongAdder published = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private volatile boolean closed;
+
+    /**
+     * Constructs a publishing cache on top of the given cache.
+     *
+     * @param delegate       the cache holding the entries
+     * @param thresholds     the thresholds deciding which changes are published
+     * @param executor       the executor delivering updates to subscribers
+     * @param bufferCapacity the maximum number of updates buffered per subscriber
+     */
+    public PublishingCacheWrapper(CacheWrapper<String, WeatherResponse> delegate, UpdateThresholds thresholds,
+                                  Executor executor, int bufferCapacity) {
+        this.delegate = delegate;
+        this.thresholds = thresholds;
+        this.executor = executor;
+        this.bufferCapacity = bufferCapacity;
+    }
+
+    @Override
+    public WeatherResponse get(String key) {
+        WeatherResponse value = delegate.get(key);
+        if (value != null && !channels.isEmpty()) {
+            publish(key, value);
+        }
+        return value;
+    }
+
+    @Override
+    public void put(String key, WeatherResponse value) {
+        delegate.put(key, value);
+        if (!channels.isEmpty()) {
+            publish(key, value);
+        }
+    }
+
+    @Override
+    public void invalidate(String key) {
+        delegate.invalidate(key);
+    }
+
+    @Override
+    public void invalidateCache() {
+        delegate.invalidateCache();
+    }
+
+    @Override
+    public Iterable<String> getAllKeys() {
+        return delegate.getAllKeys();
+    }
+
+    /**
+     * Returns the publisher of the updates of a key. The value cached for the key when the key gains its
+     * first subscriber is the baseline the first update is compared to; if none is cached, the first value
+     * written is published. Subscribers subscribing after this cache has been closed are completed at once.
+     *
+     * @param key the cache key
+     * @return the publisher of the updates of the key
+     * @throws IllegalStateException if this cache has been closed
+     */
+    public Flow.Publisher<WeatherUpdate> getPublisher(String key) {
+        checkOpen();
+        return subscriber -> subscribe(key, subscriber);
+    }
+
+    /**
+     * Subscribes a listener to the updates of a key. Updates are passed to the listener one at a time, in the
+     * order they were published. A listener that throws an exception is unsubscribed.
+     *
+     * @param key      the cache key
+     * @param listener the listener receiving the updates
+     * @return the subscription, which stops the updates when cancelled
+     * @throws IllegalStateException if this cache has been closed
+     */
+    public Flow.Subscription subscribe(String key, Consumer<WeatherUpdate> listener) {
+        checkOpen();
+        return subscribe(key, new ListenerSubscriber(listener));
+    }
+
+    /**
+     * Returns the number of updates published, counted once per key rather than per subscriber.
+     *
+     * @return the number of published updates
+     */
+    public long getPublishedCount() {
+        return published.sum();
+    }
+
+    /**
+     * Returns the number of updates not delivered to a subscriber because its buffer was full.
+     *
+     * @return the number of dropped updates
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * Completes the subscriptions of all keys. Later calls to {@link #getPublisher(String)} and
+     * {@link #subscribe(String, Consumer)} fail.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        channels.values().forEach(channel -> channel.publisher.close());
+        channels.clear();
+    }
+
+    /**
+     * Returns the number of keys that currently have subscribers.
+     */
+    int getSubscribedKeyCount() {
+        return channels.size();
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Updates are no longer published");
+        }
+    }
+
+    private Flow.Subscription subscribe(String key, Flow.Subscriber<? super WeatherUpdate> subscriber) {
+        while (true) {
+            if (closed) {
+                return completeAtOnce(subscriber);
+            }
+            Channel channel = channelOf(key);
+            channel.lock.lock();
+            try {
+                if (channel.removed) {
+                    // The last subscriber left in the meantime, so the channel is created again
+                    continue;
+                }
+                if (closed) {
+                    // Created after close() dropped all channels, so it is dropped here
+                    channel.removed = true;
+                    channels.remove(key, channel);
+                    channel.publisher.close();
+                    return completeAtOnce(subscriber);
+                }
+                channel.subscribers++;
+                TrackingSubscriber tracking = new TrackingSubscriber(subscriber, () -> leave(key, channel));
+                channel.publisher.subscribe(tracking);
+                return tracking;
+            } finally {
+                channel.lock.unlock();
+            }
+        }
+    }
+
+    private Channel channelOf(String key) {
+        Channel channel = channels.get(key);
+        if (channel != null) {
+            return channel;
+        }
+        // The baseline may come from a slower tier, so it is read before locking the map
+        WeatherResponse baseline = delegate.get(key);
+        return channels.computeIfAbsent(key, k -> new Channel(
+                new SubmissionPublisher<>(executor, bufferCapacity), baseline));
+    }
+
+    private void leave(String key, Channel channel) {
+        channel.lock.lock();
+        try {
+            if (--channel.subscribers == 0 && !channel.removed) {
+                channel.removed = true;
+                channels.remove(key, channel);
+                channel.publisher.close();
+            }
+        } finally {
+            channel.lock.unlock();
+        }
+    }
+
+    private void publish(String key, WeatherResponse value) {
+        Channel channel = channels.get(key);
+        if (channel == null) {
+            return;
+        }
+        channel.lock.lock();
+        try {
+            if (value == channel.lastSeen) {
+                return;
+            }
+            channel.lastSeen = value;
+            WeatherResponse previous = channel.lastPublished;
+            if (!thresholds.isSignificant(previous, value)) {
+                return;
+            }
+            channel.lastPublished = value;
+            published.increment();
+            channel.publisher.offer(new WeatherUpdate(key, previous, value), (subscriber, update) -> {
+                dropped.increment();
+                return false;
+            });
+        } catch (IllegalStateException e) {
+            // The publisher was closed concurrently
+        } finally {
+            channel.lock.unlock();
+        }
+    }
+
+    private static Flow.Subscription completeAtOnce(Flow.Subscriber<? super WeatherUpdate> subscriber) {
+        Flow.Subscription subscription = new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+            }
+
+            @Override
+            public void cancel() {
+            }
+        };
+        subscriber.onSubscribe(subscription);
+        subscriber.onComplete();
+        return subscription;
+    }
+
+    private static final class Channel {
+        private final SubmissionPublisher<WeatherUpdate> publisher;
+        private final ReentrantLock lock = new ReentrantLock();
+        private int subscribers;
+        private boolean removed;
+        private WeatherResponse lastSeen;
+        private WeatherResponse lastPublished;
+
+        private Channel(SubmissionPublisher<WeatherUpdate> publisher, WeatherResponse baseline) {
+            this.publisher = publisher;
+            this.lastSeen = baseline;
+            this.lastPublished = baseline;
+        }
+    }
+
+    /**
+     * Passes everything on to a subscriber, and reports once that it left, by cancelling its subscription
+     * or by being completed. A subscription cancelled before the subscriber was subscribed leaves at once.
+     */
+    private static final class TrackingSubscriber implements Flow.Subscriber<WeatherUpdate>, Flow.Subscription {
+        private final Flow.Subscriber<? super WeatherUpdate> subscriber;
+        private final Runnable onLeave;
+        private final AtomicBoolean left = new AtomicBoolean();
+        private volatile Flow.Subscription subscription;
+        private volatile boolean cancelled;
+
+        private TrackingSubscriber(Flow.Subscriber<? super WeatherUpdate> subscriber, Runnable onLeave) {
+            this.subscriber = subscriber;
+            this.onLeave = onLeave;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (cancelled) {
+                subscription.cancel();
+                return;
+            }
+            subscriber.onSubscribe(this);
+        }
+
+        @Override
+        public void onNext(WeatherUpdate update) {
+            subscriber.onNext(update);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            leave();
+            subscriber.onError(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            leave();
+            subscriber.onComplete();
+        }
+
+        @Override
+        public void request(long n) {
+            Flow.Subscription current = subscription;
+            if (current != null) {
+                current.request(n);
+            }
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            Flow.Subscription current = subscription;
+            if (current != null) {
+                current.cancel();
+            }
+            leave();
+        }
+
+        private void leave() {
+            if (left.compareAndSet(false, true)) {
+                onLeave.run();
+            }
+        }
+    }
+
+    /**
+     * Passes updates to a listener, requesting the next update once the listener returned.
+     */
+    private static final class ListenerSubscriber implements Flow.Subscriber<WeatherUpdate> {
+        private final Consumer<WeatherUpdate> listener;
+        private Flow.Subscription subscription;
+
+        private ListenerSubscriber(Consumer<WeatherUpdate> listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(1);
+        }
+
+        @Override
+        public void onNext(WeatherUpdate update) {
+            listener.accept(update);
+            subscription.request(1);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+}
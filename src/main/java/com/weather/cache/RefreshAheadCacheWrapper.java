@@ -0,0 +1,89 @@
+package com.weather.cache;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import com.weather.apiClient.WeatherApiClient;
+import com.weather.model.WeatherResponse;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A weather cache with stale-while-revalidate semantics, built on Guava's refresh-after-write support.
+ * <p>
+ * Entries older than the soft TTL are still returned immediately, and reading them starts an
+ * asynchronous refresh through {@link WeatherApiClient#getWeatherByCityAsync(String)}. At most one
+ * refresh per key is in flight at a time, and if a refresh fails the stale entry is kept.
+ * Entries are only dropped once they are older than the hard TTL.
+ * </p>
+ */
+public class RefreshAheadCacheWrapper implements CacheWrapper<String, WeatherResponse> {
+    private final LoadingCache<String, WeatherResponse> cache;
+
+    /**
+     * Constructs a refresh-ahead weather cache.
+     *
+     * @param weatherApiClient the client used to refresh entries, called with the cache key as city name
+     * @param softTtl          the age after which reading an entry starts a background refresh
+     * @param hardTtl          the age after which an entry expires
+     * @param timeUnit         the time unit of both TTLs
+     * @param maximumSize      the maximum number of items allowed in the cache
+     */
+    public RefreshAheadCacheWrapper(WeatherApiClient weatherApiClient, long softTtl, long hardTtl,
+                                    TimeUnit timeUnit, long maximumSize) {
+        if (softTtl >= hardTtl) {
+            throw new IllegalArgumentException("Soft TTL must be shorter than hard TTL.");
+        }
+        this.cache = CacheBuilder.newBuilder()
+                .refreshAfterWrite(softTtl, timeUnit)
+                .expireAfterWrite(hardTtl, timeUnit)
+                .maximumSize(maximumSize)
+                .build(new CacheLoader<>() {
+                    @Override
+                    public WeatherResponse load(String key) throws Exception {
+                        return weatherApiClient.getWeatherByCity(key);
+                    }
+
+                    @Override
+                    public ListenableFuture<WeatherResponse> reload(String key, WeatherResponse oldValue) {
+                        SettableFuture<WeatherResponse> future = SettableFuture.create();
+                        weatherApiClient.getWeatherByCityAsync(key).whenComplete((response, failure) -> {
+                            if (failure != null) {
+                                future.setException(failure);
+                            } else {
+                                future.set(response);
+                            }
+                        });
+                        return future;
+                    }
+                });
+    }
+
+    @Override
+    public WeatherResponse get(String key) {
+        return cache.getIfPresent(key);
+    }
+
+    @Override
+    public void put(String key, WeatherResponse value) {
+        cache.put(key, value);
+    }
+
+    @Override
+    public void invalidate(String key) {
+        cache.invalidate(key);
+    }
+
+    @Override
+    public void invalidateCache() {
+        cache.invalidateAll();
+        cache.cleanUp();
+    }
+
+    @Override
+    public Iterable<String> getAllKeys() {
+        return cache.asMap().keySet();
+    }
+}
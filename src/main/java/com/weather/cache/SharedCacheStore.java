@@ -0,0 +1,39 @@
+package com.weather.cache;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A key-value store shared by several processes, used as the second tier of a {@link TieredCacheWrapper}.
+ * <p>
+ * Values are opaque byte arrays with a time to live, so that a store can be backed by Redis, Memcached or
+ * any other shared cache without knowing about weather data. Implementations must be thread-safe, and may
+ * throw unchecked exceptions when the store cannot be reached; the tiered cache then treats the call as a miss.
+ * {@link FileSharedCacheStore} stores entries in a directory that several processes can share.
+ * </p>
+ */
+public interface SharedCacheStore {
+    /**
+     * Retrieves a value by key.
+     *
+     * @param key the key
+     * @return the value, or {@code null} if it is not stored or has expired
+     */
+    byte[] get(String key);
+
+    /**
+     * Stores a value, replacing any previous value of the key.
+     *
+     * @param key            the key
+     * @param value          the value
+     * @param expirationTime the time after which the value expires
+     * @param timeUnit       the time unit of the expiration time
+     */
+    void put(String key, byte[] value, long expirationTime, TimeUnit timeUnit);
+
+    /**
+     * Removes a value by key.
+     *
+     * @param key the key
+     */
+    void invalidate(String key);
+}
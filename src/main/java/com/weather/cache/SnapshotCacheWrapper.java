@@ -0,0 +1,183 @@
+package com.weather.cache;
+
+import com.weather.model.WeatherResponse;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A weather cache that can be saved to a snapshot file and restored from it, so that a restarted
+ * process starts with a warm cache.
+ * <p>
+ * The time at which every entry was written is tracked next to the underlying cache. A snapshot holds
+ * the keys, the weather data and these write times in a compact binary format. When a snapshot is loaded,
+ * entries older than the validity duration are skipped, and restored entries expire when their original
+ * validity ends rather than a full validity duration after the restart.
+ * </p>
+ */
+public class SnapshotCacheWrapper implements CacheWrapper<String, WeatherResponse> {
+    private static final int MAGIC = 0x57534E31;
+
+    private final CacheWrapper<String, WeatherResponse> delegate;
+    private final long validityMillis;
+    private final Path file;
+    private final Map<String, Long> writeTimes = new ConcurrentHashMap<>();
+    private final ReentrantLock fileLock = new ReentrantLock();
+
+    /**
+     * Constructs a snapshot-capable cache on top of the given cache.
+     *
+     * @param delegate       the cache holding the entries
+     * @param validityTime   how long an entry stays valid after it was written
+     * @param timeUnit       the time unit for the validity time
+     * @param file           the snapshot file
+     */
+    public SnapshotCacheWrapper(CacheWrapper<String, WeatherResponse> delegate, long validityTime,
+                                TimeUnit timeUnit, Path file) {
+        this.delegate = delegate;
+        this.validityMillis = timeUnit.toMillis(validityTime);
+        this.file = file;
+    }
+
+    @Override
+    public WeatherResponse get(String key) {
+        Long writtenAt = writeTimes.get(key);
+        if (writtenAt != null && System.currentTimeMillis() - writtenAt >= validityMillis) {
+            invalidate(key);
+            return null;
+        }
+        return delegate.get(key);
+    }
+
+    @Override
+    public void put(String key, WeatherResponse value) {
+        writeTimes.put(key, System.currentTimeMillis());
+        delegate.put(key, value);
+    }
+
+    @Override
+    public void invalidate(String key) {
+        writeTimes.remove(key);
+        delegate.invalidate(key);
+    }
+
+    @Override
+    public void invalidateCache() {
+        writeTimes.clear();
+        delegate.invalidateCache();
+    }
+
+    @Override
+    public Iterable<String> getAllKeys() {
+        return delegate.getAllKeys();
+    }
+
+    /**
+     * Writes all valid entries to the snapshot file, replacing the previous snapshot atomically.
+     *
+     * @throws UncheckedIOException if the file cannot be written
+     */
+    public void save() {
+        fileLock.lock();
+        try {
+            long now = System.currentTimeMillis();
+            List<Map.Entry<String, WeatherResponse>> entries = new ArrayList<>();
+            List<Long> times = new ArrayList<>();
+            for (String key : delegate.getAllKeys()) {
+                Long writtenAt = writeTimes.get(key);
+                WeatherResponse value = delegate.get(key);
+                if (writtenAt != null && value != null && now - writtenAt < validityMillis) {
+                    entries.add(Map.entry(key, value));
+                    times.add(writtenAt);
+                }
+            }
+            writeTimes.keySet().retainAll(entries.stream().map(Map.Entry::getKey).toList());
+            Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(entries.size());
+                for (int i = 0; i < entries.size(); i++) {
+                    out.writeUTF(entries.get(i).getKey());
+                    out.writeLong(times.get(i));
+                    WeatherRecordFormat.write(out, entries.get(i).getValue());
+                }
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            fileLock.unlock();
+        }
+    }
+
+    /**
+     * Restores the entries of the snapshot file that are still valid, oldest first, so that the most
+     * recent entries are kept if the underlying cache is smaller than the snapshot.
+     * Does nothing if there is no snapshot file yet.
+     * <p>
+     * Restoring is best effort, like loading the geocode cache: a snapshot that cannot be read, because it
+     * is truncated, corrupt or written in an older format, is deleted and nothing is restored, so the cache
+     * starts cold and the next save replaces the snapshot.
+     * </p>
+     *
+     * @return the number of restored entries
+     */
+    public int load() {
+        fileLock.lock();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a weather cache snapshot: " + file);
+            }
+            long now = System.currentTimeMillis();
+            int count = in.readInt();
+            List<SnapshotEntry> entries = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                String key = in.readUTF();
+                long writtenAt = in.readLong();
+                WeatherResponse value = WeatherRecordFormat.read(in);
+                if (now - writtenAt < validityMillis) {
+                    entries.add(new SnapshotEntry(key, writtenAt, value));
+                }
+            }
+            entries.sort(Comparator.comparingLong(SnapshotEntry::writtenAt));
+            for (SnapshotEntry entry : entries) {
+                writeTimes.put(entry.key(), entry.writtenAt());
+                delegate.put(entry.key(), entry.value());
+            }
+            return entries.size();
+        } catch (NoSuchFileException e) {
+            return 0;
+        } catch (IOException | RuntimeException e) {
+            discardFile();
+            return 0;
+        } finally {
+            fileLock.unlock();
+        }
+    }
+
+    private void discardFile() {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+            // The next save replaces the file
+        }
+    }
+
+    private record SnapshotEntry(String key, long writtenAt, WeatherResponse value) {
+    }
+}
@@ -0,0 +1,94 @@
+package com.weather.cache;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A cache that keeps the last value written for every key for some time after it expired from an underlying
+ * cache, so it can still be served when fresh data cannot be fetched.
+ * <p>
+ * Reads go to the underlying cache only; stale values are returned by {@link #getStale(Object)} alone.
+ * Every value written is also stored in a retention cache, which is bounded by the same size as the
+ * underlying cache, or given explicitly, for example to retain values in the same compact form as the
+ * underlying cache.
+ * </p>
+ *
+ * @param <K> the type of keys used for cache entries
+ * @param <V> the type of values stored in the cache
+ */
+public class StaleCacheWrapper<K, V> implements CacheWrapper<K, V> {
+    private final CacheWrapper<K, V> delegate;
+    private final CacheWrapper<K, V> retained;
+
+    /**
+     * Constructs a stale-retaining cache on top of the given cache.
+     *
+     * @param delegate       the cache serving fresh values
+     * @param retentionTime  how long a value is retained after it was written
+     * @param unit           the time unit of the retention time
+     * @param maximumSize    the maximum number of retained values
+     */
+    public StaleCacheWrapper(CacheWrapper<K, V> delegate, long retentionTime, TimeUnit unit, long maximumSize) {
+        this(delegate, new GuavaCacheWrapper<>(retentionTime, unit, maximumSize));
+    }
+
+    /**
+     * Constructs a stale-retaining cache on top of the given cache, retaining values in the given cache.
+     *
+     * @param delegate the cache serving fresh values
+     * @param retained the cache retaining the last value written for every key, expiring it after the
+     *                 retention time
+     */
+    public StaleCacheWrapper(CacheWrapper<K, V> delegate, CacheWrapper<K, V> retained) {
+        this.delegate = delegate;
+        this.retained = retained;
+    }
+
+    @Override
+    public V get(K key) {
+        return delegate.get(key);
+    }
+
+    /**
+     * Retrieves the value of a key from the underlying cache, or the last value written for it if it expired
+     * there within the retention time.
+     *
+     * @param key the cache key
+     * @return the fresh or stale value, or {@code null} if none is retained
+     */
+    public V getStale(K key) {
+        V value = delegate.get(key);
+        return value != null ? value : retained.get(key);
+    }
+
+    @Override
+    public void put(K key, V value) {
+        delegate.put(key, value);
+        retained.put(key, value);
+    }
+
+    @Override
+    public void invalidate(K key) {
+        delegate.invalidate(key);
+        retained.invalidate(key);
+    }
+
+    @Override
+    public void invalidateCache() {
+        delegate.invalidateCache();
+        retained.invalidateCache();
+    }
+
+    @Override
+    public Iterable<K> getAllKeys() {
+        return delegate.getAllKeys();
+    }
+
+    /**
+     * Returns the cache serving fresh values.
+     *
+     * @return the underlying cache
+     */
+    public CacheWrapper<K, V> getDelegate() {
+        return delegate;
+    }
+}
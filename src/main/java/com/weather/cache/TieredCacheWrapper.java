@@ -0,0 +1,165 @@
+package com.weather.cache;
+
+import com.weather.model.WeatherResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A two-tier weather cache: a small in-process L1 cache in front of a {@link SharedCacheStore} shared by all
+ * processes of a fleet.
+ * <p>
+ * Reads go to L1 first, then to L2; a value found in L2 is copied into L1. Writes go to both tiers, so that
+ * the weather of a city fetched by one process is served to all others until it expires from L2, and the
+ * fleet fetches every city about once per L2 expiration time. Each tier has its own expiration time: L1
+ * entries should expire much sooner than L2 entries, since a value copied from L2 lives for a full L1
+ * expiration time and may therefore be served that much longer than the L2 expiration time.
+ * </p>
+ * <p>
+ * A failing L2 store does not fail the cache: reads are then answered by L1 alone and writes only reach L1.
+ * {@link #invalidateCache()} only clears L1, since one process must not clear the cache of the whole fleet,
+ * and {@link #getAllKeys()} returns the L1 keys, so a polling service only refreshes the cities that this
+ * process requested recently.
+ * </p>
+ */
+public class TieredCacheWrapper implements CacheWrapper<String, WeatherResponse> {
+    private final CacheWrapper<String, WeatherResponse> local;
+    private final SharedCacheStore shared;
+    private final long sharedExpirationMillis;
+    private final LongAdder localHits = new LongAdder();
+    private final LongAdder sharedHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder sharedErrors = new LongAdder();
+
+    /**
+     * Constructs a two-tier cache.
+     *
+     * @param local          the L1 cache, holding its entries for its own expiration time
+     * @param shared         the L2 store
+     * @param expirationTime the time after which L2 entries expire
+     * @param timeUnit       the time unit of the L2 expiration time
+     */
+    public TieredCacheWrapper(CacheWrapper<String, WeatherResponse> local, SharedCacheStore shared,
+                              long expirationTime, TimeUnit timeUnit) {
+        this.local = local;
+        this.shared = shared;
+        this.sharedExpirationMillis = timeUnit.toMillis(expirationTime);
+    }
+
+    @Override
+    public WeatherResponse get(String key) {
+        WeatherResponse value = local.get(key);
+        if (value != null) {
+            localHits.increment();
+            return value;
+        }
+        value = getShared(key);
+        if (value == null) {
+            misses.increment();
+            return null;
+        }
+        sharedHits.increment();
+        local.put(key, value);
+        return value;
+    }
+
+    @Override
+    public void put(String key, WeatherResponse value) {
+        local.put(key, value);
+        try {
+            shared.put(key, encode(value), sharedExpirationMillis, TimeUnit.MILLISECONDS);
+        } catch (RuntimeException e) {
+            sharedErrors.increment();
+        }
+    }
+
+    @Override
+    public void invalidate(String key) {
+        local.invalidate(key);
+        try {
+            shared.invalidate(key);
+        } catch (RuntimeException e) {
+            sharedErrors.increment();
+        }
+    }
+
+    @Override
+    public void invalidateCache() {
+        local.invalidateCache();
+    }
+
+    @Override
+    public Iterable<String> getAllKeys() {
+        return local.getAllKeys();
+    }
+
+    /**
+     * Returns the number of reads answered by L1.
+     *
+     * @return the number of L1 hits
+     */
+    public long getLocalHitCount() {
+        return localHits.sum();
+    }
+
+    /**
+     * Returns the number of reads missing L1 and answered by L2.
+     *
+     * @return the number of L2 hits
+     */
+    public long getSharedHitCount() {
+        return sharedHits.sum();
+    }
+
+    /**
+     * Returns the number of reads answered by neither tier.
+     *
+     * @return the number of misses
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the number of L2 calls that failed and were ignored.
+     *
+     * @return the number of L2 errors
+     */
+    public long getSharedErrorCount() {
+        return sharedErrors.sum();
+    }
+
+    private WeatherResponse getShared(String key) {
+        try {
+            byte[] bytes = shared.get(key);
+            return bytes != null ? decode(bytes) : null;
+        } catch (RuntimeException e) {
+            sharedErrors.increment();
+            return null;
+        }
+    }
+
+    private static byte[] encode(WeatherResponse value) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            WeatherRecordFormat.write(out, value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static WeatherResponse decode(byte[] bytes) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            return WeatherRecordFormat.read(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
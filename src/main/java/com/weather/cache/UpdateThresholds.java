@@ -0,0 +1,178 @@
+package com.weather.cache;
+
+import com.weather.model.WeatherResponse;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Decides whether refreshed weather data differs enough from the data last published to a subscriber to be
+ * published again, see {@link PublishingCacheWrapper}.
+ * <p>
+ * A change is significant when the temperature, the felt temperature, the wind speed or the visibility moved by
+ * at least its threshold, when the weather condition changed, or when a part of the data appeared or
+ * disappeared. Changes of the measurement time alone are never significant. The defaults are half a degree,
+ * one metre per second and one kilometre, and condition changes are significant.
+ * </p>
+ */
+public class UpdateThresholds {
+    private final double temperatureDelta;
+    private final double windSpeedDelta;
+    private final int visibilityDelta;
+    private final boolean conditionChanges;
+
+    private UpdateThresholds(Builder builder) {
+        this.temperatureDelta = builder.temperatureDelta;
+        this.windSpeedDelta = builder.windSpeedDelta;
+        this.visibilityDelta = builder.visibilityDelta;
+        this.conditionChanges = builder.conditionChanges;
+    }
+
+    /**
+     * Creates a new builder instance for constructing an {@link UpdateThresholds} object.
+     *
+     * @return a new instance of {@link Builder}
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the default thresholds.
+     *
+     * @return thresholds with all default settings
+     */
+    public static UpdateThresholds defaults() {
+        return new Builder().build();
+    }
+
+    /**
+     * Tells whether the current weather differs significantly from the previous one.
+     *
+     * @param previous the weather last published, or {@code null} if none was published yet
+     * @param current  the refreshed weather
+     * @return {@code true} if the current weather should be published
+     */
+    public boolean isSignificant(WeatherResponse previous, WeatherResponse current) {
+        if (previous == null) {
+            return true;
+        }
+        if (Math.abs(current.getVisibility() - previous.getVisibility()) >= visibilityDelta) {
+            return true;
+        }
+        WeatherResponse.TemperatureInfo previousTemperature = previous.getTemperature();
+        WeatherResponse.TemperatureInfo currentTemperature = current.getTemperature();
+        if ((previousTemperature == null) != (currentTemperature == null)) {
+            return true;
+        }
+        if (currentTemperature != null
+                && (Math.abs(currentTemperature.getTemp() - previousTemperature.getTemp()) >= temperatureDelta
+                || Math.abs(currentTemperature.getFeelsLike() - previousTemperature.getFeelsLike())
+                >= temperatureDelta)) {
+            return true;
+        }
+        if ((previous.getWind() == null) != (current.getWind() == null)) {
+            return true;
+        }
+        if (current.getWind() != null
+                && Math.abs(current.getWind().getSpeed() - previous.getWind().getSpeed()) >= windSpeedDelta) {
+            return true;
+        }
+        return conditionChanges && conditionChanged(previous.getWeather(), current.getWeather());
+    }
+
+    public double getTemperatureDelta() {
+        return temperatureDelta;
+    }
+
+    public double getWindSpeedDelta() {
+        return windSpeedDelta;
+    }
+
+    public int getVisibilityDelta() {
+        return visibilityDelta;
+    }
+
+    public boolean isConditionChanges() {
+        return conditionChanges;
+    }
+
+    private static boolean conditionChanged(List<WeatherResponse.WeatherInfo> previous,
+                                            List<WeatherResponse.WeatherInfo> current) {
+        WeatherResponse.WeatherInfo before = (previous == null || previous.isEmpty()) ? null : previous.get(0);
+        WeatherResponse.WeatherInfo after = (current == null || current.isEmpty()) ? null : current.get(0);
+        if (before == null || after == null) {
+            return before != after;
+        }
+        return !Objects.equals(before.getMain(), after.getMain())
+                || !Objects.equals(before.getDescription(), after.getDescription());
+    }
+
+    /**
+     * Builder class for constructing instances of {@link UpdateThresholds}.
+     */
+    public static class Builder {
+        private double temperatureDelta = 0.5;
+        private double windSpeedDelta = 1.0;
+        private int visibilityDelta = 1000;
+        private boolean conditionChanges = true;
+
+        /**
+         * Sets the change of the temperature or the felt temperature that is significant. Defaults to 0.5.
+         *
+         * @param temperatureDelta the temperature change, in the unit of the API responses
+         * @return the builder instance for method chaining
+         */
+        public Builder setTemperatureDelta(double temperatureDelta) {
+            this.temperatureDelta = temperatureDelta;
+            return this;
+        }
+
+        /**
+         * Sets the change of the wind speed that is significant. Defaults to 1 metre per second.
+         *
+         * @param windSpeedDelta the wind speed change
+         * @return the builder instance for method chaining
+         */
+        public Builder setWindSpeedDelta(double windSpeedDelta) {
+            this.windSpeedDelta = windSpeedDelta;
+            return this;
+        }
+
+        /**
+         * Sets the change of the visibility that is significant. Defaults to 1000 metres.
+         *
+         * @param visibilityDelta the visibility change in metres
+         * @return the builder instance for method chaining
+         */
+        public Builder setVisibilityDelta(int visibilityDelta) {
+            this.visibilityDelta = visibilityDelta;
+            return this;
+        }
+
+        /**
+         * Sets whether a change of the weather condition, such as from clouds to rain, is significant.
+         * Enabled by default.
+         *
+         * @param conditionChanges {@code true} to publish condition changes
+         * @return the builder instance for method chaining
+         */
+        public Builder setConditionChanges(boolean conditionChanges) {
+            this.conditionChanges = conditionChanges;
+            return this;
+        }
+
+        /**
+         * Builds and returns an instance of {@link UpdateThresholds}.
+         *
+         * @return a new instance of {@link UpdateThresholds}
+         * @throws IllegalArgumentException if a threshold is not positive
+         */
+        public UpdateThresholds build() {
+            if (!(temperatureDelta > 0) || !(windSpeedDelta > 0) || visibilityDelta <= 0) {
+                throw new IllegalArgumentException("Update thresholds must be positive.");
+            }
+            return new UpdateThresholds(this);
+        }
+    }
+}
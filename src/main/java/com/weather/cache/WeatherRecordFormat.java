@@ -0,0 +1,89 @@
+package com.weather.cache;
+
+import com.weather.model.CompactWeatherResponse;
+import com.weather.model.WeatherResponse;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * The compact binary format of a weather entry, shared by the caches that write entries outside the heap
+ * of the process, such as snapshot files and shared cache stores.
+ */
+final class WeatherRecordFormat {
+
+    private WeatherRecordFormat() {
+    }
+
+    static void write(DataOutput out, WeatherResponse response) throws IOException {
+        CompactWeatherResponse weather = CompactWeatherResponse.from(response);
+        out.writeByte((weather.hasWeather() ? 1 : 0) | (weather.hasTemperature() ? 2 : 0)
+                | (weather.hasWind() ? 4 : 0) | (weather.hasSys() ? 8 : 0));
+        writeNullableUTF(out, weather.getName());
+        writeNullableUTF(out, weather.getMain());
+        writeNullableUTF(out, weather.getDescription());
+        out.writeDouble(weather.getTemp());
+        out.writeDouble(weather.getFeelsLike());
+        out.writeDouble(weather.getWindSpeed());
+        out.writeLong(weather.getDatetime());
+        out.writeLong(weather.getSunrise());
+        out.writeLong(weather.getSunset());
+        out.writeInt(weather.getVisibility());
+        out.writeInt(weather.getTimezone());
+    }
+
+    static WeatherResponse read(DataInput in) throws IOException {
+        byte parts = in.readByte();
+        String name = readNullableUTF(in);
+        String main = readNullableUTF(in);
+        String description = readNullableUTF(in);
+        double temp = in.readDouble();
+        double feelsLike = in.readDouble();
+        double windSpeed = in.readDouble();
+        long datetime = in.readLong();
+        long sunrise = in.readLong();
+        long sunset = in.readLong();
+        WeatherResponse response = new WeatherResponse();
+        if ((parts & 1) != 0) {
+            WeatherResponse.WeatherInfo weatherInfo = new WeatherResponse.WeatherInfo();
+            weatherInfo.setMain(main);
+            weatherInfo.setDescription(description);
+            response.setWeather(List.of(weatherInfo));
+        }
+        if ((parts & 2) != 0) {
+            WeatherResponse.TemperatureInfo temperatureInfo = new WeatherResponse.TemperatureInfo();
+            temperatureInfo.setTemp(temp);
+            temperatureInfo.setFeelsLike(feelsLike);
+            response.setTemperature(temperatureInfo);
+        }
+        if ((parts & 4) != 0) {
+            WeatherResponse.WindInfo windInfo = new WeatherResponse.WindInfo();
+            windInfo.setSpeed(windSpeed);
+            response.setWind(windInfo);
+        }
+        if ((parts & 8) != 0) {
+            WeatherResponse.SysInfo sysInfo = new WeatherResponse.SysInfo();
+            sysInfo.setSunrise(sunrise);
+            sysInfo.setSunset(sunset);
+            response.setSys(sysInfo);
+        }
+        response.setVisibility(in.readInt());
+        response.setTimezone(in.readInt());
+        response.setDatetime(datetime);
+        response.setName(name);
+        return response;
+    }
+
+    private static void writeNullableUTF(DataOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullableUTF(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
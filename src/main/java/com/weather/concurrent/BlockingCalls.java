@@ -0,0 +1,65 @@
+package com.weather.concurrent;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs blocking calls off the calling thread, for the default asynchronous methods of interfaces whose
+ * implementations may only provide blocking methods, such as custom HTTP client wrappers.
+ * <p>
+ * The calls run on a shared pool of at most {@value #MAX_THREADS} daemon threads rather than on the common
+ * fork-join pool, which is sized for computations and would be starved by threads waiting for the network.
+ * Threads are started on demand and stop after being idle for a minute. Calls beyond the pool size wait in
+ * line, so implementations used for many concurrent requests should provide non-blocking methods instead.
+ * </p>
+ */
+public final class BlockingCalls {
+    /**
+     * The maximum number of blocking calls running at the same time.
+     */
+    public static final int MAX_THREADS = 32;
+
+    private static final ThreadPoolExecutor EXECUTOR = newExecutor();
+
+    private BlockingCalls() {
+    }
+
+    /**
+     * Runs a blocking call on the shared pool.
+     *
+     * @param call the call to run
+     * @param <T>  the type of the result
+     * @return a future completed with the result of the call, or completed exceptionally with the exception
+     * it throws
+     */
+    public static <T> CompletableFuture<T> supplyAsync(Callable<T> call) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return call.call();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, EXECUTOR);
+    }
+
+    private static ThreadPoolExecutor newExecutor() {
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "weather-blocking-call-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(MAX_THREADS, MAX_THREADS, 1, TimeUnit.MINUTES,
+                new LinkedBlockingQueue<>(), threadFactory);
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
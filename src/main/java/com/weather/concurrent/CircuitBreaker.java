@@ -0,0 +1,187 @@
+package com.weather.concurrent;
+
+import java.time.Duration;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A circuit breaker tripping on the failure rate and the slow-call rate of the most recent calls.
+ * <p>
+ * While the breaker is closed, the outcomes of the last {@code windowSize} calls are kept in a ring buffer.
+ * Once at least {@code minimumCalls} calls were recorded, the breaker opens when the share of failed calls
+ * or the share of calls slower than the slow-call duration reaches its threshold. An open breaker rejects
+ * all calls for the open duration, then lets {@value #HALF_OPEN_CALLS} trial calls through: it closes again
+ * if they all succeed in time, and opens again as soon as one of them fails or is slow.
+ * </p>
+ */
+public class CircuitBreaker {
+    private static final int HALF_OPEN_CALLS = 3;
+
+    /**
+     * The state of a circuit breaker.
+     */
+    public enum State {
+        /**
+         * Calls are let through and their outcomes recorded.
+         */
+        CLOSED,
+        /**
+         * Calls are rejected.
+         */
+        OPEN,
+        /**
+         * A few trial calls are let through to find out whether the upstream has recovered.
+         */
+        HALF_OPEN
+    }
+
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final double slowCallRateThreshold;
+    private final long slowCallNanos;
+    private final long openNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final boolean[] failed;
+    private final boolean[] slow;
+    private int recorded;
+    private int next;
+    private int failedCount;
+    private int slowCount;
+    private State state = State.CLOSED;
+    private long openedAtNanos;
+    private int trialPermits;
+    private int trialSuccesses;
+
+    /**
+     * Creates a closed circuit breaker.
+     *
+     * @param windowSize            the number of most recent calls considered
+     * @param minimumCalls          the number of calls to record before the breaker may open
+     * @param failureRateThreshold  the share of failed calls, between 0 and 1, that opens the breaker
+     * @param slowCallRateThreshold the share of slow calls, between 0 and 1, that opens the breaker
+     * @param slowCallDuration      the duration above which a call is slow
+     * @param openDuration          how long the breaker stays open before trial calls are let through
+     */
+    public CircuitBreaker(int windowSize, int minimumCalls, double failureRateThreshold, double slowCallRateThreshold,
+                          Duration slowCallDuration, Duration openDuration) {
+        if (windowSize <= 0 || minimumCalls <= 0 || minimumCalls > windowSize) {
+            throw new IllegalArgumentException("Minimum calls must be positive and at most the window size.");
+        }
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.slowCallNanos = slowCallDuration.toNanos();
+        this.openNanos = openDuration.toNanos();
+        this.failed = new boolean[windowSize];
+        this.slow = new boolean[windowSize];
+    }
+
+    /**
+     * Asks for permission to make a call. Every permitted call must be reported through
+     * {@link #onSuccess(long)} or {@link #onFailure(long)}.
+     *
+     * @return {@code true} if the call may be made, {@code false} if it must be rejected
+     */
+    public boolean tryAcquirePermission() {
+        lock.lock();
+        try {
+            if (state == State.OPEN) {
+                if (System.nanoTime() - openedAtNanos < openNanos) {
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                trialPermits = HALF_OPEN_CALLS;
+                trialSuccesses = 0;
+            }
+            if (state == State.HALF_OPEN) {
+                if (trialPermits == 0) {
+                    return false;
+                }
+                trialPermits--;
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Reports a successful call.
+     *
+     * @param durationNanos the duration of the call in nanoseconds
+     */
+    public void onSuccess(long durationNanos) {
+        record(false, durationNanos > slowCallNanos);
+    }
+
+    /**
+     * Reports a failed call.
+     *
+     * @param durationNanos the duration of the call in nanoseconds
+     */
+    public void onFailure(long durationNanos) {
+        record(true, durationNanos > slowCallNanos);
+    }
+
+    /**
+     * Returns the current state. An open breaker whose open duration has elapsed is reported as open
+     * until the next call asks for permission.
+     *
+     * @return the current state
+     */
+    public State getState() {
+        lock.lock();
+        try {
+            return state;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void record(boolean callFailed, boolean callSlow) {
+        lock.lock();
+        try {
+            if (state == State.HALF_OPEN) {
+                if (callFailed || callSlow) {
+                    open();
+                } else if (++trialSuccesses == HALF_OPEN_CALLS) {
+                    close();
+                }
+                return;
+            }
+            if (state == State.OPEN) {
+                // A call permitted before the breaker opened
+                return;
+            }
+            if (recorded == failed.length) {
+                failedCount -= failed[next] ? 1 : 0;
+                slowCount -= slow[next] ? 1 : 0;
+            } else {
+                recorded++;
+            }
+            failed[next] = callFailed;
+            slow[next] = callSlow;
+            failedCount += callFailed ? 1 : 0;
+            slowCount += callSlow ? 1 : 0;
+            next = (next + 1) % failed.length;
+            if (recorded >= minimumCalls && (failedCount >= failureRateThreshold * recorded
+                    || slowCount >= slowCallRateThreshold * recorded)) {
+                open();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAtNanos = System.nanoTime();
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        recorded = 0;
+        next = 0;
+        failedCount = 0;
+        slowCount = 0;
+    }
+}
@@ -0,0 +1,85 @@
+package com.weather.concurrent;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * A thread-safe count-min sketch estimating how often keys were seen, with exponential decay.
+ * <p>
+ * Each key is counted in one counter of each of four rows, chosen by independent hashes, and its
+ * frequency is the minimum of these counters. Collisions can only make a frequency look higher, never
+ * lower. Calling {@link #halve()} divides all counters by two, so that old accesses gradually stop counting.
+ * The memory used is fixed by the expected number of distinct keys, however many keys are counted.
+ * </p>
+ */
+public class FrequencySketch {
+    private static final int DEPTH = 4;
+    private static final long[] SEEDS = {0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+
+    private final AtomicIntegerArray counters;
+    private final int rowMask;
+    private final int rowShift;
+
+    /**
+     * Constructs a sketch sized for the given number of distinct keys.
+     *
+     * @param expectedKeys the expected number of distinct keys counted at a time
+     */
+    public FrequencySketch(int expectedKeys) {
+        int width = Integer.highestOneBit(Math.max(16, Math.min(expectedKeys, 1 << 24)) * 2 - 1);
+        this.rowMask = width - 1;
+        this.rowShift = Integer.numberOfTrailingZeros(width);
+        this.counters = new AtomicIntegerArray(DEPTH * width);
+    }
+
+    /**
+     * Counts one occurrence of a key.
+     *
+     * @param key the key
+     */
+    public void increment(Object key) {
+        int hash = spread(key.hashCode());
+        for (int row = 0; row < DEPTH; row++) {
+            int index = indexOf(hash, row);
+            int count;
+            do {
+                count = counters.get(index);
+            } while (count != Integer.MAX_VALUE && !counters.compareAndSet(index, count, count + 1));
+        }
+    }
+
+    /**
+     * Returns the estimated number of occurrences of a key, with older occurrences weighted down by
+     * every {@link #halve()} since.
+     *
+     * @param key the key
+     * @return the estimated frequency
+     */
+    public int frequency(Object key) {
+        int hash = spread(key.hashCode());
+        int frequency = Integer.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            frequency = Math.min(frequency, counters.get(indexOf(hash, row)));
+        }
+        return frequency;
+    }
+
+    /**
+     * Divides all counters by two. Increments running concurrently may be lost.
+     */
+    public void halve() {
+        for (int i = 0; i < counters.length(); i++) {
+            counters.set(i, counters.get(i) >>> 1);
+        }
+    }
+
+    private int indexOf(int hash, int row) {
+        long h = (hash + SEEDS[row]) * SEEDS[row];
+        h += h >>> 32;
+        return (row << rowShift) | ((int) h & rowMask);
+    }
+
+    private static int spread(int h) {
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
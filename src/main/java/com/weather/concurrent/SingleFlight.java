@@ -0,0 +1,144 @@
+package com.weather.concurrent;
+
+import com.weather.exception.WeatherApiException;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls for the same key into a single execution.
+ * <p>
+ * The first caller for a key becomes the leader and runs the loader. Every caller that arrives
+ * while the leader is still running waits for the leader's result instead of running the loader
+ * again. Once the leader finishes, the key is released and the next call starts a new execution.
+ * </p>
+ *
+ * @param <K> the type of keys used to group calls
+ * @param <V> the type of the loaded value
+ */
+public class SingleFlight<K, V> {
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    /**
+     * Runs the loader for the given key, or waits for an execution already in flight for it.
+     *
+     * @param key     the key identifying the call
+     * @param loader  the loader to run if no call for the key is in flight
+     * @param timeout the maximum time to wait for an in-flight call
+     * @param unit    the time unit of the timeout
+     * @return the value produced by the loader
+     * @throws Exception           if the loader fails, the same exception is rethrown to every waiting caller
+     * @throws WeatherApiException if waiting for the in-flight call exceeds the timeout
+     */
+    public V execute(K key, Callable<V> loader, long timeout, TimeUnit unit) throws Exception {
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            coalesced.increment();
+            return await(key, existing, timeout, unit);
+        }
+        executions.increment();
+        try {
+            V value = loader.call();
+            future.complete(value);
+            return value;
+        } catch (Exception e) {
+            future.completeExceptionally(e);
+            throw e;
+        } catch (Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    /**
+     * Starts the asynchronous loader for the given key, or joins an execution already in flight for it.
+     * <p>
+     * Callers that join an in-flight execution receive a copy of its future, so cancelling it does not
+     * affect the other callers. The copy fails with a {@link TimeoutException} if the in-flight execution
+     * does not complete within the timeout.
+     * </p>
+     *
+     * @param key     the key identifying the call
+     * @param loader  the loader starting the asynchronous call if none is in flight for the key
+     * @param timeout the maximum time to wait for an in-flight call
+     * @param unit    the time unit of the timeout
+     * @return a future completed with the value produced by the loader
+     */
+    public CompletableFuture<V> executeAsync(K key, Supplier<CompletableFuture<V>> loader, long timeout, TimeUnit unit) {
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            coalesced.increment();
+            return existing.copy().orTimeout(timeout, unit);
+        }
+        executions.increment();
+        CompletableFuture<V> loading;
+        try {
+            loading = loader.get();
+        } catch (RuntimeException | Error e) {
+            loading = CompletableFuture.failedFuture(e);
+        }
+        loading.whenComplete((value, failure) -> {
+            inFlight.remove(key, future);
+            if (failure != null) {
+                future.completeExceptionally(failure);
+            } else {
+                future.complete(value);
+            }
+        });
+        return future.copy();
+    }
+
+    /**
+     * Returns the number of calls that waited on another caller's execution instead of running the loader.
+     *
+     * @return the number of coalesced calls
+     */
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    /**
+     * Returns the number of times a loader was actually run.
+     *
+     * @return the number of executions
+     */
+    public long getExecutionCount() {
+        return executions.sum();
+    }
+
+    /**
+     * Returns the number of keys that currently have an execution in flight.
+     *
+     * @return the number of in-flight keys
+     */
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    private V await(K key, CompletableFuture<V> future, long timeout, TimeUnit unit) throws Exception {
+        try {
+            return future.get(timeout, unit);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            throw (Error) cause;
+        } catch (TimeoutException e) {
+            throw new WeatherApiException("Timed out waiting for in-flight request: " + key);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.weather.concurrent;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A token bucket rate limiter.
+ * <p>
+ * The bucket holds up to {@code capacity} tokens and is refilled continuously, at a rate of
+ * {@code capacity} tokens per refill period. Each permit consumes one token. Callers of
+ * {@link #acquire()} reserve their token immediately and then sleep until it becomes available,
+ * so waiting callers are served in order and never hold the lock while sleeping.
+ * </p>
+ */
+public class TokenBucket {
+    private final double capacity;
+    private final double tokensPerNano;
+    private final ReentrantLock lock = new ReentrantLock();
+    private double tokens;
+    private long lastRefillNanos;
+
+    /**
+     * Creates a bucket that allows {@code capacity} permits per refill period, starting full.
+     *
+     * @param capacity     the maximum number of tokens, and the number of tokens added per period
+     * @param refillPeriod the period in which the bucket is refilled completely
+     * @param unit         the time unit of the refill period
+     */
+    public TokenBucket(double capacity, long refillPeriod, TimeUnit unit) {
+        if (capacity <= 0 || refillPeriod <= 0) {
+            throw new IllegalArgumentException("Capacity and refill period must be positive.");
+        }
+        this.capacity = capacity;
+        this.tokensPerNano = capacity / unit.toNanos(refillPeriod);
+        this.tokens = capacity;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * Creates a bucket that allows the given number of permits per second, with a burst of one second.
+     *
+     * @param permitsPerSecond the number of permits per second
+     * @return a new token bucket
+     */
+    public static TokenBucket perSecond(double permitsPerSecond) {
+        return new TokenBucket(permitsPerSecond, 1, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Takes one token, waiting until it becomes available if the bucket is empty.
+     *
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    public void acquire() throws InterruptedException {
+        long waitNanos;
+        lock.lock();
+        try {
+            refill(System.nanoTime());
+            tokens -= 1;
+            waitNanos = tokens < 0 ? (long) (-tokens / tokensPerNano) : 0;
+        } finally {
+            lock.unlock();
+        }
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    /**
+     * Takes one token if one is available right now.
+     *
+     * @return {@code true} if a token was taken, {@code false} if the bucket is empty
+     */
+    public boolean tryAcquire() {
+        lock.lock();
+        try {
+            refill(System.nanoTime());
+            if (tokens < 1) {
+                return false;
+            }
+            tokens -= 1;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Reserves one token if it becomes available within the given timeout, without waiting for it.
+     * The caller must wait for the returned delay before using the token.
+     *
+     * @param timeout the maximum time to wait for the token
+     * @param unit    the time unit of the timeout
+     * @return the delay in nanoseconds until the reserved token is available, or {@code -1} if no token
+     * becomes available within the timeout, in which case nothing is reserved
+     */
+    public long tryReserve(long timeout, TimeUnit unit) {
+        lock.lock();
+        try {
+            refill(System.nanoTime());
+            long waitNanos = tokens < 1 ? (long) ((1 - tokens) / tokensPerNano) : 0;
+            if (waitNanos > unit.toNanos(timeout)) {
+                return -1;
+            }
+            tokens -= 1;
+            return waitNanos;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of tokens currently available.
+     * The value is negative while callers are waiting for reserved tokens.
+     *
+     * @return the number of available tokens
+     */
+    public double getAvailableTokens() {
+        lock.lock();
+        try {
+            refill(System.nanoTime());
+            return tokens;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public double getCapacity() {
+        return capacity;
+    }
+
+    private void refill(long now) {
+        tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * tokensPerNano);
+        lastRefillNanos = now;
+    }
+}
@@ -0,0 +1,63 @@
+package com.weather.concurrent;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Creates executors running every task on its own virtual thread, when the runtime supports them.
+ * <p>
+ * Virtual threads are available from Java 21. They are looked up by reflection, so the SDK still compiles
+ * and runs on Java 17, where the executors fall back to an unbounded pool of platform daemon threads.
+ * Blocking calls on virtual threads are cheap as long as they do not block inside {@code synchronized}
+ * blocks, which pin the carrier thread; the SDK uses {@link java.util.concurrent.locks.ReentrantLock} on
+ * its blocking paths for this reason.
+ * </p>
+ */
+public final class VirtualThreads {
+    private static final Method NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR = findVirtualThreadPerTaskExecutor();
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * Tells whether the runtime supports virtual threads.
+     *
+     * @return {@code true} on Java 21 and later
+     */
+    public static boolean isAvailable() {
+        return NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR != null;
+    }
+
+    /**
+     * Creates an executor that starts a new virtual thread for every task, or a new platform daemon thread
+     * if virtual threads are not available.
+     *
+     * @param fallbackThreadName the name of the platform threads used when virtual threads are not available
+     * @return a new thread-per-task executor
+     */
+    public static ExecutorService newThreadPerTaskExecutor(String fallbackThreadName) {
+        if (NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR != null) {
+            try {
+                return (ExecutorService) NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR.invoke(null);
+            } catch (ReflectiveOperationException ignored) {
+                // Fall back to platform threads
+            }
+        }
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, fallbackThreadName);
+            thread.setDaemon(true);
+            return thread;
+        };
+        return Executors.newCachedThreadPool(threadFactory);
+    }
+
+    private static Method findVirtualThreadPerTaskExecutor() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.weather.exception;
+
+/**
+ * Thrown when a request is rejected without being sent because the circuit breaker in front of the
+ * OpenWeather API is open.
+ */
+public class CircuitOpenException extends WeatherApiException {
+    public CircuitOpenException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,55 @@
+package com.weather.exception;
+
+import java.time.Duration;
+
+/**
+ * Thrown when the OpenWeather API rejects a request with HTTP 429, or when the client-side rate limiter
+ * sheds a request because the request budget is exhausted.
+ */
+public class RateLimitExceededException extends WeatherApiException {
+    private final Duration retryAfter;
+    private final boolean shed;
+
+    /**
+     * Creates an exception for a request rejected by the API.
+     *
+     * @param message    the detail message
+     * @param retryAfter how long to wait before retrying, or {@code null} if unknown
+     */
+    public RateLimitExceededException(String message, Duration retryAfter) {
+        this(message, retryAfter, false);
+    }
+
+    /**
+     * Creates an exception for a rate-limited request.
+     *
+     * @param message    the detail message
+     * @param retryAfter how long to wait before retrying, or {@code null} if unknown
+     * @param shed       {@code true} if the client-side rate limiter shed the request without sending it
+     */
+    public RateLimitExceededException(String message, Duration retryAfter, boolean shed) {
+        super(message, 429);
+        this.retryAfter = retryAfter;
+        this.shed = shed;
+    }
+
+    /**
+     * Returns how long to wait before retrying, as given by the {@code Retry-After} header of the response or
+     * estimated by the client-side rate limiter.
+     *
+     * @return the delay before retrying, or {@code null} if unknown
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    /**
+     * Returns whether the client-side rate limiter shed the request without sending it, rather than the API
+     * rejecting it.
+     *
+     * @return {@code true} if the request was never sent
+     */
+    public boolean isShed() {
+        return shed;
+    }
+}
@@ -2,6 +2,6 @@ package com.weather.exception;
 
 public class TokenInvalidException extends WeatherApiException {
     public TokenInvalidException(String message) {
-        super(message);
+        super(message, 401);
     }
 }
@@ -1,7 +1,29 @@
 package com.weather.exception;
 
 public class WeatherApiException extends RuntimeException {
+    private final int statusCode;
+
     public WeatherApiException(String message) {
+        this(message, 0);
+    }
+
+    /**
+     * Creates an exception for an API response with the given HTTP status code.
+     *
+     * @param message    the detail message
+     * @param statusCode the HTTP status code of the failed response
+     */
+    public WeatherApiException(String message, int statusCode) {
         super(message);
+        this.statusCode = statusCode;
+    }
+
+    /**
+     * Returns the HTTP status code of the failed API response.
+     *
+     * @return the HTTP status code, or {@code 0} if the failure is not tied to an API response
+     */
+    public int getStatusCode() {
+        return statusCode;
     }
 }
@@ -0,0 +1,84 @@
+package com.weather.geo;
+
+/**
+ * Snaps coordinates to the cells of a regular latitude/longitude grid, so that nearby locations share one
+ * cache key.
+ * <p>
+ * A cell key has the form {@code @<latitude index>,<longitude index>}. City names starting with {@code @} are
+ * rejected by {@link com.weather.WeatherSdk}, so a cell key cannot collide with a city name key. All coordinates
+ * within a cell are served the weather at its center.
+ * </p>
+ */
+public class CoordinateGrid {
+    private static final char CELL_KEY_PREFIX = '@';
+
+    private final double cellDegrees;
+
+    /**
+     * Constructs a grid with square cells of the given size.
+     *
+     * @param cellDegrees the size of a cell in degrees of latitude and longitude
+     * @throws IllegalArgumentException if the cell size is not between 0 and 90 degrees
+     */
+    public CoordinateGrid(double cellDegrees) {
+        if (!(cellDegrees > 0 && cellDegrees <= 90)) {
+            throw new IllegalArgumentException("Grid cell size must be greater than 0 and at most 90 degrees.");
+        }
+        this.cellDegrees = cellDegrees;
+    }
+
+    /**
+     * Returns the key of the cell containing the given coordinates.
+     *
+     * @param lat the latitude in degrees, between -90 and 90
+     * @param lon the longitude in degrees, between -180 and 180
+     * @return the cell key
+     * @throws IllegalArgumentException if the coordinates are out of range
+     */
+    public String cellKey(double lat, double lon) {
+        if (!(lat >= -90 && lat <= 90) || !(lon >= -180 && lon <= 180)) {
+            throw new IllegalArgumentException("Invalid coordinates: " + lat + ", " + lon);
+        }
+        long latIndex = (long) Math.floor(Math.min(lat, 90 - cellDegrees / 2) / cellDegrees);
+        long lonIndex = (long) Math.floor((lon == 180 ? -180 : lon) / cellDegrees);
+        return CELL_KEY_PREFIX + Long.toString(latIndex) + ',' + lonIndex;
+    }
+
+    /**
+     * Tells whether a cache key is a cell key rather than a city name, that is whether it starts with {@code @}.
+     *
+     * @param key the cache key
+     * @return {@code true} if the key is a cell key
+     */
+    public static boolean isCellKey(String key) {
+        return !key.isEmpty() && key.charAt(0) == CELL_KEY_PREFIX;
+    }
+
+    /**
+     * Returns the latitude of the center of a cell.
+     *
+     * @param cellKey the cell key
+     * @return the latitude in degrees
+     */
+    public double centerLatitude(String cellKey) {
+        return Math.max(-90, Math.min(90, center(Long.parseLong(cellKey.substring(1, cellKey.indexOf(','))))));
+    }
+
+    /**
+     * Returns the longitude of the center of a cell.
+     *
+     * @param cellKey the cell key
+     * @return the longitude in degrees
+     */
+    public double centerLongitude(String cellKey) {
+        return Math.max(-180, Math.min(180, center(Long.parseLong(cellKey.substring(cellKey.indexOf(',') + 1)))));
+    }
+
+    public double getCellDegrees() {
+        return cellDegrees;
+    }
+
+    private double center(long index) {
+        return (index + 0.5) * cellDegrees;
+    }
+}
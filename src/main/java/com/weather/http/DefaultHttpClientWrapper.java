@@ -1,39 +1,90 @@
 package com.weather.http;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.weather.exception.RateLimitExceededException;
 import com.weather.exception.TokenInvalidException;
 import com.weather.exception.WeatherApiException;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.zip.GZIPInputStream;
+
 /**
  * The {@code DefaultHttpClientWrapper} provides a default implementation of {@link HttpClientWrapper}
  * for making HTTP requests using Java's built-in {@link HttpClient}.
  * <p>
  * This class handles GET requests and automatically processes API responses, converting them into
- * the specified response type using Jackson's {@link ObjectMapper}.
+ * the specified response type using Jackson's {@link ObjectMapper}. Response bodies are read as bytes
+ * and parsed directly, without first being decoded into a {@code String}; blocking requests stream the
+ * body from the connection into the parser.
+ * </p>
+ * <p>
+ * Timeouts, the executor, the preferred HTTP version and gzip compression are configured through
+ * {@link HttpClientConfig}. Gzip-encoded responses are decompressed on the fly while they are parsed.
  * </p>
  * <p>
  * It also includes built-in error handling for common API response statuses, throwing appropriate
- * exceptions such as {@link TokenInvalidException} and {@link WeatherApiException}.
+ * exceptions such as {@link TokenInvalidException}, {@link RateLimitExceededException} and
+ * {@link WeatherApiException}.
  * </p>
  */
-public class DefaultHttpClientWrapper implements HttpClientWrapper {
+public class DefaultHttpClientWrapper implements HttpClientWrapper, AutoCloseable {
+    private static final String GZIP = "gzip";
+
     private final HttpClient client;
     private final ObjectMapper objectMapper;
+    private final HttpClientConfig config;
 
     /**
-     * Creates a new instance of {@code DefaultHttpClientWrapper} with a default HTTP client
+     * Creates a new instance of {@code DefaultHttpClientWrapper} with the default HTTP configuration
      * and an instance of {@link ObjectMapper} for JSON parsing.
      */
     public DefaultHttpClientWrapper() {
-        this.client = HttpClient.newHttpClient();
+        this(HttpClientConfig.defaults());
+    }
+
+    /**
+     * Creates a new instance of {@code DefaultHttpClientWrapper} with an HTTP client built from the given
+     * configuration and an instance of {@link ObjectMapper} for JSON parsing.
+     *
+     * @param config the HTTP configuration
+     */
+    public DefaultHttpClientWrapper(HttpClientConfig config) {
+        this.config = config;
+        this.client = config.createHttpClient();
         this.objectMapper = new ObjectMapper();
     }
 
+    public HttpClientConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * Closes the HTTP client on runtimes where it can be closed, from Java 21. On older runtimes, the client
+     * releases its threads once it is no longer referenced.
+     *
+     * @throws Exception if the HTTP client cannot be closed
+     */
+    @Override
+    public void close() throws Exception {
+        if (client instanceof AutoCloseable) {
+            ((AutoCloseable) client).close();
+        }
+    }
+
     /**
      * Sends a GET request to the specified URL and deserializes the response into the provided response type.
      *
@@ -48,21 +99,130 @@ public class DefaultHttpClientWrapper implements HttpClientWrapper {
      */
     @Override
     public <T> T get(String url, Class<T> responseType) throws IOException, InterruptedException {
-        HttpRequest request = HttpRequest.newBuilder()
+        return get(url, parser -> objectMapper.readValue(parser, responseType));
+    }
+
+    /**
+     * Sends a GET request to the specified URL and streams the response body into the provided decoder,
+     * without buffering the whole body in memory.
+     *
+     * @param url     the URL to send the GET request to
+     * @param decoder the decoder reading the response body
+     * @param <T>     the expected response type
+     * @return the decoded response object
+     * @throws IOException           if an I/O error occurs when sending or receiving the request
+     * @throws InterruptedException  if the operation is interrupted
+     * @throws TokenInvalidException       if the API key is invalid (HTTP 401)
+     * @throws RateLimitExceededException if the API rate limit is exceeded (HTTP 429)
+     * @throws WeatherApiException         if the API request fails with any other unexpected status code
+     */
+    @Override
+    public <T> T get(String url, JsonResponseDecoder<T> decoder) throws IOException, InterruptedException {
+        HttpResponse<InputStream> response = client.send(buildRequest(url), HttpResponse.BodyHandlers.ofInputStream());
+        try (InputStream body = response.body()) {
+            processException(response);
+            try (JsonParser parser = objectMapper.getFactory().createParser(decompress(response, body))) {
+                return decoder.decode(parser);
+            }
+        }
+    }
+
+    /**
+     * Sends a GET request to the specified URL without blocking the calling thread, using
+     * {@link HttpClient#sendAsync}, and deserializes the response into the provided response type.
+     *
+     * @param url          the URL to send the GET request to
+     * @param responseType the class type to deserialize the response into
+     * @param <T>          the expected response type
+     * @return a future completed with the deserialized response object, or completed exceptionally with
+     * {@link TokenInvalidException}, {@link WeatherApiException} or {@link IOException} on failure
+     */
+    @Override
+    public <T> CompletableFuture<T> getAsync(String url, Class<T> responseType) {
+        return getAsync(url, parser -> objectMapper.readValue(parser, responseType));
+    }
+
+    /**
+     * Sends a GET request to the specified URL without blocking the calling thread, using
+     * {@link HttpClient#sendAsync}, and decodes the received response bytes with the provided decoder.
+     *
+     * @param url     the URL to send the GET request to
+     * @param decoder the decoder reading the response body
+     * @param <T>     the expected response type
+     * @return a future completed with the decoded response object, or completed exceptionally with
+     * {@link TokenInvalidException}, {@link WeatherApiException} or {@link IOException} on failure
+     */
+    @Override
+    public <T> CompletableFuture<T> getAsync(String url, JsonResponseDecoder<T> decoder) {
+        return client.sendAsync(buildRequest(url), HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(response -> {
+                    processException(response);
+                    try (JsonParser parser = createParser(response)) {
+                        return decoder.decode(parser);
+                    } catch (IOException e) {
+                        throw new CompletionException(e);
+                    }
+                });
+    }
+
+    private HttpRequest buildRequest(String url) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder()
                 .uri(URI.create(url))
-                .GET()
-                .build();
-        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
-        processException(response);
-        return objectMapper.readValue(response.body(), responseType);
+                .timeout(config.getRequestTimeout())
+                .GET();
+        if (config.isGzipEnabled()) {
+            builder.header("Accept-Encoding", GZIP);
+        }
+        return builder.build();
     }
 
-    private void processException(HttpResponse<String> response) {
+    private JsonParser createParser(HttpResponse<byte[]> response) throws IOException {
+        if (isGzipEncoded(response)) {
+            return objectMapper.getFactory().createParser(new GZIPInputStream(new ByteArrayInputStream(response.body())));
+        }
+        return objectMapper.getFactory().createParser(response.body());
+    }
+
+    private static InputStream decompress(HttpResponse<?> response, InputStream body) throws IOException {
+        return isGzipEncoded(response) ? new GZIPInputStream(body) : body;
+    }
+
+    private static boolean isGzipEncoded(HttpResponse<?> response) {
+        return response.headers().firstValue("Content-Encoding")
+                .map(GZIP::equalsIgnoreCase)
+                .orElse(false);
+    }
+
+    /**
+     * Reads the {@code Retry-After} header of a response, given either in seconds or as an HTTP date.
+     */
+    private static Duration retryAfter(HttpResponse<?> response) {
+        String value = response.headers().firstValue("Retry-After").orElse(null);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(value.trim())));
+        } catch (NumberFormatException e) {
+            try {
+                Instant retryAt = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+                Duration delay = Duration.between(Instant.now(), retryAt);
+                return delay.isNegative() ? Duration.ZERO : delay;
+            } catch (DateTimeParseException ignored) {
+                return null;
+            }
+        }
+    }
+
+    private void processException(HttpResponse<?> response) {
         if (response.statusCode() == 401) {
             throw new TokenInvalidException("InvalidKey");
         }
+        if (response.statusCode() == 429) {
+            throw new RateLimitExceededException("API rate limit exceeded", retryAfter(response));
+        }
         if (response.statusCode() != 200) {
-            throw new WeatherApiException("API request failed with status: " + response.statusCode());
+            throw new WeatherApiException("API request failed with status: " + response.statusCode(), response.statusCode());
         }
     }
 }
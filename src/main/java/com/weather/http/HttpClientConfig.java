@@ -0,0 +1,204 @@
+package com.weather.http;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.Executor;
+
+/**
+ * Configuration of the HTTP layer used by {@link DefaultHttpClientWrapper}.
+ * <p>
+ * Covers connection and request timeouts, the executor running the HTTP client's asynchronous
+ * tasks, the preferred HTTP version, gzip compression and the base URL of the OpenWeather API.
+ * A single {@link DefaultHttpClientWrapper} keeps one {@link HttpClient}, whose connections are pooled
+ * and reused across requests for as long as they stay alive.
+ * </p>
+ * <p>
+ * How long idle connections stay alive is a JVM-wide setting of the JDK HTTP client, read once when its
+ * connection pool is first used. It is set with {@code -Djdk.httpclient.keepalive.timeout=<seconds>} on the
+ * command line rather than per client.
+ * </p>
+ */
+public class HttpClientConfig {
+    /**
+     * The default base URL of the OpenWeather API.
+     */
+    public static final String DEFAULT_BASE_URL = "https://api.openweathermap.org";
+
+    private final Duration connectTimeout;
+    private final Duration requestTimeout;
+    private final Executor executor;
+    private final HttpClient.Version version;
+    private final boolean gzipEnabled;
+    private final String baseUrl;
+
+    private HttpClientConfig(Builder builder) {
+        this.connectTimeout = builder.connectTimeout;
+        this.requestTimeout = builder.requestTimeout;
+        this.executor = builder.executor;
+        this.version = builder.version;
+        this.gzipEnabled = builder.gzipEnabled;
+        this.baseUrl = builder.baseUrl.endsWith("/")
+                ? builder.baseUrl.substring(0, builder.baseUrl.length() - 1)
+                : builder.baseUrl;
+    }
+
+    /**
+     * Creates a new builder instance for constructing a {@link HttpClientConfig} object.
+     *
+     * @return a new instance of {@link Builder}
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the default configuration.
+     *
+     * @return a configuration with all default settings
+     */
+    public static HttpClientConfig defaults() {
+        return new Builder().build();
+    }
+
+    /**
+     * Creates a new {@link HttpClient} with this configuration.
+     *
+     * @return a new HTTP client
+     */
+    HttpClient createHttpClient() {
+        HttpClient.Builder builder = HttpClient.newBuilder()
+                .version(version)
+                .connectTimeout(connectTimeout);
+        if (executor != null) {
+            builder.executor(executor);
+        }
+        return builder.build();
+    }
+
+    public Duration getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public Duration getRequestTimeout() {
+        return requestTimeout;
+    }
+
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    public HttpClient.Version getVersion() {
+        return version;
+    }
+
+    public boolean isGzipEnabled() {
+        return gzipEnabled;
+    }
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    /**
+     * Builder class for constructing instances of {@link HttpClientConfig}.
+     */
+    public static class Builder {
+        private static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(10);
+        private static final Duration DEFAULT_REQUEST_TIMEOUT = Duration.ofSeconds(30);
+        private Duration connectTimeout = DEFAULT_CONNECT_TIMEOUT;
+        private Duration requestTimeout = DEFAULT_REQUEST_TIMEOUT;
+        private Executor executor = null;
+        private HttpClient.Version version = HttpClient.Version.HTTP_2;
+        private boolean gzipEnabled = true;
+        private String baseUrl = DEFAULT_BASE_URL;
+
+        /**
+         * Sets the maximum time to wait for a connection to be established.
+         * Defaults to 10 seconds.
+         *
+         * @param connectTimeout the connect timeout
+         * @return the builder instance for method chaining
+         */
+        public Builder setConnectTimeout(Duration connectTimeout) {
+            this.connectTimeout = connectTimeout;
+            return this;
+        }
+
+        /**
+         * Sets the maximum time to wait for a response, after which the request fails with
+         * {@link java.net.http.HttpTimeoutException}. Defaults to 30 seconds.
+         *
+         * @param requestTimeout the request timeout
+         * @return the builder instance for method chaining
+         */
+        public Builder setRequestTimeout(Duration requestTimeout) {
+            this.requestTimeout = requestTimeout;
+            return this;
+        }
+
+        /**
+         * Sets a dedicated executor for the HTTP client's asynchronous tasks.
+         * If not set, the HTTP client creates its own cached thread pool.
+         *
+         * @param executor the executor
+         * @return the builder instance for method chaining
+         */
+        public Builder setExecutor(Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * Sets the preferred HTTP version. Defaults to HTTP/2, which multiplexes concurrent requests over
+         * a single connection and falls back to HTTP/1.1 if the server does not support it.
+         *
+         * @param version the preferred HTTP version
+         * @return the builder instance for method chaining
+         */
+        public Builder setVersion(HttpClient.Version version) {
+            this.version = version;
+            return this;
+        }
+
+        /**
+         * Enables or disables gzip compression of responses.
+         * When enabled, requests are sent with {@code Accept-Encoding: gzip} and compressed responses are
+         * decompressed while they are parsed. Enabled by default.
+         *
+         * @param gzipEnabled {@code true} to request compressed responses
+         * @return the builder instance for method chaining
+         */
+        public Builder setGzipEnabled(boolean gzipEnabled) {
+            this.gzipEnabled = gzipEnabled;
+            return this;
+        }
+
+        /**
+         * Sets the base URL of the OpenWeather API, for example to go through a proxy or a test server.
+         * Defaults to {@value HttpClientConfig#DEFAULT_BASE_URL}.
+         *
+         * @param baseUrl the base URL, without the API path
+         * @return the builder instance for method chaining
+         */
+        public Builder setBaseUrl(String baseUrl) {
+            this.baseUrl = baseUrl;
+            return this;
+        }
+
+        /**
+         * Builds and returns an instance of {@link HttpClientConfig}.
+         *
+         * @return a new instance of {@link HttpClientConfig}
+         * @throws IllegalArgumentException if a timeout or the base URL is missing
+         */
+        public HttpClientConfig build() {
+            if (connectTimeout == null || requestTimeout == null) {
+                throw new IllegalArgumentException("Connect and request timeouts are required.");
+            }
+            if (baseUrl == null || baseUrl.trim().isEmpty()) {
+                throw new IllegalArgumentException("Base URL is required and cannot be null or empty.");
+            }
+            return new HttpClientConfig(this);
+        }
+    }
+}
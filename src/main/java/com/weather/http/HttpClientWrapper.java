@@ -1,5 +1,13 @@
 package com.weather.http;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.weather.concurrent.BlockingCalls;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 /**
  * The {@code HttpClientWrapper} interface defines a contract for making HTTP GET requests.
  * <p>
@@ -22,4 +30,76 @@ public interface HttpClientWrapper {
      * @throws Exception if an error occurs during the request or response processing
      */
     <T> T get(String url, Class<T> responseType) throws Exception;
+
+    /**
+     * Sends an HTTP GET request asynchronously and deserializes the response into the given response type.
+     * <p>
+     * The default implementation runs {@link #get(String, Class)} on the bounded pool of
+     * {@link BlockingCalls}, not on the common fork-join pool, so at most {@value BlockingCalls#MAX_THREADS}
+     * such requests run at the same time across the SDK. Implementations backed by a non-blocking HTTP
+     * client should override it.
+     * </p>
+     *
+     * @param url          the target URL for the GET request
+     * @param responseType the class type to deserialize the response into
+     * @param <T>          the expected response type
+     * @return a future completed with the deserialized response object, or completed exceptionally
+     * if an error occurs during the request or response processing
+     */
+    default <T> CompletableFuture<T> getAsync(String url, Class<T> responseType) {
+        return BlockingCalls.supplyAsync(() -> get(url, responseType));
+    }
+
+    /**
+     * Sends an HTTP GET request and decodes the response body with the given streaming decoder.
+     * <p>
+     * The default implementation requests the body through {@link #get(String, Class)}: as the response type
+     * of a decoder created by {@link JsonResponseDecoder#withResponseType}, which is how the SDK requests
+     * weather and geocoding payloads, so implementations written for {@code WeatherApiResponse} and
+     * {@code CityGeoResponse[]} keep working; and as a Jackson {@link JsonNode} replayed to the decoder
+     * otherwise, such as for the group endpoint used by request batching. Implementations should override it
+     * to stream the body straight into the decoder.
+     * </p>
+     *
+     * @param url     the target URL for the GET request
+     * @param decoder the decoder reading the response body
+     * @param <T>     the expected response type
+     * @return the decoded response object of type {@code T}
+     * @throws Exception if an error occurs during the request or response processing
+     */
+    default <T> T get(String url, JsonResponseDecoder<T> decoder) throws Exception {
+        if (decoder instanceof TypedJsonResponseDecoder) {
+            return ((TypedJsonResponseDecoder<?, T>) decoder).get(this, url);
+        }
+        JsonNode body = get(url, JsonNode.class);
+        try (JsonParser parser = body.traverse()) {
+            return decoder.decode(parser);
+        }
+    }
+
+    /**
+     * Sends an HTTP GET request asynchronously and decodes the response body with the given streaming decoder.
+     * <p>
+     * The default implementation requests the body through {@link #getAsync(String, Class)}, in the same
+     * way as {@link #get(String, JsonResponseDecoder)}.
+     * </p>
+     *
+     * @param url     the target URL for the GET request
+     * @param decoder the decoder reading the response body
+     * @param <T>     the expected response type
+     * @return a future completed with the decoded response object, or completed exceptionally
+     * if an error occurs during the request or response processing
+     */
+    default <T> CompletableFuture<T> getAsync(String url, JsonResponseDecoder<T> decoder) {
+        if (decoder instanceof TypedJsonResponseDecoder) {
+            return ((TypedJsonResponseDecoder<?, T>) decoder).getAsync(this, url);
+        }
+        return getAsync(url, JsonNode.class).thenApply(body -> {
+            try (JsonParser parser = body.traverse()) {
+                return decoder.decode(parser);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
 }
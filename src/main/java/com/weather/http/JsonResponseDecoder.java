@@ -0,0 +1,46 @@
+package com.weather.http;
+
+import com.fasterxml.jackson.core.JsonParser;
+
+import java.io.IOException;
+import java.util.function.Function;
+
+/**
+ * Decodes an HTTP response body straight from a streaming Jackson {@link JsonParser}.
+ * <p>
+ * Decoders read only the fields they need and skip the rest, without building an intermediate
+ * object graph for the whole response. The parser is handed over before its first token,
+ * so implementations start by calling {@link JsonParser#nextToken()}.
+ * </p>
+ *
+ * @param <T> the type of the decoded value
+ */
+@FunctionalInterface
+public interface JsonResponseDecoder<T> {
+    /**
+     * Decodes a value from the given parser.
+     *
+     * @param parser the parser positioned before the first token of the response body
+     * @return the decoded value
+     * @throws IOException if the body cannot be read or is not valid JSON
+     */
+    T decode(JsonParser parser) throws IOException;
+
+    /**
+     * Returns a decoder that {@link HttpClientWrapper} implementations without streaming support are served
+     * through by deserializing the body into the given response type and converting it, rather than by
+     * replaying a Jackson {@code JsonNode}.
+     *
+     * @param responseType the type the body is deserialized into by wrappers without streaming support
+     * @param converter    the conversion of the deserialized body into the decoded value
+     * @param decoder      the streaming decoder
+     * @param <R>          the response type
+     * @param <T>          the type of the decoded value
+     * @return the decoder
+     */
+    static <R, T> JsonResponseDecoder<T> withResponseType(Class<R> responseType,
+                                                          Function<? super R, ? extends T> converter,
+                                                          JsonResponseDecoder<T> decoder) {
+        return new TypedJsonResponseDecoder<>(responseType, converter, decoder);
+    }
+}
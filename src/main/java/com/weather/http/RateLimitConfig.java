@@ -0,0 +1,161 @@
+package com.weather.http;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the client-side rate limiter, see {@link RateLimitedHttpClientWrapper}.
+ * <p>
+ * OpenWeather plans limit the number of API calls per minute and per calendar month, and count every call,
+ * geocoding calls included. Requests beyond the configured budget are queued, shed, or answered from stale
+ * cache entries, depending on the {@link ExhaustedPolicy}.
+ * </p>
+ */
+public class RateLimitConfig {
+    private final int requestsPerMinute;
+    private final long requestsPerMonth;
+    private final ExhaustedPolicy exhaustedPolicy;
+    private final Duration maxQueueWait;
+    private final Duration staleRetention;
+
+    /**
+     * What happens to a request when the request budget is exhausted.
+     */
+    public enum ExhaustedPolicy {
+        /**
+         * The request waits until the per-minute budget allows it, for at most the maximum queue wait.
+         * It fails with a {@link com.weather.exception.RateLimitExceededException} if it would have to wait
+         * longer, or if the monthly budget is exhausted.
+         */
+        QUEUE,
+        /**
+         * The request fails immediately with a {@link com.weather.exception.RateLimitExceededException}.
+         */
+        SHED,
+        /**
+         * The request is shed, and the SDK answers it with the last known weather data for the city if it was
+         * fetched within the stale retention period.
+         */
+        SERVE_STALE
+    }
+
+    private RateLimitConfig(Builder builder) {
+        this.requestsPerMinute = builder.requestsPerMinute;
+        this.requestsPerMonth = builder.requestsPerMonth;
+        this.exhaustedPolicy = builder.exhaustedPolicy;
+        this.maxQueueWait = builder.maxQueueWait;
+        this.staleRetention = builder.staleRetention;
+    }
+
+    /**
+     * Creates a new builder instance for constructing a {@link RateLimitConfig} object.
+     *
+     * @return a new instance of {@link Builder}
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int getRequestsPerMinute() {
+        return requestsPerMinute;
+    }
+
+    public long getRequestsPerMonth() {
+        return requestsPerMonth;
+    }
+
+    public ExhaustedPolicy getExhaustedPolicy() {
+        return exhaustedPolicy;
+    }
+
+    public Duration getMaxQueueWait() {
+        return maxQueueWait;
+    }
+
+    public Duration getStaleRetention() {
+        return staleRetention;
+    }
+
+    /**
+     * Builder class for constructing instances of {@link RateLimitConfig}.
+     */
+    public static class Builder {
+        private static final Duration DEFAULT_MAX_QUEUE_WAIT = Duration.ofSeconds(30);
+        private static final Duration DEFAULT_STALE_RETENTION = Duration.ofHours(24);
+        private int requestsPerMinute = 0;
+        private long requestsPerMonth = 0;
+        private ExhaustedPolicy exhaustedPolicy = ExhaustedPolicy.QUEUE;
+        private Duration maxQueueWait = DEFAULT_MAX_QUEUE_WAIT;
+        private Duration staleRetention = DEFAULT_STALE_RETENTION;
+
+        /**
+         * Sets the maximum number of API calls per minute, for example 60 on the free plan.
+         * Calls are spread with a token bucket, which allows a burst of one minute's budget.
+         *
+         * @param requestsPerMinute the per-minute budget, or {@code 0} for no limit
+         * @return the builder instance for method chaining
+         */
+        public Builder setRequestsPerMinute(int requestsPerMinute) {
+            this.requestsPerMinute = requestsPerMinute;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of API calls per calendar month (UTC), for example 1,000,000 on the free plan.
+         *
+         * @param requestsPerMonth the monthly budget, or {@code 0} for no limit
+         * @return the builder instance for method chaining
+         */
+        public Builder setRequestsPerMonth(long requestsPerMonth) {
+            this.requestsPerMonth = requestsPerMonth;
+            return this;
+        }
+
+        /**
+         * Sets what happens to requests beyond the budget. Defaults to {@link ExhaustedPolicy#QUEUE}.
+         *
+         * @param exhaustedPolicy the policy for requests beyond the budget
+         * @return the builder instance for method chaining
+         */
+        public Builder setExhaustedPolicy(ExhaustedPolicy exhaustedPolicy) {
+            this.exhaustedPolicy = exhaustedPolicy;
+            return this;
+        }
+
+        /**
+         * Sets how long a request waits for the budget with {@link ExhaustedPolicy#QUEUE}.
+         * Defaults to 30 seconds.
+         *
+         * @param maxQueueWait the maximum time a request is queued
+         * @return the builder instance for method chaining
+         */
+        public Builder setMaxQueueWait(Duration maxQueueWait) {
+            this.maxQueueWait = maxQueueWait;
+            return this;
+        }
+
+        /**
+         * Sets how long the last known weather data of a city is kept for {@link ExhaustedPolicy#SERVE_STALE},
+         * after its cache entry expired. Defaults to 24 hours.
+         *
+         * @param staleRetention the stale retention period
+         * @return the builder instance for method chaining
+         */
+        public Builder setStaleRetention(Duration staleRetention) {
+            this.staleRetention = staleRetention;
+            return this;
+        }
+
+        /**
+         * Builds and returns an instance of {@link RateLimitConfig}.
+         *
+         * @return a new instance of {@link RateLimitConfig}
+         * @throws IllegalArgumentException if a budget is negative
+         */
+        public RateLimitConfig build() {
+            if (requestsPerMinute < 0 || requestsPerMonth < 0) {
+                throw new IllegalArgumentException("Request budgets cannot be negative.");
+            }
+            return new RateLimitConfig(this);
+        }
+    }
+}
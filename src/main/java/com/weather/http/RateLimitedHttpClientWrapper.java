@@ -0,0 +1,245 @@
+package com.weather.http;
+
+import com.weather.concurrent.TokenBucket;
+import com.weather.exception.RateLimitExceededException;
+import com.weather.metrics.WeatherMetrics.CallType;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * An {@link HttpClientWrapper} that keeps the requests of another one within the OpenWeather plan limits.
+ * <p>
+ * Every request, whether a geocoding or a weather call, takes one unit from a per-minute {@link TokenBucket}
+ * and from a per-calendar-month quota before it is sent, and is counted per {@link CallType}. When the budget
+ * is exhausted, the request is queued or shed as configured in {@link RateLimitConfig}; shed requests fail
+ * with a {@link RateLimitExceededException}.
+ * </p>
+ * <p>
+ * When the API answers with HTTP 429 anyway, for example because another process shares the API key, all
+ * requests are held back for the delay given by its {@code Retry-After} header, or one minute without it.
+ * </p>
+ */
+public class RateLimitedHttpClientWrapper implements HttpClientWrapper {
+    private static final Duration DEFAULT_RETRY_AFTER = Duration.ofMinutes(1);
+
+    private final HttpClientWrapper delegate;
+    private final RateLimitConfig config;
+    private final TokenBucket minuteBudget;
+    private final ReentrantLock monthLock = new ReentrantLock();
+    private final Map<CallType, LongAdder> requests = new EnumMap<>(CallType.class);
+    private final LongAdder rejected = new LongAdder();
+    private final AtomicLong blockedUntilNanos = new AtomicLong(System.nanoTime());
+    private YearMonth month;
+    private long monthRequests;
+
+    /**
+     * Creates a rate limiter in front of the given HTTP client.
+     *
+     * @param delegate the HTTP client sending the requests
+     * @param config   the request budget and the policy for requests beyond it
+     */
+    public RateLimitedHttpClientWrapper(HttpClientWrapper delegate, RateLimitConfig config) {
+        this.delegate = delegate;
+        this.config = config;
+        this.minuteBudget = config.getRequestsPerMinute() > 0
+                ? new TokenBucket(config.getRequestsPerMinute(), 1, TimeUnit.MINUTES)
+                : null;
+        for (CallType callType : CallType.values()) {
+            requests.put(callType, new LongAdder());
+        }
+    }
+
+    public RateLimitConfig getConfig() {
+        return config;
+    }
+
+    @Override
+    public <T> T get(String url, Class<T> responseType) throws Exception {
+        acquire(url);
+        try {
+            return delegate.get(url, responseType);
+        } catch (RateLimitExceededException e) {
+            holdBack(e);
+            throw e;
+        }
+    }
+
+    @Override
+    public <T> T get(String url, JsonResponseDecoder<T> decoder) throws Exception {
+        acquire(url);
+        try {
+            return delegate.get(url, decoder);
+        } catch (RateLimitExceededException e) {
+            holdBack(e);
+            throw e;
+        }
+    }
+
+    @Override
+    public <T> CompletableFuture<T> getAsync(String url, Class<T> responseType) {
+        return acquireAsync(url).thenCompose(ignored -> observe(delegate.getAsync(url, responseType)));
+    }
+
+    @Override
+    public <T> CompletableFuture<T> getAsync(String url, JsonResponseDecoder<T> decoder) {
+        return acquireAsync(url).thenCompose(ignored -> observe(delegate.getAsync(url, decoder)));
+    }
+
+    /**
+     * Returns the number of requests that can be sent right now without waiting.
+     *
+     * @return the remaining per-minute budget, or {@link Long#MAX_VALUE} if there is no per-minute limit
+     */
+    public long getRemainingMinuteBudget() {
+        return minuteBudget != null ? Math.max(0, (long) minuteBudget.getAvailableTokens()) : Long.MAX_VALUE;
+    }
+
+    /**
+     * Returns the number of requests left in the current calendar month.
+     *
+     * @return the remaining monthly budget, or {@link Long#MAX_VALUE} if there is no monthly limit
+     */
+    public long getRemainingMonthBudget() {
+        if (config.getRequestsPerMonth() == 0) {
+            return Long.MAX_VALUE;
+        }
+        monthLock.lock();
+        try {
+            rollMonth();
+            return config.getRequestsPerMonth() - monthRequests;
+        } finally {
+            monthLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of requests of the given type let through since this rate limiter was created.
+     *
+     * @param callType the type of API call
+     * @return the number of requests sent
+     */
+    public long getRequestCount(CallType callType) {
+        return requests.get(callType).sum();
+    }
+
+    /**
+     * Returns the number of requests shed because the budget was exhausted.
+     *
+     * @return the number of rejected requests
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    private void acquire(String url) throws InterruptedException {
+        long waitNanos = reserve(url);
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    private CompletableFuture<Void> acquireAsync(String url) {
+        long waitNanos;
+        try {
+            waitNanos = reserve(url);
+        } catch (RateLimitExceededException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        if (waitNanos == 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture.runAsync(() -> {
+        }, CompletableFuture.delayedExecutor(waitNanos, TimeUnit.NANOSECONDS));
+    }
+
+    /**
+     * Takes one unit of the budget for a request, or rejects it.
+     *
+     * @return the delay in nanoseconds before the request may be sent
+     * @throws RateLimitExceededException if the request is shed
+     */
+    private long reserve(String url) {
+        long maxWaitNanos = config.getExhaustedPolicy() == RateLimitConfig.ExhaustedPolicy.QUEUE
+                ? config.getMaxQueueWait().toNanos()
+                : 0;
+        long heldBackNanos = Math.max(0, blockedUntilNanos.get() - System.nanoTime());
+        if (heldBackNanos > maxWaitNanos) {
+            throw reject("API rate limit exceeded, requests are held back", Duration.ofNanos(heldBackNanos));
+        }
+        long waitNanos = heldBackNanos;
+        if (minuteBudget != null) {
+            long budgetWaitNanos = minuteBudget.tryReserve(maxWaitNanos, TimeUnit.NANOSECONDS);
+            if (budgetWaitNanos < 0) {
+                throw reject("Per-minute request budget exhausted",
+                        Duration.ofMinutes(1).dividedBy(config.getRequestsPerMinute()));
+            }
+            waitNanos = Math.max(waitNanos, budgetWaitNanos);
+        }
+        if (!tryTakeMonthBudget()) {
+            LocalDate nextMonth = YearMonth.now(ZoneOffset.UTC).plusMonths(1).atDay(1);
+            throw reject("Monthly request budget exhausted",
+                    Duration.between(Instant.now(), nextMonth.atStartOfDay(ZoneOffset.UTC).toInstant()));
+        }
+        requests.get(url.contains("/geo/") ? CallType.GEO : CallType.WEATHER).increment();
+        return waitNanos;
+    }
+
+    private boolean tryTakeMonthBudget() {
+        if (config.getRequestsPerMonth() == 0) {
+            return true;
+        }
+        monthLock.lock();
+        try {
+            rollMonth();
+            if (monthRequests >= config.getRequestsPerMonth()) {
+                return false;
+            }
+            monthRequests++;
+            return true;
+        } finally {
+            monthLock.unlock();
+        }
+    }
+
+    private void rollMonth() {
+        YearMonth now = YearMonth.now(ZoneOffset.UTC);
+        if (!now.equals(month)) {
+            month = now;
+            monthRequests = 0;
+        }
+    }
+
+    private RateLimitExceededException reject(String message, Duration retryAfter) {
+        rejected.increment();
+        return new RateLimitExceededException(message, retryAfter, true);
+    }
+
+    private <T> CompletableFuture<T> observe(CompletableFuture<T> response) {
+        return response.whenComplete((value, failure) -> {
+            Throwable cause = (failure instanceof CompletionException && failure.getCause() != null)
+                    ? failure.getCause()
+                    : failure;
+            if (cause instanceof RateLimitExceededException) {
+                holdBack((RateLimitExceededException) cause);
+            }
+        });
+    }
+
+    private void holdBack(RateLimitExceededException e) {
+        Duration retryAfter = e.getRetryAfter() != null ? e.getRetryAfter() : DEFAULT_RETRY_AFTER;
+        long until = System.nanoTime() + retryAfter.toNanos();
+        blockedUntilNanos.accumulateAndGet(until, (current, next) -> next - current > 0 ? next : current);
+    }
+}
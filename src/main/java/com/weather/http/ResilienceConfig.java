@@ -0,0 +1,268 @@
+package com.weather.http;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the resilience layer in front of the OpenWeather API, see {@link ResilientHttpClientWrapper}.
+ * <p>
+ * Covers the circuit breaker, hedged requests and retries. The defaults open the circuit breaker when half of
+ * the last 20 calls failed or took longer than 5 seconds, keep it open for 30 seconds, retry failed calls twice
+ * with jittered exponential backoff, and do not hedge.
+ * </p>
+ */
+public class ResilienceConfig {
+    private final boolean circuitBreakerEnabled;
+    private final int windowSize;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final double slowCallRateThreshold;
+    private final Duration slowCallDuration;
+    private final Duration openDuration;
+    private final boolean serveStaleWhenOpen;
+    private final boolean hedgingEnabled;
+    private final double hedgePercentile;
+    private final int maxRetries;
+    private final Duration retryBaseDelay;
+    private final Duration retryMaxDelay;
+
+    private ResilienceConfig(Builder builder) {
+        this.circuitBreakerEnabled = builder.circuitBreakerEnabled;
+        this.windowSize = builder.windowSize;
+        this.minimumCalls = builder.minimumCalls;
+        this.failureRateThreshold = builder.failureRateThreshold;
+        this.slowCallRateThreshold = builder.slowCallRateThreshold;
+        this.slowCallDuration = builder.slowCallDuration;
+        this.openDuration = builder.openDuration;
+        this.serveStaleWhenOpen = builder.serveStaleWhenOpen;
+        this.hedgingEnabled = builder.hedgingEnabled;
+        this.hedgePercentile = builder.hedgePercentile;
+        this.maxRetries = builder.maxRetries;
+        this.retryBaseDelay = builder.retryBaseDelay;
+        this.retryMaxDelay = builder.retryMaxDelay;
+    }
+
+    /**
+     * Creates a new builder instance for constructing a {@link ResilienceConfig} object.
+     *
+     * @return a new instance of {@link Builder}
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the default configuration.
+     *
+     * @return a configuration with all default settings
+     */
+    public static ResilienceConfig defaults() {
+        return new Builder().build();
+    }
+
+    public boolean isCircuitBreakerEnabled() {
+        return circuitBreakerEnabled;
+    }
+
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    public int getMinimumCalls() {
+        return minimumCalls;
+    }
+
+    public double getFailureRateThreshold() {
+        return failureRateThreshold;
+    }
+
+    public double getSlowCallRateThreshold() {
+        return slowCallRateThreshold;
+    }
+
+    public Duration getSlowCallDuration() {
+        return slowCallDuration;
+    }
+
+    public Duration getOpenDuration() {
+        return openDuration;
+    }
+
+    public boolean isServeStaleWhenOpen() {
+        return serveStaleWhenOpen;
+    }
+
+    public boolean isHedgingEnabled() {
+        return hedgingEnabled;
+    }
+
+    public double getHedgePercentile() {
+        return hedgePercentile;
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    public Duration getRetryBaseDelay() {
+        return retryBaseDelay;
+    }
+
+    public Duration getRetryMaxDelay() {
+        return retryMaxDelay;
+    }
+
+    /**
+     * Builder class for constructing instances of {@link ResilienceConfig}.
+     */
+    public static class Builder {
+        private boolean circuitBreakerEnabled = true;
+        private int windowSize = 20;
+        private int minimumCalls = 10;
+        private double failureRateThreshold = 0.5;
+        private double slowCallRateThreshold = 0.5;
+        private Duration slowCallDuration = Duration.ofSeconds(5);
+        private Duration openDuration = Duration.ofSeconds(30);
+        private boolean serveStaleWhenOpen = false;
+        private boolean hedgingEnabled = false;
+        private double hedgePercentile = 95;
+        private int maxRetries = 2;
+        private Duration retryBaseDelay = Duration.ofMillis(100);
+        private Duration retryMaxDelay = Duration.ofSeconds(2);
+
+        /**
+         * Enables or disables the circuit breaker. Enabled by default.
+         *
+         * @param circuitBreakerEnabled {@code true} to reject calls while the API keeps failing
+         * @return the builder instance for method chaining
+         */
+        public Builder setCircuitBreakerEnabled(boolean circuitBreakerEnabled) {
+            this.circuitBreakerEnabled = circuitBreakerEnabled;
+            return this;
+        }
+
+        /**
+         * Sets how many of the most recent calls the circuit breaker considers, and how many it must have
+         * seen before it may open. Default to 20 and 10.
+         *
+         * @param windowSize   the number of most recent calls considered
+         * @param minimumCalls the number of calls to record before the breaker may open
+         * @return the builder instance for method chaining
+         */
+        public Builder setWindow(int windowSize, int minimumCalls) {
+            this.windowSize = windowSize;
+            this.minimumCalls = minimumCalls;
+            return this;
+        }
+
+        /**
+         * Sets the share of failed calls that opens the circuit breaker. Defaults to 0.5.
+         * Network errors, timeouts and server errors count as failures.
+         *
+         * @param failureRateThreshold the failure rate, between 0 and 1
+         * @return the builder instance for method chaining
+         */
+        public Builder setFailureRateThreshold(double failureRateThreshold) {
+            this.failureRateThreshold = failureRateThreshold;
+            return this;
+        }
+
+        /**
+         * Sets the share of slow calls that opens the circuit breaker, and the duration above which a call
+         * is slow. Default to 0.5 and 5 seconds.
+         *
+         * @param slowCallRateThreshold the slow-call rate, between 0 and 1
+         * @param slowCallDuration      the duration above which a call is slow
+         * @return the builder instance for method chaining
+         */
+        public Builder setSlowCallRateThreshold(double slowCallRateThreshold, Duration slowCallDuration) {
+            this.slowCallRateThreshold = slowCallRateThreshold;
+            this.slowCallDuration = slowCallDuration;
+            return this;
+        }
+
+        /**
+         * Sets how long the circuit breaker rejects calls before it lets trial calls through.
+         * Defaults to 30 seconds.
+         *
+         * @param openDuration the open duration
+         * @return the builder instance for method chaining
+         */
+        public Builder setOpenDuration(Duration openDuration) {
+            this.openDuration = openDuration;
+            return this;
+        }
+
+        /**
+         * Answers requests rejected by the open circuit breaker with the last known weather data of the city,
+         * when the SDK still has it, instead of failing them with
+         * {@link com.weather.exception.CircuitOpenException}. Disabled by default.
+         *
+         * @param serveStaleWhenOpen {@code true} to serve stale data while the circuit breaker is open
+         * @return the builder instance for method chaining
+         */
+        public Builder setServeStaleWhenOpen(boolean serveStaleWhenOpen) {
+            this.serveStaleWhenOpen = serveStaleWhenOpen;
+            return this;
+        }
+
+        /**
+         * Enables hedged requests: when a call has not completed after the given percentile of recent call
+         * latencies, a second identical call is sent, and the first response wins. This trades a few percent
+         * more API calls for a much shorter tail latency. Disabled by default; the percentile defaults to 95.
+         *
+         * @param hedgingEnabled  {@code true} to send hedged requests
+         * @param hedgePercentile the latency percentile after which the second call is sent
+         * @return the builder instance for method chaining
+         */
+        public Builder setHedging(boolean hedgingEnabled, double hedgePercentile) {
+            this.hedgingEnabled = hedgingEnabled;
+            this.hedgePercentile = hedgePercentile;
+            return this;
+        }
+
+        /**
+         * Sets how often a failed call is retried. Defaults to 2.
+         * Only network errors, timeouts and server errors are retried, which is safe since all API calls are
+         * idempotent GET requests.
+         *
+         * @param maxRetries the maximum number of retries per call, or {@code 0} to disable retries
+         * @return the builder instance for method chaining
+         */
+        public Builder setMaxRetries(int maxRetries) {
+            this.maxRetries = maxRetries;
+            return this;
+        }
+
+        /**
+         * Sets the backoff between retries. The n-th retry waits a random time between zero and
+         * {@code min(maxDelay, baseDelay * 2^(n-1))}, so that clients retrying at the same time spread out.
+         * Default to 100 milliseconds and 2 seconds.
+         *
+         * @param baseDelay the upper bound of the first backoff
+         * @param maxDelay  the upper bound of any backoff
+         * @return the builder instance for method chaining
+         */
+        public Builder setRetryBackoff(Duration baseDelay, Duration maxDelay) {
+            this.retryBaseDelay = baseDelay;
+            this.retryMaxDelay = maxDelay;
+            return this;
+        }
+
+        /**
+         * Builds and returns an instance of {@link ResilienceConfig}.
+         *
+         * @return a new instance of {@link ResilienceConfig}
+         * @throws IllegalArgumentException if the retry count is negative or the hedge percentile is not
+         *                                  between 0 and 100
+         */
+        public ResilienceConfig build() {
+            if (maxRetries < 0) {
+                throw new IllegalArgumentException("Retry count cannot be negative.");
+            }
+            if (!(hedgePercentile > 0 && hedgePercentile < 100)) {
+                throw new IllegalArgumentException("Hedge percentile must be between 0 and 100.");
+            }
+            return new ResilienceConfig(this);
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package com.weather.http;
+
+import com.weather.concurrent.CircuitBreaker;
+import com.weather.exception.CircuitOpenException;
+import com.weather.exception.WeatherApiException;
+import com.weather.metrics.LatencyHistogram;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * An {@link HttpClientWrapper} that shields callers from a failing or slow OpenWeather API.
+ * <p>
+ * Calls go through a {@link CircuitBreaker}, which rejects them with a {@link CircuitOpenException} without
+ * sending them while most recent calls failed or were slow. Failed calls are retried with jittered
+ * exponential backoff, which is safe since all API calls are idempotent GET requests. Optionally, a call that
+ * has not completed after a high percentile of recent call latencies is hedged: a second identical call is sent,
+ * and whichever succeeds first wins. Only network errors, timeouts and server errors count as failures;
+ * client errors such as an invalid API key or an exceeded rate limit are passed on as they are.
+ * </p>
+ * <p>
+ * Hedging needs two concurrent calls, so with hedging enabled, blocking requests are sent asynchronously
+ * and awaited.
+ * </p>
+ */
+public class ResilientHttpClientWrapper implements HttpClientWrapper {
+    private static final int MIN_HEDGE_SAMPLES = 20;
+    private static final int HEDGE_DELAY_UPDATE_INTERVAL = 32;
+    private static final int LATENCY_SAMPLES_KEPT = 10_000;
+
+    private final HttpClientWrapper delegate;
+    private final ResilienceConfig config;
+    private final CircuitBreaker circuitBreaker;
+    private final LatencyHistogram latencies = new LatencyHistogram();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder hedges = new LongAdder();
+    private volatile long hedgeDelayNanos;
+
+    /**
+     * Creates a resilience layer in front of the given HTTP client.
+     *
+     * @param delegate the HTTP client sending the requests
+     * @param config   the circuit breaker, hedging and retry settings
+     */
+    public ResilientHttpClientWrapper(HttpClientWrapper delegate, ResilienceConfig config) {
+        this.delegate = delegate;
+        this.config = config;
+        this.circuitBreaker = config.isCircuitBreakerEnabled()
+                ? new CircuitBreaker(config.getWindowSize(), config.getMinimumCalls(),
+                config.getFailureRateThreshold(), config.getSlowCallRateThreshold(), config.getSlowCallDuration(),
+                config.getOpenDuration())
+                : null;
+    }
+
+    public ResilienceConfig getConfig() {
+        return config;
+    }
+
+    @Override
+    public <T> T get(String url, Class<T> responseType) throws Exception {
+        if (config.isHedgingEnabled()) {
+            return await(getAsync(url, responseType));
+        }
+        return getWithRetries(() -> delegate.get(url, responseType));
+    }
+
+    @Override
+    public <T> T get(String url, JsonResponseDecoder<T> decoder) throws Exception {
+        if (config.isHedgingEnabled()) {
+            return await(getAsync(url, decoder));
+        }
+        return getWithRetries(() -> delegate.get(url, decoder));
+    }
+
+    @Override
+    public <T> CompletableFuture<T> getAsync(String url, Class<T> responseType) {
+        return getAsyncWithRetries(() -> delegate.getAsync(url, responseType), 0);
+    }
+
+    @Override
+    public <T> CompletableFuture<T> getAsync(String url, JsonResponseDecoder<T> decoder) {
+        return getAsyncWithRetries(() -> delegate.getAsync(url, decoder), 0);
+    }
+
+    /**
+     * Returns the current state of the circuit breaker.
+     *
+     * @return the circuit breaker state, or {@link CircuitBreaker.State#CLOSED} if it is disabled
+     */
+    public CircuitBreaker.State getCircuitBreakerState() {
+        return circuitBreaker != null ? circuitBreaker.getState() : CircuitBreaker.State.CLOSED;
+    }
+
+    /**
+     * Returns the number of retries sent since this wrapper was created.
+     *
+     * @return the number of retries
+     */
+    public long getRetryCount() {
+        return retries.sum();
+    }
+
+    /**
+     * Returns the number of hedged requests sent since this wrapper was created.
+     *
+     * @return the number of hedged requests
+     */
+    public long getHedgeCount() {
+        return hedges.sum();
+    }
+
+    private interface Call<T> {
+        T call() throws Exception;
+    }
+
+    private <T> T getWithRetries(Call<T> call) throws Exception {
+        for (int attempt = 0; ; attempt++) {
+            try {
+                return attempt(call);
+            } catch (Exception e) {
+                if (attempt >= config.getMaxRetries() || !isUpstreamFailure(e)) {
+                    throw e;
+                }
+                retries.increment();
+                TimeUnit.NANOSECONDS.sleep(backoffNanos(attempt));
+            }
+        }
+    }
+
+    private <T> T attempt(Call<T> call) throws Exception {
+        acquirePermission();
+        long start = System.nanoTime();
+        try {
+            T response = call.call();
+            record(start, null);
+            return response;
+        } catch (Exception e) {
+            record(start, e);
+            throw e;
+        }
+    }
+
+    private <T> CompletableFuture<T> getAsyncWithRetries(Supplier<CompletableFuture<T>> call, int attempt) {
+        return attemptAsync(call).handle((response, failure) -> {
+            if (failure == null) {
+                return CompletableFuture.completedFuture(response);
+            }
+            Throwable cause = unwrap(failure);
+            if (attempt >= config.getMaxRetries() || !isUpstreamFailure(cause)) {
+                return CompletableFuture.<T>failedFuture(cause);
+            }
+            retries.increment();
+            return CompletableFuture.runAsync(() -> {
+                    }, CompletableFuture.delayedExecutor(backoffNanos(attempt), TimeUnit.NANOSECONDS))
+                    .thenCompose(ignored -> getAsyncWithRetries(call, attempt + 1));
+        }).thenCompose(future -> future);
+    }
+
+    private <T> CompletableFuture<T> attemptAsync(Supplier<CompletableFuture<T>> call) {
+        try {
+            acquirePermission();
+        } catch (CircuitOpenException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        CompletableFuture<T> primary = observe(call);
+        long delayNanos = hedgeDelayNanos;
+        if (!config.isHedgingEnabled() || delayNanos == 0) {
+            return primary;
+        }
+        CompletableFuture<T> result = new CompletableFuture<>();
+        AtomicInteger outstanding = new AtomicInteger(1);
+        primary.whenComplete((response, failure) -> complete(result, outstanding, response, failure));
+        CompletableFuture.delayedExecutor(delayNanos, TimeUnit.NANOSECONDS).execute(() -> {
+            if (result.isDone() || (circuitBreaker != null && !circuitBreaker.tryAcquirePermission())) {
+                return;
+            }
+            outstanding.incrementAndGet();
+            hedges.increment();
+            observe(call).whenComplete((response, failure) -> complete(result, outstanding, response, failure));
+        });
+        return result;
+    }
+
+    /**
+     * Completes a hedged call with the first successful response, or with the last failure once all
+     * attempts failed.
+     */
+    private static <T> void complete(CompletableFuture<T> result, AtomicInteger outstanding, T response,
+                                     Throwable failure) {
+        if (failure == null) {
+            result.complete(response);
+        } else if (outstanding.decrementAndGet() == 0) {
+            result.completeExceptionally(unwrap(failure));
+        }
+    }
+
+    private <T> CompletableFuture<T> observe(Supplier<CompletableFuture<T>> call) {
+        long start = System.nanoTime();
+        CompletableFuture<T> response;
+        try {
+            response = call.get();
+        } catch (RuntimeException e) {
+            response = CompletableFuture.failedFuture(e);
+        }
+        return response.whenComplete((value, failure) -> record(start, failure == null ? null : unwrap(failure)));
+    }
+
+    private void acquirePermission() {
+        if (circuitBreaker != null && !circuitBreaker.tryAcquirePermission()) {
+            throw new CircuitOpenException("Circuit breaker is open, the API is failing or slow");
+        }
+    }
+
+    private void record(long startNanos, Throwable failure) {
+        long durationNanos = System.nanoTime() - startNanos;
+        if (failure == null) {
+            recordLatency(durationNanos);
+        }
+        if (circuitBreaker == null) {
+            return;
+        }
+        if (failure != null && isUpstreamFailure(failure)) {
+            circuitBreaker.onFailure(durationNanos);
+        } else {
+            circuitBreaker.onSuccess(durationNanos);
+        }
+    }
+
+    private void recordLatency(long durationNanos) {
+        if (!config.isHedgingEnabled()) {
+            return;
+        }
+        latencies.record(durationNanos);
+        long count = latencies.getCount();
+        if (count >= MIN_HEDGE_SAMPLES && (hedgeDelayNanos == 0 || count % HEDGE_DELAY_UPDATE_INTERVAL == 0)) {
+            hedgeDelayNanos = latencies.getValueAtPercentile(config.getHedgePercentile());
+            if (count >= LATENCY_SAMPLES_KEPT) {
+                latencies.reset();
+            }
+        }
+    }
+
+    private long backoffNanos(int attempt) {
+        long ceiling = Math.min(config.getRetryMaxDelay().toNanos(),
+                config.getRetryBaseDelay().toNanos() << Math.min(attempt, 30));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    /**
+     * Tells whether a failure means the API is unhealthy: a network error, a timeout or a server error.
+     */
+    private static boolean isUpstreamFailure(Throwable failure) {
+        if (failure instanceof IOException) {
+            return true;
+        }
+        return failure instanceof WeatherApiException && !(failure instanceof CircuitOpenException)
+                && ((WeatherApiException) failure).getStatusCode() >= 500;
+    }
+
+    private static Throwable unwrap(Throwable failure) {
+        return (failure instanceof CompletionException && failure.getCause() != null) ? failure.getCause() : failure;
+    }
+
+    private static <T> T await(CompletableFuture<T> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            throw e;
+        }
+    }
+}
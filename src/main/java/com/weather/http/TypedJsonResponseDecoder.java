@@ -0,0 +1,41 @@
+package com.weather.http;
+
+import com.fasterxml.jackson.core.JsonParser;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * A {@link JsonResponseDecoder} that also knows the response type the body was deserialized into before
+ * streaming decoders existed, so that {@link HttpClientWrapper} implementations only supporting that type
+ * keep working.
+ *
+ * @param <R> the response type the body is deserialized into by wrappers without streaming support
+ * @param <T> the type of the decoded value
+ */
+final class TypedJsonResponseDecoder<R, T> implements JsonResponseDecoder<T> {
+    private final Class<R> responseType;
+    private final Function<? super R, ? extends T> converter;
+    private final JsonResponseDecoder<T> decoder;
+
+    TypedJsonResponseDecoder(Class<R> responseType, Function<? super R, ? extends T> converter,
+                             JsonResponseDecoder<T> decoder) {
+        this.responseType = responseType;
+        this.converter = converter;
+        this.decoder = decoder;
+    }
+
+    @Override
+    public T decode(JsonParser parser) throws IOException {
+        return decoder.decode(parser);
+    }
+
+    T get(HttpClientWrapper httpClientWrapper, String url) throws Exception {
+        return converter.apply(httpClientWrapper.get(url, responseType));
+    }
+
+    CompletableFuture<T> getAsync(HttpClientWrapper httpClientWrapper, String url) {
+        return httpClientWrapper.getAsync(url, responseType).thenApply(converter);
+    }
+}
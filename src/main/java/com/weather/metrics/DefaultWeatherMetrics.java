@@ -0,0 +1,151 @@
+package com.weather.metrics;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The default in-memory {@link WeatherMetrics} implementation.
+ * <p>
+ * Counters are striped {@link LongAdder}s, so concurrent updates do not contend on a single memory
+ * location. Upstream call latencies are kept in one {@link LatencyHistogram} per call type and
+ * HTTP status code, created the first time that combination is seen. All accessors read the live
+ * values and can be scraped at any time.
+ * </p>
+ */
+public class DefaultWeatherMetrics implements WeatherMetrics {
+    private static final int MAX_STATUS_CODE = 599;
+
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+    private final LongAdder pollRefreshes = new LongAdder();
+    private final LongAdder pollFailures = new LongAdder();
+    private final Map<CallType, AtomicReferenceArray<LatencyHistogram>> latencies = new EnumMap<>(CallType.class);
+
+    public DefaultWeatherMetrics() {
+        for (CallType callType : CallType.values()) {
+            latencies.put(callType, new AtomicReferenceArray<>(MAX_STATUS_CODE + 1));
+        }
+    }
+
+    @Override
+    public void recordCacheHit() {
+        cacheHits.increment();
+    }
+
+    @Override
+    public void recordCacheMiss() {
+        cacheMisses.increment();
+    }
+
+    @Override
+    public void recordUpstreamCall(CallType callType, int statusCode, long durationNanos) {
+        AtomicReferenceArray<LatencyHistogram> byStatus = latencies.get(callType);
+        int index = (statusCode < 0 || statusCode > MAX_STATUS_CODE) ? 0 : statusCode;
+        LatencyHistogram histogram = byStatus.get(index);
+        if (histogram == null) {
+            byStatus.compareAndSet(index, null, new LatencyHistogram());
+            histogram = byStatus.get(index);
+        }
+        histogram.record(durationNanos);
+    }
+
+    @Override
+    public void recordPollRefresh(boolean success) {
+        pollRefreshes.increment();
+        if (!success) {
+            pollFailures.increment();
+        }
+    }
+
+    public long getCacheHits() {
+        return cacheHits.sum();
+    }
+
+    public long getCacheMisses() {
+        return cacheMisses.sum();
+    }
+
+    /**
+     * Returns the share of weather lookups served from the cache.
+     *
+     * @return the cache hit ratio between {@code 0} and {@code 1}, or {@code 0} if there were no lookups
+     */
+    public double getCacheHitRatio() {
+        long hits = cacheHits.sum();
+        long total = hits + cacheMisses.sum();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    public long getPollRefreshes() {
+        return pollRefreshes.sum();
+    }
+
+    public long getPollFailures() {
+        return pollFailures.sum();
+    }
+
+    /**
+     * Returns the number of upstream calls of the given type.
+     *
+     * @param callType the kind of call
+     * @return the number of calls, whatever their outcome
+     */
+    public long getUpstreamCalls(CallType callType) {
+        long count = 0;
+        for (LatencyHistogram histogram : getLatencyHistograms(callType).values()) {
+            count += histogram.getCount();
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of upstream calls of the given type that did not complete with HTTP 200.
+     *
+     * @param callType the kind of call
+     * @return the number of failed calls
+     */
+    public long getUpstreamErrors(CallType callType) {
+        long count = 0;
+        for (Map.Entry<Integer, LatencyHistogram> entry : getLatencyHistograms(callType).entrySet()) {
+            if (entry.getKey() != 200) {
+                count += entry.getValue().getCount();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the latency histogram of upstream calls of the given type and status code.
+     *
+     * @param callType   the kind of call
+     * @param statusCode the HTTP status code, or {@code 0} for calls that received no response
+     * @return the latency histogram, or {@code null} if no such call was recorded
+     */
+    public LatencyHistogram getLatencyHistogram(CallType callType, int statusCode) {
+        if (statusCode < 0 || statusCode > MAX_STATUS_CODE) {
+            return null;
+        }
+        return latencies.get(callType).get(statusCode);
+    }
+
+    /**
+     * Returns the latency histograms of upstream calls of the given type, keyed by HTTP status code.
+     *
+     * @param callType the kind of call
+     * @return the latency histograms recorded so far, in ascending status code order
+     */
+    public Map<Integer, LatencyHistogram> getLatencyHistograms(CallType callType) {
+        AtomicReferenceArray<LatencyHistogram> byStatus = latencies.get(callType);
+        Map<Integer, LatencyHistogram> histograms = new LinkedHashMap<>();
+        for (int statusCode = 0; statusCode <= MAX_STATUS_CODE; statusCode++) {
+            LatencyHistogram histogram = byStatus.get(statusCode);
+            if (histogram != null) {
+                histograms.put(statusCode, histogram);
+            }
+        }
+        return histograms;
+    }
+}
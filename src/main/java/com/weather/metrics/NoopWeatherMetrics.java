@@ -0,0 +1,24 @@
+package com.weather.metrics;
+
+/**
+ * A {@link WeatherMetrics} implementation that discards every measurement.
+ */
+enum NoopWeatherMetrics implements WeatherMetrics {
+    INSTANCE;
+
+    @Override
+    public void recordCacheHit() {
+    }
+
+    @Override
+    public void recordCacheMiss() {
+    }
+
+    @Override
+    public void recordUpstreamCall(CallType callType, int statusCode, long durationNanos) {
+    }
+
+    @Override
+    public void recordPollRefresh(boolean success) {
+    }
+}
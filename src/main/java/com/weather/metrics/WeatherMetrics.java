@@ -0,0 +1,63 @@
+package com.weather.metrics;
+
+/**
+ * Receives measurements from the SDK: cache hits and misses, upstream API call latencies and
+ * polling refresh outcomes.
+ * <p>
+ * Implementations are called on the request path and must be thread-safe and cheap.
+ * {@link DefaultWeatherMetrics} keeps the measurements in memory; other implementations can
+ * forward them to a metrics library of choice.
+ * </p>
+ */
+public interface WeatherMetrics {
+
+    /**
+     * The kinds of upstream API calls made by the SDK.
+     */
+    enum CallType {
+        /**
+         * A geocoding request resolving a city name to coordinates.
+         */
+        GEO,
+        /**
+         * A current weather request for a pair of coordinates.
+         */
+        WEATHER
+    }
+
+    /**
+     * Records a weather lookup served from the cache.
+     */
+    void recordCacheHit();
+
+    /**
+     * Records a weather lookup that was not found in the cache.
+     */
+    void recordCacheMiss();
+
+    /**
+     * Records a completed upstream API call. Requests rejected before being sent, by the client-side rate
+     * limiter or an open circuit breaker, are not upstream calls and are not recorded.
+     *
+     * @param callType      the kind of call
+     * @param statusCode    the HTTP status code of the response, or {@code 0} if no response was received
+     * @param durationNanos the duration of the call in nanoseconds
+     */
+    void recordUpstreamCall(CallType callType, int statusCode, long durationNanos);
+
+    /**
+     * Records the outcome of a polling refresh of one city.
+     *
+     * @param success {@code true} if the city was refreshed, {@code false} if the refresh failed
+     */
+    void recordPollRefresh(boolean success);
+
+    /**
+     * Returns an implementation that discards every measurement.
+     *
+     * @return a no-op metrics implementation
+     */
+    static WeatherMetrics noop() {
+        return NoopWeatherMetrics.INSTANCE;
+    }
+}
@@ -0,0 +1,11 @@
+package com.weather.model;
+
+/**
+ * The current weather of a city together with the OpenWeather id of the city, which the group endpoint
+ * takes to look up several cities in one request.
+ *
+ * @param cityId  the OpenWeather city id, or {@code 0} if the payload has none
+ * @param weather the weather response
+ */
+public record CityWeather(long cityId, WeatherResponse weather) {
+}
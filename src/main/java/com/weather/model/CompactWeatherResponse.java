@@ -0,0 +1,270 @@
+package com.weather.model;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * An immutable, flattened form of {@link WeatherResponse} for holding many cities in memory.
+ * <p>
+ * All fields of a {@link WeatherResponse} and its nested objects are kept as primitive fields of a single
+ * object, so a cached city costs one object plus its name instead of about eight objects. Weather condition
+ * names and descriptions repeat heavily across cities and are interned, so each distinct value is stored once.
+ * Instances can be shared freely between threads.
+ * </p>
+ * <p>
+ * As with {@link WeatherResponse}, only the first weather condition is kept. Whether the optional nested
+ * objects were present is recorded, so {@link #toWeatherResponse()} gives back a {@link WeatherResponse} with
+ * the same value in every field, and the same nested objects present, as the one it was built from.
+ * </p>
+ * <p>
+ * {@link #asWeatherResponse()} returns a read-only {@link WeatherResponse} view instead, built on its first
+ * call and shared by all later ones, so that readers of a cache entry neither build a new response nor need
+ * defensive copies. An instance that was never viewed holds no view.
+ * </p>
+ */
+public final class CompactWeatherResponse {
+    private static final Interner<String> CONDITIONS = Interners.newWeakInterner();
+    private static final byte HAS_WEATHER = 1;
+    private static final byte HAS_TEMPERATURE = 1 << 1;
+    private static final byte HAS_WIND = 1 << 2;
+    private static final byte HAS_SYS = 1 << 3;
+
+    private final String name;
+    private final String main;
+    private final String description;
+    private final double temp;
+    private final double feelsLike;
+    private final double windSpeed;
+    private final long datetime;
+    private final long sunrise;
+    private final long sunset;
+    private final int visibility;
+    private final int timezone;
+    private final byte parts;
+    private volatile WeatherResponse view;
+
+    private CompactWeatherResponse(String name, String main, String description, double temp, double feelsLike,
+                                   double windSpeed, long datetime, long sunrise, long sunset, int visibility,
+                                   int timezone, byte parts) {
+        this.name = name;
+        this.main = intern(main);
+        this.description = intern(description);
+        this.temp = temp;
+        this.feelsLike = feelsLike;
+        this.windSpeed = windSpeed;
+        this.datetime = datetime;
+        this.sunrise = sunrise;
+        this.sunset = sunset;
+        this.visibility = visibility;
+        this.timezone = timezone;
+        this.parts = parts;
+    }
+
+    /**
+     * Creates the compact form of a weather response.
+     *
+     * @param response the weather response
+     * @return the compact weather response
+     */
+    public static CompactWeatherResponse from(WeatherResponse response) {
+        if (response instanceof ReadOnlyWeatherResponse) {
+            return ((ReadOnlyWeatherResponse) response).getCompact();
+        }
+        byte parts = 0;
+        String main = null;
+        String description = null;
+        if (response.getWeather() != null && !response.getWeather().isEmpty()) {
+            parts |= HAS_WEATHER;
+            main = response.getWeather().get(0).getMain();
+            description = response.getWeather().get(0).getDescription();
+        }
+        double temp = 0;
+        double feelsLike = 0;
+        if (response.getTemperature() != null) {
+            parts |= HAS_TEMPERATURE;
+            temp = response.getTemperature().getTemp();
+            feelsLike = response.getTemperature().getFeelsLike();
+        }
+        double windSpeed = 0;
+        if (response.getWind() != null) {
+            parts |= HAS_WIND;
+            windSpeed = response.getWind().getSpeed();
+        }
+        long sunrise = 0;
+        long sunset = 0;
+        if (response.getSys() != null) {
+            parts |= HAS_SYS;
+            sunrise = response.getSys().getSunrise();
+            sunset = response.getSys().getSunset();
+        }
+        return new CompactWeatherResponse(response.getName(), main, description, temp, feelsLike, windSpeed,
+                response.getDatetime(), sunrise, sunset, response.getVisibility(), response.getTimezone(), parts);
+    }
+
+    /**
+     * Creates a new mutable {@link WeatherResponse} with the same content.
+     *
+     * @return a new weather response
+     */
+    public WeatherResponse toWeatherResponse() {
+        WeatherResponse response = new WeatherResponse();
+        if (hasWeather()) {
+            WeatherResponse.WeatherInfo weatherInfo = new WeatherResponse.WeatherInfo();
+            weatherInfo.setMain(main);
+            weatherInfo.setDescription(description);
+            response.setWeather(List.of(weatherInfo));
+        }
+        if (hasTemperature()) {
+            WeatherResponse.TemperatureInfo temperatureInfo = new WeatherResponse.TemperatureInfo();
+            temperatureInfo.setTemp(temp);
+            temperatureInfo.setFeelsLike(feelsLike);
+            response.setTemperature(temperatureInfo);
+        }
+        if (hasWind()) {
+            WeatherResponse.WindInfo windInfo = new WeatherResponse.WindInfo();
+            windInfo.setSpeed(windSpeed);
+            response.setWind(windInfo);
+        }
+        if (hasSys()) {
+            WeatherResponse.SysInfo sysInfo = new WeatherResponse.SysInfo();
+            sysInfo.setSunrise(sunrise);
+            sysInfo.setSunset(sunset);
+            response.setSys(sysInfo);
+        }
+        response.setVisibility(visibility);
+        response.setDatetime(datetime);
+        response.setTimezone(timezone);
+        response.setName(name);
+        return response;
+    }
+
+    /**
+     * Returns a read-only {@link WeatherResponse} with the same content, whose setters, and those of its
+     * nested objects, throw {@link UnsupportedOperationException}. The view is built on the first call and
+     * the same instance is returned by every later one.
+     *
+     * @return the shared read-only weather response
+     */
+    public WeatherResponse asWeatherResponse() {
+        WeatherResponse current = view;
+        if (current == null) {
+            // Building the view twice under a race is harmless; readers then share whichever was stored last
+            current = new ReadOnlyWeatherResponse(this);
+            view = current;
+        }
+        return current;
+    }
+
+    private static String intern(String value) {
+        return value == null ? null : CONDITIONS.intern(value);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getMain() {
+        return main;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public double getTemp() {
+        return temp;
+    }
+
+    public double getFeelsLike() {
+        return feelsLike;
+    }
+
+    public double getWindSpeed() {
+        return windSpeed;
+    }
+
+    public long getDatetime() {
+        return datetime;
+    }
+
+    public long getSunrise() {
+        return sunrise;
+    }
+
+    public long getSunset() {
+        return sunset;
+    }
+
+    public int getVisibility() {
+        return visibility;
+    }
+
+    public int getTimezone() {
+        return timezone;
+    }
+
+    public boolean hasWeather() {
+        return (parts & HAS_WEATHER) != 0;
+    }
+
+    public boolean hasTemperature() {
+        return (parts & HAS_TEMPERATURE) != 0;
+    }
+
+    public boolean hasWind() {
+        return (parts & HAS_WIND) != 0;
+    }
+
+    public boolean hasSys() {
+        return (parts & HAS_SYS) != 0;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CompactWeatherResponse)) {
+            return false;
+        }
+        CompactWeatherResponse that = (CompactWeatherResponse) o;
+        return Double.compare(temp, that.temp) == 0
+                && Double.compare(feelsLike, that.feelsLike) == 0
+                && Double.compare(windSpeed, that.windSpeed) == 0
+                && datetime == that.datetime
+                && sunrise == that.sunrise
+                && sunset == that.sunset
+                && visibility == that.visibility
+                && timezone == that.timezone
+                && parts == that.parts
+                && Objects.equals(name, that.name)
+                && Objects.equals(main, that.main)
+                && Objects.equals(description, that.description);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, main, description, temp, feelsLike, windSpeed, datetime, sunrise, sunset,
+                visibility, timezone, parts);
+    }
+
+    @Override
+    public String toString() {
+        return "CompactWeatherResponse{" +
+                "name='" + name + '\'' +
+                ", main='" + main + '\'' +
+                ", description='" + description + '\'' +
+                ", temp=" + temp +
+                ", feelsLike=" + feelsLike +
+                ", windSpeed=" + windSpeed +
+                ", visibility=" + visibility +
+                ", datetime=" + datetime +
+                ", sunrise=" + sunrise +
+                ", sunset=" + sunset +
+                ", timezone=" + timezone +
+                '}';
+    }
+}
@@ -0,0 +1,144 @@
+package com.weather.model;
+
+import java.util.List;
+
+/**
+ * A {@link WeatherResponse} that rejects every change, so that one instance can be shared by all readers of
+ * a cache entry. The nested objects reject changes as well.
+ */
+final class ReadOnlyWeatherResponse extends WeatherResponse {
+    private final CompactWeatherResponse compact;
+
+    ReadOnlyWeatherResponse(CompactWeatherResponse compact) {
+        this.compact = compact;
+        if (compact.hasWeather()) {
+            super.setWeather(List.of(new ReadOnlyWeatherInfo(compact.getMain(), compact.getDescription())));
+        }
+        if (compact.hasTemperature()) {
+            super.setTemperature(new ReadOnlyTemperatureInfo(compact.getTemp(), compact.getFeelsLike()));
+        }
+        if (compact.hasWind()) {
+            super.setWind(new ReadOnlyWindInfo(compact.getWindSpeed()));
+        }
+        if (compact.hasSys()) {
+            super.setSys(new ReadOnlySysInfo(compact.getSunrise(), compact.getSunset()));
+        }
+        super.setVisibility(compact.getVisibility());
+        super.setDatetime(compact.getDatetime());
+        super.setTimezone(compact.getTimezone());
+        super.setName(compact.getName());
+    }
+
+    /**
+     * Returns the compact response this view was created from.
+     */
+    CompactWeatherResponse getCompact() {
+        return compact;
+    }
+
+    @Override
+    public void setWeather(List<WeatherInfo> weather) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setTemperature(TemperatureInfo temperature) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setVisibility(int visibility) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setWind(WindInfo wind) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setDatetime(long datetime) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setSys(SysInfo sys) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setTimezone(int timezone) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setName(String name) {
+        throw readOnly();
+    }
+
+    private static UnsupportedOperationException readOnly() {
+        return new UnsupportedOperationException("Cached weather responses are read-only");
+    }
+
+    private static final class ReadOnlyWeatherInfo extends WeatherInfo {
+        private ReadOnlyWeatherInfo(String main, String description) {
+            super.setMain(main);
+            super.setDescription(description);
+        }
+
+        @Override
+        public void setMain(String main) {
+            throw readOnly();
+        }
+
+        @Override
+        public void setDescription(String description) {
+            throw readOnly();
+        }
+    }
+
+    private static final class ReadOnlyTemperatureInfo extends TemperatureInfo {
+        private ReadOnlyTemperatureInfo(double temp, double feelsLike) {
+            super.setTemp(temp);
+            super.setFeelsLike(feelsLike);
+        }
+
+        @Override
+        public void setTemp(double temp) {
+            throw readOnly();
+        }
+
+        @Override
+        public void setFeelsLike(double feelsLike) {
+            throw readOnly();
+        }
+    }
+
+    private static final class ReadOnlyWindInfo extends WindInfo {
+        private ReadOnlyWindInfo(double speed) {
+            super.setSpeed(speed);
+        }
+
+        @Override
+        public void setSpeed(double speed) {
+            throw readOnly();
+        }
+    }
+
+    private static final class ReadOnlySysInfo extends SysInfo {
+        private ReadOnlySysInfo(long sunrise, long sunset) {
+            super.setSunrise(sunrise);
+            super.setSunset(sunset);
+        }
+
+        @Override
+        public void setSunrise(long sunrise) {
+            throw readOnly();
+        }
+
+        @Override
+        public void setSunset(long sunset) {
+            throw readOnly();
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.weather.model;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decodes OpenWeather API payloads straight into the SDK's response types with a streaming {@link JsonParser}.
+ * <p>
+ * Only the fields the SDK returns are read; everything else is skipped token by token, without
+ * building the intermediate {@link WeatherApiResponse} object graph. The result is the same as
+ * deserializing a {@link WeatherApiResponse} and passing it to {@link WeatherResponseConverter#convert}.
+ * </p>
+ */
+public final class WeatherResponseDecoder {
+
+    private WeatherResponseDecoder() {
+    }
+
+    /**
+     * Decodes a current weather payload into a {@link WeatherResponse}.
+     *
+     * @param parser the parser positioned before or at the start of the payload object
+     * @return the decoded weather response
+     * @throws IOException if the payload cannot be read or is not a JSON object
+     */
+    public static WeatherResponse decodeWeather(JsonParser parser) throws IOException {
+        startValue(parser, JsonToken.START_OBJECT);
+        return readCityWeather(parser).weather();
+    }
+
+    /**
+     * Decodes a current weather payload into a {@link CityWeather}, keeping the OpenWeather id of the city.
+     *
+     * @param parser the parser positioned before or at the start of the payload object
+     * @return the decoded weather response and city id
+     * @throws IOException if the payload cannot be read or is not a JSON object
+     */
+    public static CityWeather decodeCityWeather(JsonParser parser) throws IOException {
+        startValue(parser, JsonToken.START_OBJECT);
+        return readCityWeather(parser);
+    }
+
+    /**
+     * Decodes the payload of the group endpoint, which holds the current weather of several cities
+     * in its {@code list} array.
+     *
+     * @param parser the parser positioned before or at the start of the payload object
+     * @return the decoded weather responses and city ids, in payload order
+     * @throws IOException if the payload cannot be read or is not a JSON object
+     */
+    public static List<CityWeather> decodeGroup(JsonParser parser) throws IOException {
+        startValue(parser, JsonToken.START_OBJECT);
+        List<CityWeather> cities = new ArrayList<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if (!"list".equals(field) || value != JsonToken.START_ARRAY) {
+                parser.skipChildren();
+                continue;
+            }
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+                if (token == JsonToken.START_OBJECT) {
+                    cities.add(readCityWeather(parser));
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return cities;
+    }
+
+    private static CityWeather readCityWeather(JsonParser parser) throws IOException {
+        WeatherResponse response = new WeatherResponse();
+        long cityId = 0;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            switch (field) {
+                case "weather":
+                    readWeather(parser, response);
+                    break;
+                case "main":
+                    readTemperature(parser, response);
+                    break;
+                case "visibility":
+                    response.setVisibility(parser.getValueAsInt());
+                    break;
+                case "wind":
+                    readWind(parser, response);
+                    break;
+                case "dt":
+                    response.setDatetime(parser.getValueAsLong());
+                    break;
+                case "sys":
+                    readSys(parser, response);
+                    break;
+                case "timezone":
+                    response.setTimezone(parser.getValueAsInt());
+                    break;
+                case "name":
+                    response.setName(parser.getValueAsString());
+                    break;
+                case "id":
+                    cityId = parser.getValueAsLong();
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+        return new CityWeather(cityId, response);
+    }
+
+    /**
+     * Decodes a geocoding payload and returns its first city.
+     *
+     * @param parser the parser positioned before or at the start of the payload array
+     * @return the first city of the payload, or {@code null} if the payload is empty
+     * @throws IOException if the payload cannot be read or is not a JSON array
+     */
+    public static CityGeoResponse decodeFirstCityGeo(JsonParser parser) throws IOException {
+        startValue(parser, JsonToken.START_ARRAY);
+        CityGeoResponse first = null;
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+            if (first == null && token == JsonToken.START_OBJECT) {
+                first = readCityGeo(parser);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return first;
+    }
+
+    private static void readWeather(JsonParser parser, WeatherResponse response) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return;
+        }
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+            if (response.getWeather() != null || token != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+            WeatherResponse.WeatherInfo weatherInfo = new WeatherResponse.WeatherInfo();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+                if ("main".equals(field)) {
+                    weatherInfo.setMain(parser.getValueAsString());
+                } else if ("description".equals(field)) {
+                    weatherInfo.setDescription(parser.getValueAsString());
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            response.setWeather(List.of(weatherInfo));
+        }
+    }
+
+    private static void readTemperature(JsonParser parser, WeatherResponse response) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return;
+        }
+        WeatherResponse.TemperatureInfo temperatureInfo = new WeatherResponse.TemperatureInfo();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            if ("temp".equals(field)) {
+                temperatureInfo.setTemp(parser.getValueAsDouble());
+            } else if ("feels_like".equals(field)) {
+                temperatureInfo.setFeelsLike(parser.getValueAsDouble());
+            } else {
+                parser.skipChildren();
+            }
+        }
+        response.setTemperature(temperatureInfo);
+    }
+
+    private static void readWind(JsonParser parser, WeatherResponse response) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return;
+        }
+        WeatherResponse.WindInfo windInfo = new WeatherResponse.WindInfo();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            if ("speed".equals(field)) {
+                windInfo.setSpeed(parser.getValueAsDouble());
+            } else {
+                parser.skipChildren();
+            }
+        }
+        response.setWind(windInfo);
+    }
+
+    private static void readSys(JsonParser parser, WeatherResponse response) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return;
+        }
+        WeatherResponse.SysInfo sysInfo = new WeatherResponse.SysInfo();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            if ("sunrise".equals(field)) {
+                sysInfo.setSunrise(parser.getValueAsLong());
+            } else if ("sunset".equals(field)) {
+                sysInfo.setSunset(parser.getValueAsLong());
+            } else {
+                parser.skipChildren();
+            }
+        }
+        response.setSys(sysInfo);
+    }
+
+    private static CityGeoResponse readCityGeo(JsonParser parser) throws IOException {
+        CityGeoResponse cityGeo = new CityGeoResponse();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            switch (field) {
+                case "name":
+                    cityGeo.setName(parser.getValueAsString());
+                    break;
+                case "lat":
+                    cityGeo.setLat(parser.getValueAsDouble());
+                    break;
+                case "lon":
+                    cityGeo.setLon(parser.getValueAsDouble());
+                    break;
+                case "country":
+                    cityGeo.setCountry(parser.getValueAsString());
+                    break;
+                case "state":
+                    cityGeo.setState(parser.getValueAsString());
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+        return cityGeo;
+    }
+
+    private static void startValue(JsonParser parser, JsonToken expected) throws IOException {
+        JsonToken token = parser.currentToken() != null ? parser.currentToken() : parser.nextToken();
+        if (token != expected) {
+            throw new JsonParseException(parser, "Expected " + expected + " but found " + token);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.weather.model;
+
+/**
+ * A change of the weather of a city, published to the subscribers of the city.
+ *
+ * @param city     the cache key of the city, its lowercase name
+ * @param previous the weather last published for the city, or {@code null} if this is the first update
+ * @param current  the new weather of the city
+ */
+public record WeatherUpdate(String city, WeatherResponse previous, WeatherResponse current) {
+}
@@ -0,0 +1,341 @@
+package com.weather;
+
+import com.weather.apiClient.WeatherApiClient;
+import com.weather.cache.GuavaCacheWrapper;
+import com.weather.metrics.WeatherMetrics;
+import com.weather.model.CityGeoResponse;
+import com.weather.model.WeatherResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PollingServiceTest {
+
+    @Test
+    void adaptivePolling_RefreshesHotCitiesOftenAndIdleCitiesNever() throws InterruptedException {
+        // Given
+        Map<String, AtomicInteger> refreshes = new ConcurrentHashMap<>();
+        WeatherApiClient client = cityClient(cityName -> {
+            refreshes.computeIfAbsent(cityName, key -> new AtomicInteger()).incrementAndGet();
+            return new WeatherResponse();
+        });
+        GuavaCacheWrapper<String, WeatherResponse> cache = new GuavaCacheWrapper<>(10, TimeUnit.MINUTES, 10);
+        cache.put("hot", new WeatherResponse());
+        cache.put("cold", new WeatherResponse());
+        cache.put("idle", new WeatherResponse());
+        PollingService pollingService = new PollingService(cache, client, 400, TimeUnit.MILLISECONDS, 2, 0,
+                WeatherMetrics.noop(), true);
+        for (int i = 0; i < 64; i++) {
+            pollingService.recordAccess("hot");
+        }
+        pollingService.recordAccess("cold");
+
+        // When
+        pollingService.startPolling();
+        Thread.sleep(1_000);
+        pollingService.stopPolling();
+
+        // Then
+        assertTrue(refreshes.getOrDefault("hot", new AtomicInteger()).get() >= 2);
+        assertNull(refreshes.get("cold"));
+        assertNull(refreshes.get("idle"));
+    }
+
+    @Test
+    void stopPolling_WithSharedExecutors_LeavesExecutorsRunning() throws InterruptedException {
+        // Given
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        ExecutorService workers = Executors.newFixedThreadPool(2);
+        AtomicInteger refreshes = new AtomicInteger();
+        GuavaCacheWrapper<String, WeatherResponse> cache = new GuavaCacheWrapper<>(10, TimeUnit.MINUTES, 10);
+        cache.put("london", new WeatherResponse());
+        PollingService first = new PollingService(cache, cityClient(cityName -> {
+            refreshes.incrementAndGet();
+            return new WeatherResponse();
+        }), 100, TimeUnit.MILLISECONDS, scheduler, workers, 0, WeatherMetrics.noop(), false);
+        PollingService second = new PollingService(cache, cityClient(cityName -> new WeatherResponse()), 100,
+                TimeUnit.MILLISECONDS, scheduler, workers, 0, WeatherMetrics.noop(), false);
+        first.startPolling();
+        second.startPolling();
+
+        try {
+            // When
+            Thread.sleep(300);
+            first.stopPolling();
+            int refreshesAtStop = refreshes.get();
+            Thread.sleep(300);
+
+            // Then
+            assertTrue(refreshesAtStop > 0);
+            assertTrue(refreshes.get() <= refreshesAtStop + 1, "A stopped service should not keep polling");
+            assertFalse(scheduler.isShutdown());
+            assertFalse(workers.isShutdown());
+        } finally {
+            second.stopPolling();
+            scheduler.shutdownNow();
+            workers.shutdownNow();
+        }
+    }
+
+    @Test
+    void adaptivePolling_UnderSteadyStateDecay_RefreshesInProportionToAccessesPerInterval() {
+        // Given
+        Map<String, AtomicInteger> refreshes = new ConcurrentHashMap<>();
+        GuavaCacheWrapper<String, WeatherResponse> cache = new GuavaCacheWrapper<>(10, TimeUnit.MINUTES, 10);
+        Map<String, Integer> accessesPerInterval = Map.of("reference", 4, "twice", 8, "fourTimes", 16, "rare", 2);
+        accessesPerInterval.keySet().forEach(city -> cache.put(city, new WeatherResponse()));
+        ManualScheduler scheduler = new ManualScheduler();
+        PollingService pollingService = new PollingService(cache, countingClient(refreshes), 8, TimeUnit.MINUTES,
+                scheduler, scheduler, WeatherMetrics.noop(), true, scheduler::nanoTime);
+        pollingService.startPolling();
+        runIntervals(pollingService, scheduler, accessesPerInterval, 10);
+        refreshes.clear();
+
+        // When
+        runIntervals(pollingService, scheduler, accessesPerInterval, 40);
+
+        // Then
+        assertEquals(40, refreshes.get("reference").get());
+        assertEquals(80, refreshes.get("twice").get());
+        assertEquals(160, refreshes.get("fourTimes").get());
+        assertEquals(20, refreshes.get("rare").get(), 2);
+        pollingService.stopPolling();
+    }
+
+    @Test
+    void adaptivePolling_CityNoLongerAccessed_StopsBeingRefreshedAfterAboutLog2OfItsCountIntervals() {
+        // Given
+        Map<String, AtomicInteger> refreshes = new ConcurrentHashMap<>();
+        GuavaCacheWrapper<String, WeatherResponse> cache = new GuavaCacheWrapper<>(10, TimeUnit.HOURS, 10);
+        cache.put("london", new WeatherResponse());
+        ManualScheduler scheduler = new ManualScheduler();
+        PollingService pollingService = new PollingService(cache, countingClient(refreshes), 8, TimeUnit.MINUTES,
+                scheduler, scheduler, WeatherMetrics.noop(), true, scheduler::nanoTime);
+        pollingService.startPolling();
+        runIntervals(pollingService, scheduler, Map.of("london", 16), 10);
+
+        // When
+        runIntervals(pollingService, scheduler, Map.of(), 5);
+        int refreshesWhileDecaying = refreshes.get("london").getAndSet(0);
+        runIntervals(pollingService, scheduler, Map.of(), 10);
+
+        // Then
+        assertTrue(refreshesWhileDecaying > 0);
+        assertEquals(0, refreshes.get("london").get());
+        pollingService.stopPolling();
+    }
+
+    /**
+     * Runs the polling service for a number of polling intervals of 8 minutes, accessing every city evenly the
+     * given number of times per interval.
+     */
+    private static void runIntervals(PollingService pollingService, ManualScheduler scheduler,
+                                     Map<String, Integer> accessesPerInterval, int intervals) {
+        long tickNanos = TimeUnit.MINUTES.toNanos(8) / 4;
+        for (int tick = 1; tick <= intervals * 4; tick++) {
+            for (Map.Entry<String, Integer> city : accessesPerInterval.entrySet()) {
+                int accesses = tick * city.getValue() / 4 - (tick - 1) * city.getValue() / 4;
+                for (int i = 0; i < accesses; i++) {
+                    pollingService.recordAccess(city.getKey());
+                }
+            }
+            scheduler.advance(tickNanos);
+        }
+    }
+
+    private static WeatherApiClient countingClient(Map<String, AtomicInteger> refreshes) {
+        return cityClient(cityName -> {
+            refreshes.computeIfAbsent(cityName, key -> new AtomicInteger()).incrementAndGet();
+            return new WeatherResponse();
+        });
+    }
+
+    /**
+     * Returns a client answering city lookups with the given function, for tests that only refresh cities.
+     */
+    private static WeatherApiClient cityClient(CityLookup lookup) {
+        return new WeatherApiClient() {
+            @Override
+            public WeatherResponse getWeatherByCity(String cityName) throws Exception {
+                return lookup.get(cityName);
+            }
+
+            @Override
+            public WeatherResponse getWeatherByCoordinates(double lat, double lon) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public CityGeoResponse getCityGeo(String cityName) {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    private interface CityLookup {
+        WeatherResponse get(String cityName) throws Exception;
+    }
+
+    /**
+     * A scheduler whose time only moves when advanced, running due tasks in order on the advancing thread.
+     * Tasks submitted for execution run at once, so it also serves as a synchronous worker pool.
+     */
+    private static final class ManualScheduler extends AbstractExecutorService implements ScheduledExecutorService {
+        private final PriorityQueue<ManualTask> tasks = new PriorityQueue<>();
+        private long now;
+        private long sequence;
+        private boolean shutdown;
+
+        long nanoTime() {
+            return now;
+        }
+
+        void advance(long nanos) {
+            long until = now + nanos;
+            ManualTask task;
+            while ((task = tasks.peek()) != null && task.due <= until) {
+                tasks.poll();
+                now = task.due;
+                if (task.cancelled) {
+                    continue;
+                }
+                task.command.run();
+                if (task.period > 0 && !task.cancelled) {
+                    task.due += task.period;
+                    task.sequence = sequence++;
+                    tasks.add(task);
+                } else {
+                    task.done = true;
+                }
+            }
+            now = until;
+        }
+
+        @Override
+        public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+            return add(command, unit.toNanos(delay), 0);
+        }
+
+        @Override
+        public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period,
+                                                      TimeUnit unit) {
+            return add(command, unit.toNanos(initialDelay), unit.toNanos(period));
+        }
+
+        @Override
+        public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay,
+                                                         TimeUnit unit) {
+            return add(command, unit.toNanos(initialDelay), unit.toNanos(delay));
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+
+        @Override
+        public void shutdown() {
+            shutdown = true;
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            shutdown = true;
+            tasks.clear();
+            return List.of();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return shutdown;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return shutdown;
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return true;
+        }
+
+        private ManualTask add(Runnable command, long delayNanos, long periodNanos) {
+            ManualTask task = new ManualTask(command, now + delayNanos, periodNanos, sequence++);
+            tasks.add(task);
+            return task;
+        }
+
+        private final class ManualTask implements ScheduledFuture<Object> {
+            private final Runnable command;
+            private final long period;
+            private long due;
+            private long sequence;
+            private boolean cancelled;
+            private boolean done;
+
+            private ManualTask(Runnable command, long due, long period, long sequence) {
+                this.command = command;
+                this.due = due;
+                this.period = period;
+                this.sequence = sequence;
+            }
+
+            @Override
+            public long getDelay(TimeUnit unit) {
+                return unit.convert(due - now, TimeUnit.NANOSECONDS);
+            }
+
+            @Override
+            public int compareTo(Delayed other) {
+                ManualTask task = (ManualTask) other;
+                return due != task.due ? Long.compare(due, task.due) : Long.compare(sequence, task.sequence);
+            }
+
+            @Override
+            public boolean cancel(boolean mayInterruptIfRunning) {
+                cancelled = true;
+                return !done;
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return cancelled;
+            }
+
+            @Override
+            public boolean isDone() {
+                return done || cancelled;
+            }
+
+            @Override
+            public Object get() {
+                return null;
+            }
+
+            @Override
+            public Object get(long timeout, TimeUnit unit) {
+                return null;
+            }
+        }
+    }
+}
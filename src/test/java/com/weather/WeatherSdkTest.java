@@ -1,10 +1,50 @@
 package com.weather;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.weather.cache.FileSharedCacheStore;
+import com.weather.cache.GuavaCacheWrapper;
+import com.weather.concurrent.CircuitBreaker;
+import com.weather.exception.CityNotFoundException;
+import com.weather.exception.WeatherApiException;
+import com.weather.http.HttpClientWrapper;
+import com.weather.http.RateLimitConfig;
+import com.weather.http.ResilienceConfig;
+import com.weather.metrics.DefaultWeatherMetrics;
+import com.weather.metrics.WeatherMetrics;
+import com.weather.model.WeatherResponse;
+import com.weather.model.WeatherUpdate;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class WeatherSdkTest {
 
@@ -19,6 +59,11 @@ public class WeatherSdkTest {
                 .build();
     }
 
+    @AfterEach
+    void tearDown() {
+        weatherSdk.remove();
+    }
+
     @Test
     public void testDefaultSettings_AreSet_WhenOnlyApiKeyProvided() {
         assertEquals(TEST_API_KEY, weatherSdk.getApiKey());
@@ -28,4 +73,578 @@ public class WeatherSdkTest {
         assertEquals(10, weatherSdk.getPollingIntervalMinutes(), "Default polling interval should be 10 minutes");
 
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testGetWeather_MultipleCities_ReturnsSuccessesAndReportsFailures() {
+        // Given
+        WeatherSdk sdk = WeatherSdk.builder()
+                .setApiKey("bulk-api-key")
+                .setHttpClientWrapper(new StubHttpClientWrapper())
+                .setMaxConcurrentRequests(2)
+                .build();
+        Map<String, WeatherApiException> failures = new HashMap<>();
+
+        try {
+            // When
+            Map<String, WeatherResponse> results = sdk.getWeather(
+                    List.of("London", "Paris", "Atlantis", "Berlin", "London"), failures::put);
+
+            // Then
+            assertEquals(List.of("London", "Paris", "Berlin"), List.copyOf(results.keySet()));
+            assertEquals("paris", results.get("Paris").getName());
+            assertEquals(1, failures.size());
+            assertInstanceOf(CityNotFoundException.class, failures.get("Atlantis"));
+
+            DefaultWeatherMetrics metrics = (DefaultWeatherMetrics) sdk.getMetrics();
+            assertEquals(4, metrics.getCacheMisses());
+            assertEquals(4, metrics.getUpstreamCalls(WeatherMetrics.CallType.GEO));
+            assertEquals(3, metrics.getUpstreamCalls(WeatherMetrics.CallType.WEATHER));
+            assertEquals(0, metrics.getUpstreamErrors(WeatherMetrics.CallType.WEATHER));
+        } finally {
+            sdk.remove();
+        }
+    }
+
+    @Test
+    public void testGetWeather_MultipleCitiesOnVirtualThreads_ReturnsSuccessesAndReportsFailures() {
+        // Given
+        WeatherSdk sdk = WeatherSdk.builder()
+                .setApiKey("virtual-threads-api-key")
+                .setHttpClientWrapper(new StubHttpClientWrapper())
+                .setVirtualThreads(true)
+                .build();
+        Map<String, WeatherApiException> failures = new HashMap<>();
+
+        try {
+            // When
+            Map<String, WeatherResponse> results = sdk.getWeather(
+                    List.of("London", "Paris", "Atlantis", "Berlin"), failures::put);
+
+            // Then
+            assertTrue(sdk.isVirtualThreads());
+            assertEquals(List.of("London", "Paris", "Berlin"), List.copyOf(results.keySet()));
+            assertEquals("berlin", results.get("Berlin").getName());
+            assertInstanceOf(CityNotFoundException.class, failures.get("Atlantis"));
+        } finally {
+            sdk.remove();
+        }
+    }
+
+    @Test
+    public void testBuild_SameApiKeyConcurrently_CreatesOneInstance() throws Exception {
+        // Given
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<WeatherSdk>> builds = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            builds.add(executor.submit(() -> {
+                start.await();
+                return WeatherSdk.builder().setApiKey("racing-api-key").build();
+            }));
+        }
+
+        // When
+        start.countDown();
+        List<WeatherSdk> created = new ArrayList<>();
+        int rejected = 0;
+        for (Future<WeatherSdk> build : builds) {
+            try {
+                created.add(build.get());
+            } catch (ExecutionException e) {
+                assertInstanceOf(IllegalStateException.class, e.getCause());
+                rejected++;
+            }
+        }
+        executor.shutdown();
+
+        // Then
+        assertEquals(1, created.size());
+        assertEquals(threads - 1, rejected);
+        created.get(0).remove();
+    }
+
+    @Test
+    public void testBuild_CompactEntriesWithRefreshAheadOrSharedStore_IsRejected(@TempDir Path tempDir) {
+        // Given
+        WeatherSdk.Builder refreshAhead = WeatherSdk.builder()
+                .setApiKey("compact-api-key")
+                .setCompactCacheEntries(true)
+                .setCacheRefreshAfterMinutes(5);
+        WeatherSdk.Builder sharedStore = WeatherSdk.builder()
+                .setApiKey("compact-api-key")
+                .setCompactCacheEntries(true)
+                .setSharedCacheStore(new FileSharedCacheStore(tempDir), 30);
+
+        // When / Then
+        assertThrows(IllegalArgumentException.class, refreshAhead::build);
+        assertThrows(IllegalArgumentException.class, sharedStore::build);
+    }
+
+    @Test
+    public void testBuild_FailingHalfway_DoesNotKeepApiKeyReserved() {
+        // Given
+        WeatherSdk.Builder invalid = WeatherSdk.builder()
+                .setApiKey("failing-api-key")
+                .setPollingMode(true)
+                .setRequestBatching(50, 10);
+
+        // When
+        assertThrows(IllegalArgumentException.class, invalid::build);
+        WeatherSdk sdk = WeatherSdk.builder().setApiKey("failing-api-key").build();
+
+        // Then
+        assertEquals("failing-api-key", sdk.getApiKey());
+        sdk.remove();
+    }
+
+    @Test
+    public void testGetWeather_WithSharedResources_ApiKeysShareCacheAndKeepOwnMetrics() throws WeatherApiException {
+        // Given
+        SharedResources shared = SharedResources.builder()
+                .setHttpClientWrapper(new StubHttpClientWrapper())
+                .setWeatherCache(new GuavaCacheWrapper<>(10, TimeUnit.MINUTES, 100))
+                .build();
+        WeatherSdk first = WeatherSdk.builder()
+                .setApiKey("tenant-1-api-key")
+                .setSharedResources(shared)
+                .build();
+        WeatherSdk second = WeatherSdk.builder()
+                .setApiKey("tenant-2-api-key")
+                .setSharedResources(shared)
+                .setPollingMode(true)
+                .build();
+
+        try {
+            // When
+            first.getWeather("London");
+            first.remove();
+            WeatherResponse weather = second.getWeather("London");
+
+            // Then
+            assertEquals("london", weather.getName());
+            DefaultWeatherMetrics firstMetrics = (DefaultWeatherMetrics) first.getMetrics();
+            DefaultWeatherMetrics secondMetrics = (DefaultWeatherMetrics) second.getMetrics();
+            assertEquals(1, firstMetrics.getUpstreamCalls(WeatherMetrics.CallType.WEATHER));
+            assertEquals(0, secondMetrics.getUpstreamCalls(WeatherMetrics.CallType.WEATHER));
+            assertEquals(1, secondMetrics.getCacheHits());
+        } finally {
+            second.remove();
+            shared.close();
+        }
+    }
+
+    @Test
+    public void testGetWeather_BudgetExhaustedWithServeStalePolicy_ServesExpiredEntry() throws Exception {
+        // Given
+        WeatherSdk sdk = WeatherSdk.builder()
+                .setApiKey("stale-api-key")
+                .setHttpClientWrapper(new StubHttpClientWrapper())
+                .setCache(new GuavaCacheWrapper<>(50, TimeUnit.MILLISECONDS, 10))
+                .setRateLimitConfig(RateLimitConfig.builder()
+                        .setRequestsPerMinute(2)
+                        .setExhaustedPolicy(RateLimitConfig.ExhaustedPolicy.SERVE_STALE)
+                        .build())
+                .build();
+
+        try {
+            sdk.getWeather("London");
+            Thread.sleep(100);
+
+            // When
+            WeatherResponse weather = sdk.getWeather("London");
+
+            // Then
+            assertEquals("london", weather.getName());
+            assertEquals(1, sdk.getRateLimiter().getRejectedCount());
+            assertEquals(0, sdk.getRateLimiter().getRemainingMinuteBudget());
+        } finally {
+            sdk.remove();
+        }
+    }
+
+    @Test
+    public void testGetWeather_CircuitOpenWithServeStale_ServesExpiredEntry() throws Exception {
+        // Given
+        StubHttpClientWrapper upstream = new StubHttpClientWrapper();
+        WeatherSdk sdk = WeatherSdk.builder()
+                .setApiKey("circuit-api-key")
+                .setHttpClientWrapper(upstream)
+                .setCache(new GuavaCacheWrapper<>(50, TimeUnit.MILLISECONDS, 10))
+                .setResilienceConfig(ResilienceConfig.builder()
+                        .setWindow(2, 2)
+                        .setMaxRetries(0)
+                        .setServeStaleWhenOpen(true)
+                        .build())
+                .build();
+
+        try {
+            sdk.getWeather("London");
+            Thread.sleep(100);
+            upstream.failing = true;
+            assertThrows(WeatherApiException.class, () -> sdk.getWeather("London"));
+
+            // When
+            WeatherResponse weather = sdk.getWeather("London");
+
+            // Then
+            assertEquals("london", weather.getName());
+            assertEquals(CircuitBreaker.State.OPEN, sdk.getResilience().getCircuitBreakerState());
+        } finally {
+            sdk.remove();
+        }
+    }
+
+    @Test
+    public void testBuild_WithCacheSnapshot_RestartedSdkServesCachedCities(@TempDir Path tempDir) throws WeatherApiException {
+        // Given
+        Path snapshot = tempDir.resolve("weather-snapshot.bin");
+        WeatherSdk first = WeatherSdk.builder()
+                .setApiKey("snapshot-api-key")
+                .setHttpClientWrapper(new StubHttpClientWrapper())
+                .setCacheSnapshotFile(snapshot)
+                .build();
+        first.getWeather("London");
+        first.remove();
+
+        // When
+        WeatherSdk restarted = WeatherSdk.builder()
+                .setApiKey("snapshot-api-key")
+                .setHttpClientWrapper(new StubHttpClientWrapper())
+                .setCacheSnapshotFile(snapshot)
+                .build();
+
+        try {
+            // Then
+            assertEquals("london", restarted.getWeather("London").getName());
+            DefaultWeatherMetrics metrics = (DefaultWeatherMetrics) restarted.getMetrics();
+            assertEquals(1, metrics.getCacheHits());
+            assertEquals(0, metrics.getUpstreamCalls(WeatherMetrics.CallType.WEATHER));
+        } finally {
+            restarted.remove();
+        }
+    }
+
+    @Test
+    public void testBuild_WithCorruptCacheSnapshot_StartsCold(@TempDir Path tempDir) throws IOException {
+        // Given
+        Path snapshot = tempDir.resolve("weather-cache.bin");
+        Files.write(snapshot, new byte[]{0, 0, 0, 42});
+
+        // When
+        WeatherSdk sdk = WeatherSdk.builder()
+                .setApiKey("corrupt-snapshot-api-key")
+                .setHttpClientWrapper(new StubHttpClientWrapper())
+                .setCacheSnapshotFile(snapshot)
+                .build();
+
+        // Then
+        assertEquals("london", sdk.getWeather("London").getName());
+        sdk.remove();
+    }
+
+    @Test
+    public void testBuild_WithCorruptGeoCacheFile_StartsCold(@TempDir Path tempDir) throws Exception {
+        // Given
+        Path geoCacheFile = tempDir.resolve("geo-cache.bin");
+        Files.write(geoCacheFile, new byte[]{0, 0, 0, 42});
+
+        // When
+        WeatherSdk sdk = WeatherSdk.builder()
+                .setApiKey("corrupt-geo-cache-api-key")
+                .setHttpClientWrapper(new StubHttpClientWrapper())
+                .setGeoCacheFile(geoCacheFile)
+                .build();
+
+        // Then
+        assertEquals("london", sdk.getWeather("London").getName());
+        sdk.remove();
+    }
+
+    @Test
+    public void testRemove_GeoCacheFileNotWritable_StillReleasesApiKey(@TempDir Path tempDir) throws Exception {
+        // Given
+        Path directory = Files.createDirectory(tempDir.resolve("geo"));
+        WeatherSdk sdk = WeatherSdk.builder()
+                .setApiKey("unwritable-geo-cache-api-key")
+                .setHttpClientWrapper(new StubHttpClientWrapper())
+                .setGeoCacheFile(directory.resolve("geo-cache.bin"))
+                .build();
+        sdk.getWeather("London");
+        Files.walk(directory).sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+
+        // When
+        sdk.remove();
+
+        // Then
+        WeatherSdk rebuilt = WeatherSdk.builder()
+                .setApiKey("unwritable-geo-cache-api-key")
+                .setHttpClientWrapper(new StubHttpClientWrapper())
+                .build();
+        rebuilt.remove();
+    }
+
+    @Test
+    public void testGetWeather_WithSharedCacheStore_SecondNodeServesCityFetchedByFirst(@TempDir Path tempDir)
+            throws WeatherApiException {
+        // Given
+        WeatherSdk firstNode = WeatherSdk.builder()
+                .setApiKey("first-node-api-key")
+                .setHttpClientWrapper(new StubHttpClientWrapper())
+                .setSharedCacheStore(new FileSharedCacheStore(tempDir), 30)
+                .build();
+        WeatherSdk secondNode = WeatherSdk.builder()
+                .setApiKey("second-node-api-key")
+                .setHttpClientWrapper(new StubHttpClientWrapper())
+                .setSharedCacheStore(new FileSharedCacheStore(tempDir), 30)
+                .build();
+
+        try {
+            firstNode.getWeather("London");
+
+            // When
+            WeatherResponse weather = secondNode.getWeather("London");
+
+            // Then
+            assertEquals("london", weather.getName());
+            DefaultWeatherMetrics metrics = (DefaultWeatherMetrics) secondNode.getMetrics();
+            assertEquals(1, metrics.getCacheHits());
+            assertEquals(0, metrics.getUpstreamCalls(WeatherMetrics.CallType.WEATHER));
+        } finally {
+            firstNode.remove();
+            secondNode.remove();
+        }
+    }
+
+    @Test
+    public void testSubscribe_UncachedCity_PublishesFetchedWeatherAndCompletesOnRemove() throws Exception {
+        // Given
+        WeatherSdk sdk = WeatherSdk.builder()
+                .setApiKey("updates-api-key")
+                .setHttpClientWrapper(new StubHttpClientWrapper())
+                .build();
+        BlockingQueue<WeatherUpdate> received = new LinkedBlockingQueue<>();
+        CompletableFuture<Void> completed = new CompletableFuture<>();
+        sdk.getUpdates("London").subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(WeatherUpdate item) {
+                received.add(item);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                completed.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                completed.complete(null);
+            }
+        });
+
+        // When
+        WeatherUpdate update = received.poll(5, TimeUnit.SECONDS);
+        sdk.remove();
+
+        // Then
+        assertNotNull(update);
+        assertNull(update.previous());
+        assertEquals("london", update.current().getName());
+        completed.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testSubscribe_WithUpdateExecutor_DeliversUpdatesOnIt() throws Exception {
+        // Given
+        ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "listeners"));
+        WeatherSdk sdk = WeatherSdk.builder()
+                .setApiKey("update-executor-api-key")
+                .setHttpClientWrapper(new StubHttpClientWrapper())
+                .setUpdateExecutor(executor)
+                .build();
+        BlockingQueue<String> listenerThreads = new LinkedBlockingQueue<>();
+
+        try {
+            // When
+            sdk.subscribe("London", update -> listenerThreads.add(Thread.currentThread().getName()));
+
+            // Then
+            assertEquals("listeners", listenerThreads.poll(5, TimeUnit.SECONDS));
+        } finally {
+            sdk.remove();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testGetWeather_CityAndNearbyCoordinates_ShareOneGridCellFetch() throws WeatherApiException {
+        // Given
+        AtomicInteger weatherCalls = new AtomicInteger();
+        HttpClientWrapper stub = new HttpClientWrapper() {
+            @Override
+            public <T> T get(String url, Class<T> responseType) throws IOException {
+                if (url.contains("/geo/")) {
+                    return new ObjectMapper().readValue("[{\"lat\": 51.5073, \"lon\": -0.1276}]", responseType);
+                }
+                weatherCalls.incrementAndGet();
+                return new ObjectMapper().readValue("{\"name\": \"London\"}", responseType);
+            }
+        };
+        WeatherSdk sdk = WeatherSdk.builder()
+                .setApiKey("grid-api-key")
+                .setHttpClientWrapper(stub)
+                .setGridKeyedCityLookups(true)
+                .build();
+
+        try {
+            // When
+            WeatherResponse byCity = sdk.getWeather("London");
+            WeatherResponse byCoordinates = sdk.getWeather(51.5021, -0.1249);
+
+            // Then
+            assertEquals("London", byCity.getName());
+            assertEquals("London", byCoordinates.getName());
+            assertEquals(1, weatherCalls.get());
+        } finally {
+            sdk.remove();
+        }
+    }
+
+    @Test
+    public void testGetWeatherAsync_GridKeyedCityNotGeocodedYet_DoesNotBlockCaller() throws Exception {
+        // Given
+        CountDownLatch geocoded = new CountDownLatch(1);
+        HttpClientWrapper stub = new HttpClientWrapper() {
+            @Override
+            public <T> T get(String url, Class<T> responseType) throws Exception {
+                if (url.contains("/geo/")) {
+                    geocoded.await(5, TimeUnit.SECONDS);
+                    return new ObjectMapper().readValue("[{\"lat\": 51.5073, \"lon\": -0.1276}]", responseType);
+                }
+                return new ObjectMapper().readValue("{\"name\": \"London\"}", responseType);
+            }
+        };
+        WeatherSdk sdk = WeatherSdk.builder()
+                .setApiKey("grid-async-api-key")
+                .setHttpClientWrapper(stub)
+                .setGridKeyedCityLookups(true)
+                .build();
+
+        try {
+            // When
+            CompletableFuture<WeatherResponse> future = sdk.getWeatherAsync("London");
+
+            // Then
+            assertFalse(future.isDone());
+            geocoded.countDown();
+            assertEquals("London", future.get(5, TimeUnit.SECONDS).getName());
+        } finally {
+            sdk.remove();
+        }
+    }
+
+    @Test
+    public void testGetWeather_InterruptedWhileWaitingForInFlightRequest_RestoresInterruptFlag()
+            throws Exception {
+        // Given
+        CountDownLatch leading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        HttpClientWrapper stub = new HttpClientWrapper() {
+            @Override
+            public <T> T get(String url, Class<T> responseType) throws Exception {
+                if (url.contains("/geo/")) {
+                    return new ObjectMapper().readValue("[{\"lat\": 51.5073, \"lon\": -0.1276}]", responseType);
+                }
+                leading.countDown();
+                release.await(5, TimeUnit.SECONDS);
+                return new ObjectMapper().readValue("{\"name\": \"London\"}", responseType);
+            }
+        };
+        WeatherSdk sdk = WeatherSdk.builder()
+                .setApiKey("interrupted-api-key")
+                .setHttpClientWrapper(stub)
+                .build();
+        Thread leader = new Thread(() -> {
+            try {
+                sdk.getWeather("London");
+            } catch (WeatherApiException ignored) {
+            }
+        });
+        leader.start();
+
+        try {
+            assertTrue(leading.await(5, TimeUnit.SECONDS));
+            Thread.currentThread().interrupt();
+
+            // When
+            WeatherApiException e = assertThrows(WeatherApiException.class, () -> sdk.getWeather("London"));
+
+            // Then
+            assertTrue(Thread.interrupted(), "The interrupt flag should be restored");
+            assertEquals("Interrupted while fetching weather data", e.getMessage());
+        } finally {
+            Thread.interrupted();
+            release.countDown();
+            leader.join(5000);
+            sdk.remove();
+        }
+    }
+
+    @Test
+    public void testGetWeather_CityNameInCellKeyNamespace_IsRejectedWithoutSharingCellEntry()
+            throws WeatherApiException {
+        // Given
+        WeatherSdk sdk = WeatherSdk.builder()
+                .setApiKey("cell-key-api-key")
+                .setHttpClientWrapper(new StubHttpClientWrapper())
+                .setCoordinateGridDegrees(1)
+                .build();
+
+        try {
+            sdk.getWeather(1.5, 2.5);
+
+            // When / Then
+            assertThrows(IllegalArgumentException.class, () -> sdk.getWeather("@1,2"));
+            assertThrows(IllegalArgumentException.class, () -> sdk.getWeather("@x"));
+            assertThrows(IllegalArgumentException.class, () -> sdk.getWeatherAsync("@x"));
+            assertThrows(IllegalArgumentException.class, () -> sdk.getWeather(List.of("London", "@1,2")));
+            assertThrows(IllegalArgumentException.class, () -> sdk.subscribe("@1,2", update -> {
+            }));
+            assertEquals(1, sdk.getUpstreamFetchCount());
+        } finally {
+            sdk.remove();
+        }
+    }
+
+    /**
+     * Resolves every city except "Atlantis" and returns its lowercase name as the weather location name.
+     */
+    private static class StubHttpClientWrapper implements HttpClientWrapper {
+        private final ObjectMapper objectMapper = new ObjectMapper();
+        private final Map<String, String> citiesByLatitude = new HashMap<>();
+        private volatile boolean failing;
+
+        @Override
+        public synchronized <T> T get(String url, Class<T> responseType) throws IOException {
+            if (failing) {
+                throw new WeatherApiException("API request failed with status: 500", 500);
+            }
+            if (url.contains("/geo/")) {
+                String city = url.substring(url.indexOf("q=") + 2, url.indexOf('&')).toLowerCase();
+                if (city.equals("atlantis")) {
+                    return objectMapper.readValue("[]", responseType);
+                }
+                double latitude = citiesByLatitude.size() + 1;
+                citiesByLatitude.put(String.format("lat=%f", latitude), city);
+                return objectMapper.readValue("[{\"lat\": " + latitude + ", \"lon\": 0}]", responseType);
+            }
+            String latitude = url.substring(url.indexOf("lat="), url.indexOf('&'));
+            return objectMapper.readValue("{\"name\": \"" + citiesByLatitude.get(latitude) + "\"}", responseType);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.weather.apiClient;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.weather.cache.PersistentGeoCacheWrapper;
+import com.weather.exception.WeatherApiException;
+import com.weather.http.DefaultHttpClientWrapper;
+import com.weather.metrics.WeatherMetrics;
+import com.weather.model.WeatherResponse;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BatchingWeatherApiClientTest {
+
+    private static final String GROUP_PATH = "/data/2.5/group";
+
+    private WireMockServer wireMockServer;
+
+    @BeforeAll
+    void setup() {
+        wireMockServer = new WireMockServer(WireMockConfiguration.options().dynamicPort());
+        wireMockServer.start();
+    }
+
+    @AfterAll
+    void serverStop() {
+        wireMockServer.stop();
+    }
+
+    @BeforeEach
+    void stubCities() {
+        wireMockServer.resetAll();
+        stubCity("Paris", "48.850000", 2988507);
+        stubCity("Rome", "41.900000", 3169070);
+        stubCity("Oslo", "59.910000", 3143244);
+    }
+
+    @Test
+    void getWeatherByCityAsync_KnownCities_AreSentAsOneGroupRequest() throws Exception {
+        // Given
+        stubGroup("{\"cnt\":2,\"list\":[{\"id\":2988507,\"name\":\"Paris\"},{\"id\":3169070,\"name\":\"Rome\"}]}");
+        BatchingWeatherApiClient client = batchingClient(20, 200);
+        client.getWeatherByCity("Paris");
+        client.getWeatherByCity("Rome");
+
+        // When
+        CompletableFuture<WeatherResponse> paris = client.getWeatherByCityAsync("Paris");
+        CompletableFuture<WeatherResponse> rome = client.getWeatherByCityAsync("Rome");
+        CompletableFuture<WeatherResponse> parisAgain = client.getWeatherByCityAsync("PARIS");
+
+        // Then
+        assertEquals("Paris", paris.get(5, TimeUnit.SECONDS).getName());
+        assertEquals("Rome", rome.get(5, TimeUnit.SECONDS).getName());
+        assertSame(paris.get(), parisAgain.get());
+        wireMockServer.verify(1, getRequestedFor(urlPathEqualTo(GROUP_PATH))
+                .withQueryParam("id", equalTo("2988507,3169070")));
+        wireMockServer.verify(2, getRequestedFor(urlPathEqualTo("/data/2.5/weather")));
+        assertEquals(1, client.getBatchCount());
+        assertEquals(2, client.getBatchedLookupCount());
+    }
+
+    @Test
+    void getWeatherByCityAsync_BatchFull_IsSentBeforeWindowEnds() throws Exception {
+        // Given
+        stubGroup("{\"cnt\":3,\"list\":[{\"id\":2988507,\"name\":\"Paris\"},{\"id\":3169070,\"name\":\"Rome\"},"
+                + "{\"id\":3143244,\"name\":\"Oslo\"}]}");
+        BatchingWeatherApiClient client = batchingClient(2, 1_000);
+        for (String city : new String[]{"Paris", "Rome", "Oslo"}) {
+            client.getWeatherByCity(city);
+        }
+
+        // When
+        CompletableFuture<WeatherResponse> paris = client.getWeatherByCityAsync("Paris");
+        CompletableFuture<WeatherResponse> rome = client.getWeatherByCityAsync("Rome");
+        WeatherResponse firstBatchResponse = rome.get(500, TimeUnit.MILLISECONDS);
+        WeatherResponse oslo = client.getWeatherByCity("Oslo");
+
+        // Then
+        assertEquals("Paris", paris.get().getName());
+        assertEquals("Rome", firstBatchResponse.getName());
+        assertEquals("Oslo", oslo.getName());
+        assertEquals(2, client.getBatchCount());
+    }
+
+    @Test
+    void getWeatherByCity_CityMissingFromGroupResponse_Fails() throws Exception {
+        // Given
+        stubGroup("{\"cnt\":1,\"list\":[{\"id\":2988507,\"name\":\"Paris\"}]}");
+        BatchingWeatherApiClient client = batchingClient(20, 20);
+        client.getWeatherByCity("Paris");
+        client.getWeatherByCity("Rome");
+
+        // When
+        CompletableFuture<WeatherResponse> paris = client.getWeatherByCityAsync("Paris");
+        CompletableFuture<WeatherResponse> rome = client.getWeatherByCityAsync("Rome");
+
+        // Then
+        assertEquals("Paris", paris.get(5, TimeUnit.SECONDS).getName());
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> rome.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(WeatherApiException.class, exception.getCause());
+        assertEquals("Rome", client.getWeatherByCity("Rome").getName());
+        wireMockServer.verify(3, getRequestedFor(urlPathEqualTo("/data/2.5/weather")));
+    }
+
+    @Test
+    void constructor_BatchSizeAboveEndpointLimit_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> batchingClient(21, 5));
+    }
+
+    private BatchingWeatherApiClient batchingClient(int maxBatchSize, long windowMillis) {
+        DefaultWeatherApiClient delegate = new DefaultWeatherApiClient("key", new DefaultHttpClientWrapper(),
+                new PersistentGeoCacheWrapper(10), WeatherMetrics.noop(), wireMockServer.baseUrl());
+        return new BatchingWeatherApiClient(delegate, maxBatchSize, windowMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void stubCity(String name, String latitude, long cityId) {
+        wireMockServer.stubFor(get(urlPathEqualTo("/geo/1.0/direct"))
+                .withQueryParam("q", equalTo(name))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withBody("[{\"name\": \"" + name + "\", \"lat\": " + latitude + ", \"lon\": 10.0}]")));
+        wireMockServer.stubFor(get(urlPathEqualTo("/data/2.5/weather"))
+                .withQueryParam("lat", equalTo(latitude))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withBody("{\"id\": " + cityId + ", \"name\": \"" + name + "\"}")));
+    }
+
+    private void stubGroup(String body) {
+        wireMockServer.stubFor(get(urlPathEqualTo(GROUP_PATH))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withBody(body)));
+    }
+}
@@ -3,16 +3,38 @@ package com.weather.apiClient;
 import com.github.tomakehurst.wiremock.WireMockServer;
 import com.github.tomakehurst.wiremock.client.WireMock;
 import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.weather.exception.CircuitOpenException;
+import com.weather.exception.CityNotFoundException;
+import com.weather.exception.RateLimitExceededException;
 import com.weather.exception.TokenInvalidException;
 import com.weather.exception.WeatherApiException;
+import com.weather.cache.NegativeCache;
+import com.weather.cache.PersistentGeoCacheWrapper;
 import com.weather.http.DefaultHttpClientWrapper;
+import com.weather.http.HttpClientConfig;
+import com.weather.http.HttpClientWrapper;
+import com.weather.metrics.DefaultWeatherMetrics;
+import com.weather.metrics.WeatherMetrics;
+import com.weather.model.CityGeoResponse;
+import com.weather.model.CityWeather;
+import com.weather.model.WeatherResponse;
 import com.weather.model.WeatherApiResponse;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
 import static org.junit.jupiter.api.Assertions.*;
@@ -85,6 +107,302 @@ class DefaultWeatherApiClientTest {
         assertTrue(exception.getMessage().contains("API request failed with status: 500"));
     }
 
+    @Test
+    public void testGet_RateLimited_ThrowsRateLimitExceededExceptionWithRetryAfter() {
+        // Given
+        stubFor(get(urlEqualTo("/rate-limited"))
+                .willReturn(aResponse()
+                        .withStatus(429)
+                        .withHeader("Retry-After", "7")));
+
+        // When
+        RateLimitExceededException exception = assertThrows(RateLimitExceededException.class, () ->
+                httpClientWrapper.get(wireMockServer.baseUrl() + "/rate-limited", WeatherApiResponse.class));
+
+        // Then
+        assertEquals(429, exception.getStatusCode());
+        assertEquals(Duration.ofSeconds(7), exception.getRetryAfter());
+    }
+
+    @Test
+    public void testGetAsync_Success() throws Exception {
+        // Given
+        stubFor(get(urlEqualTo("/async"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody(getTestJsonResponse())));
+
+        // When
+        WeatherApiResponse response = httpClientWrapper
+                .getAsync(wireMockServer.baseUrl() + "/async", WeatherApiResponse.class)
+                .get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertEquals("Province of Turin", response.getName());
+        assertEquals(4.09, response.getWind().getSpeed());
+    }
+
+    @Test
+    public void testGetAsync_InvalidApiKey_CompletesWithTokenInvalidException() {
+        // Given
+        stubFor(get(urlEqualTo("/async-unauthorized"))
+                .willReturn(aResponse()
+                        .withStatus(401)));
+
+        // When
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> httpClientWrapper
+                .getAsync(wireMockServer.baseUrl() + "/async-unauthorized", WeatherApiResponse.class)
+                .get(5, TimeUnit.SECONDS));
+
+        // Then
+        assertInstanceOf(TokenInvalidException.class, exception.getCause());
+    }
+
+    @Test
+    public void testGetWeatherByCity_KnownCity_SkipsGeocoding() throws Exception {
+        // Given
+        AtomicInteger geoCalls = new AtomicInteger();
+        AtomicInteger weatherCalls = new AtomicInteger();
+        HttpClientWrapper stub = new HttpClientWrapper() {
+            @Override
+            public <T> T get(String url, Class<T> responseType) throws IOException {
+                if (url.contains("/geo/")) {
+                    geoCalls.incrementAndGet();
+                    return new ObjectMapper().readValue("[{\"lat\": 45.133, \"lon\": 7.367}]", responseType);
+                }
+                weatherCalls.incrementAndGet();
+                return new ObjectMapper().readValue(getTestJsonResponse(), responseType);
+            }
+        };
+        DefaultWeatherApiClient client = new DefaultWeatherApiClient("key", stub, new PersistentGeoCacheWrapper(10));
+
+        // When
+        client.getWeatherByCity("Turin");
+        client.getWeatherByCity("turin");
+
+        // Then
+        assertEquals(1, geoCalls.get());
+        assertEquals(2, weatherCalls.get());
+    }
+
+    @Test
+    public void testGetWeatherByCity_LegacyWrapperSupportingOnlyApiTypes_StillWorks() throws Exception {
+        // Given
+        HttpClientWrapper legacy = new HttpClientWrapper() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <T> T get(String url, Class<T> responseType) throws IOException {
+                ObjectMapper objectMapper = new ObjectMapper();
+                if (responseType == CityGeoResponse[].class) {
+                    return (T) objectMapper.readValue("[{\"lat\": 45.133, \"lon\": 7.367}]", CityGeoResponse[].class);
+                }
+                if (responseType == WeatherApiResponse.class) {
+                    return (T) objectMapper.readValue(getTestJsonResponse(), WeatherApiResponse.class);
+                }
+                throw new IllegalArgumentException("Unsupported response type: " + responseType);
+            }
+        };
+        DefaultWeatherApiClient client = new DefaultWeatherApiClient("key", legacy, new PersistentGeoCacheWrapper(10));
+
+        // When
+        WeatherResponse response = client.getWeatherByCity("Turin");
+        WeatherResponse asyncResponse = client.getWeatherByCityAsync("Paris").get(5, TimeUnit.SECONDS);
+        CityWeather cityWeather = client.getCityWeatherByCoordinatesAsync(45.133, 7.367).get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertEquals("Province of Turin", response.getName());
+        assertEquals(284.2, response.getTemperature().getTemp());
+        assertEquals("Province of Turin", asyncResponse.getName());
+        assertEquals(3165523, cityWeather.cityId());
+    }
+
+    @Test
+    public void testGetWeatherByCity_RejectedBeforeSending_IsNotRecordedAsUpstreamCall() {
+        // Given
+        AtomicInteger calls = new AtomicInteger();
+        HttpClientWrapper stub = new HttpClientWrapper() {
+            @Override
+            public <T> T get(String url, Class<T> responseType) throws WeatherApiException {
+                switch (calls.incrementAndGet()) {
+                    case 1:
+                        throw new RateLimitExceededException("Request budget exhausted", null, true);
+                    case 2:
+                        throw new CircuitOpenException("Circuit breaker is open");
+                    default:
+                        throw new RateLimitExceededException("API rate limit exceeded", null);
+                }
+            }
+        };
+        DefaultWeatherMetrics metrics = new DefaultWeatherMetrics();
+        DefaultWeatherApiClient client = new DefaultWeatherApiClient("key", stub, new PersistentGeoCacheWrapper(10),
+                metrics, HttpClientConfig.DEFAULT_BASE_URL, null);
+
+        // When
+        assertThrows(RateLimitExceededException.class, () -> client.getWeatherByCity("Turin"));
+        assertThrows(CircuitOpenException.class, () -> client.getWeatherByCity("Turin"));
+        assertThrows(RateLimitExceededException.class, () -> client.getWeatherByCity("Turin"));
+
+        // Then
+        assertEquals(1, metrics.getUpstreamCalls(WeatherMetrics.CallType.GEO));
+        assertEquals(1, metrics.getLatencyHistogram(WeatherMetrics.CallType.GEO, 429).getCount());
+    }
+
+    @Test
+    public void testGetWeatherByCity_RepeatedUnknownCity_StopsGeocodingIt() {
+        // Given
+        AtomicInteger geoCalls = new AtomicInteger();
+        HttpClientWrapper stub = new HttpClientWrapper() {
+            @Override
+            public <T> T get(String url, Class<T> responseType) throws IOException {
+                geoCalls.incrementAndGet();
+                return new ObjectMapper().readValue("[]", responseType);
+            }
+        };
+        NegativeCache unknownCities = new NegativeCache(1, TimeUnit.MINUTES, 100, 2);
+        DefaultWeatherApiClient client = new DefaultWeatherApiClient("key", stub, new PersistentGeoCacheWrapper(10),
+                WeatherMetrics.noop(), HttpClientConfig.DEFAULT_BASE_URL, unknownCities);
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            assertThrows(CityNotFoundException.class, () -> client.getWeatherByCity("Lodnon"));
+        }
+
+        // Then
+        assertEquals(2, geoCalls.get());
+        assertEquals(3, unknownCities.getHitCount());
+    }
+
+    @Test
+    public void testGet_GzipResponse_IsDecompressed() throws Exception {
+        // Given
+        stubFor(get(urlEqualTo("/gzip"))
+                .withHeader("Accept-Encoding", equalTo("gzip"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withHeader("Content-Encoding", "gzip")
+                        .withBody(gzip(getTestJsonResponse()))));
+
+        // When
+        WeatherApiResponse response = httpClientWrapper.get(wireMockServer.baseUrl() + "/gzip", WeatherApiResponse.class);
+        WeatherApiResponse asyncResponse = httpClientWrapper
+                .getAsync(wireMockServer.baseUrl() + "/gzip", WeatherApiResponse.class)
+                .get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertEquals("Province of Turin", response.getName());
+        assertEquals("Province of Turin", asyncResponse.getName());
+    }
+
+    @Test
+    public void testGet_SlowResponse_ThrowsHttpTimeoutException() {
+        // Given
+        stubFor(get(urlEqualTo("/slow"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withFixedDelay(2000)
+                        .withBody(getTestJsonResponse())));
+        DefaultHttpClientWrapper client = new DefaultHttpClientWrapper(HttpClientConfig.builder()
+                .setRequestTimeout(Duration.ofMillis(200))
+                .build());
+
+        // When
+        assertThrows(HttpTimeoutException.class,
+                () -> client.get(wireMockServer.baseUrl() + "/slow", WeatherApiResponse.class));
+    }
+
+    @Test
+    public void testGetWeatherByCity_CustomBaseUrl_SendsRequestsToIt() throws Exception {
+        // Given
+        stubFor(get(urlPathEqualTo("/geo/1.0/direct"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withBody("[{\"name\": \"Turin\", \"lat\": 45.133, \"lon\": 7.367}]")));
+        stubFor(get(urlPathEqualTo("/data/2.5/weather"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withBody(getTestJsonResponse())));
+        DefaultWeatherApiClient client = new DefaultWeatherApiClient("key", httpClientWrapper,
+                new PersistentGeoCacheWrapper(10), WeatherMetrics.noop(), wireMockServer.baseUrl() + "/");
+
+        // When
+        WeatherResponse response = client.getWeatherByCity("Turin");
+
+        // Then
+        assertEquals("Province of Turin", response.getName());
+        verify(getRequestedFor(urlPathEqualTo("/geo/1.0/direct")).withQueryParam("appid", equalTo("key")));
+    }
+
+    @Test
+    public void testGetWeatherByCity_NameWithSpaceAndAccent_IsUrlEncoded() throws Exception {
+        // Given
+        stubFor(get(urlPathEqualTo("/geo/1.0/direct"))
+                .withQueryParam("q", equalTo("São Paulo"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withBody("[{\"name\": \"São Paulo\", \"lat\": -23.5505, \"lon\": -46.6333}]")));
+        stubFor(get(urlPathEqualTo("/data/2.5/weather"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withBody(getTestJsonResponse())));
+        DefaultWeatherApiClient client = new DefaultWeatherApiClient("key", httpClientWrapper,
+                new PersistentGeoCacheWrapper(10), WeatherMetrics.noop(), wireMockServer.baseUrl());
+
+        // When
+        client.getWeatherByCity("São Paulo");
+
+        // Then
+        verify(getRequestedFor(urlPathEqualTo("/data/2.5/weather"))
+                .withQueryParam("lat", equalTo("-23.550500"))
+                .withQueryParam("lon", equalTo("-46.633300")));
+    }
+
+    @Test
+    public void testGetWeatherByCoordinates_GermanDefaultLocale_UsesDecimalPoint() throws Exception {
+        // Given
+        stubFor(get(urlPathEqualTo("/data/2.5/weather"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withBody(getTestJsonResponse())));
+        DefaultWeatherApiClient client = new DefaultWeatherApiClient("key", httpClientWrapper,
+                new PersistentGeoCacheWrapper(10), WeatherMetrics.noop(), wireMockServer.baseUrl());
+        Locale defaultLocale = Locale.getDefault();
+        Locale.setDefault(Locale.GERMANY);
+
+        try {
+            // When
+            client.getWeatherByCoordinates(52.52, 13.405);
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+
+        // Then
+        verify(getRequestedFor(urlPathEqualTo("/data/2.5/weather"))
+                .withQueryParam("lat", equalTo("52.520000"))
+                .withQueryParam("lon", equalTo("13.405000")));
+    }
+
+    @Test
+    public void testAppendDegrees_MatchesFixedPointFormat() {
+        for (double degrees : new double[]{0, 1, -1, 0.000001, -0.5, 45.133, -179.9999995, 89.123456}) {
+            // When
+            StringBuilder formatted = new StringBuilder();
+            DefaultWeatherApiClient.appendDegrees(formatted, degrees);
+
+            // Then
+            assertEquals(String.format(Locale.ROOT, "%f", degrees), formatted.toString());
+        }
+    }
+
+    private static byte[] gzip(String body) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(body.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+
     private String getTestJsonResponse() {
         return "{\n" +
                 "   \"coord\": {\n" +
@@ -0,0 +1,76 @@
+package com.weather.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CityKeyTest {
+
+    @Test
+    void of_SameName_ReturnsInternedKey() {
+        // When
+        CityKey first = CityKey.of("Paris");
+        CityKey second = CityKey.of("Paris");
+
+        // Then
+        assertSame(first, second);
+        assertEquals("paris", first.getKey());
+        assertEquals("Paris", first.getName());
+    }
+
+    @Test
+    void of_NamesDifferingInCase_ShareKeyString() {
+        // When
+        CityKey capitalized = CityKey.of("Madrid");
+        CityKey upperCase = CityKey.of("MADRID");
+
+        // Then
+        assertSame(capitalized.getKey(), upperCase.getKey());
+        assertEquals(capitalized, upperCase);
+        assertEquals(capitalized.hashCode(), upperCase.hashCode());
+    }
+
+    @Test
+    void of_AfterFloodOfDistinctNames_StillInternsRepeatedName() {
+        // Given
+        for (int i = 0; i < 20_000; i++) {
+            CityKey.of("Misspelled " + i);
+        }
+
+        // When
+        CityKey first = CityKey.of("Lyon");
+        CityKey second = CityKey.of("Lyon");
+
+        // Then
+        assertSame(first, second);
+    }
+
+    @Test
+    void getEncodedName_NonAsciiNameWithSpace_IsUrlEncoded() {
+        // When
+        CityKey cityKey = CityKey.of("São Paulo");
+
+        // Then
+        assertEquals("S%C3%A3o+Paulo", cityKey.getEncodedName());
+        assertEquals("são paulo", cityKey.getKey());
+    }
+
+    @Test
+    void getKey_TurkishDefaultLocale_IsLocaleIndependent() {
+        // Given
+        Locale defaultLocale = Locale.getDefault();
+        Locale.setDefault(new Locale("tr", "TR"));
+
+        try {
+            // When
+            CityKey cityKey = CityKey.of("IZMIR");
+
+            // Then
+            assertEquals("izmir", cityKey.getKey());
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+}
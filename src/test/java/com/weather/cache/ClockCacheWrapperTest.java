@@ -0,0 +1,128 @@
+package com.weather.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClockCacheWrapperTest {
+
+    @Test
+    void put_ThenGet_ReturnsValueUntilInvalidated() {
+        // Given
+        ClockCacheWrapper<String, String> cache = new ClockCacheWrapper<>(10, TimeUnit.MINUTES, 10);
+
+        // When
+        cache.put("london", "rain");
+        cache.put("london", "sun");
+
+        // Then
+        assertEquals("sun", cache.get("london"));
+        assertEquals(1, cache.size());
+        cache.invalidate("london");
+        assertNull(cache.get("london"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void get_EntryOlderThanExpirationTime_ReturnsNull() throws InterruptedException {
+        // Given
+        ClockCacheWrapper<String, String> cache = new ClockCacheWrapper<>(50, TimeUnit.MILLISECONDS, 10);
+        cache.put("london", "rain");
+
+        // When
+        Thread.sleep(100);
+
+        // Then
+        assertNull(cache.get("london"));
+        assertFalse(cache.getAllKeys().iterator().hasNext());
+    }
+
+    @Test
+    void put_FullCache_EvictsEntryNotReadSinceLastSweep() {
+        // Given
+        ClockCacheWrapper<String, String> cache = new ClockCacheWrapper<>(10, TimeUnit.MINUTES, 3);
+        cache.put("london", "rain");
+        cache.put("paris", "sun");
+        cache.put("berlin", "snow");
+        cache.get("paris");
+        cache.get("berlin");
+
+        // When
+        cache.put("rome", "sun");
+
+        // Then
+        assertEquals(3, cache.size());
+        assertNull(cache.get("london"));
+        assertEquals("sun", cache.get("paris"));
+        assertEquals("snow", cache.get("berlin"));
+        assertEquals("sun", cache.get("rome"));
+    }
+
+    @Test
+    void put_ManyDistinctKeys_NeverExceedsMaximumSize() {
+        // Given
+        ClockCacheWrapper<String, Integer> cache = new ClockCacheWrapper<>(10, TimeUnit.MINUTES, 100);
+
+        // When
+        for (int i = 0; i < 10_000; i++) {
+            cache.put("city-" + i, i);
+            cache.invalidate("city-" + (i - 50));
+        }
+
+        // Then
+        assertTrue(cache.size() <= 100);
+        assertEquals(9_999, cache.get("city-9999"));
+        List<String> keys = new ArrayList<>();
+        cache.getAllKeys().forEach(keys::add);
+        assertEquals(cache.size(), keys.size());
+    }
+
+    @Test
+    void get_ConcurrentWritesAndEvictions_NeverReturnsValueOfAnotherKey() throws Exception {
+        // Given
+        ClockCacheWrapper<Integer, Integer> cache = new ClockCacheWrapper<>(10, TimeUnit.MINUTES, 64);
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<Boolean>> readers = new ArrayList<>();
+
+        // When
+        Future<?> writer = executor.submit(() -> {
+            while (running.get()) {
+                int key = ThreadLocalRandom.current().nextInt(1024);
+                cache.put(key, key);
+            }
+        });
+        for (int i = 0; i < 3; i++) {
+            readers.add(executor.submit(() -> {
+                for (int n = 0; n < 200_000; n++) {
+                    int key = ThreadLocalRandom.current().nextInt(1024);
+                    Integer value = cache.get(key);
+                    if (value != null && value != key) {
+                        return false;
+                    }
+                }
+                return true;
+            }));
+        }
+
+        // Then
+        try {
+            for (Future<Boolean> reader : readers) {
+                assertTrue(reader.get(30, TimeUnit.SECONDS));
+            }
+        } finally {
+            running.set(false);
+            writer.get(5, TimeUnit.SECONDS);
+            executor.shutdownNow();
+        }
+    }
+}
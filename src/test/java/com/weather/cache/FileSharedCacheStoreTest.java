@@ -0,0 +1,104 @@
+package com.weather.cache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileSharedCacheStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void sweep_DeletesExpiredEntriesAndStaleTempFilesOnly() throws Exception {
+        // Given
+        FileSharedCacheStore store = new FileSharedCacheStore(tempDir, 1, TimeUnit.MINUTES);
+        store.put("london", new byte[]{1}, 50, TimeUnit.MILLISECONDS);
+        store.put("paris", new byte[]{2}, 10, TimeUnit.MINUTES);
+        Path staleTemp = tempFile(TimeUnit.MINUTES.toMillis(2));
+        Path freshTemp = tempFile(0);
+        Thread.sleep(100);
+
+        // When
+        int deleted = store.sweep();
+
+        // Then
+        assertEquals(2, deleted);
+        assertFalse(Files.exists(staleTemp));
+        assertTrue(Files.exists(freshTemp));
+        assertArrayEquals(new byte[]{2}, store.get("paris"));
+        assertEquals(2, fileCount());
+    }
+
+    @Test
+    void put_AfterSweepInterval_SweepsExpiredEntriesOfOtherKeysOnSweepExecutor() throws Exception {
+        // Given
+        List<Runnable> sweeps = new ArrayList<>();
+        FileSharedCacheStore store = new FileSharedCacheStore(tempDir, 100, TimeUnit.MILLISECONDS, sweeps::add);
+        store.put("london", new byte[]{1}, 50, TimeUnit.MILLISECONDS);
+        Thread.sleep(150);
+
+        // When
+        store.put("paris", new byte[]{2}, 10, TimeUnit.MINUTES);
+
+        // Then
+        assertEquals(2, fileCount());
+        assertEquals(1, sweeps.size());
+        sweeps.get(0).run();
+        assertEquals(1, fileCount());
+        assertArrayEquals(new byte[]{2}, store.get("paris"));
+    }
+
+    @Test
+    void put_WithinSweepInterval_KeepsExpiredEntriesOfOtherKeys() throws Exception {
+        // Given
+        List<Runnable> sweeps = new ArrayList<>();
+        FileSharedCacheStore store = new FileSharedCacheStore(tempDir, 10, TimeUnit.MINUTES, sweeps::add);
+        store.put("london", new byte[]{1}, 50, TimeUnit.MILLISECONDS);
+        Thread.sleep(100);
+
+        // When
+        store.put("paris", new byte[]{2}, 10, TimeUnit.MINUTES);
+
+        // Then
+        assertTrue(sweeps.isEmpty());
+        assertEquals(2, fileCount());
+    }
+
+    @Test
+    void get_ExpiredEntry_DeletesItWithoutLeavingFilesBehind() throws Exception {
+        // Given
+        FileSharedCacheStore store = new FileSharedCacheStore(tempDir);
+        store.put("london", new byte[]{1}, 50, TimeUnit.MILLISECONDS);
+        Thread.sleep(100);
+
+        // When
+        byte[] value = store.get("london");
+
+        // Then
+        assertNull(value);
+        assertEquals(0, fileCount());
+    }
+
+    private Path tempFile(long ageMillis) throws IOException {
+        Path file = Files.createTempFile(tempDir, "entry", ".tmp");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() - ageMillis));
+        return file;
+    }
+
+    private long fileCount() throws IOException {
+        try (Stream<Path> files = Files.list(tempDir)) {
+            return files.count();
+        }
+    }
+}
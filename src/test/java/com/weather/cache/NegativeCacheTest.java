@@ -0,0 +1,67 @@
+package com.weather.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NegativeCacheTest {
+
+    @Test
+    void recordMissing_KeyReportedOnce_IsNotAdmitted() {
+        // Given
+        NegativeCache cache = new NegativeCache(1, TimeUnit.MINUTES, 100, 2);
+
+        // When
+        cache.recordMissing("lodnon");
+
+        // Then
+        assertFalse(cache.contains("lodnon"));
+    }
+
+    @Test
+    void recordMissing_KeyReportedRepeatedly_IsAdmittedUntilInvalidated() {
+        // Given
+        NegativeCache cache = new NegativeCache(1, TimeUnit.MINUTES, 100, 2);
+
+        // When
+        cache.recordMissing("lodnon");
+        cache.recordMissing("lodnon");
+
+        // Then
+        assertTrue(cache.contains("lodnon"));
+        cache.invalidate("lodnon");
+        assertFalse(cache.contains("lodnon"));
+    }
+
+    @Test
+    void recordMissing_HighCardinalityGarbage_DoesNotEvictRepeatedKeys() {
+        // Given
+        NegativeCache cache = new NegativeCache(1, TimeUnit.MINUTES, 16, 2);
+        cache.recordMissing("lodnon");
+        cache.recordMissing("lodnon");
+
+        // When
+        for (int i = 0; i < 100; i++) {
+            cache.recordMissing("garbage-" + i);
+        }
+
+        // Then
+        assertTrue(cache.contains("lodnon"));
+        assertFalse(cache.contains("garbage-7"));
+    }
+
+    @Test
+    void contains_EntryExpired_ReturnsFalse() throws InterruptedException {
+        // Given
+        NegativeCache cache = new NegativeCache(50, TimeUnit.MILLISECONDS, 100, 1);
+        cache.recordMissing("lodnon");
+
+        // When
+        Thread.sleep(100);
+
+        // Then
+        assertFalse(cache.contains("lodnon"));
+    }
+}
@@ -0,0 +1,144 @@
+package com.weather.cache;
+
+import com.weather.model.WeatherResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapCacheWrapperTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void put_ThenGet_DecodesAllFields() {
+        // Given
+        OffHeapCacheWrapper cache = new OffHeapCacheWrapper(10, TimeUnit.MINUTES, 10);
+        WeatherResponse response = weather("São Paulo");
+
+        // When
+        cache.put("são paulo", response);
+
+        // Then
+        WeatherResponse cached = cache.get("são paulo");
+        assertEquals(response.toString(), cached.toString());
+        assertNotSame(cache.get("são paulo"), cached);
+        assertNull(cache.get("paris"));
+    }
+
+    @Test
+    void put_WithFile_UnexpiredEntriesSurviveRestart() {
+        // Given
+        Path file = tempDir.resolve("weather.bin");
+        OffHeapCacheWrapper cache = new OffHeapCacheWrapper(10, TimeUnit.MINUTES, 100, file);
+        cache.put("london", weather("London"));
+        cache.put("paris", weather("Paris"));
+        cache.invalidate("paris");
+        cache.flush();
+
+        // When
+        OffHeapCacheWrapper restored = new OffHeapCacheWrapper(10, TimeUnit.MINUTES, 100, file);
+
+        // Then
+        assertEquals("London", restored.get("london").getName());
+        assertNull(restored.get("paris"));
+        assertEquals(1, restored.size());
+        assertEquals(List.of("london"), restored.getAllKeys());
+    }
+
+    @Test
+    void put_FullCache_EvictsEntryNotReadRecently() {
+        // Given
+        OffHeapCacheWrapper cache = new OffHeapCacheWrapper(10, TimeUnit.MINUTES, 3);
+        cache.put("london", weather("London"));
+        cache.put("paris", weather("Paris"));
+        cache.put("berlin", weather("Berlin"));
+        cache.get("paris");
+        cache.get("berlin");
+
+        // When
+        cache.put("rome", weather("Rome"));
+
+        // Then
+        assertEquals(3, cache.size());
+        assertNull(cache.get("london"));
+        assertEquals("Paris", cache.get("paris").getName());
+        assertEquals("Rome", cache.get("rome").getName());
+    }
+
+    @Test
+    void put_ManyDistinctKeys_KeepsIndexConsistent() {
+        // Given
+        OffHeapCacheWrapper cache = new OffHeapCacheWrapper(10, TimeUnit.MINUTES, 50);
+
+        // When
+        for (int i = 0; i < 5_000; i++) {
+            cache.put("city-" + i, weather("City " + i));
+            if (i % 3 == 0) {
+                cache.invalidate("city-" + (i - 10));
+            }
+        }
+
+        // Then
+        assertTrue(cache.size() <= 50);
+        assertEquals("City 4999", cache.get("city-4999").getName());
+        for (String key : cache.getAllKeys()) {
+            assertEquals("City " + key.substring(5), cache.get(key).getName());
+        }
+    }
+
+    @Test
+    void get_EntryOlderThanExpirationTime_ReturnsNull() throws InterruptedException {
+        // Given
+        OffHeapCacheWrapper cache = new OffHeapCacheWrapper(50, TimeUnit.MILLISECONDS, 10);
+        cache.put("london", weather("London"));
+
+        // When
+        Thread.sleep(100);
+
+        // Then
+        assertNull(cache.get("london"));
+    }
+
+    @Test
+    void put_KeyTooLong_IsNotCached() {
+        // Given
+        OffHeapCacheWrapper cache = new OffHeapCacheWrapper(10, TimeUnit.MINUTES, 10);
+
+        // When
+        cache.put("x".repeat(200), weather("Long"));
+
+        // Then
+        assertNull(cache.get("x".repeat(200)));
+        assertEquals(0, cache.size());
+    }
+
+    private static WeatherResponse weather(String name) {
+        WeatherResponse response = new WeatherResponse();
+        WeatherResponse.WeatherInfo weatherInfo = new WeatherResponse.WeatherInfo();
+        weatherInfo.setMain("Rain");
+        weatherInfo.setDescription("moderate rain");
+        response.setWeather(List.of(weatherInfo));
+        WeatherResponse.TemperatureInfo temperatureInfo = new WeatherResponse.TemperatureInfo();
+        temperatureInfo.setTemp(284.2);
+        temperatureInfo.setFeelsLike(282.93);
+        response.setTemperature(temperatureInfo);
+        WeatherResponse.WindInfo windInfo = new WeatherResponse.WindInfo();
+        windInfo.setSpeed(4.09);
+        response.setWind(windInfo);
+        WeatherResponse.SysInfo sysInfo = new WeatherResponse.SysInfo();
+        sysInfo.setSunrise(1726636384);
+        sysInfo.setSunset(1726680975);
+        response.setSys(sysInfo);
+        response.setVisibility(10000);
+        response.setDatetime(1726660758);
+        response.setTimezone(7200);
+        response.setName(name);
+        return response;
+    }
+}
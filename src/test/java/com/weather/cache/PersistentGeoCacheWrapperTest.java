@@ -0,0 +1,113 @@
+package com.weather.cache;
+
+import com.weather.model.CityGeoResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PersistentGeoCacheWrapperTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void put_WithFile_EntriesSurviveRestart() {
+        // Given
+        Path file = tempDir.resolve("geo.bin");
+        PersistentGeoCacheWrapper cache = new PersistentGeoCacheWrapper(100, file);
+        cache.put("london", geo("London", 51.5073219, -0.1276474, "GB"));
+        cache.put("paris", geo("Paris", 48.8588897, 2.3200410, "FR"));
+        cache.invalidate("paris");
+
+        // When
+        PersistentGeoCacheWrapper restored = new PersistentGeoCacheWrapper(100, file);
+
+        // Then
+        CityGeoResponse london = restored.get("london");
+        assertNotNull(london);
+        assertEquals(51.5073219, london.getLat());
+        assertEquals(-0.1276474, london.getLon());
+        assertEquals("London", london.getName());
+        assertEquals("GB", london.getCountry());
+        assertNull(restored.get("paris"));
+    }
+
+    @Test
+    void put_WithFile_NullNameAndCountrySurviveRestart() {
+        // Given
+        Path file = tempDir.resolve("geo.bin");
+        PersistentGeoCacheWrapper cache = new PersistentGeoCacheWrapper(100, file);
+        cache.put("london", geo(null, 51.5, -0.12, null));
+
+        // When
+        PersistentGeoCacheWrapper restored = new PersistentGeoCacheWrapper(100, file);
+
+        // Then
+        assertNull(restored.get("london").getName());
+        assertNull(restored.get("london").getCountry());
+    }
+
+    @Test
+    void constructor_CorruptFile_StartsEmptyAndDiscardsFile() throws IOException {
+        // Given
+        Path file = tempDir.resolve("geo.bin");
+        PersistentGeoCacheWrapper cache = new PersistentGeoCacheWrapper(100, file);
+        cache.put("london", geo("London", 51.5, -0.12, "GB"));
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[0] ^= 0x7F;
+        Files.write(file, bytes);
+
+        // When
+        PersistentGeoCacheWrapper restored = new PersistentGeoCacheWrapper(100, file);
+
+        // Then
+        assertNull(restored.get("london"));
+        assertFalse(Files.exists(file));
+    }
+
+    @Test
+    void constructor_CorruptRecord_StartsEmpty() throws IOException {
+        // Given
+        Path file = tempDir.resolve("geo.bin");
+        PersistentGeoCacheWrapper cache = new PersistentGeoCacheWrapper(100, file);
+        cache.put("london", geo("London", 51.5, -0.12, "GB"));
+        byte[] bytes = Files.readAllBytes(file);
+        // An invalid modified UTF-8 byte in the key of the first record
+        bytes[7] = (byte) 0xFF;
+        Files.write(file, bytes);
+
+        // When
+        PersistentGeoCacheWrapper restored = new PersistentGeoCacheWrapper(100, file);
+
+        // Then
+        assertNull(restored.get("london"));
+        assertFalse(restored.getAllKeys().iterator().hasNext());
+    }
+
+    @Test
+    void put_WithoutFile_KeepsEntriesInMemory() {
+        // Given
+        PersistentGeoCacheWrapper cache = new PersistentGeoCacheWrapper(100);
+
+        // When
+        cache.put("london", geo("London", 51.5, -0.12, "GB"));
+
+        // Then
+        assertEquals(51.5, cache.get("london").getLat());
+        assertNull(cache.get("paris"));
+    }
+
+    private static CityGeoResponse geo(String name, double lat, double lon, String country) {
+        CityGeoResponse geo = new CityGeoResponse();
+        geo.setName(name);
+        geo.setLat(lat);
+        geo.setLon(lon);
+        geo.setCountry(country);
+        return geo;
+    }
+}
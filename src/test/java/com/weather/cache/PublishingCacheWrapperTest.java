@@ -0,0 +1,201 @@
+package com.weather.cache;
+
+import com.weather.model.WeatherResponse;
+import com.weather.model.WeatherUpdate;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PublishingCacheWrapperTest {
+
+    @Test
+    void put_SignificantChange_IsPublishedWithPreviousValue() throws InterruptedException {
+        // Given
+        PublishingCacheWrapper cache = publishingCache(16);
+        WeatherResponse before = weather("Clouds", 280.0);
+        cache.put("london", before);
+        BlockingQueue<WeatherUpdate> received = new LinkedBlockingQueue<>();
+        cache.subscribe("london", received::add);
+
+        // When
+        cache.put("london", weather("Clouds", 280.2));
+        WeatherResponse after = weather("Rain", 280.3);
+        cache.put("london", after);
+
+        // Then
+        WeatherUpdate update = received.poll(5, TimeUnit.SECONDS);
+        assertNotNull(update);
+        assertEquals("london", update.city());
+        assertSame(before, update.previous());
+        assertSame(after, update.current());
+        assertNull(received.poll(100, TimeUnit.MILLISECONDS));
+        assertEquals(1, cache.getPublishedCount());
+    }
+
+    @Test
+    void put_SmallChangesAddingUp_ArePublishedOnceThresholdReached() throws InterruptedException {
+        // Given
+        PublishingCacheWrapper cache = publishingCache(16);
+        cache.put("london", weather("Clouds", 280.0));
+        BlockingQueue<WeatherUpdate> received = new LinkedBlockingQueue<>();
+        cache.subscribe("london", received::add);
+
+        // When
+        cache.put("london", weather("Clouds", 280.3));
+        cache.put("london", weather("Clouds", 280.6));
+
+        // Then
+        WeatherUpdate update = received.poll(5, TimeUnit.SECONDS);
+        assertNotNull(update);
+        assertEquals(280.0, update.previous().getTemperature().getTemp());
+        assertEquals(280.6, update.current().getTemperature().getTemp());
+    }
+
+    @Test
+    void put_SubscriberNotRequesting_DropsUpdatesBeyondBuffer() {
+        // Given
+        PublishingCacheWrapper cache = publishingCache(1);
+        cache.getPublisher("london").subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+            }
+
+            @Override
+            public void onNext(WeatherUpdate item) {
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            cache.put("london", weather("Clouds", 280.0 + i));
+        }
+
+        // Then
+        assertEquals(5, cache.getPublishedCount());
+        assertEquals(4, cache.getDroppedCount());
+    }
+
+    @Test
+    void subscribe_Cancelled_StopsUpdates() throws InterruptedException {
+        // Given
+        PublishingCacheWrapper cache = publishingCache(16);
+        BlockingQueue<WeatherUpdate> received = new LinkedBlockingQueue<>();
+        Flow.Subscription subscription = cache.subscribe("london", received::add);
+        cache.put("london", weather("Clouds", 280.0));
+        assertNotNull(received.poll(5, TimeUnit.SECONDS));
+
+        // When
+        subscription.cancel();
+        cache.put("london", weather("Snow", 270.0));
+
+        // Then
+        assertNull(received.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void subscribe_LastSubscriberCancelled_DropsPublisherOfKey() {
+        // Given
+        PublishingCacheWrapper cache = publishingCache(16);
+        Flow.Subscription first = cache.subscribe("london", update -> {
+        });
+        Flow.Subscription second = cache.subscribe("london", update -> {
+        });
+        cache.subscribe("paris", update -> {
+        });
+
+        // When
+        first.cancel();
+        int keysAfterFirstCancel = cache.getSubscribedKeyCount();
+        second.cancel();
+
+        // Then
+        assertEquals(2, keysAfterFirstCancel);
+        assertEquals(1, cache.getSubscribedKeyCount());
+    }
+
+    @Test
+    void subscribe_AfterLastSubscriberCancelled_ReceivesUpdatesAgain() throws InterruptedException {
+        // Given
+        PublishingCacheWrapper cache = publishingCache(16);
+        cache.subscribe("london", update -> {
+        }).cancel();
+        BlockingQueue<WeatherUpdate> received = new LinkedBlockingQueue<>();
+
+        // When
+        cache.subscribe("london", received::add);
+        cache.put("london", weather("Clouds", 280.0));
+
+        // Then
+        assertNotNull(received.poll(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void getPublisher_SubscribedAfterClose_CompletesWithoutKeepingChannel() {
+        // Given
+        PublishingCacheWrapper cache = publishingCache(16);
+        Flow.Publisher<WeatherUpdate> publisher = cache.getPublisher("london");
+        cache.close();
+        AtomicBoolean completed = new AtomicBoolean();
+
+        // When
+        publisher.subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(1);
+            }
+
+            @Override
+            public void onNext(WeatherUpdate item) {
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+            }
+
+            @Override
+            public void onComplete() {
+                completed.set(true);
+            }
+        });
+
+        // Then
+        assertTrue(completed.get());
+        assertEquals(0, cache.getSubscribedKeyCount());
+    }
+
+    private static PublishingCacheWrapper publishingCache(int bufferCapacity) {
+        return new PublishingCacheWrapper(new GuavaCacheWrapper<>(10, TimeUnit.MINUTES, 10),
+                UpdateThresholds.defaults(), ForkJoinPool.commonPool(), bufferCapacity);
+    }
+
+    private static WeatherResponse weather(String condition, double temperature) {
+        WeatherResponse response = new WeatherResponse();
+        WeatherResponse.WeatherInfo weatherInfo = new WeatherResponse.WeatherInfo();
+        weatherInfo.setMain(condition);
+        weatherInfo.setDescription(condition.toLowerCase());
+        response.setWeather(List.of(weatherInfo));
+        WeatherResponse.TemperatureInfo temperatureInfo = new WeatherResponse.TemperatureInfo();
+        temperatureInfo.setTemp(temperature);
+        temperatureInfo.setFeelsLike(temperature);
+        response.setTemperature(temperatureInfo);
+        response.setVisibility(10000);
+        response.setName("London");
+        return response;
+    }
+}
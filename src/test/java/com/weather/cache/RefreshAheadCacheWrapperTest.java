@@ -0,0 +1,90 @@
+package com.weather.cache;
+
+import com.weather.apiClient.WeatherApiClient;
+import com.weather.model.CityGeoResponse;
+import com.weather.model.WeatherResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RefreshAheadCacheWrapperTest {
+
+    @Test
+    void get_EntryOlderThanSoftTtl_ReturnsStaleValueAndRefreshesInBackground() throws InterruptedException {
+        // Given
+        AtomicInteger refreshes = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        WeatherApiClient client = cityClient(cityName -> {
+            refreshes.incrementAndGet();
+            release.await();
+            return weather("refreshed " + cityName);
+        });
+        RefreshAheadCacheWrapper cache = new RefreshAheadCacheWrapper(client, 50, 10_000, TimeUnit.MILLISECONDS, 10);
+        cache.put("london", weather("stale london"));
+        Thread.sleep(100);
+
+        // When
+        WeatherResponse stale = cache.get("london");
+
+        // Then
+        assertEquals("stale london", stale.getName());
+        assertEquals("stale london", cache.get("london").getName());
+        release.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!"refreshed london".equals(cache.get("london").getName()) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals("refreshed london", cache.get("london").getName());
+        assertEquals(1, refreshes.get());
+    }
+
+    @Test
+    void get_EntryOlderThanHardTtl_ReturnsNull() throws InterruptedException {
+        // Given
+        WeatherApiClient client = cityClient(cityName -> weather("refreshed " + cityName));
+        RefreshAheadCacheWrapper cache = new RefreshAheadCacheWrapper(client, 10, 50, TimeUnit.MILLISECONDS, 10);
+        cache.put("london", weather("stale london"));
+
+        // When
+        Thread.sleep(100);
+
+        // Then
+        assertNull(cache.get("london"));
+    }
+
+    private static WeatherResponse weather(String name) {
+        WeatherResponse response = new WeatherResponse();
+        response.setName(name);
+        return response;
+    }
+
+    /**
+     * Returns a client answering city lookups with the given function, for tests that only refresh cities.
+     */
+    private static WeatherApiClient cityClient(CityLookup lookup) {
+        return new WeatherApiClient() {
+            @Override
+            public WeatherResponse getWeatherByCity(String cityName) throws Exception {
+                return lookup.get(cityName);
+            }
+
+            @Override
+            public WeatherResponse getWeatherByCoordinates(double lat, double lon) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public CityGeoResponse getCityGeo(String cityName) {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    private interface CityLookup {
+        WeatherResponse get(String cityName) throws Exception;
+    }
+}
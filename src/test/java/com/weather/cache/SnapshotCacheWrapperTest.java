@@ -0,0 +1,148 @@
+package com.weather.cache;
+
+import com.weather.model.WeatherResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotCacheWrapperTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void save_ThenLoad_RestoresEntriesAndKeys() {
+        // Given
+        Path file = tempDir.resolve("snapshot.bin");
+        SnapshotCacheWrapper cache = snapshotCache(10, TimeUnit.MINUTES, file);
+        cache.put("london", weather("London"));
+        cache.put("paris", weather("Paris"));
+        cache.invalidate("paris");
+        cache.save();
+
+        // When
+        SnapshotCacheWrapper restored = snapshotCache(10, TimeUnit.MINUTES, file);
+        int loaded = restored.load();
+
+        // Then
+        assertEquals(1, loaded);
+        assertEquals(weather("London").toString(), restored.get("london").toString());
+        assertNull(restored.get("paris"));
+        assertEquals(List.of("london"), toList(restored.getAllKeys()));
+    }
+
+    @Test
+    void load_RestoredEntry_ExpiresWhenOriginalValidityEnds() throws InterruptedException {
+        // Given
+        Path file = tempDir.resolve("snapshot.bin");
+        SnapshotCacheWrapper cache = snapshotCache(400, TimeUnit.MILLISECONDS, file);
+        cache.put("london", weather("London"));
+        Thread.sleep(200);
+        cache.save();
+
+        // When
+        SnapshotCacheWrapper restored = snapshotCache(400, TimeUnit.MILLISECONDS, file);
+        restored.load();
+
+        // Then
+        assertNotNull(restored.get("london"));
+        Thread.sleep(250);
+        assertNull(restored.get("london"));
+    }
+
+    @Test
+    void load_ExpiredEntries_AreSkipped() throws InterruptedException {
+        // Given
+        Path file = tempDir.resolve("snapshot.bin");
+        SnapshotCacheWrapper cache = snapshotCache(100, TimeUnit.MILLISECONDS, file);
+        cache.put("london", weather("London"));
+        cache.save();
+        Thread.sleep(150);
+
+        // When
+        int loaded = snapshotCache(100, TimeUnit.MILLISECONDS, file).load();
+
+        // Then
+        assertEquals(0, loaded);
+    }
+
+    @Test
+    void load_CorruptSnapshotFile_RestoresNothingAndDiscardsFile() throws IOException {
+        // Given
+        Path file = tempDir.resolve("snapshot.bin");
+        Files.write(file, new byte[]{1, 2, 3, 4, 5, 6, 7});
+        SnapshotCacheWrapper cache = snapshotCache(10, TimeUnit.MINUTES, file);
+
+        // When
+        int loaded = cache.load();
+
+        // Then
+        assertEquals(0, loaded);
+        assertFalse(Files.exists(file));
+    }
+
+    @Test
+    void load_TruncatedSnapshotFile_RestoresNothing() throws IOException {
+        // Given
+        Path file = tempDir.resolve("snapshot.bin");
+        SnapshotCacheWrapper cache = snapshotCache(10, TimeUnit.MINUTES, file);
+        cache.put("london", weather("London"));
+        cache.put("paris", weather("Paris"));
+        cache.save();
+        byte[] snapshot = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(snapshot, snapshot.length - 10));
+
+        // When
+        SnapshotCacheWrapper restored = snapshotCache(10, TimeUnit.MINUTES, file);
+        int loaded = restored.load();
+
+        // Then
+        assertEquals(0, loaded);
+        assertNull(restored.get("london"));
+    }
+
+    @Test
+    void load_NoSnapshotFile_RestoresNothing() {
+        // When
+        int loaded = snapshotCache(10, TimeUnit.MINUTES, tempDir.resolve("missing.bin")).load();
+
+        // Then
+        assertEquals(0, loaded);
+    }
+
+    private static SnapshotCacheWrapper snapshotCache(long validity, TimeUnit unit, Path file) {
+        return new SnapshotCacheWrapper(new GuavaCacheWrapper<>(10, TimeUnit.MINUTES, 100), validity, unit, file);
+    }
+
+    private static List<String> toList(Iterable<String> keys) {
+        List<String> list = new ArrayList<>();
+        keys.forEach(list::add);
+        return list;
+    }
+
+    private static WeatherResponse weather(String name) {
+        WeatherResponse response = new WeatherResponse();
+        WeatherResponse.WeatherInfo weatherInfo = new WeatherResponse.WeatherInfo();
+        weatherInfo.setMain("Rain");
+        weatherInfo.setDescription("moderate rain");
+        response.setWeather(List.of(weatherInfo));
+        WeatherResponse.TemperatureInfo temperatureInfo = new WeatherResponse.TemperatureInfo();
+        temperatureInfo.setTemp(284.2);
+        temperatureInfo.setFeelsLike(282.93);
+        response.setTemperature(temperatureInfo);
+        response.setVisibility(10000);
+        response.setDatetime(1726660758);
+        response.setTimezone(7200);
+        response.setName(name);
+        return response;
+    }
+}
@@ -0,0 +1,118 @@
+package com.weather.cache;
+
+import com.weather.model.WeatherResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TieredCacheWrapperTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void get_EntryWrittenByOtherProcess_IsReadThroughFromSharedStore() {
+        // Given
+        TieredCacheWrapper writer = tieredCache(new FileSharedCacheStore(tempDir), 10, TimeUnit.MINUTES);
+        TieredCacheWrapper reader = tieredCache(new FileSharedCacheStore(tempDir), 10, TimeUnit.MINUTES);
+        writer.put("london", weather("London"));
+
+        // When
+        WeatherResponse first = reader.get("london");
+        WeatherResponse second = reader.get("london");
+
+        // Then
+        assertEquals(weather("London").toString(), first.toString());
+        assertSame(first, second);
+        assertEquals(1, reader.getSharedHitCount());
+        assertEquals(1, reader.getLocalHitCount());
+    }
+
+    @Test
+    void get_SharedEntryExpired_IsMiss() throws InterruptedException {
+        // Given
+        TieredCacheWrapper writer = tieredCache(new FileSharedCacheStore(tempDir), 100, TimeUnit.MILLISECONDS);
+        TieredCacheWrapper reader = tieredCache(new FileSharedCacheStore(tempDir), 100, TimeUnit.MILLISECONDS);
+        writer.put("london", weather("London"));
+        Thread.sleep(200);
+
+        // When
+        WeatherResponse response = reader.get("london");
+
+        // Then
+        assertNull(response);
+        assertEquals(1, reader.getMissCount());
+    }
+
+    @Test
+    void invalidateCache_KeepsSharedEntries() {
+        // Given
+        TieredCacheWrapper cache = tieredCache(new FileSharedCacheStore(tempDir), 10, TimeUnit.MINUTES);
+        cache.put("london", weather("London"));
+
+        // When
+        cache.invalidateCache();
+
+        // Then
+        assertFalse(cache.getAllKeys().iterator().hasNext());
+        assertNotNull(cache.get("london"));
+        assertEquals(1, cache.getSharedHitCount());
+    }
+
+    @Test
+    void get_SharedStoreFailing_FallsBackToLocalTier() {
+        // Given
+        SharedCacheStore failing = new SharedCacheStore() {
+            @Override
+            public byte[] get(String key) {
+                throw new IllegalStateException("Connection refused");
+            }
+
+            @Override
+            public void put(String key, byte[] value, long expirationTime, TimeUnit timeUnit) {
+                throw new IllegalStateException("Connection refused");
+            }
+
+            @Override
+            public void invalidate(String key) {
+                throw new IllegalStateException("Connection refused");
+            }
+        };
+        TieredCacheWrapper cache = tieredCache(failing, 10, TimeUnit.MINUTES);
+
+        // When
+        cache.put("london", weather("London"));
+
+        // Then
+        assertNotNull(cache.get("london"));
+        assertNull(cache.get("paris"));
+        assertEquals(2, cache.getSharedErrorCount());
+    }
+
+    private static TieredCacheWrapper tieredCache(SharedCacheStore store, long sharedExpiration, TimeUnit unit) {
+        return new TieredCacheWrapper(new GuavaCacheWrapper<>(1, TimeUnit.MINUTES, 10), store,
+                sharedExpiration, unit);
+    }
+
+    private static WeatherResponse weather(String name) {
+        WeatherResponse response = new WeatherResponse();
+        WeatherResponse.WeatherInfo weatherInfo = new WeatherResponse.WeatherInfo();
+        weatherInfo.setMain("Clouds");
+        weatherInfo.setDescription("overcast clouds");
+        response.setWeather(List.of(weatherInfo));
+        WeatherResponse.TemperatureInfo temperatureInfo = new WeatherResponse.TemperatureInfo();
+        temperatureInfo.setTemp(288.1);
+        temperatureInfo.setFeelsLike(287.5);
+        response.setTemperature(temperatureInfo);
+        response.setVisibility(10000);
+        response.setDatetime(1726660758);
+        response.setTimezone(3600);
+        response.setName(name);
+        return response;
+    }
+}
@@ -0,0 +1,68 @@
+package com.weather.cache;
+
+import com.weather.model.WeatherResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UpdateThresholdsTest {
+
+    private final UpdateThresholds thresholds = UpdateThresholds.builder()
+            .setTemperatureDelta(1.0)
+            .setWindSpeedDelta(2.0)
+            .build();
+
+    @Test
+    void isSignificant_OnlyMeasurementTimeChanged_ReturnsFalse() {
+        // Given
+        WeatherResponse previous = weather("Clear", 290.0, 3.0);
+        WeatherResponse current = weather("Clear", 290.5, 4.0);
+        current.setDatetime(previous.getDatetime() + 600);
+
+        // When / Then
+        assertFalse(thresholds.isSignificant(previous, current));
+    }
+
+    @Test
+    void isSignificant_ThresholdReached_ReturnsTrue() {
+        WeatherResponse previous = weather("Clear", 290.0, 3.0);
+
+        assertTrue(thresholds.isSignificant(previous, weather("Clear", 291.0, 3.0)));
+        assertTrue(thresholds.isSignificant(previous, weather("Clear", 290.0, 5.0)));
+        assertTrue(thresholds.isSignificant(previous, weather("Rain", 290.0, 3.0)));
+        assertTrue(thresholds.isSignificant(null, previous));
+    }
+
+    @Test
+    void isSignificant_ConditionChangesDisabled_IgnoresCondition() {
+        // Given
+        UpdateThresholds numericOnly = UpdateThresholds.builder().setConditionChanges(false).build();
+
+        // When / Then
+        assertFalse(numericOnly.isSignificant(weather("Clear", 290.0, 3.0), weather("Rain", 290.0, 3.0)));
+    }
+
+    @Test
+    void build_NonPositiveThreshold_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> UpdateThresholds.builder().setTemperatureDelta(0).build());
+    }
+
+    private static WeatherResponse weather(String condition, double temperature, double windSpeed) {
+        WeatherResponse response = new WeatherResponse();
+        WeatherResponse.WeatherInfo weatherInfo = new WeatherResponse.WeatherInfo();
+        weatherInfo.setMain(condition);
+        response.setWeather(List.of(weatherInfo));
+        WeatherResponse.TemperatureInfo temperatureInfo = new WeatherResponse.TemperatureInfo();
+        temperatureInfo.setTemp(temperature);
+        temperatureInfo.setFeelsLike(temperature);
+        response.setTemperature(temperatureInfo);
+        WeatherResponse.WindInfo windInfo = new WeatherResponse.WindInfo();
+        windInfo.setSpeed(windSpeed);
+        response.setWind(windInfo);
+        response.setVisibility(10000);
+        response.setDatetime(1726660758);
+        return response;
+    }
+}
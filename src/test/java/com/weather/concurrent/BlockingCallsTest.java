@@ -0,0 +1,65 @@
+package com.weather.concurrent;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BlockingCallsTest {
+
+    @Test
+    void supplyAsync_RunsCallOnDedicatedDaemonThread() throws Exception {
+        // When
+        Thread thread = BlockingCalls.supplyAsync(Thread::currentThread).get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertFalse(thread instanceof ForkJoinWorkerThread);
+        assertTrue(thread.isDaemon());
+        assertTrue(thread.getName().startsWith("weather-blocking-call-"));
+    }
+
+    @Test
+    void supplyAsync_CheckedException_CompletesExceptionallyWithIt() {
+        // When
+        CompletableFuture<Object> future = BlockingCalls.supplyAsync(() -> {
+            throw new IOException("Connection reset");
+        });
+
+        // Then
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IOException.class, e.getCause());
+    }
+
+    @Test
+    void supplyAsync_MoreCallsThanThreads_RunsAtMostMaxThreadsAtOnce() throws Exception {
+        // Given
+        int calls = BlockingCalls.MAX_THREADS + 8;
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[calls];
+
+        // When
+        for (int i = 0; i < calls; i++) {
+            futures[i] = BlockingCalls.supplyAsync(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                release.await();
+                running.decrementAndGet();
+                return null;
+            });
+        }
+        Thread.sleep(200);
+        release.countDown();
+        CompletableFuture.allOf(futures).get(10, TimeUnit.SECONDS);
+
+        // Then
+        assertEquals(BlockingCalls.MAX_THREADS, maxRunning.get());
+    }
+}
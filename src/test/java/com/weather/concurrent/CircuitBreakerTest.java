@@ -0,0 +1,86 @@
+package com.weather.concurrent;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+
+    private static final long FAST = Duration.ofMillis(10).toNanos();
+    private static final long SLOW = Duration.ofSeconds(2).toNanos();
+
+    @Test
+    void onFailure_FailureRateReached_OpensAndRejectsCalls() {
+        // Given
+        CircuitBreaker breaker = new CircuitBreaker(10, 4, 0.5, 1.0, Duration.ofSeconds(1), Duration.ofMinutes(1));
+
+        // When
+        breaker.onSuccess(FAST);
+        breaker.onFailure(FAST);
+        breaker.onSuccess(FAST);
+        boolean permittedBeforeOpening = breaker.tryAcquirePermission();
+        breaker.onFailure(FAST);
+
+        // Then
+        assertTrue(permittedBeforeOpening);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquirePermission());
+    }
+
+    @Test
+    void onSuccess_SlowCallRateReached_Opens() {
+        // Given
+        CircuitBreaker breaker = new CircuitBreaker(10, 4, 1.0, 0.75, Duration.ofSeconds(1), Duration.ofMinutes(1));
+
+        // When
+        breaker.onSuccess(SLOW);
+        breaker.onSuccess(SLOW);
+        breaker.onSuccess(FAST);
+        breaker.onSuccess(SLOW);
+
+        // Then
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void tryAcquirePermission_OpenDurationElapsed_ClosesAfterSuccessfulTrialCalls() throws InterruptedException {
+        // Given
+        CircuitBreaker breaker = new CircuitBreaker(4, 2, 0.5, 1.0, Duration.ofSeconds(1), Duration.ofMillis(50));
+        breaker.onFailure(FAST);
+        breaker.onFailure(FAST);
+        Thread.sleep(100);
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            assertTrue(breaker.tryAcquirePermission());
+        }
+        boolean fourthTrialPermitted = breaker.tryAcquirePermission();
+        for (int i = 0; i < 3; i++) {
+            breaker.onSuccess(FAST);
+        }
+
+        // Then
+        assertFalse(fourthTrialPermitted);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.tryAcquirePermission());
+    }
+
+    @Test
+    void onFailure_DuringTrialCalls_OpensAgain() throws InterruptedException {
+        // Given
+        CircuitBreaker breaker = new CircuitBreaker(4, 2, 0.5, 1.0, Duration.ofSeconds(1), Duration.ofMillis(50));
+        breaker.onFailure(FAST);
+        breaker.onFailure(FAST);
+        Thread.sleep(100);
+
+        // When
+        assertTrue(breaker.tryAcquirePermission());
+        breaker.onFailure(FAST);
+
+        // Then
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquirePermission());
+    }
+}
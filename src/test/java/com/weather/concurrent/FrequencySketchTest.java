@@ -0,0 +1,60 @@
+package com.weather.concurrent;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FrequencySketchTest {
+
+    @Test
+    void frequency_CountsIncrementsPerKey() {
+        // Given
+        FrequencySketch sketch = new FrequencySketch(1024);
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            sketch.increment("london");
+        }
+        sketch.increment("paris");
+
+        // Then
+        assertEquals(10, sketch.frequency("london"));
+        assertEquals(1, sketch.frequency("paris"));
+        assertEquals(0, sketch.frequency("berlin"));
+    }
+
+    @Test
+    void halve_DecaysOldAccesses() {
+        // Given
+        FrequencySketch sketch = new FrequencySketch(1024);
+        for (int i = 0; i < 8; i++) {
+            sketch.increment("london");
+        }
+        sketch.increment("paris");
+
+        // When
+        sketch.halve();
+
+        // Then
+        assertEquals(4, sketch.frequency("london"));
+        assertEquals(0, sketch.frequency("paris"));
+    }
+
+    @Test
+    void frequency_ManyKeys_NeverUnderestimates() {
+        // Given
+        FrequencySketch sketch = new FrequencySketch(256);
+
+        // When
+        for (int key = 0; key < 2_000; key++) {
+            for (int n = 0; n <= key % 5; n++) {
+                sketch.increment(key);
+            }
+        }
+
+        // Then
+        for (int key = 0; key < 2_000; key++) {
+            assertTrue(sketch.frequency(key) >= key % 5 + 1);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.weather.concurrent;
+
+import com.weather.exception.CityNotFoundException;
+import com.weather.exception.WeatherApiException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    @Test
+    void execute_ConcurrentCallsForSameKey_RunLoaderOnce() throws Exception {
+        // Given
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        int callers = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+
+        // When
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            results.add(executor.submit(() -> singleFlight.execute("london", () -> {
+                loads.incrementAndGet();
+                release.await();
+                return "sunny";
+            }, 5, TimeUnit.SECONDS)));
+        }
+        while (singleFlight.getCoalescedCount() < callers - 1) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+
+        // Then
+        for (Future<String> result : results) {
+            assertEquals("sunny", result.get(5, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+        assertEquals(1, loads.get());
+        assertEquals(1, singleFlight.getExecutionCount());
+        assertEquals(callers - 1, singleFlight.getCoalescedCount());
+        assertEquals(0, singleFlight.getInFlightCount());
+    }
+
+    @Test
+    void execute_LoaderFails_FailureIsSharedWithWaiters() throws Exception {
+        // Given
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        Future<String> leader = executor.submit(() -> singleFlight.execute("atlantis", () -> {
+            release.await();
+            throw new CityNotFoundException("City not found: atlantis");
+        }, 5, TimeUnit.SECONDS));
+        while (singleFlight.getInFlightCount() == 0) {
+            Thread.sleep(5);
+        }
+        Future<String> waiter = executor.submit(
+                () -> singleFlight.execute("atlantis", () -> "unexpected", 5, TimeUnit.SECONDS));
+        while (singleFlight.getCoalescedCount() == 0) {
+            Thread.sleep(5);
+        }
+
+        // When
+        release.countDown();
+
+        // Then
+        ExecutionException leaderFailure = assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS));
+        ExecutionException waiterFailure = assertThrows(ExecutionException.class, () -> waiter.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(CityNotFoundException.class, leaderFailure.getCause());
+        assertInstanceOf(CityNotFoundException.class, waiterFailure.getCause());
+        executor.shutdown();
+    }
+
+    @Test
+    void execute_WaitExceedsTimeout_ThrowsWeatherApiException() throws Exception {
+        // Given
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        executor.submit(() -> singleFlight.execute("paris", () -> {
+            release.await();
+            return "cloudy";
+        }, 5, TimeUnit.SECONDS));
+        while (singleFlight.getInFlightCount() == 0) {
+            Thread.sleep(5);
+        }
+
+        // When
+        Exception exception = assertThrows(WeatherApiException.class,
+                () -> singleFlight.execute("paris", () -> "unexpected", 50, TimeUnit.MILLISECONDS));
+
+        // Then
+        assertTrue(exception.getMessage().contains("paris"));
+        release.countDown();
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,45 @@
+package com.weather.concurrent;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTest {
+
+    @Test
+    void tryAcquire_BucketEmpty_ReturnsFalse() {
+        // Given
+        TokenBucket bucket = new TokenBucket(3, 1, TimeUnit.HOURS);
+
+        // When
+        boolean first = bucket.tryAcquire();
+        bucket.tryAcquire();
+        bucket.tryAcquire();
+        boolean fourth = bucket.tryAcquire();
+
+        // Then
+        assertTrue(first);
+        assertFalse(fourth);
+        assertTrue(bucket.getAvailableTokens() < 1);
+    }
+
+    @Test
+    void acquire_BucketEmpty_WaitsForRefill() throws InterruptedException {
+        // Given
+        TokenBucket bucket = TokenBucket.perSecond(20);
+        for (int i = 0; i < 20; i++) {
+            bucket.acquire();
+        }
+
+        // When
+        long start = System.nanoTime();
+        bucket.acquire();
+        bucket.acquire();
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Then
+        assertTrue(elapsedMillis >= 50, "Expected to wait for two refills but waited " + elapsedMillis + " ms");
+    }
+}
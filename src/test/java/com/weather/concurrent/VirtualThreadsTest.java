@@ -0,0 +1,66 @@
+package com.weather.concurrent;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VirtualThreadsTest {
+
+    @Test
+    void newThreadPerTaskExecutor_RunsBlockedTasksConcurrently() throws Exception {
+        // Given
+        ExecutorService executor = VirtualThreads.newThreadPerTaskExecutor("test-worker");
+        int tasks = 500;
+        CountDownLatch started = new CountDownLatch(tasks);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try {
+            // When
+            for (int i = 0; i < tasks; i++) {
+                executor.execute(() -> {
+                    started.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+
+            // Then
+            assertTrue(started.await(10, TimeUnit.SECONDS), "All tasks should be blocked at the same time");
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void newThreadPerTaskExecutor_UsesVirtualThreads_WhenAvailable() throws Exception {
+        // Given
+        ExecutorService executor = VirtualThreads.newThreadPerTaskExecutor("test-worker");
+
+        try {
+            // When
+            Future<Thread> thread = executor.submit(Thread::currentThread);
+
+            // Then
+            if (VirtualThreads.isAvailable()) {
+                Method isVirtual = Thread.class.getMethod("isVirtual");
+                assertEquals(true, isVirtual.invoke(thread.get()));
+            } else {
+                assertTrue(thread.get().isDaemon());
+                assertEquals("test-worker", thread.get().getName());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
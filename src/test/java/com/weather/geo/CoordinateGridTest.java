@@ -0,0 +1,64 @@
+package com.weather.geo;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CoordinateGridTest {
+
+    @Test
+    void cellKey_NearbyCoordinates_ShareCell() {
+        // Given
+        CoordinateGrid grid = new CoordinateGrid(0.01);
+
+        // When
+        String first = grid.cellKey(51.5073, -0.1276);
+        String second = grid.cellKey(51.5021, -0.1249);
+
+        // Then
+        assertEquals(first, second);
+        assertNotEquals(first, grid.cellKey(51.5173, -0.1276));
+        assertTrue(CoordinateGrid.isCellKey(first));
+        assertFalse(CoordinateGrid.isCellKey("london"));
+    }
+
+    @Test
+    void centerOfCell_LiesWithinCell() {
+        // Given
+        CoordinateGrid grid = new CoordinateGrid(0.5);
+        String key = grid.cellKey(-33.87, 151.21);
+
+        // When
+        double lat = grid.centerLatitude(key);
+        double lon = grid.centerLongitude(key);
+
+        // Then
+        assertEquals(-33.75, lat, 1e-9);
+        assertEquals(151.25, lon, 1e-9);
+        assertEquals(key, grid.cellKey(lat, lon));
+    }
+
+    @Test
+    void cellKey_EdgesOfTheMap_StayInRange() {
+        // Given
+        CoordinateGrid grid = new CoordinateGrid(80);
+
+        // When
+        String north = grid.cellKey(90, 180);
+
+        // Then
+        assertEquals(grid.cellKey(89.9, -180), north);
+        assertTrue(grid.centerLatitude(north) <= 90);
+        assertTrue(grid.centerLongitude(grid.cellKey(0, 179.9)) <= 180);
+    }
+
+    @Test
+    void cellKey_InvalidCoordinates_Throws() {
+        // Given
+        CoordinateGrid grid = new CoordinateGrid(0.01);
+
+        // When / Then
+        assertThrows(IllegalArgumentException.class, () -> grid.cellKey(91, 0));
+        assertThrows(IllegalArgumentException.class, () -> grid.cellKey(0, Double.NaN));
+    }
+}
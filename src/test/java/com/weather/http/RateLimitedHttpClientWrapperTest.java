@@ -0,0 +1,123 @@
+package com.weather.http;
+
+import com.weather.exception.RateLimitExceededException;
+import com.weather.metrics.WeatherMetrics.CallType;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitedHttpClientWrapperTest {
+
+    private static final String GEO_URL = "https://api.openweathermap.org/geo/1.0/direct?q=London";
+    private static final String WEATHER_URL = "https://api.openweathermap.org/data/2.5/weather?lat=1&lon=2";
+
+    @Test
+    void get_MinuteBudgetExhaustedWithShedPolicy_RejectsRequest() throws Exception {
+        // Given
+        AtomicInteger sent = new AtomicInteger();
+        RateLimitedHttpClientWrapper rateLimiter = new RateLimitedHttpClientWrapper(countingClient(sent),
+                RateLimitConfig.builder()
+                        .setRequestsPerMinute(2)
+                        .setExhaustedPolicy(RateLimitConfig.ExhaustedPolicy.SHED)
+                        .build());
+
+        // When
+        rateLimiter.get(GEO_URL, String.class);
+        rateLimiter.get(WEATHER_URL, String.class);
+        RateLimitExceededException exception = assertThrows(RateLimitExceededException.class,
+                () -> rateLimiter.get(WEATHER_URL, String.class));
+
+        // Then
+        assertEquals(429, exception.getStatusCode());
+        assertNotNull(exception.getRetryAfter());
+        assertEquals(2, sent.get());
+        assertEquals(1, rateLimiter.getRequestCount(CallType.GEO));
+        assertEquals(1, rateLimiter.getRequestCount(CallType.WEATHER));
+        assertEquals(1, rateLimiter.getRejectedCount());
+        assertEquals(0, rateLimiter.getRemainingMinuteBudget());
+        assertEquals(Long.MAX_VALUE, rateLimiter.getRemainingMonthBudget());
+    }
+
+    @Test
+    void get_MinuteBudgetExhaustedWithQueuePolicy_WaitsForBudget() throws Exception {
+        // Given
+        RateLimitedHttpClientWrapper rateLimiter = new RateLimitedHttpClientWrapper(
+                countingClient(new AtomicInteger()),
+                RateLimitConfig.builder()
+                        .setRequestsPerMinute(1200)
+                        .setMaxQueueWait(Duration.ofSeconds(5))
+                        .build());
+        for (int i = 0; i < 1200; i++) {
+            rateLimiter.get(WEATHER_URL, String.class);
+        }
+
+        // When
+        long start = System.nanoTime();
+        rateLimiter.get(WEATHER_URL, String.class);
+        rateLimiter.get(WEATHER_URL, String.class);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Then
+        assertTrue(elapsedMillis >= 50, "Expected to wait for two refills but waited " + elapsedMillis + " ms");
+        assertEquals(0, rateLimiter.getRejectedCount());
+    }
+
+    @Test
+    void get_MonthBudgetExhausted_RejectsRequestEvenWhenQueueing() throws Exception {
+        // Given
+        RateLimitedHttpClientWrapper rateLimiter = new RateLimitedHttpClientWrapper(
+                countingClient(new AtomicInteger()),
+                RateLimitConfig.builder()
+                        .setRequestsPerMonth(1)
+                        .build());
+        rateLimiter.get(WEATHER_URL, String.class);
+
+        // When / Then
+        assertThrows(RateLimitExceededException.class, () -> rateLimiter.get(WEATHER_URL, String.class));
+        assertEquals(0, rateLimiter.getRemainingMonthBudget());
+    }
+
+    @Test
+    void getAsync_UpstreamRateLimited_HoldsBackFollowingRequests() {
+        // Given
+        AtomicInteger sent = new AtomicInteger();
+        HttpClientWrapper rateLimitedUpstream = new HttpClientWrapper() {
+            @Override
+            public <T> T get(String url, Class<T> responseType) {
+                sent.incrementAndGet();
+                throw new RateLimitExceededException("API rate limit exceeded", Duration.ofSeconds(30));
+            }
+        };
+        RateLimitedHttpClientWrapper rateLimiter = new RateLimitedHttpClientWrapper(rateLimitedUpstream,
+                RateLimitConfig.builder()
+                        .setExhaustedPolicy(RateLimitConfig.ExhaustedPolicy.SHED)
+                        .build());
+
+        // When
+        ExecutionException upstream = assertThrows(ExecutionException.class,
+                () -> rateLimiter.getAsync(WEATHER_URL, String.class).get());
+        ExecutionException heldBack = assertThrows(ExecutionException.class,
+                () -> rateLimiter.getAsync(WEATHER_URL, String.class).get());
+
+        // Then
+        assertInstanceOf(RateLimitExceededException.class, upstream.getCause());
+        RateLimitExceededException exception = assertInstanceOf(RateLimitExceededException.class, heldBack.getCause());
+        assertTrue(exception.getRetryAfter().compareTo(Duration.ofSeconds(25)) > 0);
+        assertEquals(1, sent.get());
+    }
+
+    private static HttpClientWrapper countingClient(AtomicInteger sent) {
+        return new HttpClientWrapper() {
+            @Override
+            public <T> T get(String url, Class<T> responseType) {
+                sent.incrementAndGet();
+                return responseType.cast(url);
+            }
+        };
+    }
+}
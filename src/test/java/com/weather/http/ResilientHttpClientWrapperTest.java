@@ -0,0 +1,126 @@
+package com.weather.http;
+
+import com.weather.concurrent.CircuitBreaker;
+import com.weather.exception.CircuitOpenException;
+import com.weather.exception.TokenInvalidException;
+import com.weather.exception.WeatherApiException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResilientHttpClientWrapperTest {
+
+    private static final String URL = "https://api.openweathermap.org/data/2.5/weather?lat=1&lon=2";
+
+    @Test
+    void get_ServerErrorThenSuccess_RetriesUntilSuccess() throws Exception {
+        // Given
+        AtomicInteger calls = new AtomicInteger();
+        HttpClientWrapper flaky = new HttpClientWrapper() {
+            @Override
+            public <T> T get(String url, Class<T> responseType) {
+                if (calls.incrementAndGet() < 3) {
+                    throw new WeatherApiException("API request failed with status: 503", 503);
+                }
+                return responseType.cast("ok");
+            }
+        };
+        ResilientHttpClientWrapper resilient = new ResilientHttpClientWrapper(flaky, ResilienceConfig.builder()
+                .setRetryBackoff(Duration.ofMillis(1), Duration.ofMillis(5))
+                .build());
+
+        // When
+        String response = resilient.get(URL, String.class);
+
+        // Then
+        assertEquals("ok", response);
+        assertEquals(3, calls.get());
+        assertEquals(2, resilient.getRetryCount());
+    }
+
+    @Test
+    void get_ClientError_IsNotRetried() {
+        // Given
+        AtomicInteger calls = new AtomicInteger();
+        HttpClientWrapper unauthorized = new HttpClientWrapper() {
+            @Override
+            public <T> T get(String url, Class<T> responseType) {
+                calls.incrementAndGet();
+                throw new TokenInvalidException("InvalidKey");
+            }
+        };
+        ResilientHttpClientWrapper resilient = new ResilientHttpClientWrapper(unauthorized,
+                ResilienceConfig.defaults());
+
+        // When / Then
+        assertThrows(TokenInvalidException.class, () -> resilient.get(URL, String.class));
+        assertEquals(1, calls.get());
+        assertEquals(CircuitBreaker.State.CLOSED, resilient.getCircuitBreakerState());
+    }
+
+    @Test
+    void get_UpstreamKeepsFailing_OpensCircuitAndFailsFast() {
+        // Given
+        AtomicInteger calls = new AtomicInteger();
+        HttpClientWrapper failing = new HttpClientWrapper() {
+            @Override
+            public <T> T get(String url, Class<T> responseType) {
+                calls.incrementAndGet();
+                throw new WeatherApiException("API request failed with status: 500", 500);
+            }
+        };
+        ResilientHttpClientWrapper resilient = new ResilientHttpClientWrapper(failing, ResilienceConfig.builder()
+                .setWindow(4, 4)
+                .setMaxRetries(0)
+                .build());
+        for (int i = 0; i < 4; i++) {
+            assertThrows(WeatherApiException.class, () -> resilient.get(URL, String.class));
+        }
+
+        // When / Then
+        assertThrows(CircuitOpenException.class, () -> resilient.get(URL, String.class));
+        assertEquals(4, calls.get());
+        assertEquals(CircuitBreaker.State.OPEN, resilient.getCircuitBreakerState());
+    }
+
+    @Test
+    void getAsync_SlowResponse_IsHedged() throws Exception {
+        // Given
+        AtomicInteger calls = new AtomicInteger();
+        HttpClientWrapper slowOnce = new HttpClientWrapper() {
+            @Override
+            public <T> T get(String url, Class<T> responseType) {
+                return responseType.cast("ok");
+            }
+
+            @Override
+            public <T> CompletableFuture<T> getAsync(String url, Class<T> responseType) {
+                if (calls.incrementAndGet() == 21) {
+                    return new CompletableFuture<T>().completeOnTimeout(responseType.cast("slow"), 5, TimeUnit.SECONDS);
+                }
+                return CompletableFuture.completedFuture(responseType.cast("ok"));
+            }
+        };
+        ResilientHttpClientWrapper resilient = new ResilientHttpClientWrapper(slowOnce, ResilienceConfig.builder()
+                .setHedging(true, 95)
+                .build());
+        for (int i = 0; i < 20; i++) {
+            resilient.getAsync(URL, String.class).get();
+        }
+
+        // When
+        long start = System.nanoTime();
+        String response = resilient.getAsync(URL, String.class).get(1, TimeUnit.SECONDS);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Then
+        assertEquals("ok", response);
+        assertTrue(elapsedMillis < 1_000);
+        assertEquals(1, resilient.getHedgeCount());
+    }
+}
@@ -0,0 +1,51 @@
+package com.weather.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    @Test
+    void getValueAtPercentile_ReturnsValueWithinBucketPrecision() {
+        // Given
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        // When
+        for (long micros = 1; micros <= 1000; micros++) {
+            histogram.record(micros * 1000);
+        }
+
+        // Then
+        assertEquals(1000, histogram.getCount());
+        assertEquals(1_000_000, histogram.getMaxNanos());
+        assertEquals(500_500, histogram.getMeanNanos(), 0.001);
+        assertEquals(500_000, histogram.getValueAtPercentile(50), 500_000 * 0.04);
+        assertEquals(950_000, histogram.getValueAtPercentile(95), 950_000 * 0.04);
+        assertEquals(1_000_000, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    void bucketIndex_BucketBoundsContainValue() {
+        long[] values = {0, 1, 31, 32, 63, 64, 1000, 123_456_789, 1L << 40};
+        for (long value : values) {
+            int index = LatencyHistogram.bucketIndex(value);
+            assertTrue(LatencyHistogram.bucketUpperBound(index) >= value, "upper bound below " + value);
+            assertTrue(index == 0 || LatencyHistogram.bucketUpperBound(index - 1) < value, "previous bucket holds " + value);
+        }
+    }
+
+    @Test
+    void reset_ClearsRecordedValues() {
+        // Given
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(42);
+
+        // When
+        histogram.reset();
+
+        // Then
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getValueAtPercentile(99));
+    }
+}
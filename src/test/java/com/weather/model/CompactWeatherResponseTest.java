@@ -0,0 +1,114 @@
+package com.weather.model;
+
+import com.weather.cache.CompactingCacheWrapper;
+import com.weather.cache.GuavaCacheWrapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactWeatherResponseTest {
+
+    @Test
+    void from_ThenToWeatherResponse_KeepsAllFields() {
+        // Given
+        WeatherResponse response = weather("Turin", new String("Rain"), new String("moderate rain"));
+
+        // When
+        CompactWeatherResponse compact = CompactWeatherResponse.from(response);
+        WeatherResponse expanded = compact.toWeatherResponse();
+
+        // Then
+        assertEquals(response.toString(), expanded.toString());
+        assertEquals(284.2, compact.getTemp());
+        assertEquals(4.09, compact.getWindSpeed());
+        assertEquals(1726636384, compact.getSunrise());
+    }
+
+    @Test
+    void from_MissingNestedObjects_StaysMissing() {
+        // Given
+        WeatherResponse response = new WeatherResponse();
+        response.setName("Nowhere");
+
+        // When
+        WeatherResponse expanded = CompactWeatherResponse.from(response).toWeatherResponse();
+
+        // Then
+        assertNull(expanded.getWeather());
+        assertNull(expanded.getTemperature());
+        assertNull(expanded.getWind());
+        assertNull(expanded.getSys());
+        assertEquals("Nowhere", expanded.getName());
+    }
+
+    @Test
+    void from_SameConditionsForDifferentCities_SharesConditionStrings() {
+        // When
+        CompactWeatherResponse turin = CompactWeatherResponse.from(weather("Turin", new String("Rain"), new String("moderate rain")));
+        CompactWeatherResponse milan = CompactWeatherResponse.from(weather("Milan", new String("Rain"), new String("moderate rain")));
+
+        // Then
+        assertSame(turin.getMain(), milan.getMain());
+        assertSame(turin.getDescription(), milan.getDescription());
+    }
+
+    @Test
+    void compactingCache_Get_ReturnsSharedReadOnlyView() {
+        // Given
+        CompactingCacheWrapper cache = new CompactingCacheWrapper(new GuavaCacheWrapper<>(10, TimeUnit.MINUTES, 10));
+        WeatherResponse response = weather("Turin", "Rain", "moderate rain");
+        cache.put("turin", response);
+
+        // When
+        WeatherResponse first = cache.get("turin");
+        WeatherResponse second = cache.get("turin");
+
+        // Then
+        assertSame(first, second);
+        assertEquals(response.toString(), first.toString());
+        assertThrows(UnsupportedOperationException.class, () -> first.setName("changed"));
+        assertThrows(UnsupportedOperationException.class, () -> first.getTemperature().setTemp(0));
+        assertThrows(UnsupportedOperationException.class, () -> first.getWeather().get(0).setMain("Snow"));
+        assertThrows(UnsupportedOperationException.class, () -> first.getWeather().clear());
+        assertEquals("Turin", cache.getCompact("turin").getName());
+    }
+
+    @Test
+    void from_ReadOnlyView_ReturnsCompactItWasCreatedFrom() {
+        // Given
+        CompactWeatherResponse compact = CompactWeatherResponse.from(weather("Turin", "Rain", "moderate rain"));
+
+        // When
+        CompactWeatherResponse again = CompactWeatherResponse.from(compact.asWeatherResponse());
+
+        // Then
+        assertSame(compact, again);
+    }
+
+    private static WeatherResponse weather(String name, String main, String description) {
+        WeatherResponse response = new WeatherResponse();
+        WeatherResponse.WeatherInfo weatherInfo = new WeatherResponse.WeatherInfo();
+        weatherInfo.setMain(main);
+        weatherInfo.setDescription(description);
+        response.setWeather(List.of(weatherInfo));
+        WeatherResponse.TemperatureInfo temperatureInfo = new WeatherResponse.TemperatureInfo();
+        temperatureInfo.setTemp(284.2);
+        temperatureInfo.setFeelsLike(282.93);
+        response.setTemperature(temperatureInfo);
+        WeatherResponse.WindInfo windInfo = new WeatherResponse.WindInfo();
+        windInfo.setSpeed(4.09);
+        response.setWind(windInfo);
+        WeatherResponse.SysInfo sysInfo = new WeatherResponse.SysInfo();
+        sysInfo.setSunrise(1726636384);
+        sysInfo.setSunset(1726680975);
+        response.setSys(sysInfo);
+        response.setVisibility(10000);
+        response.setDatetime(1726660758);
+        response.setTimezone(7200);
+        response.setName(name);
+        return response;
+    }
+}
@@ -0,0 +1,105 @@
+package com.weather.model;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WeatherResponseDecoderTest {
+
+    private static final String WEATHER_JSON = "{\"coord\":{\"lon\":7.367,\"lat\":45.133},"
+            + "\"weather\":[{\"id\":501,\"main\":\"Rain\",\"description\":\"moderate rain\",\"icon\":\"10d\"},"
+            + "{\"id\":701,\"main\":\"Mist\",\"description\":\"mist\",\"icon\":\"50d\"}],"
+            + "\"base\":\"stations\",\"main\":{\"temp\":284.2,\"feels_like\":282.93,\"temp_min\":283.06,"
+            + "\"temp_max\":286.82,\"pressure\":1021,\"humidity\":60,\"sea_level\":1021,\"grnd_level\":910},"
+            + "\"visibility\":10000,\"wind\":{\"speed\":4.09,\"deg\":121,\"gust\":3.47},\"rain\":{\"1h\":2.73},"
+            + "\"clouds\":{\"all\":83},\"dt\":1726660758,\"sys\":{\"type\":1,\"id\":6736,\"country\":\"IT\","
+            + "\"sunrise\":1726636384,\"sunset\":1726680975},\"timezone\":7200,\"id\":3165523,"
+            + "\"name\":\"Province of Turin\",\"cod\":200}";
+
+    private static final String GEO_JSON = "[{\"name\":\"London\",\"local_names\":{\"en\":\"London\",\"ru\":\"Лондон\"},"
+            + "\"lat\":51.5073219,\"lon\":-0.1276474,\"country\":\"GB\",\"state\":\"England\"},"
+            + "{\"name\":\"City of London\",\"lat\":51.5156177,\"lon\":-0.0919983,\"country\":\"GB\"}]";
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    @Test
+    void decodeWeather_MatchesConverterOutput() throws IOException {
+        // Given
+        WeatherResponse expected = WeatherResponseConverter.convert(
+                new ObjectMapper().readValue(WEATHER_JSON, WeatherApiResponse.class));
+
+        // When
+        WeatherResponse actual;
+        try (JsonParser parser = jsonFactory.createParser(WEATHER_JSON)) {
+            actual = WeatherResponseDecoder.decodeWeather(parser);
+        }
+
+        // Then
+        assertEquals(expected.toString(), actual.toString());
+        assertEquals("Rain", actual.getWeather().get(0).getMain());
+        assertEquals(284.2, actual.getTemperature().getTemp());
+        assertEquals(4.09, actual.getWind().getSpeed());
+        assertEquals(1726680975, actual.getSys().getSunset());
+    }
+
+    @Test
+    void decodeFirstCityGeo_ReturnsFirstCity() throws IOException {
+        // When
+        CityGeoResponse cityGeo;
+        try (JsonParser parser = jsonFactory.createParser(GEO_JSON)) {
+            cityGeo = WeatherResponseDecoder.decodeFirstCityGeo(parser);
+        }
+
+        // Then
+        assertEquals("London", cityGeo.getName());
+        assertEquals(51.5073219, cityGeo.getLat());
+        assertEquals(-0.1276474, cityGeo.getLon());
+        assertEquals("GB", cityGeo.getCountry());
+        assertNull(cityGeo.getLocalNames());
+    }
+
+    @Test
+    void decodeCityWeather_KeepsCityId() throws IOException {
+        // When
+        CityWeather cityWeather;
+        try (JsonParser parser = jsonFactory.createParser(WEATHER_JSON)) {
+            cityWeather = WeatherResponseDecoder.decodeCityWeather(parser);
+        }
+
+        // Then
+        assertEquals(3165523, cityWeather.cityId());
+        assertEquals("Province of Turin", cityWeather.weather().getName());
+    }
+
+    @Test
+    void decodeGroup_ReturnsEveryListedCity() throws IOException {
+        // Given
+        String groupJson = "{\"cnt\":2,\"list\":[" + WEATHER_JSON + ",{\"id\":2643743,\"name\":\"London\"}]}";
+
+        // When
+        List<CityWeather> cities;
+        try (JsonParser parser = jsonFactory.createParser(groupJson)) {
+            cities = WeatherResponseDecoder.decodeGroup(parser);
+        }
+
+        // Then
+        assertEquals(2, cities.size());
+        assertEquals(3165523, cities.get(0).cityId());
+        assertEquals(284.2, cities.get(0).weather().getTemperature().getTemp());
+        assertEquals(2643743, cities.get(1).cityId());
+        assertEquals("London", cities.get(1).weather().getName());
+    }
+
+    @Test
+    void decodeFirstCityGeo_EmptyArray_ReturnsNull() throws IOException {
+        try (JsonParser parser = jsonFactory.createParser("[]")) {
+            assertNull(WeatherResponseDecoder.decodeFirstCityGeo(parser));
+        }
+    }
+}